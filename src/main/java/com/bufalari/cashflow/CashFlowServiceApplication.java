@@ -1,9 +1,12 @@
 // Path: src/main/java/com/bufalari/cashflow/CashFlowServiceApplication.java
 package com.bufalari.cashflow;
 
+import com.bufalari.cashflow.config.NativeRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.openfeign.EnableFeignClients; // <<<--- IMPORT & ENABLE
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 // import org.springframework.data.jpa.repository.config.EnableJpaAuditing; // If using config class
 
 /**
@@ -12,6 +15,8 @@ import org.springframework.cloud.openfeign.EnableFeignClients; // <<<--- IMPORT
  */
 @SpringBootApplication
 @EnableFeignClients(basePackages = "com.bufalari.cashflow.client") // <<<--- ENABLE FEIGN
+@EnableScheduling // Background upstream sync
+@ImportRuntimeHints(NativeRuntimeHints.class) // AOT/native builds
 // @EnableJpaAuditing // If using config class
 public class CashFlowServiceApplication {
 
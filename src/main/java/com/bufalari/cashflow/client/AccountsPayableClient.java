@@ -1,5 +1,6 @@
 package com.bufalari.cashflow.client;
 
+import com.bufalari.cashflow.dto.PayableChangePageDTO;
 import com.bufalari.cashflow.dto.PayableSummaryDTO; // DTO neste serviço, já com ID UUID
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -9,7 +10,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import java.time.LocalDate;
 import java.util.List;
 
-@FeignClient(name = "accounts-payable-client-cf", url = "${payable.service.url}")
+@FeignClient(name = "accounts-payable-client-cf") // URL: spring.cloud.openfeign.client.config (resolved at runtime, also under AOT)
 public interface AccountsPayableClient {
 
     /**
@@ -35,4 +36,15 @@ public interface AccountsPayableClient {
     List<PayableSummaryDTO> getPendingPayablesSummaryByDueDateRange(
             @RequestParam("startDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam("endDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate);
-}
\ No newline at end of file
+
+    /**
+     * Fetches payables created, updated or deleted after a watermark, oldest change first.
+     * NOTE: This endpoint needs to be implemented in AccountsPayableService. A null 'since' starts from the beginning.
+     * Busca contas alteradas (criadas, atualizadas ou excluídas) após uma marca d'água, da mais antiga para a mais nova.
+     * NOTA: Este endpoint precisa ser implementado no AccountsPayableService. Um 'since' nulo começa do início.
+     */
+    @GetMapping("/api/payables/changes") // Endpoint sugerido a ser criado no AP
+    PayableChangePageDTO getPayableChangesSince(
+            @RequestParam(value = "since", required = false) String watermark,
+            @RequestParam("limit") int limit);
+}
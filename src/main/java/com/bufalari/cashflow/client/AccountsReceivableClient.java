@@ -1,5 +1,6 @@
 package com.bufalari.cashflow.client;
 
+import com.bufalari.cashflow.dto.ReceivableChangePageDTO;
 import com.bufalari.cashflow.dto.ReceivableSummaryDTO; // DTO neste serviço, já com ID UUID
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -9,7 +10,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import java.time.LocalDate;
 import java.util.List;
 
-@FeignClient(name = "accounts-receivable-client-cf", url = "${receivable.service.url}")
+@FeignClient(name = "accounts-receivable-client-cf") // URL: spring.cloud.openfeign.client.config (resolved at runtime, also under AOT)
 public interface AccountsReceivableClient {
 
     /**
@@ -39,4 +40,15 @@ public interface AccountsReceivableClient {
     List<ReceivableSummaryDTO> getPendingReceivablesSummaryByDueDateRange(
             @RequestParam("startDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam("endDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate);
-}
\ No newline at end of file
+
+    /**
+     * Fetches receivables created, updated or deleted after a watermark, oldest change first.
+     * NOTE: This endpoint needs to be implemented in AccountsReceivableService. A null 'since' starts from the beginning.
+     * Busca contas alteradas (criadas, atualizadas ou excluídas) após uma marca d'água, da mais antiga para a mais nova.
+     * NOTA: Este endpoint precisa ser implementado no AccountsReceivableService. Um 'since' nulo começa do início.
+     */
+    @GetMapping("/api/receivables/changes") // Endpoint sugerido a ser criado no AR
+    ReceivableChangePageDTO getReceivableChangesSince(
+            @RequestParam(value = "since", required = false) String watermark,
+            @RequestParam("limit") int limit);
+}
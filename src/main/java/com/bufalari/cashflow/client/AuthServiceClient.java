@@ -6,7 +6,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 
 // <<< AJUSTE NO NOME E URL >>>
-@FeignClient(name = "auth-service-client-cashflow", url = "${auth.service.url}")
+@FeignClient(name = "auth-service-client-cashflow") // URL: spring.cloud.openfeign.client.config (resolved at runtime, also under AOT)
 public interface AuthServiceClient {
 
     // <<< AJUSTE NO PATH >>>
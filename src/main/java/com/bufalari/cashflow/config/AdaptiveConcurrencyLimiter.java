@@ -0,0 +1,87 @@
+package com.bufalari.cashflow.config;
+
+/**
+ * AIMD (additive increase, multiplicative decrease) concurrency limit for one endpoint group.
+ * The limit grows by one after a fast response while the group was using at least half of it, and is multiplied by
+ * the backoff ratio after a response slower than the latency threshold or a server error. Requests beyond the
+ * current limit are rejected immediately instead of queueing.
+ * Limite de concorrência AIMD (aumento aditivo, redução multiplicativa) para um grupo de endpoints.
+ * O limite cresce em um após uma resposta rápida enquanto o grupo usava pelo menos metade dele, e é multiplicado pela
+ * razão de recuo após uma resposta mais lenta que o limiar de latência ou um erro de servidor. Requisições além do
+ * limite atual são rejeitadas imediatamente em vez de enfileirar.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double LATENCY_SMOOTHING = 0.1; // EWMA weight of the newest sample
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+
+    // Guarded by "this"
+    private double limit;
+    private int inFlight;
+    private double smoothedLatencyNanos;
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+                                      long latencyThresholdMillis, double backoffRatio) {
+        this.name = name;
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.latencyThresholdNanos = latencyThresholdMillis * 1_000_000L;
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+    }
+
+    /**
+     * Takes a slot if the group is below its limit. / Ocupa uma vaga se o grupo estiver abaixo do limite.
+     * @return True if admitted (release must follow). / Verdadeiro se admitido (release deve ser chamado depois).
+     */
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Frees a slot and adjusts the limit from the observed outcome.
+     * Libera uma vaga e ajusta o limite a partir do resultado observado.
+     * @param latencyNanos Time the request held its slot. / Tempo em que a requisição ocupou a vaga.
+     * @param overloaded Server error or timeout (treated like a slow response). / Erro de servidor ou timeout.
+     */
+    public synchronized void release(long latencyNanos, boolean overloaded) {
+        boolean wasUtilized = inFlight * 2 >= limit;
+        inFlight--;
+        smoothedLatencyNanos = smoothedLatencyNanos == 0 ? latencyNanos
+                : smoothedLatencyNanos + LATENCY_SMOOTHING * (latencyNanos - smoothedLatencyNanos);
+        if (overloaded || latencyNanos > latencyThresholdNanos) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+        } else if (wasUtilized) {
+            limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+
+    /**
+     * Suggested Retry-After for rejected requests: roughly the time one slot takes to free up.
+     * Retry-After sugerido para requisições rejeitadas: aproximadamente o tempo para uma vaga ser liberada.
+     */
+    public synchronized long retryAfterSeconds() {
+        return Math.max(1, Math.round(smoothedLatencyNanos / 1_000_000_000d));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+}
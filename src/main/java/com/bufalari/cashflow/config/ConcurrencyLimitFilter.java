@@ -0,0 +1,174 @@
+package com.bufalari.cashflow.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.CorsConfigurationSource;
+import org.springframework.web.cors.CorsProcessor;
+import org.springframework.web.cors.CorsUtils;
+import org.springframework.web.cors.DefaultCorsProcessor;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Load shedding for the cash flow API: each endpoint group has its own adaptive concurrency limit, so a burst of
+ * heavy statement/forecast calls is rejected with a fast 503 + Retry-After instead of starving the light CRUD endpoints
+ * of threads and database connections. Runs before the security chain so shed requests cost nothing downstream; the
+ * chain's CORS filter never sees them, so the 503 carries the CORS headers itself and preflights are never shed.
+ * Descarte de carga para a API de fluxo de caixa: cada grupo de endpoints tem seu próprio limite de concorrência
+ * adaptativo, então um pico de chamadas pesadas de demonstrativo/projeção é rejeitado com um 503 rápido + Retry-After
+ * em vez de esgotar threads e conexões dos endpoints CRUD leves. Executa antes da cadeia de segurança; o filtro CORS
+ * dela não vê essas requisições, então o 503 leva os cabeçalhos CORS e requisições preflight nunca são descartadas.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 10)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+
+    private static final String API_PREFIX = "/cash-flow/";
+    private static final String STREAM_SUFFIX = "/stream";
+
+    private final boolean enabled;
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters;
+    private final MeterRegistry meterRegistry;
+    private final CorsConfigurationSource corsConfigurationSource;
+    private final CorsProcessor corsProcessor = new DefaultCorsProcessor();
+
+    public ConcurrencyLimitFilter(MeterRegistry meterRegistry,
+                                  @Qualifier("corsConfigurationSource") CorsConfigurationSource corsConfigurationSource,
+                                  @Value("${cashflow.concurrency.enabled:true}") boolean enabled,
+                                  @Value("${cashflow.concurrency.report.initial-limit:10}") int reportInitial,
+                                  @Value("${cashflow.concurrency.report.min-limit:2}") int reportMin,
+                                  @Value("${cashflow.concurrency.report.max-limit:50}") int reportMax,
+                                  @Value("${cashflow.concurrency.report.latency-threshold-ms:3000}") long reportLatencyMs,
+                                  @Value("${cashflow.concurrency.crud.initial-limit:50}") int crudInitial,
+                                  @Value("${cashflow.concurrency.crud.min-limit:10}") int crudMin,
+                                  @Value("${cashflow.concurrency.crud.max-limit:200}") int crudMax,
+                                  @Value("${cashflow.concurrency.crud.latency-threshold-ms:500}") long crudLatencyMs,
+                                  @Value("${cashflow.concurrency.export.initial-limit:4}") int exportInitial,
+                                  @Value("${cashflow.concurrency.export.min-limit:1}") int exportMin,
+                                  @Value("${cashflow.concurrency.export.max-limit:10}") int exportMax,
+                                  @Value("${cashflow.concurrency.export.latency-threshold-ms:60000}") long exportLatencyMs,
+                                  @Value("${cashflow.concurrency.backoff-ratio:0.9}") double backoffRatio) {
+        this.enabled = enabled;
+        this.meterRegistry = meterRegistry;
+        this.corsConfigurationSource = corsConfigurationSource;
+        // Each heavy report is limited separately so one cannot crowd out the others; exports stream for a long time
+        this.limiters = Map.of(
+                "statement", new AdaptiveConcurrencyLimiter("statement", reportInitial, reportMin, reportMax, reportLatencyMs, backoffRatio),
+                "forecast", new AdaptiveConcurrencyLimiter("forecast", reportInitial, reportMin, reportMax, reportLatencyMs, backoffRatio),
+                "history", new AdaptiveConcurrencyLimiter("history", reportInitial, reportMin, reportMax, reportLatencyMs, backoffRatio),
+                "export", new AdaptiveConcurrencyLimiter("export", exportInitial, exportMin, exportMax, exportLatencyMs, backoffRatio),
+                "report-jobs", new AdaptiveConcurrencyLimiter("report-jobs", crudInitial, crudMin, crudMax, crudLatencyMs, backoffRatio),
+                "crud", new AdaptiveConcurrencyLimiter("crud", crudInitial, crudMin, crudMax, crudLatencyMs, backoffRatio));
+        limiters.values().forEach(limiter -> {
+            meterRegistry.gauge("cashflow.concurrency.limit", List.of(Tag.of("group", limiter.getName())),
+                    limiter, AdaptiveConcurrencyLimiter::getLimit);
+            meterRegistry.gauge("cashflow.concurrency.in_flight", List.of(Tag.of("group", limiter.getName())),
+                    limiter, AdaptiveConcurrencyLimiter::getInFlight);
+        });
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = path(request);
+        // Live SSE streams stay open for minutes; they are bounded by cashflow.stream.max-subscribers instead
+        return !enabled || !path.startsWith(API_PREFIX) || path.endsWith(STREAM_SUFFIX) || CorsUtils.isPreFlightRequest(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        AdaptiveConcurrencyLimiter limiter = limiters.get(group(path(request)));
+        if (!limiter.tryAcquire()) {
+            long retryAfter = limiter.retryAfterSeconds();
+            meterRegistry.counter("cashflow.concurrency.rejected", "group", limiter.getName()).increment();
+            log.debug("Shedding {} {} (group {} at limit {})", request.getMethod(), request.getRequestURI(), limiter.getName(), limiter.getLimit());
+            CorsConfiguration cors = corsConfigurationSource.getCorsConfiguration(request);
+            if (cors != null && CorsUtils.isCorsRequest(request)) {
+                corsProcessor.processRequest(cors, request, response); // Lets browsers read the 503 and its Retry-After
+            }
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"status\":503,\"error\":\"Service Unavailable\",\"message\":\"Too many concurrent "
+                    + limiter.getName() + " requests, retry after " + retryAfter + "s\"}");
+            return;
+        }
+
+        long start = System.nanoTime();
+        AtomicBoolean released = new AtomicBoolean();
+        boolean failed = true;
+        try {
+            chain.doFilter(request, response);
+            failed = false;
+        } finally {
+            if (!failed && request.isAsyncStarted()) {
+                // Streaming/async responses hold the slot until they complete
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        release(limiter, released, start, response.getStatus() >= 500);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                        release(limiter, released, start, true);
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                        release(limiter, released, start, true);
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                release(limiter, released, start, failed || response.getStatus() >= 500);
+            }
+        }
+    }
+
+    private static void release(AdaptiveConcurrencyLimiter limiter, AtomicBoolean released, long start, boolean overloaded) {
+        if (released.compareAndSet(false, true)) {
+            limiter.release(System.nanoTime() - start, overloaded);
+        }
+    }
+
+    static String group(String path) {
+        String endpoint = path.substring(API_PREFIX.length());
+        if (endpoint.startsWith("statement/export/")) return "export";
+        if (endpoint.startsWith("statement") || endpoint.startsWith("balance/current")) return "statement"; // The balance computes a full statement
+        if (endpoint.startsWith("forecast")) return "forecast";
+        if (endpoint.startsWith("history/")) return "history";
+        if (endpoint.startsWith("report-jobs")) return "report-jobs"; // Light requests; the work itself is bounded by the job workers
+        return "crud"; // manual entries, upstream notifications
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
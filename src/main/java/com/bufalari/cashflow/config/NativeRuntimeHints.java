@@ -0,0 +1,87 @@
+package com.bufalari.cashflow.config;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.TypeFilter;
+import org.springframework.util.ClassUtils;
+
+import java.util.List;
+
+/**
+ * Reflection, proxy and resource hints for the AOT/native builds, for what Spring cannot infer on its own:
+ * DTOs that only travel through Feign clients or Jackson (Lombok generates their accessors), the Feign client
+ * interfaces, and jjwt, which loads its implementation and Jackson (de)serializer reflectively.
+ * Dicas de reflexão, proxy e recursos para os builds AOT/nativo, para o que o Spring não consegue inferir sozinho:
+ * DTOs que só trafegam por clientes Feign ou pelo Jackson (o Lombok gera seus acessores), as interfaces dos clientes
+ * Feign e o jjwt, que carrega sua implementação e o (de)serializador Jackson por reflexão.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final String BASE_PACKAGE = "com.bufalari.cashflow";
+
+    // Loaded by name (Classes.newInstance / ServiceLoader) inside jjwt 0.11.x
+    private static final List<String> JJWT_TYPES = List.of(
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParser",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.DefaultClaims",
+            "io.jsonwebtoken.impl.DefaultJwsHeader",
+            "io.jsonwebtoken.impl.DefaultHeader",
+            "io.jsonwebtoken.impl.compression.DefaultCompressionCodecResolver",
+            "io.jsonwebtoken.impl.io.RuntimeClasspathSerializerLocator",
+            "io.jsonwebtoken.impl.io.RuntimeClasspathDeserializerLocator",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer");
+
+    private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // 1. Every DTO, recursively (fields, Lombok getters/setters, nested types and enums)
+        for (Class<?> dto : scan(BASE_PACKAGE + ".dto", classLoader)) {
+            bindingRegistrar.registerReflectionHints(hints.reflection(), dto);
+        }
+
+        // 2. Feign clients are JDK proxies whose method annotations are read reflectively
+        for (Class<?> client : scan(BASE_PACKAGE + ".client", classLoader)) {
+            if (client.isInterface()) {
+                hints.proxies().registerJdkProxy(client);
+                hints.reflection().registerType(client, MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+        }
+
+        // 3. jjwt implementation classes and service descriptors
+        for (String type : JJWT_TYPES) {
+            if (ClassUtils.isPresent(type, classLoader)) {
+                hints.reflection().registerType(TypeReference.of(type),
+                        MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                        MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+        }
+        hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+
+        // 4. Second-level cache regions, located on the classpath by Hibernate
+        hints.resources().registerPattern("ehcache.xml");
+    }
+
+    private static List<Class<?>> scan(String basePackage, ClassLoader classLoader) {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false) {
+            @Override
+            protected boolean isCandidateComponent(AnnotatedBeanDefinition beanDefinition) {
+                return true; // Interfaces (Feign clients) included
+            }
+        };
+        TypeFilter any = (reader, factory) -> true;
+        scanner.addIncludeFilter(any);
+        return scanner.findCandidateComponents(basePackage).stream()
+                .map(BeanDefinition::getBeanClassName)
+                .<Class<?>>map(name -> ClassUtils.resolveClassName(name, classLoader))
+                .toList();
+    }
+}
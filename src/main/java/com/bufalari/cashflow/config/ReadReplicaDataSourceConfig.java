@@ -0,0 +1,86 @@
+package com.bufalari.cashflow.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Optional read-replica routing: @Transactional(readOnly = true) work goes to the replicas, writes to the primary.
+ * Enabled with cashflow.datasource.replicas.enabled=true; otherwise Spring Boot's single datasource is used unchanged.
+ * Roteamento opcional para réplicas de leitura: trabalho @Transactional(readOnly = true) vai para as réplicas, escritas
+ * para o primário. Ativado com cashflow.datasource.replicas.enabled=true; caso contrário o datasource único do Spring Boot
+ * é usado sem alteração.
+ */
+@Configuration
+@ConditionalOnProperty(name = "cashflow.datasource.replicas.enabled", havingValue = "true")
+public class ReadReplicaDataSourceConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadReplicaDataSourceConfig.class);
+
+    /**
+     * Primary pool, configured from spring.datasource.* (pool metrics come from Spring Boot's Hikari instrumentation).
+     * Pool primário, configurado a partir de spring.datasource.* (métricas do pool vêm da instrumentação do Spring Boot).
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(@Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+                                                             MeterRegistry meterRegistry,
+                                                             @Value("${cashflow.datasource.replicas.urls}") String urls,
+                                                             @Value("${cashflow.datasource.replicas.username:${spring.datasource.username}}") String username,
+                                                             @Value("${cashflow.datasource.replicas.password:${spring.datasource.password}}") String password,
+                                                             @Value("${cashflow.datasource.replicas.maximum-pool-size:10}") int maximumPoolSize,
+                                                             @Value("${cashflow.datasource.replicas.max-lag-seconds:10}") double maxLagSeconds) {
+        List<HikariDataSource> replicaPools = new ArrayList<>();
+        List<String> replicaUrls = Arrays.stream(urls.split(",")).map(String::trim).filter(u -> !u.isEmpty()).toList();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("replica-" + (i + 1));
+            config.setJdbcUrl(replicaUrls.get(i));
+            config.setUsername(username);
+            config.setPassword(password);
+            config.setDriverClassName(primaryDataSource.getDriverClassName());
+            config.setMaximumPoolSize(maximumPoolSize);
+            config.setReadOnly(true);
+            config.setInitializationFailTimeout(-1); // A replica that is down at boot must not stop the service
+            config.setMetricRegistry(meterRegistry); // hikaricp.* metrics tagged pool=replica-N
+            replicaPools.add(new HikariDataSource(config));
+        }
+        log.info("Read replica routing enabled with {} replica(s), lag tolerance {}s", replicaPools.size(), maxLagSeconds);
+        return new ReplicaRoutingDataSource(primaryDataSource, replicaPools, maxLagSeconds, meterRegistry);
+    }
+
+    /**
+     * The application's DataSource. The lazy proxy defers fetching a physical connection until the first statement,
+     * after the transaction's read-only flag has been set, so the routing decision sees it.
+     * O DataSource da aplicação. O proxy preguiçoso adia a obtenção da conexão física até o primeiro comando,
+     * depois que o flag somente leitura da transação foi definido, para que o roteamento o enxergue.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,168 @@
+package com.bufalari.cashflow.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Routes read-only transactions to a healthy read replica (round robin) and everything else to the primary.
+ * A replica is healthy while its last lag check succeeded within the tolerance; if none is healthy, or a replica
+ * connection cannot be obtained, the read goes to the primary. Must sit behind a LazyConnectionDataSourceProxy so
+ * the read-only flag is known when the connection is actually fetched.
+ * Roteia transações somente leitura para uma réplica saudável (round robin) e todo o resto para o primário.
+ * Uma réplica é saudável enquanto sua última verificação de atraso passou dentro da tolerância; se nenhuma estiver
+ * saudável, ou se a conexão com a réplica falhar, a leitura vai para o primário. Deve ficar atrás de um
+ * LazyConnectionDataSourceProxy para que o flag somente leitura seja conhecido quando a conexão for obtida.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    static final String PRIMARY = "primary";
+
+    // Zero when everything received has been replayed (an idle primary must not look like lag)
+    private static final String LAG_QUERY = "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    private static final class Replica {
+        final String name;
+        final HikariDataSource dataSource;
+        volatile boolean healthy; // Unhealthy until the first lag check passes
+        volatile double lagSeconds = -1;
+
+        Replica(String name, HikariDataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final double maxLagSeconds;
+    private final MeterRegistry meterRegistry;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicaPools, double maxLagSeconds, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.maxLagSeconds = maxLagSeconds;
+        this.meterRegistry = meterRegistry;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (HikariDataSource pool : replicaPools) {
+            Replica replica = new Replica(pool.getPoolName(), pool);
+            replicas.add(replica);
+            targets.put(replica.name, pool);
+            meterRegistry.gauge("cashflow.datasource.replica.lag_seconds", List.of(Tag.of("replica", replica.name)),
+                    replica, r -> r.lagSeconds);
+            meterRegistry.gauge("cashflow.datasource.replica.healthy", List.of(Tag.of("replica", replica.name)),
+                    replica, r -> r.healthy ? 1 : 0);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || replicas.isEmpty()) {
+            return PRIMARY;
+        }
+        int start = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.healthy) return replica.name;
+        }
+        return PRIMARY; // No replica within the lag tolerance
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Object key = determineCurrentLookupKey();
+        if (PRIMARY.equals(key)) {
+            routed(PRIMARY).increment();
+            return primary.getConnection();
+        }
+        Replica replica = replicas.stream().filter(r -> r.name.equals(key)).findFirst().orElseThrow();
+        try {
+            Connection connection = replica.dataSource.getConnection();
+            routed(replica.name).increment();
+            return connection;
+        } catch (SQLException e) {
+            replica.healthy = false; // Until the next lag check succeeds
+            log.warn("Read replica {} unavailable, falling back to primary: {}", replica.name, e.getMessage());
+            meterRegistry.counter("cashflow.datasource.replica.fallbacks", "replica", replica.name).increment();
+            routed(PRIMARY).increment();
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection(); // Pools own their credentials
+    }
+
+    /**
+     * Measures each replica's replay lag and marks it healthy only while it is within the tolerance.
+     * Mede o atraso de replicação de cada réplica e a marca como saudável apenas enquanto estiver dentro da tolerância.
+     */
+    @Scheduled(fixedDelayString = "${cashflow.datasource.replicas.lag-check-interval-ms:5000}")
+    public void checkReplicaLag() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(2);
+                try (ResultSet rs = statement.executeQuery(LAG_QUERY)) {
+                    replica.lagSeconds = rs.next() ? rs.getDouble(1) : 0;
+                }
+                boolean healthy = replica.lagSeconds <= maxLagSeconds;
+                if (healthy != replica.healthy) {
+                    log.info("Read replica {} is now {} (lag {}s, tolerance {}s)", replica.name,
+                            healthy ? "in rotation" : "out of rotation", replica.lagSeconds, maxLagSeconds);
+                }
+                replica.healthy = healthy;
+            } catch (SQLException e) {
+                if (replica.healthy) {
+                    log.warn("Lag check failed for read replica {}, taking it out of rotation: {}", replica.name, e.getMessage());
+                }
+                replica.healthy = false;
+                replica.lagSeconds = -1;
+            }
+        }
+    }
+
+    /**
+     * The replica pools, in rotation order (for the startup warm-up; the routing itself stays internal).
+     * Os pools das réplicas, na ordem de rotação (para o aquecimento na inicialização; o roteamento continua interno).
+     */
+    public List<HikariDataSource> pools() {
+        return replicas.stream().map(r -> r.dataSource).toList();
+    }
+
+    /**
+     * Closes the replica pools (the primary pool is a bean closed by the container).
+     * Fecha os pools das réplicas (o pool primário é um bean fechado pelo contêiner).
+     */
+    public void close() {
+        replicas.forEach(r -> r.dataSource.close());
+    }
+
+    private Counter routed(String target) {
+        return meterRegistry.counter("cashflow.datasource.connections.routed", "target", target);
+    }
+}
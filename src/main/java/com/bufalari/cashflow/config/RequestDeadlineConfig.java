@@ -0,0 +1,109 @@
+package com.bufalari.cashflow.config;
+
+import com.bufalari.cashflow.exception.DeadlineExceededException;
+import com.bufalari.cashflow.util.RequestDeadline;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionManager;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Makes the AP/AR/auth clients and the database honour the current request deadline (see RequestDeadline).
+ * Faz os clientes AP/AR/auth e o banco de dados respeitarem o prazo da requisição atual (veja RequestDeadline).
+ */
+@Configuration
+public class RequestDeadlineConfig {
+
+    /**
+     * Feign client for every @FeignClient: each call forwards the remaining budget in X-Request-Timeout-Ms (so AP/AR can
+     * give up too) and caps its own connect/read timeouts to it, instead of holding the thread for the configured 60 s.
+     * Cliente Feign para todo @FeignClient: cada chamada repassa o orçamento restante em X-Request-Timeout-Ms (para AP/AR
+     * também poderem desistir) e limita seus timeouts de conexão/leitura a ele, em vez de prender a thread por 60 s.
+     */
+    @Bean
+    public Client feignClient() {
+        return new DeadlineFeignClient(new Client.Default(null, null));
+    }
+
+    /**
+     * JPA transaction manager whose transactions never outlive the request deadline: Hibernate applies the remaining
+     * transaction time as the JDBC query timeout of every statement, so a slow query is canceled by the driver.
+     * Replaces Boot's default one (same customizers, e.g. spring.transaction.default-timeout).
+     * Gerenciador de transações JPA cujas transações nunca ultrapassam o prazo da requisição: o Hibernate aplica o tempo
+     * restante da transação como timeout JDBC de cada comando, então uma consulta lenta é cancelada pelo driver.
+     * Substitui o padrão do Boot (mesmos customizadores, ex.: spring.transaction.default-timeout).
+     */
+    @Bean
+    public PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory,
+                                                         ObjectProvider<TransactionManagerCustomizers> customizers) {
+        JpaTransactionManager transactionManager = new DeadlineTransactionManager(entityManagerFactory);
+        customizers.ifAvailable(c -> c.customize((TransactionManager) transactionManager));
+        return transactionManager;
+    }
+
+    static final class DeadlineFeignClient implements Client {
+        private final Client delegate;
+
+        DeadlineFeignClient(Client delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Response execute(Request request, Request.Options options) throws IOException {
+            RequestDeadline deadline = RequestDeadline.current();
+            if (deadline == null) {
+                return delegate.execute(request, options);
+            }
+            long remainingMs = deadline.remainingMillis();
+            if (remainingMs <= 0) {
+                throw new DeadlineExceededException("Request deadline exceeded before calling " + request.url());
+            }
+            Map<String, Collection<String>> headers = new LinkedHashMap<>(request.headers());
+            headers.put(RequestDeadline.HEADER, List.of(String.valueOf(remainingMs)));
+            Request limited = Request.create(request.httpMethod(), request.url(), headers, request.body(),
+                    request.charset(), request.requestTemplate());
+            Request.Options capped = new Request.Options(
+                    Math.min(options.connectTimeoutUnit().toMillis(options.connectTimeout()), remainingMs), TimeUnit.MILLISECONDS,
+                    Math.min(options.readTimeoutUnit().toMillis(options.readTimeout()), remainingMs), TimeUnit.MILLISECONDS,
+                    options.isFollowRedirects());
+            return delegate.execute(limited, capped);
+        }
+    }
+
+    static final class DeadlineTransactionManager extends JpaTransactionManager {
+
+        DeadlineTransactionManager(EntityManagerFactory entityManagerFactory) {
+            super(entityManagerFactory);
+        }
+
+        @Override
+        protected int determineTimeout(TransactionDefinition definition) {
+            int timeout = super.determineTimeout(definition);
+            RequestDeadline deadline = RequestDeadline.current();
+            if (deadline == null) {
+                return timeout;
+            }
+            long remainingMs = deadline.remainingMillis();
+            if (remainingMs <= 0) {
+                throw new DeadlineExceededException("Request deadline exceeded before opening a transaction");
+            }
+            int remainingSeconds = (int) Math.min(Integer.MAX_VALUE, (remainingMs + 999) / 1000); // JDBC timeouts are whole seconds
+            return timeout == TransactionDefinition.TIMEOUT_DEFAULT ? remainingSeconds : Math.min(timeout, remainingSeconds);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.bufalari.cashflow.config;
+
+import com.bufalari.cashflow.util.RequestDeadline;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Gives every API request a deadline: the budget sent by the caller in X-Request-Timeout-Ms (a gateway or front end
+ * that gives up after that long), capped by the server maximum, or the server default. Past the deadline nobody reads
+ * the response, so upstream calls, queries and the aggregation stop at their next wait or checkpoint and the request
+ * ends with 504. Streamed exports load every item before the first byte, so they get their own, longer budget (in
+ * line with spring.mvc.async.request-timeout). Runs after load shedding and before the security chain, so the auth
+ * lookup shares the budget.
+ * Dá um prazo a cada requisição da API: o orçamento enviado pelo chamador em X-Request-Timeout-Ms (um gateway ou
+ * front-end que desiste após esse tempo), limitado pelo máximo do servidor, ou o padrão do servidor. Após o prazo
+ * ninguém lê a resposta, então chamadas às origens, consultas e a agregação param na próxima espera ou ponto de
+ * verificação e a requisição termina com 504. Exportações carregam todos os itens antes do primeiro byte, então têm
+ * um orçamento próprio, mais longo. Executa após o descarte de carga e antes da cadeia de segurança.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 5)
+public class RequestDeadlineFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestDeadlineFilter.class);
+
+    private static final String API_PREFIX = "/cash-flow/";
+    private static final String STREAM_SUFFIX = "/stream";
+    private static final String EXPORT_PREFIX = API_PREFIX + "statement/export/";
+
+    private final boolean enabled;
+    private final long defaultTimeoutMs;
+    private final long maxTimeoutMs;
+    private final long exportTimeoutMs;
+    private final MeterRegistry meterRegistry;
+
+    public RequestDeadlineFilter(MeterRegistry meterRegistry,
+                                 @Value("${cashflow.deadline.enabled:true}") boolean enabled,
+                                 @Value("${cashflow.deadline.default-timeout-ms:30000}") long defaultTimeoutMs,
+                                 @Value("${cashflow.deadline.max-timeout-ms:120000}") long maxTimeoutMs,
+                                 @Value("${cashflow.deadline.export-timeout-ms:600000}") long exportTimeoutMs) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.defaultTimeoutMs = defaultTimeoutMs;
+        this.maxTimeoutMs = maxTimeoutMs;
+        this.exportTimeoutMs = exportTimeoutMs;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        // Live SSE streams stay open by design; their refreshes run on other threads without a deadline
+        return !enabled || !path.startsWith(API_PREFIX) || path.endsWith(STREAM_SUFFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long budgetMs = budget(request);
+        if (budgetMs <= 0) {
+            reject(request, response, "no time budget left");
+            return;
+        }
+        RequestDeadline deadline = RequestDeadline.after(Duration.ofMillis(budgetMs));
+        try (RequestDeadline.Scope ignored = deadline.bind()) {
+            chain.doFilter(request, response);
+        } catch (ServletException | IOException | RuntimeException e) {
+            // Timeouts surface in many shapes (query timeout, read timeout, failed transaction begin): past the deadline they are all a 504
+            if (!deadline.isExpired() || response.isCommitted()) {
+                throw e;
+            }
+            log.debug("{} {} failed after its deadline: {}", request.getMethod(), request.getRequestURI(), e.toString());
+            reject(request, response, "deadline of " + budgetMs + " ms exceeded");
+            return;
+        }
+        if (response.getStatus() == HttpStatus.GATEWAY_TIMEOUT.value()) {
+            meterRegistry.counter("cashflow.deadline.exceeded").increment();
+        }
+    }
+
+    /**
+     * The caller's budget capped by the server maximum, or the default; exports use their own budget as both.
+     * O orçamento do chamador limitado pelo máximo do servidor, ou o padrão; exportações usam seu próprio orçamento.
+     */
+    private long budget(HttpServletRequest request) {
+        boolean export = request.getRequestURI().substring(request.getContextPath().length()).startsWith(EXPORT_PREFIX);
+        long defaultMs = export ? exportTimeoutMs : defaultTimeoutMs;
+        long maxMs = export ? exportTimeoutMs : maxTimeoutMs;
+        String header = request.getHeader(RequestDeadline.HEADER);
+        if (header == null || header.isBlank()) {
+            return defaultMs;
+        }
+        try {
+            return Math.min(Long.parseLong(header.trim()), maxMs);
+        } catch (NumberFormatException e) {
+            log.debug("Ignoring malformed {} header '{}'", RequestDeadline.HEADER, header);
+            return defaultMs;
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, String reason) throws IOException {
+        meterRegistry.counter("cashflow.deadline.exceeded").increment();
+        log.info("Aborting {} {}: {}", request.getMethod(), request.getRequestURI(), reason);
+        response.sendError(HttpStatus.GATEWAY_TIMEOUT.value(), "Request deadline exceeded");
+    }
+}
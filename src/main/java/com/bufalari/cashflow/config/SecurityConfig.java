@@ -1,6 +1,8 @@
 package com.bufalari.cashflow.config;
 
 import com.bufalari.cashflow.secutity.JwtAuthenticationFilter; // Import correto
+import com.bufalari.cashflow.util.RequestDeadline;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -49,6 +51,8 @@ public class SecurityConfig {
                 .cors(cors -> cors.configurationSource(corsConfigurationSource())) // Aplicar configuração CORS
                 .authorizeHttpRequests(authorize -> authorize
                         .requestMatchers(PUBLIC_MATCHERS).permitAll() // Permitir acesso público
+                        // Async re-dispatches of already authorized requests (SSE streams); the JWT filter does not run on them
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         // --- REGRAS ESPECÍFICAS PARA CASHFLOW ---
                         // Lançamentos Manuais
                         .requestMatchers(HttpMethod.POST, "/api/cashflow/manual-entries").hasAnyRole("ADMIN", "ACCOUNTANT")
@@ -75,9 +79,10 @@ public class SecurityConfig {
         // Restringir origens em produção! Ex: "http://meufrontend.com"
         configuration.setAllowedOrigins(List.of("*")); // <<< CUIDADO EM PRODUÇÃO
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "PATCH", "OPTIONS"));
-        configuration.setAllowedHeaders(List.of("Authorization", "Content-Type", "Accept", "X-Requested-With", "Origin"));
+        configuration.setAllowedHeaders(List.of("Authorization", "Content-Type", "Accept", "X-Requested-With", "Origin", "If-None-Match",
+                RequestDeadline.HEADER));
         // Expor headers necessários para o frontend (ex: Location em respostas 201)
-        configuration.setExposedHeaders(List.of("Authorization", "Location"));
+        configuration.setExposedHeaders(List.of("Authorization", "Location", "ETag", "Retry-After"));
         configuration.setAllowCredentials(false); // Geralmente false para JWT stateless
         configuration.setMaxAge(3600L); // Cache de preflight por 1 hora
 
@@ -1,10 +1,37 @@
 package com.bufalari.cashflow.controller;
 
+import com.bufalari.cashflow.converter.ColumnarReportConverter;
 import com.bufalari.cashflow.dto.CashFlowBalanceDTO; // Não usado diretamente, mas implícito
 import com.bufalari.cashflow.dto.CashFlowForecastDTO;
 import com.bufalari.cashflow.dto.CashFlowStatementDTO;
+import com.bufalari.cashflow.dto.ColumnarForecastDTO;
+import com.bufalari.cashflow.dto.ColumnarStatementDTO;
+import com.bufalari.cashflow.dto.HistorySeriesDTO;
+import com.bufalari.cashflow.dto.HistoryTotalsDTO;
 import com.bufalari.cashflow.dto.ManualCashEntryDTO;
+import com.bufalari.cashflow.dto.ManualCashEntryFilterDTO;
+import com.bufalari.cashflow.dto.ManualCashEntryPageDTO;
+import com.bufalari.cashflow.dto.MultiPeriodStatementDTO;
+import com.bufalari.cashflow.dto.MultiPeriodStatementRequestDTO;
+import com.bufalari.cashflow.dto.ProbabilisticForecastDTO;
+import com.bufalari.cashflow.dto.ReportJobDTO;
+import com.bufalari.cashflow.dto.ReportJobRequestDTO;
+import com.bufalari.cashflow.dto.ScenarioComparisonDTO;
+import com.bufalari.cashflow.dto.ScenarioForecastRequestDTO;
+import com.bufalari.cashflow.dto.StatementPeriodDTO;
+import com.bufalari.cashflow.entity.ReportJobResult;
+import com.bufalari.cashflow.enums.HistoryBucket;
+import com.bufalari.cashflow.enums.UpstreamSource;
 import com.bufalari.cashflow.service.CashFlowService;
+import com.bufalari.cashflow.service.DataVersionTracker;
+import com.bufalari.cashflow.service.HistoryColumnStore;
+import com.bufalari.cashflow.service.ManualEntryCursor;
+import com.bufalari.cashflow.service.MonteCarloForecastService;
+import com.bufalari.cashflow.service.ReportCoalescer;
+import com.bufalari.cashflow.service.ReportJobService;
+import com.bufalari.cashflow.service.ReportStreamHub;
+import com.bufalari.cashflow.service.ScenarioForecastService;
+import com.bufalari.cashflow.service.StatementExportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -14,22 +41,38 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springdoc.core.annotations.ParameterObject;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.net.URI;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
 import java.util.UUID; // <<<--- IMPORT UUID
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
 
 /**
  * REST controller for managing cash flow, including manual entries and reports.
@@ -43,7 +86,19 @@ import java.util.UUID; // <<<--- IMPORT UUID
 public class CashFlowController {
 
     private static final Logger log = LoggerFactory.getLogger(CashFlowController.class);
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
+    private static final MediaType XLSX = MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+    private static final int MAX_HISTORY_YEARS = 100; // Bounds the bucket list of a daily series
     private final CashFlowService cashFlowService;
+    private final ScenarioForecastService scenarioForecastService;
+    private final MonteCarloForecastService monteCarloForecastService;
+    private final DataVersionTracker dataVersionTracker;
+    private final ColumnarReportConverter columnarReportConverter;
+    private final ReportCoalescer reportCoalescer;
+    private final ReportStreamHub reportStreamHub;
+    private final ReportJobService reportJobService;
+    private final StatementExportService statementExportService;
+    private final HistoryColumnStore historyColumnStore;
 
     // --- Manual Cash Entries ---
 
@@ -69,6 +124,41 @@ public class CashFlowController {
         return ResponseEntity.created(location).body(createdEntry);
     }
 
+    @Operation(summary = "List Manual Cash Entries", description = "Lists manual entries matching optional filters (date range, type, project, cost center, amount range, description text), ordered by entry date then ID. Keyset pagination: pass the returned 'nextCursor' as 'cursor' to get the next page. Requires ACCOUNTANT, ADMIN, or FINANCIAL_VIEWER role.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page returned", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ManualCashEntryPageDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid filter, cursor or limit"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @GetMapping(value = "/manual-entries", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'ACCOUNTANT', 'FINANCIAL_VIEWER')")
+    public ResponseEntity<ManualCashEntryPageDTO> listManualEntries(
+            @Valid @ParameterObject ManualCashEntryFilterDTO filter,
+            @Parameter(description = "Cursor from the previous page's 'nextCursor' (omit for the first page)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (1-500)", example = "50")
+            @RequestParam(defaultValue = "50") int limit) {
+        log.debug("Request received to list manual entries (cursor {}, limit {})", cursor, limit);
+        if (limit < 1 || limit > 500) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be between 1 and 500");
+        }
+        if (filter.getStartDate() != null && filter.getEndDate() != null && filter.getStartDate().isAfter(filter.getEndDate())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Start date must be before or equal to end date");
+        }
+        if (filter.getMinAmount() != null && filter.getMaxAmount() != null && filter.getMinAmount().compareTo(filter.getMaxAmount()) > 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Minimum amount must not exceed maximum amount");
+        }
+        ManualEntryCursor position;
+        try {
+            position = cursor != null && !cursor.isBlank() ? ManualEntryCursor.decode(cursor) : null;
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid manual entry listing cursor: {}", cursor);
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+        return ResponseEntity.ok(cashFlowService.listManualEntries(filter, position, limit));
+    }
+
     @Operation(summary = "Get Manual Cash Entry by ID", description = "Retrieves a specific manual cash entry by its UUID. Requires ACCOUNTANT, ADMIN, or FINANCIAL_VIEWER role.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Manual entry found", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ManualCashEntryDTO.class))),
@@ -105,6 +195,7 @@ public class CashFlowController {
     @Operation(summary = "Get Current Cash Balance", description = "Calculates the estimated current cash balance based on past transactions up to yesterday, starting from a known opening balance. Requires authenticated access.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Current balance calculated", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = BigDecimal.class))),
+            @ApiResponse(responseCode = "304", description = "Not modified since the ETag sent in If-None-Match"),
             @ApiResponse(responseCode = "400", description = "Invalid opening balance parameters"),
             @ApiResponse(responseCode = "401", description = "Unauthorized"),
             @ApiResponse(responseCode = "403", description = "Forbidden"),
@@ -116,15 +207,22 @@ public class CashFlowController {
             @Parameter(description = "Date for the known opening balance (YYYY-MM-DD)", example = "2024-01-01", required = true)
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate openingBalanceDate,
             @Parameter(description = "Known cash balance on the opening balance date", example = "10000.00", required = true)
-            @RequestParam BigDecimal openingBalance) {
+            @RequestParam BigDecimal openingBalance,
+            WebRequest webRequest) {
         log.debug("Request received for current cash balance, starting from {} with balance {}", openingBalanceDate, openingBalance);
-        BigDecimal balance = cashFlowService.getCurrentBalance(openingBalanceDate, openingBalance);
-        return ResponseEntity.ok(balance);
+        String etag = dataVersionTracker.etag("balance", openingBalanceDate, openingBalance);
+        if (webRequest.checkNotModified(etag)) {
+            return null; // 304 Not Modified, nothing recomputed
+        }
+        BigDecimal balance = reportCoalescer.execute("balance",
+                () -> cashFlowService.getCurrentBalance(openingBalanceDate, openingBalance), openingBalanceDate, openingBalance);
+        return revalidated(etag).body(balance);
     }
 
     @Operation(summary = "Get Cash Flow Statement", description = "Generates a cash flow statement for a specified period, starting from a known opening balance. Requires authenticated access.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Statement generated successfully", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = CashFlowStatementDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Not modified since the ETag sent in If-None-Match"),
             @ApiResponse(responseCode = "400", description = "Invalid date range or opening balance parameters"),
             @ApiResponse(responseCode = "401", description = "Unauthorized"),
             @ApiResponse(responseCode = "403", description = "Forbidden"),
@@ -138,19 +236,109 @@ public class CashFlowController {
             @Parameter(description = "End date for the statement (YYYY-MM-DD, inclusive)", example="2024-04-30", required = true)
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
             @Parameter(description = "Known cash balance at the beginning of the start date", example="15000.50", required = true)
-            @RequestParam BigDecimal openingBalance) {
+            @RequestParam BigDecimal openingBalance,
+            WebRequest webRequest) {
         log.debug("Request received for cash flow statement from {} to {}", startDate, endDate);
         if (startDate.isAfter(endDate)) {
             log.warn("Invalid date range requested for cash flow statement: startDate ({}) is after endDate ({})", startDate, endDate);
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Start date must be before or equal to end date");
         }
-        CashFlowStatementDTO statement = cashFlowService.getCashFlowStatement(startDate, endDate, openingBalance);
-        return ResponseEntity.ok(statement);
+        String etag = dataVersionTracker.etag("statement", startDate, endDate, openingBalance);
+        if (webRequest.checkNotModified(etag)) {
+            return null; // 304 Not Modified, nothing recomputed
+        }
+        CashFlowStatementDTO statement = reportCoalescer.execute("statement",
+                () -> cashFlowService.getCashFlowStatement(startDate, endDate, openingBalance), startDate, endDate, openingBalance);
+        return revalidated(etag).body(statement);
+    }
+
+    @Operation(summary = "Get Cash Flow Statement (compact binary)", description = "Same statement as the JSON variant, negotiated with 'Accept: application/cbor': items are returned as columnar arrays (epoch days, scaled long amounts, dictionary-coded types). Answers 406 when an amount has more than 8 decimal places. Requires authenticated access.")
+    @GetMapping(value = "/statement", produces = MediaType.APPLICATION_CBOR_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'ACCOUNTANT', 'FINANCIAL_VIEWER')") // Adjust roles as needed
+    public ResponseEntity<ColumnarStatementDTO> getCashFlowStatementColumnar(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam BigDecimal openingBalance,
+            WebRequest webRequest) {
+        log.debug("Request received for columnar cash flow statement from {} to {}", startDate, endDate);
+        if (startDate.isAfter(endDate)) {
+            log.warn("Invalid date range requested for cash flow statement: startDate ({}) is after endDate ({})", startDate, endDate);
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Start date must be before or equal to end date");
+        }
+        String etag = dataVersionTracker.etag("statement-cbor", startDate, endDate, openingBalance);
+        if (webRequest.checkNotModified(etag)) {
+            return null; // 304 Not Modified, nothing recomputed
+        }
+        CashFlowStatementDTO statement = reportCoalescer.execute("statement",
+                () -> cashFlowService.getCashFlowStatement(startDate, endDate, openingBalance), startDate, endDate, openingBalance);
+        return revalidated(etag).body(columnarReportConverter.toColumnar(statement));
+    }
+
+    @Operation(summary = "Export Cash Flow Statement (CSV)", description = "Streams the statement items in date order as CSV, one row per item with its running balance, between opening and closing balance rows. Memory use does not grow with the row count. Requires authenticated access.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "CSV streamed", content = @Content(mediaType = "text/csv")),
+            @ApiResponse(responseCode = "400", description = "Invalid date range or opening balance parameters"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @GetMapping(value = "/statement/export/csv", produces = "text/csv")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'ACCOUNTANT', 'FINANCIAL_VIEWER')") // Adjust roles as needed
+    public ResponseEntity<StreamingResponseBody> exportCashFlowStatementCsv(
+            @Parameter(description = "Start date for the statement (YYYY-MM-DD, inclusive)", example="2024-04-01", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "End date for the statement (YYYY-MM-DD, inclusive)", example="2024-04-30", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @Parameter(description = "Known cash balance at the beginning of the start date", example="15000.50", required = true)
+            @RequestParam BigDecimal openingBalance) {
+        log.debug("Request received for CSV statement export from {} to {}", startDate, endDate);
+        validateStatementRange(startDate, endDate);
+        return attachment(statementExportService.csv(startDate, endDate, openingBalance), TEXT_CSV,
+                "cash-flow-statement_" + startDate + "_" + endDate + ".csv");
+    }
+
+    @Operation(summary = "Export Cash Flow Statement (XLSX)", description = "Streams the statement items in date order as an Excel workbook with a bounded in-memory row window (rows beyond it are flushed to a temporary file). Continues on a new sheet past Excel's row limit. Requires authenticated access.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Workbook streamed", content = @Content(mediaType = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")),
+            @ApiResponse(responseCode = "400", description = "Invalid date range or opening balance parameters"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @GetMapping(value = "/statement/export/xlsx", produces = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'ACCOUNTANT', 'FINANCIAL_VIEWER')") // Adjust roles as needed
+    public ResponseEntity<StreamingResponseBody> exportCashFlowStatementXlsx(
+            @Parameter(description = "Start date for the statement (YYYY-MM-DD, inclusive)", example="2024-04-01", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "End date for the statement (YYYY-MM-DD, inclusive)", example="2024-04-30", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @Parameter(description = "Known cash balance at the beginning of the start date", example="15000.50", required = true)
+            @RequestParam BigDecimal openingBalance) {
+        log.debug("Request received for XLSX statement export from {} to {}", startDate, endDate);
+        validateStatementRange(startDate, endDate);
+        return attachment(statementExportService.xlsx(startDate, endDate, openingBalance), XLSX,
+                "cash-flow-statement_" + startDate + "_" + endDate + ".xlsx");
+    }
+
+    @Operation(summary = "Get Multi-Period Cash Flow Statement", description = "Generates chained statements for several periods (e.g. the last 12 months) from one fetch of AP, AR and manual entries over the union range. Each closing balance becomes the next opening balance. Requires authenticated access.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Statements generated successfully", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = MultiPeriodStatementDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Periods invalid, unordered or overlapping"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden"),
+            @ApiResponse(responseCode = "500", description = "Error during statement generation (e.g., external service communication)")
+    })
+    @PostMapping(value = "/statement/periods", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'ACCOUNTANT', 'FINANCIAL_VIEWER')") // Adjust roles as needed
+    public ResponseEntity<MultiPeriodStatementDTO> getMultiPeriodStatement(@Valid @RequestBody MultiPeriodStatementRequestDTO request) {
+        List<StatementPeriodDTO> periods = request.getPeriods();
+        log.debug("Request received for {} chained cash flow statements", periods.size());
+        validatePeriods(periods);
+        return ResponseEntity.ok(cashFlowService.getMultiPeriodStatement(periods, request.getOpeningBalance()));
     }
 
     @Operation(summary = "Get Cash Flow Forecast", description = "Projects cash flow for a number of days ahead based on pending receivables/payables and a current balance. Requires authenticated access.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Forecast generated successfully", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = CashFlowForecastDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Not modified since the ETag sent in If-None-Match"),
             @ApiResponse(responseCode = "400", description = "Invalid days ahead or current balance"),
             @ApiResponse(responseCode = "401", description = "Unauthorized"),
             @ApiResponse(responseCode = "403", description = "Forbidden"),
@@ -162,13 +350,374 @@ public class CashFlowController {
             @Parameter(description = "Number of days to forecast ahead from today", example = "30", required = true)
             @RequestParam(defaultValue = "30") int daysAhead,
             @Parameter(description = "Current known cash balance to start the forecast from", example="25750.75", required = true)
-            @RequestParam BigDecimal currentBalance) {
+            @RequestParam BigDecimal currentBalance,
+            WebRequest webRequest) {
         log.debug("Request received for cash flow forecast for {} days", daysAhead);
         if (daysAhead <= 0) {
             log.warn("Invalid forecast request: daysAhead ({}) must be positive", daysAhead);
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Days ahead must be positive");
         }
-        CashFlowForecastDTO forecast = cashFlowService.getCashFlowForecast(daysAhead, currentBalance);
-        return ResponseEntity.ok(forecast);
+        String etag = dataVersionTracker.etag("forecast", daysAhead, currentBalance);
+        if (webRequest.checkNotModified(etag)) {
+            return null; // 304 Not Modified, nothing recomputed
+        }
+        CashFlowForecastDTO forecast = reportCoalescer.execute("forecast",
+                () -> cashFlowService.getCashFlowForecast(daysAhead, currentBalance), daysAhead, currentBalance);
+        return revalidated(etag).body(forecast);
+    }
+
+    @Operation(summary = "Get Cash Flow Forecast (compact binary)", description = "Same forecast as the JSON variant, negotiated with 'Accept: application/cbor': one scaled long balance per consecutive day. Answers 406 when an amount has more than 8 decimal places. Requires authenticated access.")
+    @GetMapping(value = "/forecast", produces = MediaType.APPLICATION_CBOR_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'ACCOUNTANT', 'FINANCIAL_VIEWER')") // Adjust roles as needed
+    public ResponseEntity<ColumnarForecastDTO> getCashFlowForecastColumnar(
+            @RequestParam(defaultValue = "30") int daysAhead,
+            @RequestParam BigDecimal currentBalance,
+            WebRequest webRequest) {
+        log.debug("Request received for columnar cash flow forecast for {} days", daysAhead);
+        if (daysAhead <= 0) {
+            log.warn("Invalid forecast request: daysAhead ({}) must be positive", daysAhead);
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Days ahead must be positive");
+        }
+        String etag = dataVersionTracker.etag("forecast-cbor", daysAhead, currentBalance);
+        if (webRequest.checkNotModified(etag)) {
+            return null; // 304 Not Modified, nothing recomputed
+        }
+        CashFlowForecastDTO forecast = reportCoalescer.execute("forecast",
+                () -> cashFlowService.getCashFlowForecast(daysAhead, currentBalance), daysAhead, currentBalance);
+        return revalidated(etag).body(columnarReportConverter.toColumnar(forecast));
+    }
+
+    @Operation(summary = "Compare Forecast Scenarios", description = "Projects the baseline forecast and a list of what-if scenarios (delayed AR/AP, write-offs, adjusted payables) from a single fetch of pending receivables/payables. Requires authenticated access.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Scenarios evaluated successfully", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ScenarioComparisonDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid scenario definition"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden"),
+            @ApiResponse(responseCode = "500", description = "Error during forecast generation (e.g., external service communication)")
+    })
+    @PostMapping(value = "/forecast/scenarios", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'ACCOUNTANT', 'FINANCIAL_VIEWER')") // Adjust roles as needed
+    public ResponseEntity<ScenarioComparisonDTO> compareForecastScenarios(@Valid @RequestBody ScenarioForecastRequestDTO request) {
+        log.debug("Request received to compare {} forecast scenarios for {} days", request.getScenarios().size(), request.getDaysAhead());
+        return ResponseEntity.ok(scenarioForecastService.compareScenarios(request));
+    }
+
+    @Operation(summary = "Get Probabilistic Cash Flow Forecast", description = "Runs a Monte Carlo simulation of collection delays and settlement probabilities per receivable/payable status and returns daily P5/P50/P95 balance bands plus the probability of a negative balance. Requires authenticated access.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Forecast simulated successfully", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ProbabilisticForecastDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid days ahead, path count or current balance"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden"),
+            @ApiResponse(responseCode = "500", description = "Error during forecast generation (e.g., external service communication)")
+    })
+    @GetMapping(value = "/forecast/probabilistic", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'ACCOUNTANT', 'FINANCIAL_VIEWER')") // Adjust roles as needed
+    public ResponseEntity<ProbabilisticForecastDTO> getProbabilisticForecast(
+            @Parameter(description = "Number of days to forecast ahead from today", example = "30", required = true)
+            @RequestParam(defaultValue = "30") int daysAhead,
+            @Parameter(description = "Current known cash balance to start the forecast from", example="25750.75", required = true)
+            @RequestParam BigDecimal currentBalance,
+            @Parameter(description = "Number of simulated paths", example = "20000")
+            @RequestParam(defaultValue = "20000") int paths,
+            @Parameter(description = "Optional seed to reproduce a previous simulation", example = "42")
+            @RequestParam(required = false) Long seed) {
+        log.debug("Request received for probabilistic cash flow forecast for {} days with {} paths", daysAhead, paths);
+        if (daysAhead <= 0) {
+            log.warn("Invalid forecast request: daysAhead ({}) must be positive", daysAhead);
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Days ahead must be positive");
+        }
+        if (paths < 100 || (long) paths * (daysAhead + 1) > MonteCarloForecastService.MAX_SIMULATION_CELLS) {
+            log.warn("Invalid probabilistic forecast request: {} paths over {} days", paths, daysAhead);
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Paths must be at least 100 and paths x days must not exceed " + MonteCarloForecastService.MAX_SIMULATION_CELLS);
+        }
+        long effectiveSeed = seed != null ? seed : ThreadLocalRandom.current().nextLong();
+        return ResponseEntity.ok(monteCarloForecastService.simulate(daysAhead, currentBalance, paths, effectiveSeed));
+    }
+
+    // --- Asynchronous Report Jobs ---
+
+    @Operation(summary = "Submit Report Job", description = "Queues a long-range statement, forecast or multi-period (bucketed) statement to run in the background, for ranges that would exceed HTTP/gateway timeouts. Poll the returned job, then download its result. Requires authenticated access.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Job queued", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ReportJobDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Missing or invalid parameters for the report type"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden"),
+            @ApiResponse(responseCode = "503", description = "Job queue full")
+    })
+    @PostMapping(value = "/report-jobs", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'ACCOUNTANT', 'FINANCIAL_VIEWER')") // Adjust roles as needed
+    public ResponseEntity<ReportJobDTO> submitReportJob(@Valid @RequestBody ReportJobRequestDTO request, Authentication authentication) {
+        log.info("Request received to queue a {} report job", request.getType());
+        validateReportJob(request);
+        if (!reportJobService.hasCapacity()) {
+            log.warn("Rejecting report job: queue full");
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Report job queue is full, retry later");
+        }
+        ReportJobDTO job = reportJobService.submit(request, authentication.getName());
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}").buildAndExpand(job.getId()).toUri();
+        return ResponseEntity.accepted().location(location).body(job);
+    }
+
+    @Operation(summary = "Get Report Job Status", description = "Status of a report job submitted by the caller (admins see all jobs). Requires authenticated access.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Job found", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ReportJobDTO.class))),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden"),
+            @ApiResponse(responseCode = "404", description = "Job not found")
+    })
+    @GetMapping(value = "/report-jobs/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'ACCOUNTANT', 'FINANCIAL_VIEWER')") // Adjust roles as needed
+    public ResponseEntity<ReportJobDTO> getReportJob(
+            @Parameter(description = "UUID of the report job") @PathVariable UUID id, Authentication authentication) {
+        return ResponseEntity.ok(reportJobService.getJob(id, authentication));
+    }
+
+    @Operation(summary = "Download Report Job Result", description = "JSON result of a completed job (same body as the synchronous endpoint). Stored gzip-compressed and sent as-is to clients accepting gzip. Requires authenticated access.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Result returned"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden"),
+            @ApiResponse(responseCode = "404", description = "Job not found"),
+            @ApiResponse(responseCode = "409", description = "Job not completed")
+    })
+    @GetMapping(value = "/report-jobs/{id}/result", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'ACCOUNTANT', 'FINANCIAL_VIEWER')") // Adjust roles as needed
+    public ResponseEntity<byte[]> getReportJobResult(
+            @Parameter(description = "UUID of the report job") @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            Authentication authentication) {
+        ReportJobResult result = reportJobService.getResult(id, authentication);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(result.getContentType()))
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .cacheControl(CacheControl.maxAge(1, TimeUnit.HOURS).cachePrivate()); // Results never change
+        if (acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip")) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(result.getContent());
+        }
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(result.getContent()))) {
+            return response.body(gzip.readAllBytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt result of report job " + id, e);
+        }
+    }
+
+    @Operation(summary = "Cancel Report Job", description = "Cancels a queued or running job. Requires authenticated access.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Job canceled", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ReportJobDTO.class))),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden"),
+            @ApiResponse(responseCode = "404", description = "Job not found"),
+            @ApiResponse(responseCode = "409", description = "Job already finished")
+    })
+    @DeleteMapping(value = "/report-jobs/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'ACCOUNTANT', 'FINANCIAL_VIEWER')") // Adjust roles as needed
+    public ResponseEntity<ReportJobDTO> cancelReportJob(
+            @Parameter(description = "UUID of the report job") @PathVariable UUID id, Authentication authentication) {
+        log.info("Request received to cancel report job {}", id);
+        return ResponseEntity.ok(reportJobService.cancel(id, authentication));
+    }
+
+    // --- Cash History (columnar store) ---
+
+    @Operation(summary = "Get Cash History Totals", description = "Receivables, payables, manual credits and debits summed over a date range from the columnar cash history (multi-year ranges welcome). AP/AR come from the synced local copy and have no project or cost center, so those filters only match manual entries. The snapshot is rebuilt after data changes; 'dataAsOf' tells its age. Requires authenticated access.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Totals calculated", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = HistoryTotalsDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid date range"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden"),
+            @ApiResponse(responseCode = "503", description = "Cash history disabled or not built yet")
+    })
+    @GetMapping(value = "/history/totals", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'ACCOUNTANT', 'FINANCIAL_VIEWER')") // Adjust roles as needed
+    public ResponseEntity<HistoryTotalsDTO> getCashHistoryTotals(
+            @Parameter(description = "Start date (YYYY-MM-DD, inclusive)", example = "2020-01-01", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "End date (YYYY-MM-DD, inclusive)", example = "2024-12-31", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @Parameter(description = "Only this project") @RequestParam(required = false) Long projectId,
+            @Parameter(description = "Only this cost center") @RequestParam(required = false) Long costCenterId) {
+        log.debug("Request received for cash history totals from {} to {}", startDate, endDate);
+        validateHistoryRequest(startDate, endDate);
+        return ResponseEntity.ok(historyColumnStore.totals(startDate, endDate, projectId, costCenterId));
+    }
+
+    @Operation(summary = "Get Cash History Series", description = "Inflows, outflows and net cash flow per day, week, month, quarter or year over a date range from the columnar cash history, empty buckets included. The first and last buckets only count days inside the range. Requires authenticated access.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Series calculated", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = HistorySeriesDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid date range"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden"),
+            @ApiResponse(responseCode = "503", description = "Cash history disabled or not built yet")
+    })
+    @GetMapping(value = "/history/series", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'ACCOUNTANT', 'FINANCIAL_VIEWER')") // Adjust roles as needed
+    public ResponseEntity<HistorySeriesDTO> getCashHistorySeries(
+            @Parameter(description = "Start date (YYYY-MM-DD, inclusive)", example = "2020-01-01", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "End date (YYYY-MM-DD, inclusive)", example = "2024-12-31", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @Parameter(description = "Bucket size", example = "MONTH") @RequestParam(defaultValue = "MONTH") HistoryBucket bucket,
+            @Parameter(description = "Only this project") @RequestParam(required = false) Long projectId,
+            @Parameter(description = "Only this cost center") @RequestParam(required = false) Long costCenterId) {
+        log.debug("Request received for cash history series from {} to {} by {}", startDate, endDate, bucket);
+        validateHistoryRequest(startDate, endDate);
+        return ResponseEntity.ok(historyColumnStore.series(startDate, endDate, bucket, projectId, costCenterId));
+    }
+
+    private void validateHistoryRequest(LocalDate startDate, LocalDate endDate) {
+        if (startDate.isAfter(endDate)) {
+            log.warn("Invalid date range requested for cash history: startDate ({}) is after endDate ({})", startDate, endDate);
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Start date must be before or equal to end date");
+        }
+        if (startDate.getYear() < 1 || endDate.getYear() > 9999 || ChronoUnit.YEARS.between(startDate, endDate) >= MAX_HISTORY_YEARS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cash history ranges are limited to " + MAX_HISTORY_YEARS + " years");
+        }
+        if (!historyColumnStore.isReady()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Cash history is disabled or not built yet, retry later");
+        }
+    }
+
+    // --- Live Report Streams ---
+
+    @Operation(summary = "Stream Current Cash Balance", description = "Server-Sent Events stream of the current balance: one 'balance' event on connect, then a new one only when a manual entry or AP/AR change moves it. Replaces polling /balance/current. Requires authenticated access.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Event stream opened"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden"),
+            @ApiResponse(responseCode = "503", description = "Too many live subscribers")
+    })
+    @GetMapping(value = "/balance/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'ACCOUNTANT', 'FINANCIAL_VIEWER')") // Adjust roles as needed
+    public SseEmitter streamCurrentBalance(
+            @Parameter(description = "Date for the known opening balance (YYYY-MM-DD)", example = "2024-01-01", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate openingBalanceDate,
+            @Parameter(description = "Known cash balance on the opening balance date", example = "10000.00", required = true)
+            @RequestParam BigDecimal openingBalance) {
+        log.debug("Live balance subscription starting from {} with balance {}", openingBalanceDate, openingBalance);
+        requireStreamCapacity();
+        return reportStreamHub.subscribeBalance(openingBalanceDate, openingBalance);
+    }
+
+    @Operation(summary = "Stream Cash Flow Forecast", description = "Server-Sent Events stream of the forecast: a full 'forecast' event on connect (and after a day rollover), then 'forecast-delta' events with only the days whose projected balance changed. Replaces polling /forecast. Requires authenticated access.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Event stream opened"),
+            @ApiResponse(responseCode = "400", description = "Invalid days ahead"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden"),
+            @ApiResponse(responseCode = "503", description = "Too many live subscribers")
+    })
+    @GetMapping(value = "/forecast/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'ACCOUNTANT', 'FINANCIAL_VIEWER')") // Adjust roles as needed
+    public SseEmitter streamCashFlowForecast(
+            @Parameter(description = "Number of days to forecast ahead from today", example = "30", required = true)
+            @RequestParam(defaultValue = "30") int daysAhead,
+            @Parameter(description = "Current known cash balance to start the forecast from", example="25750.75", required = true)
+            @RequestParam BigDecimal currentBalance) {
+        log.debug("Live forecast subscription for {} days", daysAhead);
+        if (daysAhead <= 0) {
+            log.warn("Invalid forecast subscription: daysAhead ({}) must be positive", daysAhead);
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Days ahead must be positive");
+        }
+        requireStreamCapacity();
+        return reportStreamHub.subscribeForecast(daysAhead, currentBalance);
+    }
+
+    private void requireStreamCapacity() {
+        if (!reportStreamHub.hasCapacity()) {
+            log.warn("Rejecting live report subscription: subscriber limit reached");
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many live subscribers, retry later");
+        }
+    }
+
+    // --- Upstream Change Notifications ---
+
+    @Operation(summary = "Notify Upstream Change", description = "Called by (or on behalf of) the AP/AR services when their data changed. Bumps the report data version so cached ETags stop matching. Requires ADMIN role.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Change recorded"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @PostMapping("/upstream-changes")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> notifyUpstreamChange(
+            @Parameter(description = "Upstream service whose data changed", example = "PAYABLE", required = true)
+            @RequestParam UpstreamSource source) {
+        log.info("Upstream change notification received from {}", source);
+        dataVersionTracker.upstreamChanged(source);
+        return ResponseEntity.accepted().build();
+    }
+
+    private static void validateStatementRange(LocalDate startDate, LocalDate endDate) {
+        if (startDate.isAfter(endDate)) {
+            log.warn("Invalid date range requested for statement export: startDate ({}) is after endDate ({})", startDate, endDate);
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Start date must be before or equal to end date");
+        }
+    }
+
+    private static ResponseEntity<StreamingResponseBody> attachment(StreamingResponseBody body, MediaType mediaType, String fileName) {
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .cacheControl(CacheControl.noStore())
+                .body(body);
+    }
+
+    /**
+     * Checks that a report job carries the parameters its type needs, with the same rules as the synchronous endpoints.
+     * Verifica se um job de relatório traz os parâmetros que seu tipo exige, com as mesmas regras dos endpoints síncronos.
+     */
+    private static void validateReportJob(ReportJobRequestDTO request) {
+        switch (request.getType()) {
+            case STATEMENT -> {
+                if (request.getStartDate() == null || request.getEndDate() == null || request.getOpeningBalance() == null) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "STATEMENT jobs require startDate, endDate and openingBalance");
+                }
+                if (request.getStartDate().isAfter(request.getEndDate())) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Start date must be before or equal to end date");
+                }
+            }
+            case FORECAST -> {
+                if (request.getDaysAhead() == null || request.getCurrentBalance() == null) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "FORECAST jobs require daysAhead and currentBalance");
+                }
+                if (request.getDaysAhead() <= 0) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Days ahead must be positive");
+                }
+            }
+            case MULTI_PERIOD_STATEMENT -> {
+                List<StatementPeriodDTO> periods = request.getPeriods();
+                if (periods == null || periods.isEmpty() || request.getOpeningBalance() == null) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "MULTI_PERIOD_STATEMENT jobs require periods and openingBalance");
+                }
+                validatePeriods(periods);
+            }
+        }
+    }
+
+    /**
+     * Checks that chained statement periods are valid ranges, in chronological order and not overlapping.
+     * Verifica se os períodos encadeados são intervalos válidos, em ordem cronológica e sem sobreposição.
+     */
+    private static void validatePeriods(List<StatementPeriodDTO> periods) {
+        for (int i = 0; i < periods.size(); i++) {
+            StatementPeriodDTO period = periods.get(i);
+            if (period.getStartDate().isAfter(period.getEndDate())) {
+                log.warn("Invalid period {} requested: startDate ({}) is after endDate ({})", i, period.getStartDate(), period.getEndDate());
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Start date must be before or equal to end date (period " + i + ")");
+            }
+            if (i > 0 && !period.getStartDate().isAfter(periods.get(i - 1).getEndDate())) {
+                log.warn("Invalid periods requested: period {} starts on {} before the previous one ends", i, period.getStartDate());
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Periods must be in chronological order and must not overlap (period " + i + ")");
+            }
+        }
+    }
+
+    /**
+     * Starts a 200 response carrying the ETag; clients must revalidate before reusing it.
+     * Inicia uma resposta 200 com o ETag; clientes devem revalidar antes de reutilizá-la.
+     */
+    private static ResponseEntity.BodyBuilder revalidated(String etag) {
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache().cachePrivate());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,134 @@
+package com.bufalari.cashflow.converter;
+
+import com.bufalari.cashflow.dto.CashFlowForecastDTO;
+import com.bufalari.cashflow.dto.CashFlowItemDTO;
+import com.bufalari.cashflow.dto.CashFlowStatementDTO;
+import com.bufalari.cashflow.dto.ColumnarForecastDTO;
+import com.bufalari.cashflow.dto.ColumnarItemsDTO;
+import com.bufalari.cashflow.dto.ColumnarStatementDTO;
+import com.bufalari.cashflow.exception.ColumnarRepresentationException;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Converts report DTOs into their columnar form for the compact binary (CBOR) representation.
+ * Converte DTOs de relatório para a forma colunar da representação binária compacta (CBOR).
+ */
+@Component
+public class ColumnarReportConverter {
+
+    private static final int DEFAULT_SCALE = 2; // Currency cents / Centavos
+    private static final int MAX_SCALE = 8;
+
+    /**
+     * Converts a statement. The amount scale is the smallest one (>= 2) that represents every amount exactly.
+     * Converte um demonstrativo. A escala é a menor (>= 2) que representa todos os valores exatamente.
+     * @throws ColumnarRepresentationException If an amount has more than 8 decimals or overflows a scaled long. /
+     *         Se um valor tiver mais de 8 casas decimais ou estourar um long escalado.
+     * @param statement The statement. / O demonstrativo.
+     * @return The columnar statement. / O demonstrativo colunar.
+     */
+    public ColumnarStatementDTO toColumnar(CashFlowStatementDTO statement) {
+        List<CashFlowItemDTO> inflows = nullToEmpty(statement.getInflowItems());
+        List<CashFlowItemDTO> outflows = nullToEmpty(statement.getOutflowItems());
+
+        int scale = amountScale(Stream.concat(
+                Stream.of(statement.getOpeningBalance(), statement.getTotalInflows(), statement.getTotalOutflows(),
+                        statement.getNetCashFlow(), statement.getClosingBalance()),
+                Stream.concat(inflows.stream(), outflows.stream()).map(CashFlowItemDTO::getAmount)));
+        Map<String, Byte> typeCodes = new LinkedHashMap<>();
+
+        return ColumnarStatementDTO.builder()
+                .startEpochDay(epochDay(statement.getStartDate()))
+                .endEpochDay(epochDay(statement.getEndDate()))
+                .amountScale(scale)
+                .openingBalance(unscaled(statement.getOpeningBalance(), scale))
+                .totalInflows(unscaled(statement.getTotalInflows(), scale))
+                .totalOutflows(unscaled(statement.getTotalOutflows(), scale))
+                .netCashFlow(unscaled(statement.getNetCashFlow(), scale))
+                .closingBalance(unscaled(statement.getClosingBalance(), scale))
+                .inflowItems(toColumns(inflows, scale, typeCodes))
+                .outflowItems(toColumns(outflows, scale, typeCodes))
+                .typeDictionary(typeCodes.keySet().toArray(new String[0]))
+                .build();
+    }
+
+    /**
+     * Converts a forecast; its daily balances are consecutive days starting at the forecast start date.
+     * Converte uma projeção; seus saldos diários são dias consecutivos a partir da data inicial.
+     * @param forecast The forecast. / A projeção.
+     * @return The columnar forecast. / A projeção colunar.
+     */
+    public ColumnarForecastDTO toColumnar(CashFlowForecastDTO forecast) {
+        Map<LocalDate, BigDecimal> daily = forecast.getDailyProjectedBalance() != null ? forecast.getDailyProjectedBalance() : Map.of();
+        int scale = amountScale(Stream.concat(Stream.of(forecast.getStartingBalance()), daily.values().stream()));
+        LocalDate start = forecast.getForecastStartDate();
+        long[] balances = new long[daily.size()];
+        daily.forEach((date, balance) -> balances[(int) (date.toEpochDay() - start.toEpochDay())] = unscaled(balance, scale));
+        return new ColumnarForecastDTO(epochDay(start), scale, unscaled(forecast.getStartingBalance(), scale), balances);
+    }
+
+    private ColumnarItemsDTO toColumns(List<CashFlowItemDTO> items, int scale, Map<String, Byte> typeCodes) {
+        int size = items.size();
+        ColumnarItemsDTO columns = new ColumnarItemsDTO(new int[size], new long[size], new byte[size],
+                new String[size], new long[size], new long[size]);
+        for (int i = 0; i < size; i++) {
+            CashFlowItemDTO item = items.get(i);
+            columns.getEpochDays()[i] = epochDay(item.getDate());
+            columns.getAmounts()[i] = unscaled(item.getAmount(), scale);
+            columns.getTypeCodes()[i] = typeCodes.computeIfAbsent(String.valueOf(item.getType()), t -> (byte) typeCodes.size());
+            columns.getDescriptions()[i] = item.getDescription();
+            UUID relatedId = item.getRelatedId();
+            if (relatedId != null) {
+                columns.getRelatedIdHigh()[i] = relatedId.getMostSignificantBits();
+                columns.getRelatedIdLow()[i] = relatedId.getLeastSignificantBits();
+            }
+        }
+        return columns;
+    }
+
+    private static int amountScale(Stream<BigDecimal> amounts) {
+        return amounts.filter(a -> a != null && a.signum() != 0)
+                .mapToInt(a -> {
+                    int scale = a.stripTrailingZeros().scale();
+                    if (scale > MAX_SCALE) {
+                        throw new ColumnarRepresentationException("Amount " + a.toPlainString() + " has more than "
+                                + MAX_SCALE + " decimal places; request application/json instead");
+                    }
+                    return scale;
+                })
+                .reduce(DEFAULT_SCALE, Math::max);
+    }
+
+    private static long unscaled(BigDecimal amount, int scale) {
+        if (amount == null) return ColumnarItemsDTO.NO_AMOUNT;
+        try {
+            // Exact: the scale was chosen to fit every amount of the document
+            long unscaled = amount.setScale(scale, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+            if (unscaled == ColumnarItemsDTO.NO_AMOUNT) {
+                throw new ArithmeticException("Reserved for a missing amount");
+            }
+            return unscaled;
+        } catch (ArithmeticException e) {
+            throw new ColumnarRepresentationException("Amount " + amount.toPlainString() + " does not fit a scaled long at scale "
+                    + scale + "; request application/json instead");
+        }
+    }
+
+    private static int epochDay(LocalDate date) {
+        return date != null ? (int) date.toEpochDay() : ColumnarItemsDTO.NO_DATE;
+    }
+
+    private static <T> List<T> nullToEmpty(List<T> list) {
+        return list != null ? list : new ArrayList<>();
+    }
+}
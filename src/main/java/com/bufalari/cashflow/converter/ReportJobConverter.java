@@ -0,0 +1,35 @@
+package com.bufalari.cashflow.converter;
+
+import com.bufalari.cashflow.dto.ReportJobDTO;
+import com.bufalari.cashflow.entity.ReportJob;
+import com.bufalari.cashflow.enums.ReportJobStatus;
+import org.springframework.stereotype.Component;
+
+/**
+ * Converts ReportJob entities to their status DTO.
+ * Converte entidades ReportJob para o DTO de status.
+ */
+@Component
+public class ReportJobConverter {
+
+    /**
+     * Converts a ReportJob entity to ReportJobDTO (result URL only once completed).
+     * Converte uma entidade ReportJob para ReportJobDTO (URL do resultado somente após a conclusão).
+     */
+    public ReportJobDTO entityToDTO(ReportJob entity) {
+        if (entity == null) return null;
+        return ReportJobDTO.builder()
+                .id(entity.getId())
+                .type(entity.getType())
+                .status(entity.getStatus())
+                .priority(entity.getPriority())
+                .submittedAt(entity.getSubmittedAt())
+                .startedAt(entity.getStartedAt())
+                .finishedAt(entity.getFinishedAt())
+                .errorMessage(entity.getErrorMessage())
+                .resultSize(entity.getResultSize())
+                .compressedSize(entity.getCompressedSize())
+                .resultUrl(entity.getStatus() == ReportJobStatus.COMPLETED ? "/cash-flow/report-jobs/" + entity.getId() + "/result" : null)
+                .build();
+    }
+}
@@ -0,0 +1,30 @@
+package com.bufalari.cashflow.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Simulated balance distribution for a single forecast day.
+ * Distribuição simulada do saldo para um único dia da projeção.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceBandDTO {
+
+    @Schema(description = "5th percentile of the simulated balance", example = "-1250.00")
+    private BigDecimal p5;
+
+    @Schema(description = "Median of the simulated balance", example = "8400.00")
+    private BigDecimal p50;
+
+    @Schema(description = "95th percentile of the simulated balance", example = "15300.00")
+    private BigDecimal p95;
+
+    @Schema(description = "Share of simulated paths with a negative balance on this day (0..1)", example = "0.08")
+    private double probabilityNegative;
+}
@@ -0,0 +1,27 @@
+package com.bufalari.cashflow.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Compact binary (CBOR) form of {@link CashFlowForecastDTO}: one scaled long per consecutive day.
+ * Forma binária compacta (CBOR) de {@link CashFlowForecastDTO}: um long escalado por dia consecutivo.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ColumnarForecastDTO {
+
+    @Schema(description = "First forecast day as days since 1970-01-01")
+    private int startEpochDay;
+
+    @Schema(description = "Decimal places of every amount in this document", example = "2")
+    private int amountScale;
+
+    private long startingBalance;
+
+    @Schema(description = "Projected balance for startEpochDay + i")
+    private long[] dailyProjectedBalance;
+}
@@ -0,0 +1,40 @@
+package com.bufalari.cashflow.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Cash flow items laid out column by column for the compact binary (CBOR) representation.
+ * All arrays have the same length; index i across them describes item i. A missing date or amount (null in the JSON
+ * form) is sent as {@link #NO_DATE} / {@link #NO_AMOUNT}, values no real date or amount can take.
+ * Itens de fluxo de caixa organizados coluna a coluna para a representação binária compacta (CBOR).
+ * Todos os arrays têm o mesmo tamanho; o índice i em cada um descreve o item i. Uma data ou valor ausente (null na
+ * forma JSON) é enviado como {@link #NO_DATE} / {@link #NO_AMOUNT}, valores que nenhuma data ou valor real assume.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ColumnarItemsDTO {
+
+    public static final int NO_DATE = Integer.MIN_VALUE;
+    public static final long NO_AMOUNT = Long.MIN_VALUE;
+
+    @Schema(description = "Item dates as days since 1970-01-01 (-2147483648 = no date)")
+    private int[] epochDays;
+
+    @Schema(description = "Item amounts as unscaled longs (value = amount / 10^amountScale; -9223372036854775808 = no amount)")
+    private long[] amounts;
+
+    @Schema(description = "Index into the statement's type dictionary")
+    private byte[] typeCodes;
+
+    private String[] descriptions;
+
+    @Schema(description = "Most significant 64 bits of the related UUID (0 with relatedIdLow 0 = no related ID)")
+    private long[] relatedIdHigh;
+
+    @Schema(description = "Least significant 64 bits of the related UUID")
+    private long[] relatedIdLow;
+}
@@ -0,0 +1,38 @@
+package com.bufalari.cashflow.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Compact binary (CBOR) form of {@link CashFlowStatementDTO}: dates as epoch days, amounts as scaled longs
+ * and item types deduplicated into a dictionary. Missing values use the sentinels of {@link ColumnarItemsDTO}.
+ * Forma binária compacta (CBOR) de {@link CashFlowStatementDTO}: datas como dias desde a época, valores como
+ * longs escalados e tipos de item deduplicados em um dicionário. Valores ausentes usam as sentinelas de
+ * {@link ColumnarItemsDTO}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ColumnarStatementDTO {
+    private int startEpochDay;
+    private int endEpochDay;
+
+    @Schema(description = "Decimal places of every amount in this document", example = "2")
+    private int amountScale;
+
+    private long openingBalance;
+    private long totalInflows;
+    private long totalOutflows;
+    private long netCashFlow;
+    private long closingBalance;
+
+    @Schema(description = "Item types referenced by typeCodes", example = "[\"RECEIVABLE\", \"MANUAL_CREDIT\"]")
+    private String[] typeDictionary;
+
+    private ColumnarItemsDTO inflowItems;
+    private ColumnarItemsDTO outflowItems;
+}
@@ -0,0 +1,22 @@
+package com.bufalari.cashflow.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Days whose projected balance changed since the forecast last pushed on a live stream.
+ * Dias cujo saldo projetado mudou desde a última projeção enviada em um stream ao vivo.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ForecastDeltaDTO {
+    private LocalDate forecastStartDate;
+    private long dataVersion;
+    private Map<LocalDate, BigDecimal> changedDays; // Date -> new Projected Balance
+}
@@ -0,0 +1,31 @@
+package com.bufalari.cashflow.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A named what-if scenario: an ordered list of rules applied to the forecast snapshot.
+ * Um cenário hipotético nomeado: uma lista ordenada de regras aplicadas ao snapshot da projeção.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ForecastScenarioDTO {
+
+    @NotBlank(message = "Scenario name cannot be blank / Nome do cenário não pode ser vazio")
+    @Schema(description = "Scenario name", example = "AR 15 days late")
+    private String name;
+
+    @NotNull
+    @Valid
+    @Schema(description = "Rules applied in order to the shared snapshot")
+    private List<ScenarioRuleDTO> rules = new ArrayList<>();
+}
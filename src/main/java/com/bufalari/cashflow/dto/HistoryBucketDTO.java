@@ -0,0 +1,22 @@
+package com.bufalari.cashflow.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Inflows, outflows and net cash flow of one calendar bucket of a history series.
+ * Entradas, saídas e fluxo líquido de um agrupamento de calendário de uma série do histórico.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HistoryBucketDTO {
+    private LocalDate bucketStart;
+    private BigDecimal totalInflows;
+    private BigDecimal totalOutflows;
+    private BigDecimal netCashFlow;
+}
@@ -0,0 +1,32 @@
+package com.bufalari.cashflow.dto;
+
+import com.bufalari.cashflow.enums.HistoryBucket;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Cash history aggregated per calendar bucket (day, week, month, quarter or year), empty buckets included.
+ * Histórico de caixa agregado por agrupamento de calendário (dia, semana, mês, trimestre ou ano), incluindo os vazios.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HistorySeriesDTO {
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private HistoryBucket bucket;
+    private Long projectId; // null = every project / null = todos os projetos
+    private Long costCenterId; // null = every cost center / null = todos os centros de custo
+    @Schema(description = "Buckets in date order; the first and last only count days inside the range")
+    private List<HistoryBucketDTO> buckets;
+    @Schema(description = "When the history snapshot answering this query was built")
+    private Instant dataAsOf;
+}
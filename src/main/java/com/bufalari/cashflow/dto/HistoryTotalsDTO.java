@@ -0,0 +1,35 @@
+package com.bufalari.cashflow.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Cash history totals per source over a date range, read from the columnar history store.
+ * Totais do histórico de caixa por origem em um intervalo de datas, lidos do armazenamento colunar de histórico.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HistoryTotalsDTO {
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Long projectId; // null = every project / null = todos os projetos
+    private Long costCenterId; // null = every cost center / null = todos os centros de custo
+    private BigDecimal receivables;
+    private BigDecimal payables;
+    private BigDecimal manualCredits;
+    private BigDecimal manualDebits;
+    private BigDecimal totalInflows;
+    private BigDecimal totalOutflows;
+    private BigDecimal netCashFlow;
+    @Schema(description = "When the history snapshot answering this query was built")
+    private Instant dataAsOf;
+}
@@ -0,0 +1,49 @@
+package com.bufalari.cashflow.dto;
+
+import com.bufalari.cashflow.enums.EntryType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Optional filters for the manual entry listing (all combined with AND).
+ * Filtros opcionais para a listagem de lançamentos manuais (todos combinados com E).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ManualCashEntryFilterDTO {
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    @Schema(description = "Entries on or after this date", example = "2024-01-01")
+    private LocalDate startDate;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    @Schema(description = "Entries on or before this date", example = "2024-12-31")
+    private LocalDate endDate;
+
+    @Schema(description = "CREDIT or DEBIT", example = "DEBIT")
+    private EntryType type;
+
+    @Schema(description = "Project ID", example = "101")
+    private Long projectId;
+
+    @Schema(description = "Cost center ID", example = "202")
+    private Long costCenterId;
+
+    @Schema(description = "Minimum amount (inclusive)", example = "100.00")
+    private BigDecimal minAmount;
+
+    @Schema(description = "Maximum amount (inclusive)", example = "5000.00")
+    private BigDecimal maxAmount;
+
+    @Size(min = 3, max = 100, message = "Description search needs 3 to 100 characters / A busca por descrição precisa de 3 a 100 caracteres")
+    @Schema(description = "Case-insensitive text contained in the description (at least 3 characters)", example = "cleaning")
+    private String description;
+}
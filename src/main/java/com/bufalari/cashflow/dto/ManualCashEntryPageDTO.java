@@ -0,0 +1,25 @@
+package com.bufalari.cashflow.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One keyset page of manual entries, ordered by (entryDate, id).
+ * Uma página (keyset) de lançamentos manuais, ordenada por (entryDate, id).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ManualCashEntryPageDTO {
+
+    private List<ManualCashEntryDTO> items;
+
+    @Schema(description = "Opaque cursor for the next page (pass as 'cursor'); null on the last page", nullable = true)
+    private String nextCursor;
+
+    private boolean hasMore;
+}
@@ -0,0 +1,24 @@
+package com.bufalari.cashflow.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Consecutive statements where each closing balance feeds the next opening balance.
+ * Demonstrativos consecutivos em que cada saldo final alimenta o saldo inicial seguinte.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MultiPeriodStatementDTO {
+    private LocalDate startDate; // Start of the first period
+    private LocalDate endDate;   // End of the last period
+    private BigDecimal openingBalance;
+    private BigDecimal closingBalance;
+    private List<CashFlowStatementDTO> statements; // One per requested period, same order
+}
@@ -0,0 +1,33 @@
+package com.bufalari.cashflow.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Request for several consecutive statements computed from a single upstream fetch.
+ * Requisição de vários demonstrativos consecutivos calculados a partir de uma única busca nas origens.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MultiPeriodStatementRequestDTO {
+
+    @NotNull(message = "Opening balance cannot be null / Saldo inicial não pode ser nulo")
+    @Schema(description = "Known cash balance at the beginning of the first period", example = "15000.50")
+    private BigDecimal openingBalance;
+
+    @NotEmpty(message = "At least one period is required / Ao menos um período é obrigatório")
+    @Size(max = 120)
+    @Valid
+    @Schema(description = "Periods in chronological order, not overlapping (gaps are allowed and carried into the next opening balance)")
+    private List<StatementPeriodDTO> periods;
+}
@@ -0,0 +1,35 @@
+package com.bufalari.cashflow.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Monte Carlo cash forecast: daily P5/P50/P95 balance bands and the risk of going negative.
+ * Projeção de caixa Monte Carlo: faixas diárias P5/P50/P95 de saldo e o risco de saldo negativo.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProbabilisticForecastDTO {
+    private LocalDate forecastStartDate;
+    private BigDecimal startingBalance;
+
+    @Schema(description = "Number of simulated paths", example = "20000")
+    private int paths;
+
+    @Schema(description = "Seed used for the simulation (repeat it to reproduce the result)", example = "42")
+    private long seed;
+
+    @Schema(description = "Share of paths whose balance goes negative on at least one day (0..1)", example = "0.12")
+    private double probabilityOfNegativeBalance;
+
+    private Map<LocalDate, BalanceBandDTO> dailyBalanceBands; // Date -> Balance distribution
+}
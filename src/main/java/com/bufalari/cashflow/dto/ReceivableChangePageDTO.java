@@ -0,0 +1,32 @@
+package com.bufalari.cashflow.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One page of receivables changed after a watermark, as returned by AccountsReceivableService.
+ * Uma página de contas a receber alteradas após uma marca d'água, conforme retornado pelo AccountsReceivableService.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReceivableChangePageDTO {
+
+    @Schema(description = "Receivables created or updated after the watermark, in change order")
+    private List<ReceivableSummaryDTO> changed = new ArrayList<>();
+
+    @Schema(description = "IDs of receivables deleted after the watermark")
+    private List<UUID> deletedIds = new ArrayList<>();
+
+    @Schema(description = "Opaque watermark to pass as 'since' on the next call", example = "2024-05-10T12:00:00.123Z#42")
+    private String nextWatermark;
+
+    @Schema(description = "True when more changes are available right away", example = "false")
+    private boolean hasMore;
+}
@@ -0,0 +1,50 @@
+package com.bufalari.cashflow.dto;
+
+import com.bufalari.cashflow.enums.ReportJobPriority;
+import com.bufalari.cashflow.enums.ReportJobStatus;
+import com.bufalari.cashflow.enums.ReportJobType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Status of an asynchronous report job. / Status de um job assíncrono de relatório.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReportJobDTO {
+
+    @Schema(description = "Job identifier", example = "0b6f0f7e-3c1a-4d59-9a43-5d2f3c0f6a11")
+    private UUID id;
+
+    private ReportJobType type;
+
+    private ReportJobStatus status;
+
+    private ReportJobPriority priority;
+
+    private Instant submittedAt;
+
+    private Instant startedAt;
+
+    private Instant finishedAt;
+
+    @Schema(description = "Failure reason when status is FAILED", nullable = true)
+    private String errorMessage;
+
+    @Schema(description = "Result size in bytes (uncompressed JSON) once COMPLETED", nullable = true)
+    private Long resultSize;
+
+    @Schema(description = "Stored (gzip) result size in bytes once COMPLETED", nullable = true)
+    private Long compressedSize;
+
+    @Schema(description = "Where to download the result once COMPLETED", example = "/cash-flow/report-jobs/0b6f0f7e-3c1a-4d59-9a43-5d2f3c0f6a11/result", nullable = true)
+    private String resultUrl;
+}
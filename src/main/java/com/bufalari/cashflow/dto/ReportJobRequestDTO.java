@@ -0,0 +1,54 @@
+package com.bufalari.cashflow.dto;
+
+import com.bufalari.cashflow.enums.ReportJobPriority;
+import com.bufalari.cashflow.enums.ReportJobType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Submission of an asynchronous report job. Which parameters are required depends on the type, mirroring the
+ * synchronous endpoints (/statement, /forecast, /statement/periods).
+ * Submissão de um job assíncrono de relatório. Os parâmetros obrigatórios dependem do tipo, espelhando os
+ * endpoints síncronos (/statement, /forecast, /statement/periods).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportJobRequestDTO {
+
+    @NotNull(message = "Report type cannot be null / Tipo de relatório não pode ser nulo")
+    @Schema(description = "Report to generate", example = "STATEMENT")
+    private ReportJobType type;
+
+    @Schema(description = "Queue priority (default NORMAL)", example = "NORMAL")
+    private ReportJobPriority priority;
+
+    @Schema(description = "STATEMENT: start date (inclusive)", example = "2020-01-01")
+    private LocalDate startDate;
+
+    @Schema(description = "STATEMENT: end date (inclusive)", example = "2024-12-31")
+    private LocalDate endDate;
+
+    @Schema(description = "STATEMENT / MULTI_PERIOD_STATEMENT: known balance at the beginning of the (first) period", example = "15000.50")
+    private BigDecimal openingBalance;
+
+    @Schema(description = "FORECAST: number of days to forecast ahead from today", example = "365")
+    private Integer daysAhead;
+
+    @Schema(description = "FORECAST: current known cash balance", example = "25750.75")
+    private BigDecimal currentBalance;
+
+    @Size(max = 600)
+    @Valid
+    @Schema(description = "MULTI_PERIOD_STATEMENT: periods in chronological order, not overlapping")
+    private List<StatementPeriodDTO> periods;
+}
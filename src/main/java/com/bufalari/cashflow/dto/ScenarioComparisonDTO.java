@@ -0,0 +1,23 @@
+package com.bufalari.cashflow.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * All scenario curves computed from one shared forecast snapshot.
+ * Todas as curvas de cenários calculadas a partir de um único snapshot de projeção.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScenarioComparisonDTO {
+    private LocalDate forecastStartDate;
+    private LocalDate forecastEndDate;
+    private BigDecimal startingBalance;
+    private List<ScenarioForecastDTO> scenarios; // Baseline first, then requested scenarios in order
+}
@@ -0,0 +1,36 @@
+package com.bufalari.cashflow.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Projected balance curve of a single what-if scenario.
+ * Curva de saldo projetado de um único cenário hipotético.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ScenarioForecastDTO {
+
+    @Schema(description = "Scenario name", example = "AR 15 days late")
+    private String scenarioName;
+
+    @Schema(description = "Projected balance on the last forecast day", example = "18250.00")
+    private BigDecimal closingBalance;
+
+    @Schema(description = "Lowest projected balance within the window", example = "-3200.00")
+    private BigDecimal minimumBalance;
+
+    @Schema(description = "First date on which the lowest balance is reached", example = "2024-06-12")
+    private LocalDate minimumBalanceDate;
+
+    private Map<LocalDate, BigDecimal> dailyProjectedBalance; // Date -> Projected Balance
+}
@@ -0,0 +1,40 @@
+package com.bufalari.cashflow.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Request to evaluate several what-if scenarios over the same forecast window.
+ * Requisição para avaliar vários cenários hipotéticos sobre a mesma janela de projeção.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScenarioForecastRequestDTO {
+
+    @Positive(message = "Days ahead must be positive / Dias à frente deve ser positivo")
+    @Max(value = 730)
+    @Schema(description = "Number of days to forecast ahead from today", example = "90")
+    private int daysAhead = 30;
+
+    @NotNull(message = "Current balance cannot be null / Saldo atual não pode ser nulo")
+    @Schema(description = "Current known cash balance to start the forecast from", example = "25750.75")
+    private BigDecimal currentBalance;
+
+    @NotEmpty(message = "At least one scenario is required / Ao menos um cenário é obrigatório")
+    @Size(max = 100)
+    @Valid
+    @Schema(description = "Scenarios to evaluate; the unmodified baseline is always returned first")
+    private List<ForecastScenarioDTO> scenarios;
+}
@@ -0,0 +1,53 @@
+package com.bufalari.cashflow.dto;
+
+import com.bufalari.cashflow.enums.ScenarioRuleType;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * A single transformation rule of a what-if forecast scenario.
+ * Uma regra de transformação de um cenário hipotético de projeção.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScenarioRuleDTO {
+
+    public static final int MAX_DELAY_DAYS = 730; // Same bound as the forecast window
+    private static final BigDecimal ONE_HUNDRED = BigDecimal.valueOf(100);
+
+    @NotNull(message = "Rule type cannot be null / Tipo da regra não pode ser nulo")
+    @Schema(description = "Transformation to apply", example = "DELAY_RECEIVABLES")
+    private ScenarioRuleType type;
+
+    @NotNull(message = "Rule value cannot be null / Valor da regra não pode ser nulo")
+    @Schema(description = "Rule parameter: whole days (0-730) for DELAY_* rules, 0-100 (%) for WRITE_OFF_RECEIVABLES, "
+            + "-100 to 100 (%) for SCALE_PAYABLES", example = "15")
+    private BigDecimal value;
+
+    /**
+     * Checks the value against the range of its rule type (null type/value are reported by @NotNull).
+     * Verifica o valor contra o intervalo do tipo da regra (tipo/valor nulos são reportados por @NotNull).
+     */
+    @JsonIgnore
+    @AssertTrue(message = "Rule value out of range for its type: DELAY_* takes whole days from 0 to 730, WRITE_OFF_RECEIVABLES 0 to 100 (%), "
+            + "SCALE_PAYABLES -100 to 100 (%) / Valor fora do intervalo do tipo da regra")
+    public boolean isValueInRange() {
+        if (type == null || value == null) {
+            return true;
+        }
+        return switch (type) {
+            case DELAY_RECEIVABLES, DELAY_PAYABLES -> value.stripTrailingZeros().scale() <= 0 // Whole days only
+                    && value.signum() >= 0 && value.compareTo(BigDecimal.valueOf(MAX_DELAY_DAYS)) <= 0;
+            case WRITE_OFF_RECEIVABLES -> value.signum() >= 0 && value.compareTo(ONE_HUNDRED) <= 0;
+            case SCALE_PAYABLES -> value.abs().compareTo(ONE_HUNDRED) <= 0; // -100% removes the payables, never flips their sign
+        };
+    }
+}
@@ -0,0 +1,27 @@
+package com.bufalari.cashflow.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * A statement period (both dates inclusive).
+ * Um período de demonstrativo (ambas as datas inclusivas).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatementPeriodDTO {
+
+    @NotNull(message = "Start date cannot be null / Data de início não pode ser nula")
+    @Schema(description = "Start date of the period (inclusive)", example = "2024-04-01")
+    private LocalDate startDate;
+
+    @NotNull(message = "End date cannot be null / Data de fim não pode ser nula")
+    @Schema(description = "End date of the period (inclusive)", example = "2024-04-30")
+    private LocalDate endDate;
+}
@@ -8,6 +8,9 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.GenericGenerator;
 import org.slf4j.Logger; // Import Logger
 import org.slf4j.LoggerFactory; // Import LoggerFactory
@@ -22,8 +25,12 @@ import java.util.UUID; // <<<--- IMPORT UUID
 /**
  * Represents a manual cash entry/exit not directly tied to AP/AR invoices. Uses UUID for ID.
  * Representa um lançamento manual de entrada/saída de caixa não ligado diretamente a faturas AP/AR. Usa UUID para ID.
+ * Held in the second-level cache (read-write), regions in ehcache.xml.
+ * Mantido no cache de segundo nível (leitura-escrita), regiões no ehcache.xml.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -31,7 +38,13 @@ import java.util.UUID; // <<<--- IMPORT UUID
 @Builder
 @Table(name = "manual_cash_entries", indexes = { // Adiciona índices relevantes
         @Index(name = "idx_manual_entry_date", columnList = "entryDate"),
-        @Index(name = "idx_manual_entry_type", columnList = "type")
+        @Index(name = "idx_manual_entry_type", columnList = "type"),
+        @Index(name = "idx_manual_entry_date_type_amount", columnList = "entryDate, type, amount"), // Covering index for forecast totals
+        @Index(name = "idx_manual_entry_date_id", columnList = "entryDate, id"), // Keyset listing order
+        @Index(name = "idx_manual_entry_type_date_id", columnList = "type, entryDate, id"),
+        @Index(name = "idx_manual_entry_project_date_id", columnList = "project_id, entryDate, id"),
+        @Index(name = "idx_manual_entry_cost_center_date_id", columnList = "cost_center_id, entryDate, id")
+        // Description search: trigram GIN index idx_manual_entry_description_trgm (PostgreSQL only, db/vendor/postgresql)
 })
 public class ManualCashEntry extends AuditableBaseEntity {
 
@@ -100,6 +113,8 @@ public class ManualCashEntry extends AuditableBaseEntity {
      * Referências a documentos de suporte (recibos, comprovantes bancários).
      */
     @ElementCollection(fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+    @BatchSize(size = 100) // A listing page loads its references in one query, not one per entry
     @CollectionTable(name = "manual_entry_doc_references", joinColumns = @JoinColumn(name = "entry_id"))
     @Column(name = "document_reference")
     @Builder.Default
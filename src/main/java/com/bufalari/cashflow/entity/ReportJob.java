@@ -0,0 +1,93 @@
+package com.bufalari.cashflow.entity;
+
+import com.bufalari.cashflow.enums.ReportJobPriority;
+import com.bufalari.cashflow.enums.ReportJobStatus;
+import com.bufalari.cashflow.enums.ReportJobType;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * An asynchronous report job. Status lives here so any instance can answer a poll; the (compressed) result is kept
+ * in {@link ReportJobResult} so polling never loads it.
+ * Um job assíncrono de relatório. O status fica aqui para que qualquer instância responda a consulta; o resultado
+ * (compactado) fica em {@link ReportJobResult} para que a consulta de status nunca o carregue.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "report_jobs", indexes = {
+        @Index(name = "idx_report_job_status_heartbeat", columnList = "status, heartbeatAt"),
+        @Index(name = "idx_report_job_finished", columnList = "finishedAt")
+})
+public class ReportJob {
+
+    @Id
+    @GeneratedValue(generator = "UUID")
+    @GenericGenerator(
+            name = "UUID",
+            strategy = "org.hibernate.id.UUIDGenerator"
+    )
+    @Column(name = "id", updatable = false, nullable = false, columnDefinition = "uuid")
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private ReportJobType type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ReportJobStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private ReportJobPriority priority;
+
+    /**
+     * The submitted request as JSON, replayed by the worker; unbounded, as a multi-period request can list hundreds
+     * of periods.
+     * A requisição submetida em JSON, reproduzida pelo worker; sem limite de tamanho, pois uma requisição de vários
+     * períodos pode listar centenas deles.
+     */
+    @Column(nullable = false, columnDefinition = "text")
+    private String parameters;
+
+    @Column(nullable = false, updatable = false)
+    private String requestedBy;
+
+    @Column(nullable = false, updatable = false)
+    private Instant submittedAt;
+
+    private Instant startedAt;
+
+    /**
+     * Instance that queued the job and keeps its heartbeat. / Instância que enfileirou o job e mantém seu heartbeat.
+     */
+    @Column(length = 100)
+    private String owner;
+
+    /**
+     * Refreshed by the owner while the job is queued or running; a stale one means the owner died.
+     * Renovado pelo dono enquanto o job está na fila ou em execução; um heartbeat antigo indica que o dono caiu.
+     */
+    @Column(nullable = false)
+    private Instant heartbeatAt;
+
+    private Instant finishedAt;
+
+    @Column(length = 1000)
+    private String errorMessage;
+
+    /**
+     * Size of the JSON result before / after gzip. / Tamanho do resultado JSON antes / depois do gzip.
+     */
+    private Long resultSize;
+
+    private Long compressedSize;
+}
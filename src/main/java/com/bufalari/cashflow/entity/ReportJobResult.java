@@ -0,0 +1,30 @@
+package com.bufalari.cashflow.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.UUID;
+
+/**
+ * Gzip-compressed JSON result of a completed report job, stored once and served as-is on every download.
+ * Resultado JSON compactado com gzip de um job de relatório concluído, gravado uma vez e servido como está a cada download.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "report_job_results")
+public class ReportJobResult {
+
+    @Id
+    @Column(name = "job_id", updatable = false, nullable = false, columnDefinition = "uuid")
+    private UUID jobId;
+
+    @Column(nullable = false, length = 100)
+    private String contentType;
+
+    @Column(nullable = false)
+    private byte[] content;
+}
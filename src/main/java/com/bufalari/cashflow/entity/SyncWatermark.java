@@ -0,0 +1,46 @@
+package com.bufalari.cashflow.entity;
+
+import com.bufalari.cashflow.enums.UpstreamSource;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Sync progress for one upstream source: the last applied watermark survives restarts, so the sync resumes with deltas.
+ * Progresso da sincronização de uma origem: a última marca d'água aplicada sobrevive a reinícios, então a sincronização
+ * continua apenas com as alterações.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "sync_watermarks")
+public class SyncWatermark {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private UpstreamSource source;
+
+    /**
+     * Opaque upstream watermark; null until the first page is applied.
+     * Marca d'água opaca da origem; nula até a primeira página ser aplicada.
+     */
+    @Column(length = 200)
+    private String watermark;
+
+    /**
+     * True once the initial full pass finished (the local copy is complete up to the watermark).
+     * Verdadeiro quando a carga inicial completa terminou (a cópia local está completa até a marca d'água).
+     */
+    @Column(nullable = false)
+    private boolean initialSyncComplete;
+
+    /**
+     * When the source was last caught up (no more pages). / Quando a origem foi alcançada pela última vez.
+     */
+    private Instant lastCaughtUpAt;
+}
@@ -0,0 +1,73 @@
+package com.bufalari.cashflow.entity;
+
+import com.bufalari.cashflow.enums.UpstreamSource;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Local copy of one AP or AR summary row, kept up to date by the watermark sync.
+ * "Total" is amountDue/amountExpected, "settled" is amountPaid/amountReceived and the settlement date is
+ * paymentDate/receivedDate, so both sources share one table.
+ * Cópia local de uma linha de resumo do AP ou AR, mantida atualizada pela sincronização por marca d'água.
+ * "Total" é amountDue/amountExpected, "settled" é amountPaid/amountReceived e a data de liquidação é
+ * paymentDate/receivedDate, então ambas as origens compartilham uma tabela.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@IdClass(SyncedUpstreamRecord.Key.class)
+@Table(name = "synced_upstream_records", indexes = {
+        @Index(name = "idx_synced_record_source_settlement", columnList = "source, settlementDate"), // Statement reads
+        @Index(name = "idx_synced_record_source_due", columnList = "source, dueDate") // Forecast reads
+})
+public class SyncedUpstreamRecord {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private UpstreamSource source;
+
+    @Id
+    @Column(name = "upstream_id", nullable = false, columnDefinition = "uuid")
+    private UUID upstreamId;
+
+    private LocalDate dueDate;
+
+    @Column(precision = 15, scale = 2)
+    private BigDecimal amountTotal;
+
+    @Column(precision = 15, scale = 2)
+    private BigDecimal amountSettled;
+
+    /**
+     * PayableStatus or ReceivableStatus name, depending on the source.
+     * Nome do PayableStatus ou ReceivableStatus, conforme a origem.
+     */
+    @Column(length = 30)
+    private String status;
+
+    private LocalDate settlementDate;
+
+    @Column(nullable = false)
+    private Instant syncedAt;
+
+    /**
+     * Composite key (source, upstream ID). / Chave composta (origem, ID na origem).
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private UpstreamSource source;
+        private UUID upstreamId;
+    }
+}
@@ -0,0 +1,41 @@
+package com.bufalari.cashflow.enums;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Calendar bucket for cash history series.
+ * Agrupamento de calendário para séries do histórico de caixa.
+ */
+public enum HistoryBucket {
+    DAY, WEEK, MONTH, QUARTER, YEAR;
+
+    /**
+     * First day of the bucket containing the date (weeks start on Monday).
+     * Primeiro dia do agrupamento que contém a data (semanas começam na segunda-feira).
+     */
+    public LocalDate start(LocalDate date) {
+        return switch (this) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+            case QUARTER -> date.withDayOfMonth(1).withMonth((date.getMonthValue() - 1) / 3 * 3 + 1);
+            case YEAR -> date.withDayOfYear(1);
+        };
+    }
+
+    /**
+     * First day of the bucket after the one starting on the given date.
+     * Primeiro dia do agrupamento seguinte ao que começa na data informada.
+     */
+    public LocalDate next(LocalDate bucketStart) {
+        return switch (this) {
+            case DAY -> bucketStart.plusDays(1);
+            case WEEK -> bucketStart.plusWeeks(1);
+            case MONTH -> bucketStart.plusMonths(1);
+            case QUARTER -> bucketStart.plusMonths(3);
+            case YEAR -> bucketStart.plusYears(1);
+        };
+    }
+}
@@ -0,0 +1,22 @@
+package com.bufalari.cashflow.enums;
+
+/**
+ * Source of a row in the columnar cash history, stored as a one-byte code.
+ * Origem de uma linha no histórico colunar de caixa, armazenada como um código de um byte.
+ */
+public enum HistorySourceType {
+    RECEIVABLE(true),     // Received AR (synced copy) / AR recebido (cópia sincronizada)
+    PAYABLE(false),       // Paid AP (synced copy) / AP pago (cópia sincronizada)
+    MANUAL_CREDIT(true),  // Manual inflow / Entrada manual
+    MANUAL_DEBIT(false);  // Manual outflow / Saída manual
+
+    private static final HistorySourceType[] BY_CODE = values();
+
+    private final boolean inflow;
+
+    HistorySourceType(boolean inflow) { this.inflow = inflow; }
+
+    public boolean isInflow() { return inflow; }
+    public byte code() { return (byte) ordinal(); } // Persisted in the column files: append new constants at the end only
+    public static HistorySourceType fromCode(byte code) { return BY_CODE[code]; }
+}
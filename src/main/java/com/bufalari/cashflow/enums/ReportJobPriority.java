@@ -0,0 +1,18 @@
+package com.bufalari.cashflow.enums;
+
+/**
+ * Queue priority of a report job; higher priorities are picked first, FIFO within a priority.
+ * Prioridade de fila de um job de relatório; prioridades maiores são executadas primeiro, FIFO dentro da mesma prioridade.
+ */
+public enum ReportJobPriority {
+    HIGH("High", "Alta"),
+    NORMAL("Normal", "Normal"),
+    LOW("Low", "Baixa");
+
+    private final String descriptionEn;
+    private final String descriptionPt;
+
+    ReportJobPriority(String en, String pt) { this.descriptionEn = en; this.descriptionPt = pt; }
+    public String getDescriptionEn() { return descriptionEn; }
+    public String getDescriptionPt() { return descriptionPt; }
+}
@@ -0,0 +1,24 @@
+package com.bufalari.cashflow.enums;
+
+/**
+ * Lifecycle of an asynchronous report job.
+ * Ciclo de vida de um job assíncrono de relatório.
+ */
+public enum ReportJobStatus {
+    QUEUED("Queued", "Na fila"),
+    RUNNING("Running", "Em execução"),
+    COMPLETED("Completed", "Concluído"),
+    FAILED("Failed", "Falhou"),
+    CANCELED("Canceled", "Cancelado");
+
+    private final String descriptionEn;
+    private final String descriptionPt;
+
+    ReportJobStatus(String en, String pt) { this.descriptionEn = en; this.descriptionPt = pt; }
+    public String getDescriptionEn() { return descriptionEn; }
+    public String getDescriptionPt() { return descriptionPt; }
+
+    public boolean isFinished() {
+        return this == COMPLETED || this == FAILED || this == CANCELED;
+    }
+}
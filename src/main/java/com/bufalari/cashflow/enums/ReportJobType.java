@@ -0,0 +1,18 @@
+package com.bufalari.cashflow.enums;
+
+/**
+ * Reports that can be generated asynchronously as a job.
+ * Relatórios que podem ser gerados de forma assíncrona como um job.
+ */
+public enum ReportJobType {
+    STATEMENT("Cash flow statement", "Demonstrativo de fluxo de caixa"),                 // startDate, endDate, openingBalance
+    FORECAST("Cash flow forecast", "Projeção de fluxo de caixa"),                        // daysAhead, currentBalance
+    MULTI_PERIOD_STATEMENT("Statements per period", "Demonstrativos por período");      // openingBalance, periods (e.g. monthly buckets)
+
+    private final String descriptionEn;
+    private final String descriptionPt;
+
+    ReportJobType(String en, String pt) { this.descriptionEn = en; this.descriptionPt = pt; }
+    public String getDescriptionEn() { return descriptionEn; }
+    public String getDescriptionPt() { return descriptionPt; }
+}
@@ -0,0 +1,19 @@
+package com.bufalari.cashflow.enums;
+
+/**
+ * Transformation rules that can be applied to the forecast snapshot in a what-if scenario.
+ * Regras de transformação que podem ser aplicadas ao snapshot da projeção em um cenário hipotético.
+ */
+public enum ScenarioRuleType {
+    DELAY_RECEIVABLES("Delay receivables (days)", "Atrasar recebimentos (dias)"),         // Shifts expected receipts by N days
+    WRITE_OFF_RECEIVABLES("Write off receivables (%)", "Baixar recebíveis (%)"),         // Removes N% of every expected receipt
+    DELAY_PAYABLES("Delay payables (days)", "Atrasar pagamentos (dias)"),                 // Shifts expected payments by N days
+    SCALE_PAYABLES("Adjust payables (%)", "Ajustar pagamentos (%)");                      // Adds N% (negative = reduces) to every expected payment
+
+    private final String descriptionEn;
+    private final String descriptionPt;
+
+    ScenarioRuleType(String en, String pt) { this.descriptionEn = en; this.descriptionPt = pt; }
+    public String getDescriptionEn() { return descriptionEn; }
+    public String getDescriptionPt() { return descriptionPt; }
+}
@@ -0,0 +1,17 @@
+package com.bufalari.cashflow.enums;
+
+/**
+ * Upstream services whose data feeds the cash flow calculations.
+ * Serviços de origem cujos dados alimentam os cálculos de fluxo de caixa.
+ */
+public enum UpstreamSource {
+    PAYABLE("Accounts Payable", "Contas a Pagar"),
+    RECEIVABLE("Accounts Receivable", "Contas a Receber");
+
+    private final String descriptionEn;
+    private final String descriptionPt;
+
+    UpstreamSource(String en, String pt) { this.descriptionEn = en; this.descriptionPt = pt; }
+    public String getDescriptionEn() { return descriptionEn; }
+    public String getDescriptionPt() { return descriptionPt; }
+}
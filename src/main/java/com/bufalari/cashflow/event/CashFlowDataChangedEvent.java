@@ -0,0 +1,24 @@
+package com.bufalari.cashflow.event;
+
+import com.bufalari.cashflow.enums.UpstreamSource;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published after data feeding the cash flow reports changed (manual entry write or AP/AR invalidation).
+ * Publicado após a alteração de dados que alimentam os relatórios de fluxo de caixa (escrita de lançamento manual ou invalidação de AP/AR).
+ */
+public class CashFlowDataChangedEvent extends ApplicationEvent {
+
+    private final long dataVersion;
+    private final UpstreamSource upstreamSource; // null when the change was a manual entry / null quando a alteração foi um lançamento manual
+
+    public CashFlowDataChangedEvent(Object source, long dataVersion, UpstreamSource upstreamSource) {
+        super(source);
+        this.dataVersion = dataVersion;
+        this.upstreamSource = upstreamSource;
+    }
+
+    public long getDataVersion() { return dataVersion; }
+    public UpstreamSource getUpstreamSource() { return upstreamSource; }
+    public boolean isManualEntryChange() { return upstreamSource == null; }
+}
@@ -0,0 +1,20 @@
+package com.bufalari.cashflow.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a report holds amounts the columnar (CBOR) form cannot carry exactly, i.e. more than 8 decimal places
+ * or too large for a scaled long. The client should ask for the JSON representation instead.
+ * Maps to HTTP 406 Not Acceptable status code.
+ * Lançada quando um relatório contém valores que a forma colunar (CBOR) não representa exatamente, isto é, mais de
+ * 8 casas decimais ou grandes demais para um long escalado. O cliente deve pedir a representação JSON.
+ * Mapeia para o código de status HTTP 406 Not Acceptable.
+ */
+@ResponseStatus(value = HttpStatus.NOT_ACCEPTABLE)
+public class ColumnarRepresentationException extends RuntimeException {
+
+    public ColumnarRepresentationException(String message) {
+        super(message);
+    }
+}
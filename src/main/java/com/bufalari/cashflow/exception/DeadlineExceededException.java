@@ -0,0 +1,18 @@
+package com.bufalari.cashflow.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a request runs out of its time budget (X-Request-Timeout-Ms or the server default) before finishing.
+ * Maps to HTTP 504 Gateway Timeout status code.
+ * Lançada quando uma requisição esgota seu orçamento de tempo (X-Request-Timeout-Ms ou o padrão do servidor) antes de
+ * terminar. Mapeia para o código de status HTTP 504 Gateway Timeout.
+ */
+@ResponseStatus(value = HttpStatus.GATEWAY_TIMEOUT)
+public class DeadlineExceededException extends RuntimeException {
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
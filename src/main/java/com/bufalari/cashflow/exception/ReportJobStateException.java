@@ -0,0 +1,18 @@
+package com.bufalari.cashflow.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a report job is not in a state that allows the operation (result of an unfinished job, cancel of a finished one).
+ * Maps to HTTP 409 Conflict status code.
+ * Lançada quando um job de relatório não está em um estado que permite a operação (resultado de um job não concluído,
+ * cancelamento de um job já terminado). Mapeia para o código de status HTTP 409 Conflict.
+ */
+@ResponseStatus(value = HttpStatus.CONFLICT)
+public class ReportJobStateException extends RuntimeException {
+
+    public ReportJobStateException(String message) {
+        super(message);
+    }
+}
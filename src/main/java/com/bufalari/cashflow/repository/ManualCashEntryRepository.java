@@ -1,8 +1,12 @@
 package com.bufalari.cashflow.repository;
 
 import com.bufalari.cashflow.entity.ManualCashEntry;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -10,20 +14,50 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID; // <<<--- IMPORT UUID
+import java.util.stream.Stream;
 
 /**
  * Spring Data JPA repository for ManualCashEntry entities (with UUID ID).
  * Repositório Spring Data JPA para entidades ManualCashEntry (com ID UUID).
  */
 @Repository
-public interface ManualCashEntryRepository extends JpaRepository<ManualCashEntry, UUID> { // <<<--- Changed to UUID
+public interface ManualCashEntryRepository extends JpaRepository<ManualCashEntry, UUID>, JpaSpecificationExecutor<ManualCashEntry> { // <<<--- Changed to UUID
 
     /**
      * Finds all manual entries within a specific date range, ordered by date ascending.
      * Encontra todos os lançamentos manuais dentro de um intervalo de datas específico, ordenados por data ascendente.
+     * Query-cached: repeated ranges return cached ids and load the entries from the entity cache; any write to the table
+     * invalidates the region. Em cache de consultas: intervalos repetidos retornam ids em cache e carregam os lançamentos
+     * do cache de entidades; qualquer escrita na tabela invalida a região.
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "manual-entries-by-date")
+    })
     List<ManualCashEntry> findByEntryDateBetweenOrderByEntryDateAsc(LocalDate startDate, LocalDate endDate);
 
+    /**
+     * Sums manual entry amounts per day and type within a date range (used by the forecast).
+     * Only reads entryDate, type and amount, so it can be answered from idx_manual_entry_date_type_amount.
+     * Soma os valores dos lançamentos manuais por dia e tipo dentro de um intervalo de datas (usado pela projeção).
+     * Lê apenas entryDate, type e amount, podendo ser respondida pelo índice idx_manual_entry_date_type_amount.
+     */
+    @Query("SELECT m.entryDate AS entryDate, m.type AS type, SUM(m.amount) AS total FROM ManualCashEntry m " +
+            "WHERE m.entryDate >= :startDate AND m.entryDate <= :endDate GROUP BY m.entryDate, m.type")
+    List<ManualEntryDailyTotal> sumAmountsByDayAndType(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    /**
+     * Every manual entry amount summed per day, type, project and cost center, in day order (cash history rebuild).
+     * Must be consumed inside a transaction and closed.
+     * Todos os valores de lançamentos manuais somados por dia, tipo, projeto e centro de custo, em ordem de dia
+     * (reconstrução do histórico de caixa). Deve ser consumido dentro de uma transação e fechado.
+     */
+    @Query("SELECT m.entryDate AS entryDate, m.type AS type, m.projectId AS projectId, m.costCenterId AS costCenterId, " +
+            "SUM(m.amount) AS total FROM ManualCashEntry m " +
+            "GROUP BY m.entryDate, m.type, m.projectId, m.costCenterId ORDER BY m.entryDate")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<ManualEntryHistoryTotal> streamHistoryTotals();
+
     /**
      * Calculates the sum of amounts for manual entries within a date range for CREDIT type. Returns 0 if no entries found.
      * Calcula a soma dos valores para lançamentos manuais dentro de um intervalo de datas para o tipo CRÉDITO. Retorna 0 se nenhum lançamento for encontrado.
@@ -0,0 +1,68 @@
+package com.bufalari.cashflow.repository;
+
+import com.bufalari.cashflow.dto.ManualCashEntryFilterDTO;
+import com.bufalari.cashflow.entity.ManualCashEntry;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Criteria for the manual entry listing: the optional filters plus the keyset condition on (entryDate, id).
+ * Critérios para a listagem de lançamentos manuais: os filtros opcionais mais a condição keyset sobre (entryDate, id).
+ */
+public final class ManualCashEntrySpecifications {
+
+    /**
+     * Listing order; must match the keyset condition and the (…, entry_date, id) indexes.
+     * Ordem da listagem; deve corresponder à condição keyset e aos índices (…, entry_date, id).
+     */
+    public static final Sort KEYSET_ORDER = Sort.by(Sort.Order.asc("entryDate"), Sort.Order.asc("id"));
+
+    private ManualCashEntrySpecifications() {
+    }
+
+    /**
+     * Entries matching every non-null filter. / Lançamentos que atendem a todos os filtros não nulos.
+     */
+    public static Specification<ManualCashEntry> matching(ManualCashEntryFilterDTO filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (filter.getStartDate() != null) predicates.add(cb.greaterThanOrEqualTo(root.get("entryDate"), filter.getStartDate()));
+            if (filter.getEndDate() != null) predicates.add(cb.lessThanOrEqualTo(root.get("entryDate"), filter.getEndDate()));
+            if (filter.getType() != null) predicates.add(cb.equal(root.get("type"), filter.getType()));
+            if (filter.getProjectId() != null) predicates.add(cb.equal(root.get("projectId"), filter.getProjectId()));
+            if (filter.getCostCenterId() != null) predicates.add(cb.equal(root.get("costCenterId"), filter.getCostCenterId()));
+            if (filter.getMinAmount() != null) predicates.add(cb.greaterThanOrEqualTo(root.get("amount"), filter.getMinAmount()));
+            if (filter.getMaxAmount() != null) predicates.add(cb.lessThanOrEqualTo(root.get("amount"), filter.getMaxAmount()));
+            if (filter.getDescription() != null && !filter.getDescription().isBlank()) {
+                // LOWER(description) LIKE '%text%' is what idx_manual_entry_description_trgm serves on PostgreSQL
+                predicates.add(cb.like(cb.lower(root.get("description")),
+                        "%" + escapeLike(filter.getDescription().trim().toLowerCase(Locale.ROOT)) + "%", '\\'));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    /**
+     * Entries strictly after the given position in (entryDate, id) order.
+     * Lançamentos estritamente após a posição informada na ordem (entryDate, id).
+     */
+    public static Specification<ManualCashEntry> after(LocalDate entryDate, UUID id) {
+        // The redundant leading "entryDate >= :date" gives the planner an index range start; the OR alone is not sargable
+        return (root, query, cb) -> cb.and(
+                cb.greaterThanOrEqualTo(root.get("entryDate"), entryDate),
+                cb.or(
+                        cb.greaterThan(root.get("entryDate"), entryDate),
+                        cb.and(cb.equal(root.get("entryDate"), entryDate), cb.greaterThan(root.get("id"), id))));
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,16 @@
+package com.bufalari.cashflow.repository;
+
+import com.bufalari.cashflow.enums.EntryType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Projection of manual entry amounts pre-summed per day and entry type.
+ * Projeção dos valores de lançamentos manuais pré-somados por dia e tipo de lançamento.
+ */
+public interface ManualEntryDailyTotal {
+    LocalDate getEntryDate();
+    EntryType getType();
+    BigDecimal getTotal();
+}
@@ -0,0 +1,18 @@
+package com.bufalari.cashflow.repository;
+
+import com.bufalari.cashflow.enums.EntryType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Projection of manual entry amounts pre-summed per day, type, project and cost center (cash history).
+ * Projeção dos valores de lançamentos manuais pré-somados por dia, tipo, projeto e centro de custo (histórico de caixa).
+ */
+public interface ManualEntryHistoryTotal {
+    LocalDate getEntryDate();
+    EntryType getType();
+    Long getProjectId();
+    Long getCostCenterId();
+    BigDecimal getTotal();
+}
@@ -0,0 +1,61 @@
+package com.bufalari.cashflow.repository;
+
+import com.bufalari.cashflow.entity.ReportJob;
+import com.bufalari.cashflow.enums.ReportJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Spring Data JPA repository for report jobs. Status changes are conditional updates, so a cancel and a finishing
+ * worker can never overwrite each other.
+ * Repositório Spring Data JPA para jobs de relatório. Mudanças de status são updates condicionais, então um
+ * cancelamento e um worker terminando nunca sobrescrevem um ao outro.
+ */
+@Repository
+public interface ReportJobRepository extends JpaRepository<ReportJob, UUID> {
+
+    /**
+     * Moves a job from one status to another (with its timestamps) only if it is still in the expected status.
+     * Move um job de um status para outro (com seus timestamps) somente se ainda estiver no status esperado.
+     * @return 1 if the transition happened, 0 otherwise. / 1 se a transição ocorreu, 0 caso contrário.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ReportJob j SET j.status = :to, j.startedAt = :now, j.heartbeatAt = :now WHERE j.id = :id AND j.status = :from")
+    int markStarted(@Param("id") UUID id, @Param("from") ReportJobStatus from, @Param("to") ReportJobStatus to, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ReportJob j SET j.status = :to, j.finishedAt = :now, j.errorMessage = :error, "
+            + "j.resultSize = :resultSize, j.compressedSize = :compressedSize WHERE j.id = :id AND j.status IN :from")
+    int markFinished(@Param("id") UUID id, @Param("from") Collection<ReportJobStatus> from, @Param("to") ReportJobStatus to,
+                     @Param("now") Instant now, @Param("error") String error,
+                     @Param("resultSize") Long resultSize, @Param("compressedSize") Long compressedSize);
+
+    /**
+     * Refreshes the heartbeat of this owner's unfinished jobs. / Renova o heartbeat dos jobs não concluídos deste dono.
+     * @return Number of jobs touched. / Número de jobs atualizados.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ReportJob j SET j.heartbeatAt = :now WHERE j.id IN :ids AND j.owner = :owner AND j.status IN :statuses")
+    int touchHeartbeats(@Param("ids") Collection<UUID> ids, @Param("owner") String owner,
+                        @Param("statuses") Collection<ReportJobStatus> statuses, @Param("now") Instant now);
+
+    /**
+     * Unfinished jobs whose heartbeat is older than the cutoff (their owner died or restarted).
+     * Jobs não concluídos cujo heartbeat é anterior ao limite (seu dono caiu ou reiniciou).
+     */
+    List<ReportJob> findByStatusInAndHeartbeatAtBefore(Collection<ReportJobStatus> statuses, Instant cutoff);
+
+    List<ReportJob> findByFinishedAtBefore(Instant cutoff);
+}
@@ -0,0 +1,15 @@
+package com.bufalari.cashflow.repository;
+
+import com.bufalari.cashflow.entity.ReportJobResult;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+/**
+ * Spring Data JPA repository for stored report job results.
+ * Repositório Spring Data JPA para os resultados armazenados dos jobs de relatório.
+ */
+@Repository
+public interface ReportJobResultRepository extends JpaRepository<ReportJobResult, UUID> {
+}
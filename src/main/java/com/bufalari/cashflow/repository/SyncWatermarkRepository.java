@@ -0,0 +1,28 @@
+package com.bufalari.cashflow.repository;
+
+import com.bufalari.cashflow.entity.SyncWatermark;
+import com.bufalari.cashflow.enums.UpstreamSource;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Spring Data JPA repository for sync watermarks.
+ * Repositório Spring Data JPA para marcas d'água de sincronização.
+ */
+@Repository
+public interface SyncWatermarkRepository extends JpaRepository<SyncWatermark, UpstreamSource> {
+
+    /**
+     * Loads a watermark row locked for update, so only one instance applies a given page.
+     * Carrega uma marca d'água bloqueada para atualização, para que apenas uma instância aplique uma dada página.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM SyncWatermark w WHERE w.source = :source")
+    Optional<SyncWatermark> findForUpdate(@Param("source") UpstreamSource source);
+}
@@ -0,0 +1,16 @@
+package com.bufalari.cashflow.repository;
+
+import com.bufalari.cashflow.enums.UpstreamSource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Projection of settled AP/AR amounts (local copy) pre-summed per settlement day and source (cash history).
+ * Projeção dos valores liquidados de AP/AR (cópia local) pré-somados por dia de liquidação e origem (histórico de caixa).
+ */
+public interface SyncedSettlementDailyTotal {
+    LocalDate getSettlementDate();
+    UpstreamSource getSource();
+    BigDecimal getTotal();
+}
@@ -0,0 +1,57 @@
+package com.bufalari.cashflow.repository;
+
+import com.bufalari.cashflow.entity.SyncedUpstreamRecord;
+import com.bufalari.cashflow.enums.UpstreamSource;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Spring Data JPA repository for the local copy of AP/AR summaries.
+ * Repositório Spring Data JPA para a cópia local dos resumos de AP/AR.
+ */
+@Repository
+public interface SyncedUpstreamRecordRepository extends JpaRepository<SyncedUpstreamRecord, SyncedUpstreamRecord.Key> {
+
+    /**
+     * Settled records of a source within a settlement date range, ordered by date (statement).
+     * Registros liquidados de uma origem em um intervalo de datas de liquidação, ordenados por data (demonstrativo).
+     */
+    List<SyncedUpstreamRecord> findBySourceAndSettlementDateBetweenOrderBySettlementDateAsc(UpstreamSource source, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Records of a source due within a date range, excluding the given statuses; records without a status are kept (forecast).
+     * Registros de uma origem com vencimento em um intervalo, excluindo os status informados; registros sem status são mantidos (projeção).
+     */
+    @Query("SELECT r FROM SyncedUpstreamRecord r WHERE r.source = :source AND r.dueDate BETWEEN :startDate AND :endDate " +
+            "AND (r.status IS NULL OR r.status NOT IN :excludedStatuses)") // NOT IN alone drops NULL statuses
+    List<SyncedUpstreamRecord> findOpenBySourceAndDueDateBetween(@Param("source") UpstreamSource source, @Param("startDate") LocalDate startDate,
+                                                                 @Param("endDate") LocalDate endDate, @Param("excludedStatuses") Collection<String> excludedStatuses);
+
+    /**
+     * Settled amounts of every record summed per settlement day and source, in day order (cash history rebuild).
+     * Must be consumed inside a transaction and closed.
+     * Valores liquidados de todos os registros somados por dia de liquidação e origem, em ordem de dia (reconstrução do
+     * histórico de caixa). Deve ser consumido dentro de uma transação e fechado.
+     */
+    @Query("SELECT r.settlementDate AS settlementDate, r.source AS source, SUM(r.amountSettled) AS total " +
+            "FROM SyncedUpstreamRecord r WHERE r.settlementDate IS NOT NULL AND r.amountSettled IS NOT NULL " +
+            "GROUP BY r.settlementDate, r.source ORDER BY r.settlementDate")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<SyncedSettlementDailyTotal> streamSettledDailyTotals();
+
+    @Modifying
+    @Query("DELETE FROM SyncedUpstreamRecord r WHERE r.source = :source AND r.upstreamId IN :ids")
+    int deleteBySourceAndUpstreamIdIn(@Param("source") UpstreamSource source, @Param("ids") Collection<UUID> ids);
+}
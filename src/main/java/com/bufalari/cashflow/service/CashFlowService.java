@@ -8,17 +8,23 @@ import com.bufalari.cashflow.entity.ManualCashEntry;
 import com.bufalari.cashflow.enums.EntryType;
 import com.bufalari.cashflow.enums.PayableStatus; // Import enums used in DTOs
 import com.bufalari.cashflow.enums.ReceivableStatus; // Import enums used in DTOs
+import com.bufalari.cashflow.enums.UpstreamSource;
 import com.bufalari.cashflow.exception.ResourceNotFoundException;
 import com.bufalari.cashflow.repository.ManualCashEntryRepository;
+import com.bufalari.cashflow.repository.ManualCashEntrySpecifications;
+import com.bufalari.cashflow.util.RequestDeadline;
+import com.bufalari.cashflow.util.SortedMergeIterator;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -42,6 +48,12 @@ public class CashFlowService {
     // Feign Clients
     private final AccountsPayableClient payableClient;
     private final AccountsReceivableClient receivableClient;
+    private final UpstreamFetchPlanner upstreamFetchPlanner;
+    private final UpstreamSegmentCache upstreamSegmentCache;
+    private final UpstreamSyncService upstreamSyncService; // Local AP/AR copy when the watermark sync is enabled
+
+    // Report data version (ETags, change notifications)
+    private final DataVersionTracker dataVersionTracker;
 
     // --- Manual Entry Management (using UUID) ---
 
@@ -61,6 +73,7 @@ public class CashFlowService {
         // @PrePersist/Update in entity validates amount
         ManualCashEntry saved = manualCashEntryRepository.save(entity);
         log.info("Manual cash entry created with ID: {}", saved.getId());
+        dataVersionTracker.manualEntriesChanged();
         return manualCashEntryConverter.entityToDTO(saved);
     }
 
@@ -82,6 +95,33 @@ public class CashFlowService {
                 });
     }
 
+    /**
+     * Lists manual entries matching the filters, one keyset page at a time in (entryDate, id) order.
+     * Each page seeks directly past the previous page's last entry, so deep pages cost the same as the first.
+     * Lista lançamentos manuais que atendem aos filtros, uma página keyset por vez na ordem (entryDate, id).
+     * Cada página busca diretamente após o último lançamento da página anterior, então páginas profundas custam o mesmo que a primeira.
+     * @param filter Optional filters. / Filtros opcionais.
+     * @param cursor Position after which to continue, or null for the first page. / Posição a partir da qual continuar, ou null.
+     * @param limit Page size. / Tamanho da página.
+     * @return The page and the cursor of the next one. / A página e o cursor da próxima.
+     */
+    @Transactional(readOnly = true)
+    public ManualCashEntryPageDTO listManualEntries(ManualCashEntryFilterDTO filter, ManualEntryCursor cursor, int limit) {
+        log.debug("Listing manual entries with filter {} after {} (limit {})", filter, cursor, limit);
+        Specification<ManualCashEntry> spec = ManualCashEntrySpecifications.matching(filter);
+        if (cursor != null) {
+            spec = spec.and(ManualCashEntrySpecifications.after(cursor.entryDate(), cursor.id()));
+        }
+        // One extra row tells whether another page exists, without a COUNT query
+        List<ManualCashEntry> rows = manualCashEntryRepository.findBy(spec,
+                query -> query.sortBy(ManualCashEntrySpecifications.KEYSET_ORDER).limit(limit + 1).all());
+        boolean hasMore = rows.size() > limit;
+        List<ManualCashEntry> page = hasMore ? rows.subList(0, limit) : rows;
+        ManualCashEntry last = page.isEmpty() ? null : page.get(page.size() - 1);
+        String nextCursor = hasMore ? new ManualEntryCursor(last.getEntryDate(), last.getId()).encode() : null;
+        return new ManualCashEntryPageDTO(page.stream().map(manualCashEntryConverter::entityToDTO).toList(), nextCursor, hasMore);
+    }
+
     /**
      * Deletes a manual cash entry by its UUID.
      * Deleta um lançamento manual de caixa por seu UUID.
@@ -95,6 +135,7 @@ public class CashFlowService {
             throw new ResourceNotFoundException("Manual cash entry not found with ID: " + id);
         }
         manualCashEntryRepository.deleteById(id); // <<<--- Use deleteById with UUID
+        dataVersionTracker.manualEntriesChanged();
         log.info("Manual entry deleted successfully with ID: {}", id);
     }
 
@@ -140,86 +181,172 @@ public class CashFlowService {
     @Transactional(readOnly = true)
     public CashFlowStatementDTO getCashFlowStatement(LocalDate startDate, LocalDate endDate, BigDecimal openingBalance) {
         log.info("Generating cash flow statement from {} to {} with opening balance {}", startDate, endDate, openingBalance);
+        StatementItemSources sources = loadStatementItems(startDate, endDate);
+        return logSummary(assembleStatement(startDate, endDate, openingBalance, sources));
+    }
 
-        // 1. Fetch Paid Payables based on Payment Date within the range
-        List<PayableSummaryDTO> paidPayables = new ArrayList<>();
+    /**
+     * Generates consecutive statements for several periods from a single fetch of the union range.
+     * Items are partitioned into periods in one pass; flows falling in gaps between periods are carried
+     * into the next opening balance, and each closing balance becomes the next opening balance.
+     * Gera demonstrativos consecutivos para vários períodos a partir de uma única busca do intervalo total.
+     * Os itens são particionados em uma única passada; fluxos em lacunas entre períodos são levados ao
+     * próximo saldo inicial, e cada saldo final se torna o saldo inicial seguinte.
+     * @param periods Chronological, non-overlapping periods. / Períodos cronológicos, sem sobreposição.
+     * @param openingBalance Cash balance at the beginning of the first period. / Saldo no início do primeiro período.
+     * @return The chained statements. / Os demonstrativos encadeados.
+     */
+    @Transactional(readOnly = true)
+    public MultiPeriodStatementDTO getMultiPeriodStatement(List<StatementPeriodDTO> periods, BigDecimal openingBalance) {
+        LocalDate unionStart = periods.get(0).getStartDate();
+        LocalDate unionEnd = periods.get(periods.size() - 1).getEndDate();
+        log.info("Generating {} chained cash flow statements from {} to {}", periods.size(), unionStart, unionEnd);
+        StatementItemSources union = loadStatementItems(unionStart, unionEnd);
+
+        // Partition every source in a single pass; gapNet[i] collects flows between period i-1 and period i
+        int count = periods.size();
+        LocalDate[] starts = periods.stream().map(StatementPeriodDTO::getStartDate).toArray(LocalDate[]::new);
+        BigDecimal[] gapNet = new BigDecimal[count];
+        Arrays.fill(gapNet, BigDecimal.ZERO);
+        List<List<CashFlowItemDTO>> receivables = partition(union.getReceivables(), periods, starts, gapNet, false);
+        List<List<CashFlowItemDTO>> manualCredits = partition(union.getManualCredits(), periods, starts, gapNet, false);
+        List<List<CashFlowItemDTO>> payables = partition(union.getPayables(), periods, starts, gapNet, true);
+        List<List<CashFlowItemDTO>> manualDebits = partition(union.getManualDebits(), periods, starts, gapNet, true);
+
+        List<CashFlowStatementDTO> statements = new ArrayList<>(count);
+        BigDecimal runningBalance = openingBalance;
+        for (int i = 0; i < count; i++) {
+            StatementPeriodDTO period = periods.get(i);
+            StatementItemSources periodSources = new StatementItemSources(
+                    receivables.get(i), manualCredits.get(i), payables.get(i), manualDebits.get(i));
+            CashFlowStatementDTO statement = logSummary(assembleStatement(period.getStartDate(), period.getEndDate(),
+                    runningBalance.add(gapNet[i]), periodSources));
+            statements.add(statement);
+            runningBalance = statement.getClosingBalance();
+        }
+        return new MultiPeriodStatementDTO(unionStart, unionEnd, openingBalance, runningBalance, statements);
+    }
+
+    /**
+     * Splits a date-sorted source into per-period lists (order preserved). Items between periods go to gapNet.
+     * Divide uma origem ordenada por data em listas por período (ordem preservada). Itens entre períodos vão para gapNet.
+     */
+    private static List<List<CashFlowItemDTO>> partition(List<CashFlowItemDTO> items, List<StatementPeriodDTO> periods,
+                                                         LocalDate[] starts, BigDecimal[] gapNet, boolean outflow) {
+        List<List<CashFlowItemDTO>> partitions = new ArrayList<>(periods.size());
+        periods.forEach(p -> partitions.add(new ArrayList<>()));
+        for (CashFlowItemDTO item : items) {
+            if (item.getDate() == null) continue;
+            int search = Arrays.binarySearch(starts, item.getDate());
+            int period = search >= 0 ? search : -search - 2; // Last period starting on or before the item date
+            if (period < 0) continue; // Before the first period (cannot happen for the union range)
+            if (!item.getDate().isAfter(periods.get(period).getEndDate())) {
+                partitions.get(period).add(item);
+            } else if (period + 1 < periods.size()) {
+                gapNet[period + 1] = gapNet[period + 1].add(outflow ? item.getAmount().negate() : item.getAmount());
+            }
+        }
+        return partitions;
+    }
+
+    /**
+     * Fetches AP, AR and manual entries for a period and maps them to statement items, one date-sorted list per source.
+     * Busca AP, AR e lançamentos manuais de um período e os mapeia para itens do demonstrativo, uma lista ordenada por origem.
+     * @param startDate Start date of the period (inclusive). / Data de início do período (inclusiva).
+     * @param endDate End date of the period (inclusive). / Data de fim do período (inclusiva).
+     * @return Items per source, each sorted by date. / Itens por origem, cada um ordenado por data.
+     */
+    @Transactional(readOnly = true)
+    public StatementItemSources loadStatementItems(LocalDate startDate, LocalDate endDate) {
+        // 1. Fetch Paid Payables based on Payment Date within the range (cached month segments, missing months fetched)
+        List<CashFlowItemDTO> payableItems = new ArrayList<>();
         try {
-            paidPayables = payableClient.getPayablesSummaryByPaymentDateRange(startDate, endDate);
-            log.debug("Fetched {} paid payable summaries from AP service.", paidPayables.size());
+            Consumer<List<PayableSummaryDTO>> payableSink = chunk -> chunk.forEach(p -> payableItems.add(new CashFlowItemDTO(
+                    p.getPaymentDate(), // Date it was paid
+                    "Payable: " + p.getId(), // Description uses UUID
+                    p.getAmountPaid() != null ? p.getAmountPaid() : BigDecimal.ZERO, // Use amount paid
+                    "PAYABLE",
+                    p.getId() // <<<--- Use UUID
+            )));
+            if (upstreamSyncService.isLocalCopyReady(UpstreamSource.PAYABLE)) {
+                payableSink.accept(upstreamSyncService.paidPayables(startDate, endDate));
+            } else {
+                upstreamSegmentCache.fetchRange(UpstreamSource.PAYABLE, startDate, endDate,
+                        payableClient::getPayablesSummaryByPaymentDateRange, PayableSummaryDTO::getPaymentDate, payableSink);
+            }
+            log.debug("Fetched {} paid payable summaries from AP service.", payableItems.size());
         } catch (Exception e) {
+            RequestDeadline.checkpoint(); // Out of time (or canceled): abort instead of carrying on without payables
             log.error("Failed to fetch paid payables from AccountsPayableService between {} and {}: {}", startDate, endDate, e.getMessage(), e);
             // Decide handling: continue with empty list, throw exception?
             // Continuing with empty list for now.
+            payableItems.clear();
         }
 
-        // 2. Fetch Received Receivables based on Received Date within the range
-        List<ReceivableSummaryDTO> receivedReceivables = new ArrayList<>();
+        // 2. Fetch Received Receivables based on Received Date within the range (cached month segments, missing months fetched)
+        List<CashFlowItemDTO> receivableItems = new ArrayList<>();
         try {
             // NOTE: Assumes AR service has '/api/receivables/summary-by-received-date' endpoint
-            receivedReceivables = receivableClient.getReceivablesSummaryByReceivedDateRange(startDate, endDate);
-            log.debug("Fetched {} received receivable summaries from AR service.", receivedReceivables.size());
+            Consumer<List<ReceivableSummaryDTO>> receivableSink = chunk -> chunk.forEach(r -> receivableItems.add(new CashFlowItemDTO(
+                    r.getReceivedDate(), // Date it was received
+                    "Receivable: " + r.getId(), // Description uses UUID
+                    r.getAmountReceived() != null ? r.getAmountReceived() : BigDecimal.ZERO, // Use amount received if available
+                    "RECEIVABLE",
+                    r.getId() // <<<--- Use UUID
+            )));
+            if (upstreamSyncService.isLocalCopyReady(UpstreamSource.RECEIVABLE)) {
+                receivableSink.accept(upstreamSyncService.receivedReceivables(startDate, endDate));
+            } else {
+                upstreamSegmentCache.fetchRange(UpstreamSource.RECEIVABLE, startDate, endDate,
+                        receivableClient::getReceivablesSummaryByReceivedDateRange, ReceivableSummaryDTO::getReceivedDate, receivableSink);
+            }
+            log.debug("Fetched {} received receivable summaries from AR service.", receivableItems.size());
         } catch (Exception e) {
+            RequestDeadline.checkpoint();
             log.error("Failed to fetch received receivables from AccountsReceivableService between {} and {}: {}", startDate, endDate, e.getMessage(), e);
             // Continuing with empty list for now.
+            receivableItems.clear();
         }
 
-
-        // 3. Fetch Manual Entries within the date range
+        // 3. Fetch Manual Entries within the date range (already ordered by entryDate); the query times out with the request
+        RequestDeadline.checkpoint();
         List<ManualCashEntry> manualEntries = manualCashEntryRepository.findByEntryDateBetweenOrderByEntryDateAsc(startDate, endDate);
         log.debug("Fetched {} manual cash entries between {} and {}", manualEntries.size(), startDate, endDate);
 
-        // 4. Build CashFlowItemDTO lists for inflows and outflows
-        List<CashFlowItemDTO> inflowItems = new ArrayList<>();
-        List<CashFlowItemDTO> outflowItems = new ArrayList<>();
-
-        // Process Inflows (Received Receivables + Manual Credits)
-        receivedReceivables.forEach(r -> inflowItems.add(new CashFlowItemDTO(
-                r.getReceivedDate(), // Date it was received
-                "Receivable: " + r.getId(), // Description uses UUID
-                r.getAmountReceived() != null ? r.getAmountReceived() : BigDecimal.ZERO, // Use amount received if available
-                "RECEIVABLE",
-                r.getId() // <<<--- Use UUID
+        // 4. Build one CashFlowItemDTO list per source; upstream order is verified and only fixed when broken
+        List<CashFlowItemDTO> manualCreditItems = new ArrayList<>();
+        List<CashFlowItemDTO> manualDebitItems = new ArrayList<>();
+        manualEntries.forEach(m -> (m.getType() == EntryType.CREDIT ? manualCreditItems : manualDebitItems).add(new CashFlowItemDTO(
+                m.getEntryDate(),
+                m.getDescription(),
+                m.getAmount(),
+                m.getType() == EntryType.CREDIT ? "MANUAL_CREDIT" : "MANUAL_DEBIT",
+                m.getId() // <<<--- Use UUID
         )));
-        manualEntries.stream()
-                .filter(m -> m.getType() == EntryType.CREDIT)
-                .forEach(m -> inflowItems.add(new CashFlowItemDTO(
-                        m.getEntryDate(),
-                        m.getDescription(),
-                        m.getAmount(),
-                        "MANUAL_CREDIT",
-                        m.getId() // <<<--- Use UUID
-                )));
-
-        // Process Outflows (Paid Payables + Manual Debits)
-        paidPayables.forEach(p -> outflowItems.add(new CashFlowItemDTO(
-                p.getPaymentDate(), // Date it was paid
-                "Payable: " + p.getId(), // Description uses UUID
-                p.getAmountPaid() != null ? p.getAmountPaid() : BigDecimal.ZERO, // Use amount paid
-                "PAYABLE",
-                p.getId() // <<<--- Use UUID
-        )));
-        manualEntries.stream()
-                .filter(m -> m.getType() == EntryType.DEBIT)
-                .forEach(m -> outflowItems.add(new CashFlowItemDTO(
-                        m.getEntryDate(),
-                        m.getDescription(),
-                        m.getAmount(),
-                        "MANUAL_DEBIT",
-                        m.getId() // <<<--- Use UUID
-                )));
-
-        // 5. Calculate totals
-        BigDecimal totalInflows = inflowItems.stream().map(CashFlowItemDTO::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
-        BigDecimal totalOutflows = outflowItems.stream().map(CashFlowItemDTO::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
-        BigDecimal netCashFlow = totalInflows.subtract(totalOutflows);
-        BigDecimal closingBalance = openingBalance.add(netCashFlow);
 
-        log.info("Cash Flow Statement ({}-{}): Opening={}, Inflows={}, Outflows={}, Net={}, Closing={}",
-                startDate, endDate, openingBalance, totalInflows, totalOutflows, netCashFlow, closingBalance);
+        return new StatementItemSources(
+                SortedMergeIterator.ensureSorted(receivableItems, StatementItemSources.ITEM_DATE_ORDER, "receivables"),
+                SortedMergeIterator.ensureSorted(manualCreditItems, StatementItemSources.ITEM_DATE_ORDER, "manual credits"),
+                SortedMergeIterator.ensureSorted(payableItems, StatementItemSources.ITEM_DATE_ORDER, "payables"),
+                SortedMergeIterator.ensureSorted(manualDebitItems, StatementItemSources.ITEM_DATE_ORDER, "manual debits"));
+    }
 
-        // Sort items by date for the report
-        inflowItems.sort(Comparator.comparing(CashFlowItemDTO::getDate));
-        outflowItems.sort(Comparator.comparing(CashFlowItemDTO::getDate));
+    /**
+     * Builds the statement DTO from per-source items: merges them in date order and calculates the totals.
+     * Monta o DTO do demonstrativo a partir dos itens por origem: mescla-os em ordem de data e calcula os totais.
+     */
+    CashFlowStatementDTO assembleStatement(LocalDate startDate, LocalDate endDate, BigDecimal openingBalance, StatementItemSources sources) {
+        RequestDeadline.checkpoint(); // Nobody will read a late statement: stop before the aggregation
+        // 5. Merge the sorted sources (O(n log k), no full-list sort)
+        List<CashFlowItemDTO> inflowItems = StatementItemSources.toList(sources.inflows(), sources.inflowCount());
+        List<CashFlowItemDTO> outflowItems = StatementItemSources.toList(sources.outflows(), sources.outflowCount());
+
+        // 6. Calculate totals: one pass over every source, in parallel for large statements
+        StatementTotals totals = StatementTotals.of(sources);
+        BigDecimal totalInflows = totals.totalInflows();
+        BigDecimal totalOutflows = totals.totalOutflows();
+        BigDecimal netCashFlow = totalInflows.subtract(totalOutflows);
+        BigDecimal closingBalance = openingBalance.add(netCashFlow);
 
         return CashFlowStatementDTO.builder()
                 .startDate(startDate)
@@ -234,6 +361,13 @@ public class CashFlowService {
                 .build();
     }
 
+    private static CashFlowStatementDTO logSummary(CashFlowStatementDTO statement) {
+        log.info("Cash Flow Statement ({}-{}): Opening={}, Inflows={}, Outflows={}, Net={}, Closing={}",
+                statement.getStartDate(), statement.getEndDate(), statement.getOpeningBalance(), statement.getTotalInflows(),
+                statement.getTotalOutflows(), statement.getNetCashFlow(), statement.getClosingBalance());
+        return statement;
+    }
+
     /**
      * Projects the cash flow for a specified number of days into the future from today.
      * Projeta o fluxo de caixa para um número especificado de dias no futuro a partir de hoje.
@@ -244,75 +378,98 @@ public class CashFlowService {
     @Transactional(readOnly = true)
     public CashFlowForecastDTO getCashFlowForecast(int daysAhead, BigDecimal currentBalance) {
         log.info("Generating cash flow forecast for {} days ahead, starting balance {}", daysAhead, currentBalance);
+        CashFlowForecastDTO forecast = projectForecast(loadForecastSnapshot(daysAhead), currentBalance);
+        log.info("Cash flow forecast generated up to {}", forecast.getForecastStartDate().plusDays(daysAhead));
+        return forecast;
+    }
+
+    /**
+     * Projects daily balances from a loaded snapshot (no I/O).
+     * Projeta os saldos diários a partir de um snapshot carregado (sem I/O).
+     */
+    CashFlowForecastDTO projectForecast(ForecastSnapshot snapshot, BigDecimal currentBalance) {
+        // Calculate expected net flow for each day in the forecast period (starts from planned manual entries)
+        BigDecimal[] dailyNetFlow = snapshot.newDayBuckets();
+        snapshot.getExpectedReceipts().forEach(r -> {
+            int day = snapshot.dayIndex(r.getDueDate());
+            if (day >= 0) dailyNetFlow[day] = dailyNetFlow[day].add(r.getAmount()); // Add expected inflow on due date
+        });
+        snapshot.getExpectedPayments().forEach(p -> {
+            int day = snapshot.dayIndex(p.getDueDate());
+            if (day >= 0) dailyNetFlow[day] = dailyNetFlow[day].subtract(p.getAmount()); // Subtract expected outflow on due date
+        });
+
+        // Calculate cumulative projected balance day by day
+        Map<LocalDate, BigDecimal> dailyProjectedBalance = snapshot.accumulate(currentBalance, dailyNetFlow);
+
+        return new CashFlowForecastDTO(snapshot.getStartDate(), currentBalance, dailyProjectedBalance);
+    }
+
+    /**
+     * Fetches pending AP/AR data for the forecast window once and freezes it into an immutable snapshot.
+     * Busca os dados pendentes de AP/AR da janela de projeção uma única vez e os congela em um snapshot imutável.
+     * @param daysAhead Number of days to forecast. / Número de dias para projetar.
+     * @return Snapshot covering today through today + daysAhead. / Snapshot cobrindo hoje até hoje + daysAhead.
+     */
+    @Transactional(readOnly = true)
+    public ForecastSnapshot loadForecastSnapshot(int daysAhead) {
         LocalDate today = LocalDate.now();
-        LocalDate forecastEndDate = today.plusDays(daysAhead); // End date is exclusive for stream limit
+        LocalDate forecastEndDate = today.plusDays(daysAhead); // Inclusive
 
-        // 1. Get Pending Payables due within the forecast period
-        List<PayableSummaryDTO> pendingPayables = new ArrayList<>();
+        // 1. Get Pending Payables due within the forecast period, keeping only positive remaining amounts with a due date
+        List<ForecastSnapshot.ExpectedPayment> expectedPayments = new ArrayList<>();
         try {
-            pendingPayables = payableClient.getPendingPayablesSummaryByDueDateRange(today, forecastEndDate);
-            log.debug("Fetched {} pending payable summaries for forecast.", pendingPayables.size());
+            upstreamFetchPlanner.fetchInChunks("pending payables", today, forecastEndDate,
+                    upstreamSyncService.isLocalCopyReady(UpstreamSource.PAYABLE)
+                            ? upstreamSyncService::pendingPayables : payableClient::getPendingPayablesSummaryByDueDateRange,
+                    chunk -> chunk.forEach(p -> {
+                        BigDecimal remaining = nullToZero(p.getAmountDue()).subtract(nullToZero(p.getAmountPaid()));
+                        if (remaining.compareTo(BigDecimal.ZERO) > 0 && p.getDueDate() != null) {
+                            expectedPayments.add(new ForecastSnapshot.ExpectedPayment(p.getId(), p.getDueDate(), remaining, p.getStatus()));
+                        }
+                    }));
+            log.debug("Fetched {} pending payables with an amount due for forecast.", expectedPayments.size());
         } catch (Exception e) {
+            RequestDeadline.checkpoint(); // Out of time (or canceled): abort instead of carrying on without payables
             log.error("Failed to fetch pending payables from AP service for forecast: {}", e.getMessage(), e);
             // Continue with empty list
+            expectedPayments.clear();
         }
 
-        // 2. Get Pending Receivables due within the forecast period
-        List<ReceivableSummaryDTO> pendingReceivables = new ArrayList<>();
+        // 2. Get Pending Receivables due within the forecast period, keeping only positive remaining amounts with a due date
+        List<ForecastSnapshot.ExpectedReceipt> expectedReceipts = new ArrayList<>();
         try {
             // NOTE: Assumes AR service has '/api/receivables/pending-summary-by-due-date' endpoint
-            pendingReceivables = receivableClient.getPendingReceivablesSummaryByDueDateRange(today, forecastEndDate);
-            log.debug("Fetched {} pending receivable summaries for forecast.", pendingReceivables.size());
+            upstreamFetchPlanner.fetchInChunks("pending receivables", today, forecastEndDate,
+                    upstreamSyncService.isLocalCopyReady(UpstreamSource.RECEIVABLE)
+                            ? upstreamSyncService::pendingReceivables : receivableClient::getPendingReceivablesSummaryByDueDateRange,
+                    chunk -> chunk.forEach(r -> {
+                        BigDecimal remaining = nullToZero(r.getAmountExpected()).subtract(nullToZero(r.getAmountReceived()));
+                        if (remaining.compareTo(BigDecimal.ZERO) > 0 && r.getDueDate() != null) {
+                            expectedReceipts.add(new ForecastSnapshot.ExpectedReceipt(r.getId(), r.getDueDate(), remaining, r.getStatus()));
+                        }
+                    }));
+            log.debug("Fetched {} pending receivables with an amount expected for forecast.", expectedReceipts.size());
         } catch (Exception e) {
+            RequestDeadline.checkpoint();
             log.error("Failed to fetch pending receivables from AR service for forecast: {}", e.getMessage(), e);
             // Continue with empty list
+            expectedReceipts.clear();
         }
 
-        // 3. Get Future-dated Manual Entries (Optional - if needed)
-        // List<ManualCashEntry> futureManualEntries = manualCashEntryRepository.findByEntryDateBetweenOrderByEntryDateAsc(today, forecastEndDate);
-        // log.debug("Fetched {} future manual entries for forecast.", futureManualEntries.size());
-
-        // 4. Calculate expected net flow for each day in the forecast period
-        Map<LocalDate, BigDecimal> dailyNetFlow = new HashMap<>();
+        // 3. Get Future-dated Manual Entries, pre-summed per day and type by the database
+        RequestDeadline.checkpoint();
+        List<ForecastSnapshot.PlannedManualTotal> plannedManualTotals = manualCashEntryRepository
+                .sumAmountsByDayAndType(today, forecastEndDate).stream()
+                .map(t -> new ForecastSnapshot.PlannedManualTotal(t.getEntryDate(), t.getType(), t.getTotal()))
+                .collect(Collectors.toList());
+        log.debug("Fetched {} daily manual entry totals for forecast.", plannedManualTotals.size());
 
-        // Process expected inflows (Pending Receivables)
-        pendingReceivables.forEach(r -> {
-            // Calculate remaining amount expected
-            BigDecimal remaining = r.getAmountExpected().subtract(r.getAmountReceived() != null ? r.getAmountReceived() : BigDecimal.ZERO);
-            // Only consider positive remaining amounts expected by the due date
-            if (remaining.compareTo(BigDecimal.ZERO) > 0 && r.getDueDate() != null) {
-                dailyNetFlow.merge(r.getDueDate(), remaining, BigDecimal::add); // Add expected inflow on due date
-            }
-        });
-
-        // Process expected outflows (Pending Payables)
-        pendingPayables.forEach(p -> {
-            // Calculate remaining amount due
-            BigDecimal remaining = p.getAmountDue().subtract(p.getAmountPaid() != null ? p.getAmountPaid() : BigDecimal.ZERO);
-            // Only consider positive remaining amounts due by the due date
-            if (remaining.compareTo(BigDecimal.ZERO) > 0 && p.getDueDate() != null) {
-                dailyNetFlow.merge(p.getDueDate(), remaining.negate(), BigDecimal::add); // Subtract expected outflow on due date
-            }
-        });
-
-        // Process future manual entries (if fetched)
-        // futureManualEntries.forEach(m -> {
-        //     BigDecimal amount = (m.getType() == EntryType.CREDIT) ? m.getAmount() : m.getAmount().negate();
-        //     dailyNetFlow.merge(m.getEntryDate(), amount, BigDecimal::add);
-        // });
-
-        // 5. Calculate cumulative projected balance day by day
-        Map<LocalDate, BigDecimal> dailyProjectedBalance = new TreeMap<>(); // Use TreeMap to keep dates sorted
-        BigDecimal runningBalance = currentBalance;
-        for (LocalDate date = today; !date.isAfter(forecastEndDate); date = date.plusDays(1)) {
-            runningBalance = runningBalance.add(dailyNetFlow.getOrDefault(date, BigDecimal.ZERO));
-            dailyProjectedBalance.put(date, runningBalance);
-            log.trace("Forecast - Date: {}, Daily Net: {}, Projected Balance: {}", date, dailyNetFlow.getOrDefault(date, BigDecimal.ZERO), runningBalance);
-        }
-
-        log.info("Cash flow forecast generated up to {}", forecastEndDate);
+        return new ForecastSnapshot(today, forecastEndDate, expectedReceipts, expectedPayments, plannedManualTotals);
+    }
 
-        return new CashFlowForecastDTO(today, currentBalance, dailyProjectedBalance);
+    private static BigDecimal nullToZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
     }
 
 }
\ No newline at end of file
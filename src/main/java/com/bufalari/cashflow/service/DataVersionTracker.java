@@ -0,0 +1,103 @@
+package com.bufalari.cashflow.service;
+
+import com.bufalari.cashflow.enums.UpstreamSource;
+import com.bufalari.cashflow.event.CashFlowDataChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks a monotonically increasing version of the data behind the cash flow reports and derives ETags from it.
+ * The version is bumped after manual-entry writes commit and when AP/AR report upstream changes.
+ * Controla uma versão monotonicamente crescente dos dados por trás dos relatórios de fluxo de caixa e deriva ETags dela.
+ * A versão é incrementada após o commit de escritas de lançamentos manuais e quando AP/AR informam alterações.
+ */
+@Component
+public class DataVersionTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(DataVersionTracker.class);
+
+    // Start from the boot time so a restarted instance never re-issues an ETag of its previous life
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Other instances only learn about their own writes, so ETags also roll over after this window
+    @Value("${cashflow.etag.max-age-seconds:60}")
+    private long maxAgeSeconds;
+
+    public DataVersionTracker(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    public long currentVersion() {
+        return version.get();
+    }
+
+    /**
+     * Bumps the version once the current transaction commits (immediately if there is none),
+     * so a concurrent reader can never pair the new version with the old data.
+     * Incrementa a versão quando a transação atual fizer commit (imediatamente se não houver),
+     * para que um leitor concorrente nunca associe a nova versão aos dados antigos.
+     */
+    public void manualEntriesChanged() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump(null);
+                }
+            });
+        } else {
+            bump(null);
+        }
+    }
+
+    /**
+     * Bumps the version after an upstream (AP/AR) change notification.
+     * Incrementa a versão após uma notificação de alteração na origem (AP/AR).
+     */
+    public void upstreamChanged(UpstreamSource source) {
+        bump(source);
+    }
+
+    private void bump(UpstreamSource source) {
+        long newVersion = version.incrementAndGet();
+        log.debug("Cash flow data version bumped to {} ({})", newVersion, source != null ? source : "manual entries");
+        eventPublisher.publishEvent(new CashFlowDataChangedEvent(this, newVersion, source));
+    }
+
+    /**
+     * Builds a strong ETag for a report from its normalised parameters, the data version and the current day.
+     * Constrói um ETag forte para um relatório a partir dos parâmetros normalizados, da versão dos dados e do dia atual.
+     * @param report Report name (e.g. "statement"). / Nome do relatório.
+     * @param params Request parameters. / Parâmetros da requisição.
+     * @return Quoted ETag value. / Valor do ETag entre aspas.
+     */
+    public String etag(String report, Object... params) {
+        StringBuilder key = new StringBuilder(report)
+                .append('|').append(version.get())
+                .append('|').append(LocalDate.now()) // Reports are relative to "today"
+                .append('|').append(System.currentTimeMillis() / 1000 / Math.max(1, maxAgeSeconds));
+        for (Object param : params) {
+            key.append('|').append(param instanceof BigDecimal b ? b.stripTrailingZeros().toPlainString() : param);
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.toString().getBytes(StandardCharsets.UTF_8));
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
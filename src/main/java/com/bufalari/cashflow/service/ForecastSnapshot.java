@@ -0,0 +1,131 @@
+package com.bufalari.cashflow.service;
+
+import com.bufalari.cashflow.enums.EntryType;
+import com.bufalari.cashflow.enums.PayableStatus;
+import com.bufalari.cashflow.enums.ReceivableStatus;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Immutable snapshot of the pending AP/AR data and planned manual entries a forecast is projected from.
+ * Fetched once and shared (read-only) between the deterministic forecast, scenarios and simulations.
+ * Snapshot imutável dos dados pendentes de AP/AR e lançamentos manuais planejados a partir dos quais uma projeção é calculada.
+ * Buscado uma vez e compartilhado (somente leitura) entre a projeção determinística, cenários e simulações.
+ */
+@Value
+public class ForecastSnapshot {
+
+    LocalDate startDate; // First forecast day (today) / Primeiro dia da projeção (hoje)
+    LocalDate endDate;   // Last forecast day, inclusive / Último dia da projeção, inclusivo
+    List<ExpectedReceipt> expectedReceipts; // Remaining amounts of pending receivables
+    List<ExpectedPayment> expectedPayments; // Remaining amounts of pending payables
+    List<PlannedManualTotal> plannedManualTotals; // Future-dated manual entries, summed per day and type
+
+    public ForecastSnapshot(LocalDate startDate, LocalDate endDate, List<ExpectedReceipt> expectedReceipts,
+                            List<ExpectedPayment> expectedPayments, List<PlannedManualTotal> plannedManualTotals) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.expectedReceipts = List.copyOf(expectedReceipts);
+        this.expectedPayments = List.copyOf(expectedPayments);
+        this.plannedManualTotals = List.copyOf(plannedManualTotals);
+    }
+
+    /**
+     * Remaining amount expected from a pending receivable on its due date.
+     * Valor restante esperado de uma conta a receber pendente na data de vencimento.
+     */
+    @Value
+    public static class ExpectedReceipt {
+        UUID receivableId;
+        LocalDate dueDate;
+        BigDecimal amount; // Always positive / Sempre positivo
+        ReceivableStatus status;
+    }
+
+    /**
+     * Remaining amount due on a pending payable on its due date.
+     * Valor restante devido de uma conta a pagar pendente na data de vencimento.
+     */
+    @Value
+    public static class ExpectedPayment {
+        UUID payableId;
+        LocalDate dueDate;
+        BigDecimal amount; // Always positive / Sempre positivo
+        PayableStatus status;
+    }
+
+    /**
+     * Total of planned manual entries of one type on one day. Manual entries are certain (not subject to scenarios).
+     * Total de lançamentos manuais planejados de um tipo em um dia. Lançamentos manuais são certos (sem cenários).
+     */
+    @Value
+    public static class PlannedManualTotal {
+        LocalDate entryDate;
+        EntryType type;
+        BigDecimal amount; // Always positive, type indicates direction / Sempre positivo, o tipo indica a direção
+
+        public BigDecimal signedAmount() {
+            return type == EntryType.CREDIT ? amount : amount.negate();
+        }
+    }
+
+    /**
+     * Number of daily buckets in the forecast (start and end inclusive).
+     * Número de dias da projeção (início e fim inclusivos).
+     */
+    public int dayCount() {
+        return (int) ChronoUnit.DAYS.between(startDate, endDate) + 1;
+    }
+
+    /**
+     * Index of the bucket for a date, or -1 when the date is outside the forecast window.
+     * Índice do dia para uma data, ou -1 quando a data está fora da janela da projeção.
+     */
+    public int dayIndex(LocalDate date) {
+        if (date == null || date.isBefore(startDate) || date.isAfter(endDate)) {
+            return -1;
+        }
+        return (int) ChronoUnit.DAYS.between(startDate, date);
+    }
+
+    /**
+     * Creates an array of daily net-flow buckets pre-filled with the planned manual entries.
+     * Cria um array de fluxos líquidos diários pré-preenchido com os lançamentos manuais planejados.
+     */
+    public BigDecimal[] newDayBuckets() {
+        BigDecimal[] buckets = new BigDecimal[dayCount()];
+        Arrays.fill(buckets, BigDecimal.ZERO);
+        for (PlannedManualTotal planned : plannedManualTotals) {
+            int day = dayIndex(planned.getEntryDate());
+            if (day >= 0) buckets[day] = buckets[day].add(planned.signedAmount());
+        }
+        return buckets;
+    }
+
+    /**
+     * Accumulates daily net flows into a date-sorted projected balance curve.
+     * Acumula os fluxos líquidos diários em uma curva de saldo projetado ordenada por data.
+     * @param startingBalance Balance before the first day. / Saldo antes do primeiro dia.
+     * @param dailyNetFlow Net flow per bucket (see {@link #newDayBuckets()}). / Fluxo líquido por dia.
+     * @return Date -> projected balance. / Data -> saldo projetado.
+     */
+    public Map<LocalDate, BigDecimal> accumulate(BigDecimal startingBalance, BigDecimal[] dailyNetFlow) {
+        Map<LocalDate, BigDecimal> dailyProjectedBalance = new TreeMap<>(); // Use TreeMap to keep dates sorted
+        BigDecimal runningBalance = startingBalance;
+        LocalDate date = startDate;
+        for (BigDecimal net : dailyNetFlow) {
+            runningBalance = runningBalance.add(net);
+            dailyProjectedBalance.put(date, runningBalance);
+            date = date.plusDays(1);
+        }
+        return dailyProjectedBalance;
+    }
+}
@@ -0,0 +1,299 @@
+package com.bufalari.cashflow.service;
+
+import com.bufalari.cashflow.dto.HistoryBucketDTO;
+import com.bufalari.cashflow.dto.HistorySeriesDTO;
+import com.bufalari.cashflow.dto.HistoryTotalsDTO;
+import com.bufalari.cashflow.enums.EntryType;
+import com.bufalari.cashflow.enums.HistoryBucket;
+import com.bufalari.cashflow.enums.HistorySourceType;
+import com.bufalari.cashflow.enums.UpstreamSource;
+import com.bufalari.cashflow.repository.ManualCashEntryRepository;
+import com.bufalari.cashflow.repository.ManualEntryHistoryTotal;
+import com.bufalari.cashflow.repository.SyncedSettlementDailyTotal;
+import com.bufalari.cashflow.repository.SyncedUpstreamRecordRepository;
+import com.bufalari.cashflow.util.SortedMergeIterator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Embedded columnar store of the daily cash history (per source, project and cost center) for multi-year analytics.
+ * It is a derived copy, rebuilt from the database into a new memory-mapped generation (see {@link HistoryColumns})
+ * when the data version moved or the copy got older than the maximum age, then swapped in atomically; queries keep
+ * scanning the previous generation meanwhile. Manual entries come with project and cost center; AP/AR comes from the
+ * synced local copy (cashflow.sync.enabled) by settlement date and carries neither.
+ * Armazenamento colunar embutido do histórico diário de caixa (por origem, projeto e centro de custo) para análises
+ * de vários anos. É uma cópia derivada, reconstruída a partir do banco em uma nova geração mapeada em memória quando a
+ * versão dos dados mudou ou a cópia ficou mais velha que a idade máxima, e então trocada atomicamente; as consultas
+ * continuam varrendo a geração anterior enquanto isso. Lançamentos manuais trazem projeto e centro de custo; AP/AR vem
+ * da cópia local sincronizada (cashflow.sync.enabled) por data de liquidação e não traz nenhum dos dois.
+ */
+@Service
+public class HistoryColumnStore {
+
+    private static final Logger log = LoggerFactory.getLogger(HistoryColumnStore.class);
+
+    private static final String GENERATION_PREFIX = "gen-";
+    private static final Comparator<HistoryColumns.Row> DAY_ORDER = Comparator.comparingInt(HistoryColumns.Row::epochDay);
+
+    private final ManualCashEntryRepository manualCashEntryRepository;
+    private final SyncedUpstreamRecordRepository syncedUpstreamRecordRepository;
+    private final DataVersionTracker dataVersionTracker;
+    private final TransactionTemplate readOnlyTransaction;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Path directory;
+    private final Duration maxAge;
+    private final Object rebuildLock = new Object();
+
+    private volatile HistoryColumns current; // Null until a generation exists
+    private volatile long builtFromVersion = Long.MIN_VALUE;
+
+    public HistoryColumnStore(ManualCashEntryRepository manualCashEntryRepository,
+                              SyncedUpstreamRecordRepository syncedUpstreamRecordRepository,
+                              DataVersionTracker dataVersionTracker, PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${cashflow.history.enabled:false}") boolean enabled,
+                              @Value("${cashflow.history.directory:${java.io.tmpdir}/cashflow-history}") String directory,
+                              @Value("${cashflow.history.max-age-minutes:15}") long maxAgeMinutes) {
+        this.manualCashEntryRepository = manualCashEntryRepository;
+        this.syncedUpstreamRecordRepository = syncedUpstreamRecordRepository;
+        this.dataVersionTracker = dataVersionTracker;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.directory = Paths.get(directory);
+        this.maxAge = Duration.ofMinutes(maxAgeMinutes);
+        meterRegistry.gauge("cashflow.history.rows", this, store -> store.current != null ? store.current.rows() : 0);
+    }
+
+    /**
+     * Serves the newest complete generation left by a previous run right away, until the first rebuild replaces it.
+     * Serve imediatamente a geração completa mais recente deixada por uma execução anterior, até a primeira reconstrução.
+     */
+    @PostConstruct
+    void openLatestGeneration() {
+        if (!enabled) {
+            return;
+        }
+        try (Stream<Path> generations = generations()) {
+            Path latest = generations.filter(HistoryColumns::isComplete).max(Comparator.naturalOrder()).orElse(null);
+            if (latest != null) {
+                current = HistoryColumns.open(latest);
+                log.info("Cash history opened from {} ({} rows, built at {})", latest, current.rows(), current.builtAt());
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not open the existing cash history, it will be rebuilt: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuilds when the data version moved (this instance's writes and syncs) or the copy is older than the maximum
+     * age (writes made on other instances).
+     * Reconstrói quando a versão dos dados mudou (escritas e sincronizações desta instância) ou a cópia é mais velha
+     * que a idade máxima (escritas feitas em outras instâncias).
+     */
+    @Scheduled(fixedDelayString = "${cashflow.history.check-interval-ms:60000}", initialDelayString = "${cashflow.history.initial-delay-ms:5000}")
+    public void scheduledRebuild() {
+        if (!enabled) {
+            return;
+        }
+        HistoryColumns columns = current;
+        boolean stale = columns == null || builtFromVersion != dataVersionTracker.currentVersion()
+                || columns.builtAt().plus(maxAge).isBefore(Instant.now());
+        if (!stale) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Cash history rebuild failed, the previous snapshot stays in use: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Writes a new generation from the database and swaps it in.
+     * Grava uma nova geração a partir do banco e a coloca em uso.
+     * @return Rows in the new generation. / Linhas na nova geração.
+     */
+    public int rebuild() {
+        synchronized (rebuildLock) {
+            // Read before the data: a write committed during the rebuild leaves the version ahead and triggers another
+            long version = dataVersionTracker.currentVersion();
+            Instant builtAt = Instant.now();
+            Path target = directory.resolve(GENERATION_PREFIX + builtAt.toEpochMilli());
+            Timer.Sample sample = Timer.start(meterRegistry);
+            HistoryColumns rebuilt;
+            try {
+                readOnlyTransaction.executeWithoutResult(status -> writeGeneration(target, builtAt));
+                rebuilt = HistoryColumns.open(target);
+            } catch (IOException | RuntimeException e) {
+                deleteGeneration(target);
+                sample.stop(meterRegistry.timer("cashflow.history.rebuild", "outcome", "failed"));
+                throw e instanceof IOException io ? new UncheckedIOException("Cash history rebuild failed", io) : (RuntimeException) e;
+            }
+            current = rebuilt;
+            builtFromVersion = version;
+            long nanos = sample.stop(meterRegistry.timer("cashflow.history.rebuild", "outcome", "succeeded"));
+            log.info("Cash history rebuilt: {} rows in {} ms", rebuilt.rows(), nanos / 1_000_000);
+            try (Stream<Path> older = generations()) {
+                older.filter(path -> !path.equals(target)).forEach(HistoryColumnStore::deleteGeneration);
+            } catch (IOException e) {
+                log.debug("Could not list old cash history generations: {}", e.getMessage());
+            }
+            return rebuilt.rows();
+        }
+    }
+
+    /**
+     * Whether a history snapshot is available to query. / Se há um snapshot do histórico disponível para consulta.
+     */
+    public boolean isReady() {
+        return current != null;
+    }
+
+    /**
+     * Totals per source over a date range (inclusive), optionally for one project and/or cost center.
+     * Totais por origem em um intervalo de datas (inclusivo), opcionalmente para um projeto e/ou centro de custo.
+     */
+    public HistoryTotalsDTO totals(LocalDate startDate, LocalDate endDate, Long projectId, Long costCenterId) {
+        HistoryColumns columns = requireSnapshot();
+        long[] cents = columns.sum((int) startDate.toEpochDay(), (int) endDate.toEpochDay(), projectId, costCenterId);
+        BigDecimal inflows = money(inflowCents(cents));
+        BigDecimal outflows = money(outflowCents(cents));
+        return HistoryTotalsDTO.builder()
+                .startDate(startDate)
+                .endDate(endDate)
+                .projectId(projectId)
+                .costCenterId(costCenterId)
+                .receivables(money(cents[HistorySourceType.RECEIVABLE.code()]))
+                .payables(money(cents[HistorySourceType.PAYABLE.code()]))
+                .manualCredits(money(cents[HistorySourceType.MANUAL_CREDIT.code()]))
+                .manualDebits(money(cents[HistorySourceType.MANUAL_DEBIT.code()]))
+                .totalInflows(inflows)
+                .totalOutflows(outflows)
+                .netCashFlow(inflows.subtract(outflows))
+                .dataAsOf(columns.builtAt())
+                .build();
+    }
+
+    /**
+     * Inflows, outflows and net per calendar bucket over a date range (inclusive).
+     * Entradas, saídas e líquido por agrupamento de calendário em um intervalo de datas (inclusivo).
+     */
+    public HistorySeriesDTO series(LocalDate startDate, LocalDate endDate, HistoryBucket bucket, Long projectId, Long costCenterId) {
+        HistoryColumns columns = requireSnapshot();
+        List<HistoryBucketDTO> buckets = columns.buckets(startDate, endDate, bucket, projectId, costCenterId).stream()
+                .map(b -> {
+                    BigDecimal inflows = money(inflowCents(b.cents()));
+                    BigDecimal outflows = money(outflowCents(b.cents()));
+                    return new HistoryBucketDTO(b.start(), inflows, outflows, inflows.subtract(outflows));
+                })
+                .toList();
+        return HistorySeriesDTO.builder()
+                .startDate(startDate)
+                .endDate(endDate)
+                .bucket(bucket)
+                .projectId(projectId)
+                .costCenterId(costCenterId)
+                .buckets(buckets)
+                .dataAsOf(columns.builtAt())
+                .build();
+    }
+
+    private void writeGeneration(Path target, Instant builtAt) {
+        try (Stream<ManualEntryHistoryTotal> manual = manualCashEntryRepository.streamHistoryTotals();
+             Stream<SyncedSettlementDailyTotal> settled = syncedUpstreamRecordRepository.streamSettledDailyTotals()) {
+            // Both queries are in day order, so a merge keeps the generation sorted without buffering it
+            HistoryColumns.write(target, SortedMergeIterator.merge(DAY_ORDER,
+                    manual.map(HistoryColumnStore::toRow).iterator(),
+                    settled.map(HistoryColumnStore::toRow).iterator()), builtAt);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write cash history to " + target, e);
+        }
+    }
+
+    private HistoryColumns requireSnapshot() {
+        HistoryColumns columns = current;
+        if (columns == null) {
+            throw new IllegalStateException("Cash history is not available yet");
+        }
+        return columns;
+    }
+
+    private Stream<Path> generations() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return Stream.empty();
+        }
+        return Files.list(directory).filter(path -> path.getFileName().toString().startsWith(GENERATION_PREFIX));
+    }
+
+    private static void deleteGeneration(Path generation) {
+        // Readers still scanning an old generation keep their mapping; the files go once it is unmapped
+        try (Stream<Path> files = Files.walk(generation)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            log.debug("Could not delete cash history generation {}: {}", generation, e.getMessage());
+        }
+    }
+
+    private static HistoryColumns.Row toRow(ManualEntryHistoryTotal total) {
+        return new HistoryColumns.Row((int) total.getEntryDate().toEpochDay(),
+                total.getType() == EntryType.CREDIT ? HistorySourceType.MANUAL_CREDIT : HistorySourceType.MANUAL_DEBIT,
+                total.getProjectId() != null ? total.getProjectId() : HistoryColumns.NONE,
+                total.getCostCenterId() != null ? total.getCostCenterId() : HistoryColumns.NONE,
+                cents(total.getTotal()));
+    }
+
+    private static HistoryColumns.Row toRow(SyncedSettlementDailyTotal total) {
+        return new HistoryColumns.Row((int) total.getSettlementDate().toEpochDay(),
+                total.getSource() == UpstreamSource.RECEIVABLE ? HistorySourceType.RECEIVABLE : HistorySourceType.PAYABLE,
+                HistoryColumns.NONE, HistoryColumns.NONE, cents(total.getTotal()));
+    }
+
+    private static long inflowCents(long[] cents) {
+        long total = 0;
+        for (HistorySourceType source : HistorySourceType.values()) {
+            if (source.isInflow()) total += cents[source.code()];
+        }
+        return total;
+    }
+
+    private static long outflowCents(long[] cents) {
+        long total = 0;
+        for (HistorySourceType source : HistorySourceType.values()) {
+            if (!source.isInflow()) total += cents[source.code()];
+        }
+        return total;
+    }
+
+    private static long cents(BigDecimal amount) {
+        return amount.setScale(HistoryColumns.AMOUNT_SCALE, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+    }
+
+    private static BigDecimal money(long cents) {
+        return BigDecimal.valueOf(cents, HistoryColumns.AMOUNT_SCALE);
+    }
+}
@@ -0,0 +1,283 @@
+package com.bufalari.cashflow.service;
+
+import com.bufalari.cashflow.enums.HistoryBucket;
+import com.bufalari.cashflow.enums.HistorySourceType;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * One immutable generation of the columnar cash history: a directory with one file per column (epoch day, source
+ * code, project, cost center, amount in cents), written append-only in day order and then memory-mapped read-only.
+ * Scans read the mapped pages in place (no row objects, no copies): a date range is located by binary search on the
+ * day column and only that slice is visited. The generation only counts once its properties file exists, which is
+ * written last, so a crash mid-write leaves nothing readable behind.
+ * Uma geração imutável do histórico colunar de caixa: um diretório com um arquivo por coluna (dia epoch, código da
+ * origem, projeto, centro de custo, valor em centavos), gravado apenas por acréscimo em ordem de dia e depois mapeado
+ * em memória somente para leitura. As varreduras leem as páginas mapeadas no lugar (sem objetos por linha, sem
+ * cópias): um intervalo de datas é localizado por busca binária na coluna de dias e só essa fatia é visitada.
+ * A geração só vale quando seu arquivo de propriedades existe, gravado por último, então uma falha no meio da
+ * gravação não deixa nada legível.
+ */
+final class HistoryColumns {
+
+    static final long NONE = Long.MIN_VALUE; // Project / cost center not set (AP/AR rows never have one)
+    static final int AMOUNT_SCALE = 2;
+
+    private static final int FORMAT_VERSION = 1;
+    private static final String PROPERTIES_FILE = "generation.properties";
+    private static final String DAY_FILE = "epoch_day.i32";
+    private static final String SOURCE_FILE = "source.i8";
+    private static final String PROJECT_FILE = "project.i64";
+    private static final String COST_CENTER_FILE = "cost_center.i64";
+    private static final String AMOUNT_FILE = "amount.i64";
+    private static final int MAX_ROWS = Integer.MAX_VALUE / Long.BYTES; // One mapping per column file
+    private static final int WRITE_BUFFER_BYTES = 64 * 1024;
+
+    /**
+     * One history row: amounts of one source, project and cost center on one day, in cents (always positive).
+     * Uma linha do histórico: valores de uma origem, projeto e centro de custo em um dia, em centavos (sempre positivos).
+     */
+    record Row(int epochDay, HistorySourceType source, long projectId, long costCenterId, long amountCents) {}
+
+    /**
+     * Cents per source type (indexed by code) for a range or a bucket.
+     * Centavos por tipo de origem (indexados pelo código) para um intervalo ou agrupamento.
+     */
+    record Bucket(LocalDate start, long[] cents) {}
+
+    private final Path directory;
+    private final int rows;
+    private final Instant builtAt;
+    private final IntBuffer days;
+    private final ByteBuffer sources;
+    private final LongBuffer projects;
+    private final LongBuffer costCenters;
+    private final LongBuffer amounts;
+
+    private HistoryColumns(Path directory, int rows, Instant builtAt, IntBuffer days, ByteBuffer sources,
+                           LongBuffer projects, LongBuffer costCenters, LongBuffer amounts) {
+        this.directory = directory;
+        this.rows = rows;
+        this.builtAt = builtAt;
+        this.days = days;
+        this.sources = sources;
+        this.projects = projects;
+        this.costCenters = costCenters;
+        this.amounts = amounts;
+    }
+
+    Path directory() { return directory; }
+    int rows() { return rows; }
+    Instant builtAt() { return builtAt; }
+
+    /**
+     * Writes a new generation into an empty directory. Rows must come in day order.
+     * Grava uma nova geração em um diretório vazio. As linhas devem vir em ordem de dia.
+     * @return Number of rows written. / Número de linhas gravadas.
+     */
+    static int write(Path directory, Iterator<Row> rows, Instant builtAt) throws IOException {
+        Files.createDirectories(directory);
+        int count = 0;
+        int lastDay = Integer.MIN_VALUE;
+        try (ColumnWriter days = new ColumnWriter(directory.resolve(DAY_FILE));
+             ColumnWriter sources = new ColumnWriter(directory.resolve(SOURCE_FILE));
+             ColumnWriter projects = new ColumnWriter(directory.resolve(PROJECT_FILE));
+             ColumnWriter costCenters = new ColumnWriter(directory.resolve(COST_CENTER_FILE));
+             ColumnWriter amounts = new ColumnWriter(directory.resolve(AMOUNT_FILE))) {
+            while (rows.hasNext()) {
+                Row row = rows.next();
+                if (row.epochDay() < lastDay) {
+                    throw new IllegalStateException("History rows out of day order at row " + count);
+                }
+                if (count == MAX_ROWS) {
+                    throw new IllegalStateException("History generation exceeds " + MAX_ROWS + " rows");
+                }
+                lastDay = row.epochDay();
+                days.putInt(row.epochDay());
+                sources.putByte(row.source().code());
+                projects.putLong(row.projectId());
+                costCenters.putLong(row.costCenterId());
+                amounts.putLong(row.amountCents());
+                count++;
+            }
+        }
+        Properties properties = new Properties();
+        properties.setProperty("format", String.valueOf(FORMAT_VERSION));
+        properties.setProperty("rows", String.valueOf(count));
+        properties.setProperty("builtAt", builtAt.toString());
+        Path temporary = directory.resolve(PROPERTIES_FILE + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temporary)) {
+            properties.store(writer, "Cash history generation");
+        }
+        Files.move(temporary, directory.resolve(PROPERTIES_FILE)); // Commit point
+        return count;
+    }
+
+    /**
+     * Whether the directory holds a completely written generation.
+     * Se o diretório contém uma geração completamente gravada.
+     */
+    static boolean isComplete(Path directory) {
+        return Files.isRegularFile(directory.resolve(PROPERTIES_FILE));
+    }
+
+    /**
+     * Maps a complete generation read-only.
+     * Mapeia uma geração completa somente para leitura.
+     */
+    static HistoryColumns open(Path directory) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(directory.resolve(PROPERTIES_FILE))) {
+            properties.load(reader);
+        }
+        if (Integer.parseInt(properties.getProperty("format", "0")) != FORMAT_VERSION) {
+            throw new IOException("Unsupported history format in " + directory);
+        }
+        int rows = Integer.parseInt(properties.getProperty("rows"));
+        return new HistoryColumns(directory, rows, Instant.parse(properties.getProperty("builtAt")),
+                map(directory.resolve(DAY_FILE), rows, Integer.BYTES).asIntBuffer(),
+                map(directory.resolve(SOURCE_FILE), rows, Byte.BYTES),
+                map(directory.resolve(PROJECT_FILE), rows, Long.BYTES).asLongBuffer(),
+                map(directory.resolve(COST_CENTER_FILE), rows, Long.BYTES).asLongBuffer(),
+                map(directory.resolve(AMOUNT_FILE), rows, Long.BYTES).asLongBuffer());
+    }
+
+    /**
+     * Cents per source type over [startDay, endDay] (inclusive), optionally for one project and/or cost center.
+     * Centavos por tipo de origem em [startDay, endDay] (inclusivo), opcionalmente para um projeto e/ou centro de custo.
+     */
+    long[] sum(int startDay, int endDay, Long projectId, Long costCenterId) {
+        long[] cents = new long[HistorySourceType.values().length];
+        int end = lowerBound(endDay + 1);
+        for (int i = lowerBound(startDay); i < end; i++) {
+            if (matches(i, projectId, costCenterId)) {
+                cents[sources.get(i)] += amounts.get(i);
+            }
+        }
+        return cents;
+    }
+
+    /**
+     * Cents per source type for every calendar bucket touching [startDate, endDate], empty buckets included.
+     * Only days inside the range count, so the first and last buckets may be partial.
+     * Centavos por tipo de origem para cada agrupamento de calendário que toca [startDate, endDate], incluindo os
+     * vazios. Só contam os dias dentro do intervalo, então o primeiro e o último agrupamento podem ser parciais.
+     */
+    List<Bucket> buckets(LocalDate startDate, LocalDate endDate, HistoryBucket bucket, Long projectId, Long costCenterId) {
+        int sourceCount = HistorySourceType.values().length;
+        List<Bucket> buckets = new ArrayList<>();
+        for (LocalDate start = bucket.start(startDate); !start.isAfter(endDate); start = bucket.next(start)) {
+            buckets.add(new Bucket(start, new long[sourceCount]));
+        }
+        int[] bucketEnds = new int[buckets.size()]; // Epoch day where each bucket ends (exclusive)
+        for (int b = 0; b < bucketEnds.length; b++) {
+            bucketEnds[b] = (int) bucket.next(buckets.get(b).start()).toEpochDay();
+        }
+        int current = 0;
+        int end = lowerBound((int) endDate.toEpochDay() + 1);
+        for (int i = lowerBound((int) startDate.toEpochDay()); i < end; i++) {
+            int day = days.get(i);
+            while (day >= bucketEnds[current]) {
+                current++; // Rows are in day order, so buckets only move forward
+            }
+            if (matches(i, projectId, costCenterId)) {
+                buckets.get(current).cents()[sources.get(i)] += amounts.get(i);
+            }
+        }
+        return buckets;
+    }
+
+    private boolean matches(int row, Long projectId, Long costCenterId) {
+        return (projectId == null || projects.get(row) == projectId)
+                && (costCenterId == null || costCenters.get(row) == costCenterId);
+    }
+
+    /**
+     * First row whose day is >= the given day (rows when none).
+     * Primeira linha cujo dia é >= o dia informado (rows quando nenhuma).
+     */
+    private int lowerBound(int day) {
+        int low = 0;
+        int high = rows;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (days.get(middle) < day) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static ByteBuffer map(Path file, int rows, int width) throws IOException {
+        long size = (long) rows * width;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < size) {
+                throw new IOException("Truncated history column " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size); // Stays valid after close
+            return buffer.order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    /**
+     * Sequential little-endian writer for one column file.
+     * Escritor sequencial little-endian para um arquivo de coluna.
+     */
+    private static final class ColumnWriter implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+        ColumnWriter(Path file) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        }
+
+        void putByte(byte value) throws IOException { ensure(Byte.BYTES); buffer.put(value); }
+        void putInt(int value) throws IOException { ensure(Integer.BYTES); buffer.putInt(value); }
+        void putLong(long value) throws IOException { ensure(Long.BYTES); buffer.putLong(value); }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+                channel.force(false); // On disk before the properties file marks the generation complete
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+            channel.close();
+        }
+    }
+}
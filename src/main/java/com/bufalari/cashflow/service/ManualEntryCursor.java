@@ -0,0 +1,34 @@
+package com.bufalari.cashflow.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position of the last entry of a listing page, (entryDate, id), encoded as an opaque URL-safe token.
+ * Posição do último lançamento de uma página da listagem, (entryDate, id), codificada como um token opaco seguro para URL.
+ */
+public record ManualEntryCursor(LocalDate entryDate, UUID id) {
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((entryDate + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}. / Decodifica um token produzido por {@link #encode()}.
+     * @throws IllegalArgumentException If the token is malformed. / Se o token estiver malformado.
+     */
+    public static ManualEntryCursor decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return new ManualEntryCursor(LocalDate.parse(parts[0]), UUID.fromString(parts[1]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+}
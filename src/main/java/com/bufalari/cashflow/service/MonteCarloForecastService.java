@@ -0,0 +1,210 @@
+package com.bufalari.cashflow.service;
+
+import com.bufalari.cashflow.dto.BalanceBandDTO;
+import com.bufalari.cashflow.dto.ProbabilisticForecastDTO;
+import com.bufalari.cashflow.enums.PayableStatus;
+import com.bufalari.cashflow.enums.ReceivableStatus;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+/**
+ * Stochastic cash forecast. Simulates many paths of when (and whether) each pending receivable is
+ * collected and each pending payable is paid, and summarises the daily balance distribution.
+ * Projeção de caixa estocástica. Simula vários caminhos de quando (e se) cada conta a receber pendente
+ * é recebida e cada conta a pagar pendente é paga, e resume a distribuição diária do saldo.
+ */
+@Service
+@RequiredArgsConstructor
+public class MonteCarloForecastService {
+
+    private static final Logger log = LoggerFactory.getLogger(MonteCarloForecastService.class);
+
+    /** Upper bound for paths x days, i.e. the size of the simulated balance matrix (8 bytes per cell). */
+    public static final long MAX_SIMULATION_CELLS = 5_000_000L;
+    private static final int PATHS_PER_CHUNK = 512;
+
+    private static final Map<ReceivableStatus, SettlementBehaviour> RECEIVABLE_BEHAVIOUR = new EnumMap<>(ReceivableStatus.class);
+    private static final Map<PayableStatus, SettlementBehaviour> PAYABLE_BEHAVIOUR = new EnumMap<>(PayableStatus.class);
+
+    static {
+        // Probability the remaining amount is settled at all, and mean delay (days) after the due date
+        RECEIVABLE_BEHAVIOUR.put(ReceivableStatus.PENDING, new SettlementBehaviour(0.97, 3));
+        RECEIVABLE_BEHAVIOUR.put(ReceivableStatus.PARTIALLY_RECEIVED, new SettlementBehaviour(0.93, 7));
+        RECEIVABLE_BEHAVIOUR.put(ReceivableStatus.OVERDUE, new SettlementBehaviour(0.75, 20));
+        RECEIVABLE_BEHAVIOUR.put(ReceivableStatus.IN_DISPUTE, new SettlementBehaviour(0.40, 45));
+        RECEIVABLE_BEHAVIOUR.put(ReceivableStatus.RECEIVED, SettlementBehaviour.NEVER);
+        RECEIVABLE_BEHAVIOUR.put(ReceivableStatus.WRITTEN_OFF, SettlementBehaviour.NEVER);
+        RECEIVABLE_BEHAVIOUR.put(ReceivableStatus.CANCELED, SettlementBehaviour.NEVER);
+
+        PAYABLE_BEHAVIOUR.put(PayableStatus.PENDING, new SettlementBehaviour(0.99, 1));
+        PAYABLE_BEHAVIOUR.put(PayableStatus.PARTIALLY_PAID, new SettlementBehaviour(0.98, 3));
+        PAYABLE_BEHAVIOUR.put(PayableStatus.OVERDUE, new SettlementBehaviour(0.95, 10));
+        PAYABLE_BEHAVIOUR.put(PayableStatus.IN_NEGOTIATION, new SettlementBehaviour(0.70, 25));
+        PAYABLE_BEHAVIOUR.put(PayableStatus.PAID, SettlementBehaviour.NEVER);
+        PAYABLE_BEHAVIOUR.put(PayableStatus.CANCELED, SettlementBehaviour.NEVER);
+    }
+
+    private final CashFlowService cashFlowService;
+
+    /**
+     * Settlement model for a status: probability of ever being settled and mean delay after the due date.
+     * Modelo de liquidação para um status: probabilidade de ser liquidado e atraso médio após o vencimento.
+     */
+    private record SettlementBehaviour(double probability, double meanDelayDays) {
+        static final SettlementBehaviour NEVER = new SettlementBehaviour(0, 0);
+    }
+
+    /**
+     * Runs the simulation over a freshly fetched forecast snapshot.
+     * Executa a simulação sobre um snapshot de projeção recém-buscado.
+     * @param daysAhead Number of days to forecast. / Número de dias para projetar.
+     * @param currentBalance Starting balance. / Saldo inicial.
+     * @param paths Number of simulated paths. / Número de caminhos simulados.
+     * @param seed Root seed of the splittable RNG. / Semente raiz do gerador splittable.
+     * @return Daily balance bands. / Faixas diárias de saldo.
+     */
+    public ProbabilisticForecastDTO simulate(int daysAhead, BigDecimal currentBalance, int paths, long seed) {
+        log.info("Running Monte Carlo forecast for {} days ahead with {} paths (seed {})", daysAhead, paths, seed);
+        return simulate(cashFlowService.loadForecastSnapshot(daysAhead), currentBalance, paths, seed);
+    }
+
+    /**
+     * Runs the simulation over an existing snapshot.
+     * Executa a simulação sobre um snapshot existente.
+     */
+    public ProbabilisticForecastDTO simulate(ForecastSnapshot snapshot, BigDecimal currentBalance, int paths, long seed) {
+        long startNanos = System.nanoTime();
+        int days = snapshot.dayCount();
+        if ((long) days * paths > MAX_SIMULATION_CELLS) {
+            throw new IllegalArgumentException("Simulation too large: " + paths + " paths x " + days + " days");
+        }
+
+        // 1. Flatten the snapshot into primitive columns; amounts as cents, inflows positive / outflows negative
+        int flows = snapshot.getExpectedReceipts().size() + snapshot.getExpectedPayments().size();
+        int[] dueDay = new int[flows];
+        long[] amountCents = new long[flows];
+        double[] settleProbability = new double[flows];
+        double[] meanDelay = new double[flows];
+        int f = 0;
+        for (ForecastSnapshot.ExpectedReceipt r : snapshot.getExpectedReceipts()) {
+            SettlementBehaviour b = RECEIVABLE_BEHAVIOUR.getOrDefault(r.getStatus(), RECEIVABLE_BEHAVIOUR.get(ReceivableStatus.PENDING));
+            dueDay[f] = snapshot.dayIndex(r.getDueDate());
+            amountCents[f] = toCents(r.getAmount());
+            settleProbability[f] = dueDay[f] >= 0 ? b.probability() : 0; // Outside the window: ignored
+            meanDelay[f++] = b.meanDelayDays();
+        }
+        for (ForecastSnapshot.ExpectedPayment p : snapshot.getExpectedPayments()) {
+            SettlementBehaviour b = PAYABLE_BEHAVIOUR.getOrDefault(p.getStatus(), PAYABLE_BEHAVIOUR.get(PayableStatus.PENDING));
+            dueDay[f] = snapshot.dayIndex(p.getDueDate());
+            amountCents[f] = -toCents(p.getAmount());
+            settleProbability[f] = dueDay[f] >= 0 ? b.probability() : 0; // Outside the window: ignored
+            meanDelay[f++] = b.meanDelayDays();
+        }
+        long startCents = toCents(currentBalance);
+        long[] plannedNetCents = new long[days]; // Planned manual entries are certain: same on every path
+        for (ForecastSnapshot.PlannedManualTotal planned : snapshot.getPlannedManualTotals()) {
+            int day = snapshot.dayIndex(planned.getEntryDate());
+            if (day >= 0) plannedNetCents[day] += toCents(planned.signedAmount());
+        }
+
+        // 2. Simulate; balances are stored day-major so each day's distribution is one contiguous slice
+        long[] balances = new long[days * paths];
+        int chunks = (paths + PATHS_PER_CHUNK - 1) / PATHS_PER_CHUNK;
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] chunkRandoms = new SplittableRandom[chunks];
+        for (int c = 0; c < chunks; c++) {
+            chunkRandoms[c] = root.split(); // Split sequentially so results only depend on the seed
+        }
+        int[] negativePathsPerChunk = new int[chunks];
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            SplittableRandom random = chunkRandoms[c];
+            long[] dailyNet = new long[days]; // One scratch buffer per chunk, reused for every path
+            int firstPath = c * PATHS_PER_CHUNK;
+            int lastPath = Math.min(paths, firstPath + PATHS_PER_CHUNK);
+            int negativePaths = 0;
+            for (int path = firstPath; path < lastPath; path++) {
+                System.arraycopy(plannedNetCents, 0, dailyNet, 0, days);
+                for (int i = 0; i < dueDay.length; i++) {
+                    if (random.nextDouble() >= settleProbability[i]) continue; // Never settled
+                    // Exponentially distributed delay after the due date
+                    int day = dueDay[i] + (int) (-meanDelay[i] * Math.log(1.0 - random.nextDouble()));
+                    if (day >= 0 && day < days) dailyNet[day] += amountCents[i];
+                }
+                long running = startCents;
+                boolean wentNegative = false;
+                for (int day = 0; day < days; day++) {
+                    running += dailyNet[day];
+                    balances[day * paths + path] = running;
+                    wentNegative |= running < 0;
+                }
+                if (wentNegative) negativePaths++;
+            }
+            negativePathsPerChunk[c] = negativePaths;
+        });
+
+        // 3. Sort each day's slice in place and read the percentiles
+        BalanceBandDTO[] bands = new BalanceBandDTO[days];
+        IntStream.range(0, days).parallel().forEach(day -> {
+            int from = day * paths;
+            int to = from + paths;
+            Arrays.sort(balances, from, to);
+            int negativeCount = firstNonNegative(balances, from, to) - from;
+            bands[day] = new BalanceBandDTO(
+                    fromCents(balances[from + percentileIndex(0.05, paths)]),
+                    fromCents(balances[from + percentileIndex(0.50, paths)]),
+                    fromCents(balances[from + percentileIndex(0.95, paths)]),
+                    (double) negativeCount / paths);
+        });
+
+        Map<LocalDate, BalanceBandDTO> dailyBalanceBands = new TreeMap<>();
+        for (int day = 0; day < days; day++) {
+            dailyBalanceBands.put(snapshot.getStartDate().plusDays(day), bands[day]);
+        }
+        int negativePaths = Arrays.stream(negativePathsPerChunk).sum();
+        log.info("Monte Carlo forecast: {} flows x {} paths x {} days simulated in {} ms",
+                flows, paths, days, (System.nanoTime() - startNanos) / 1_000_000);
+
+        return ProbabilisticForecastDTO.builder()
+                .forecastStartDate(snapshot.getStartDate())
+                .startingBalance(currentBalance)
+                .paths(paths)
+                .seed(seed)
+                .probabilityOfNegativeBalance((double) negativePaths / paths)
+                .dailyBalanceBands(dailyBalanceBands)
+                .build();
+    }
+
+    private static int percentileIndex(double quantile, int size) {
+        return (int) Math.round(quantile * (size - 1));
+    }
+
+    private static int firstNonNegative(long[] sorted, int from, int to) {
+        int lo = from;
+        int hi = to;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] < 0) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.HALF_EVEN).longValueExact();
+    }
+
+    private static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
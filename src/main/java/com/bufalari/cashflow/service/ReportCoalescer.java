@@ -0,0 +1,128 @@
+package com.bufalari.cashflow.service;
+
+import com.bufalari.cashflow.exception.DeadlineExceededException;
+import com.bufalari.cashflow.util.RequestDeadline;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight coalescing of report computations: concurrent requests with the same normalised parameters
+ * share one in-flight computation and all receive its result (the same DTO instance, which must be treated as read-only).
+ * The data version is part of the key, so a request arriving after a write never joins a computation started before it.
+ * The computation runs under the first request's deadline; each follower only waits as long as its own allows.
+ * Coalescência "single-flight" de cálculos de relatórios: requisições concorrentes com os mesmos parâmetros normalizados
+ * compartilham um único cálculo em andamento e todas recebem seu resultado (a mesma instância do DTO, somente leitura).
+ * A versão dos dados faz parte da chave, então uma requisição que chega após uma escrita nunca aguarda um cálculo
+ * iniciado antes dela.
+ * O cálculo executa sob o prazo da primeira requisição; cada seguidor só aguarda o quanto seu próprio prazo permite.
+ */
+@Component
+public class ReportCoalescer {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportCoalescer.class);
+
+    private final ConcurrentMap<List<Object>, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final DataVersionTracker dataVersionTracker;
+
+    public ReportCoalescer(MeterRegistry meterRegistry, DataVersionTracker dataVersionTracker) {
+        this.meterRegistry = meterRegistry;
+        this.dataVersionTracker = dataVersionTracker;
+        meterRegistry.gauge("cashflow.report.coalescing.in_flight", inFlight, ConcurrentMap::size);
+    }
+
+    /**
+     * Runs the computation, or joins an identical one already running.
+     * Executa o cálculo, ou aguarda um idêntico que já esteja em andamento.
+     * @param operation Report name, part of the key (e.g. "statement"). / Nome do relatório, parte da chave.
+     * @param computation The computation to run when no identical one is in flight. / O cálculo a executar.
+     * @param params Request parameters, normalised into the key. / Parâmetros da requisição, normalizados na chave.
+     * @return The (possibly shared) result. / O resultado (possivelmente compartilhado).
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String operation, Supplier<T> computation, Object... params) {
+        List<Object> key = key(operation, params);
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            counter(operation, "collapsed").increment();
+            log.debug("Coalescing {} request into the in-flight computation for {}", operation, key);
+            try {
+                return (T) join(existing);
+            } catch (DeadlineExceededException | CancellationException e) {
+                if (RequestDeadline.isCanceled()) {
+                    throw e; // Out of time ourselves
+                }
+                // The leader ran out of its own (shorter) budget: this request still has time, so it computes or joins the next leader
+                return execute(operation, computation, params);
+            }
+        }
+
+        counter(operation, "computed").increment();
+        try {
+            T result = computation.get();
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e); // Followers see the same failure instead of retrying in a burst
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private List<Object> key(String operation, Object... params) {
+        List<Object> key = new ArrayList<>(params.length + 3);
+        key.add(operation);
+        key.add(dataVersionTracker.currentVersion()); // Read before computing: a newer version never joins older data
+        key.add(LocalDate.now()); // Reports are relative to "today"
+        for (Object param : params) {
+            key.add(param instanceof BigDecimal b ? b.stripTrailingZeros() : param); // 100 and 100.00 are the same request
+        }
+        return key;
+    }
+
+    /**
+     * Waits for the leader's result, but no longer than this follower's own deadline.
+     * Aguarda o resultado do líder, mas não além do prazo deste seguidor.
+     */
+    private static Object join(CompletableFuture<Object> future) {
+        RequestDeadline deadline = RequestDeadline.current();
+        try {
+            return deadline == null ? future.get() : future.get(Math.max(0, deadline.remainingMillis()), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new DeadlineExceededException("Request deadline exceeded while waiting for a coalesced report");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for a coalesced report");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) throw runtimeException;
+            if (e.getCause() instanceof Error error) throw error;
+            throw new IllegalStateException("Coalesced report failed", e.getCause());
+        }
+    }
+
+    private Counter counter(String operation, String outcome) {
+        return Counter.builder("cashflow.report.coalescing.requests")
+                .description("Report requests by coalescing outcome (computed = ran the computation, collapsed = shared another's)")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
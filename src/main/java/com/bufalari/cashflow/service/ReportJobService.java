@@ -0,0 +1,342 @@
+package com.bufalari.cashflow.service;
+
+import com.bufalari.cashflow.converter.ReportJobConverter;
+import com.bufalari.cashflow.dto.ReportJobDTO;
+import com.bufalari.cashflow.dto.ReportJobRequestDTO;
+import com.bufalari.cashflow.entity.ReportJob;
+import com.bufalari.cashflow.entity.ReportJobResult;
+import com.bufalari.cashflow.enums.ReportJobPriority;
+import com.bufalari.cashflow.enums.ReportJobStatus;
+import com.bufalari.cashflow.exception.ReportJobStateException;
+import com.bufalari.cashflow.exception.ResourceNotFoundException;
+import com.bufalari.cashflow.repository.ReportJobRepository;
+import com.bufalari.cashflow.repository.ReportJobResultRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Runs long-range reports as asynchronous jobs on a bounded worker pool with a priority queue. The job row (status) is
+ * persisted at submission so any instance can answer polls; the result is stored gzip-compressed once and served as-is
+ * on every download. The instance that queued a job owns it and refreshes its heartbeat, so cleanup fails only jobs
+ * whose owner stopped doing so, however long they legitimately queue or run. Cancelling removes a queued job or
+ * interrupts a running one, and a conditional status update guarantees a cancelled job never flips back to COMPLETED.
+ * Executa relatórios de longo alcance como jobs assíncronos em um pool limitado de workers com fila de prioridade. A
+ * linha do job (status) é persistida na submissão para que qualquer instância responda às consultas; o resultado é
+ * gravado uma vez compactado com gzip e servido como está a cada download. A instância que enfileirou um job é sua dona
+ * e renova seu heartbeat, então a limpeza só marca como falhos jobs cujo dono deixou de fazê-lo, por mais que esperem
+ * ou executem legitimamente. O cancelamento remove um job da fila ou interrompe um em execução, e um update condicional
+ * de status garante que um job cancelado nunca volte a COMPLETED.
+ */
+@Service
+public class ReportJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportJobService.class);
+
+    private static final List<ReportJobStatus> ACTIVE_STATUSES = List.of(ReportJobStatus.QUEUED, ReportJobStatus.RUNNING);
+
+    private final ReportJobRepository reportJobRepository;
+    private final ReportJobResultRepository reportJobResultRepository;
+    private final ReportJobConverter reportJobConverter;
+    private final CashFlowService cashFlowService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolExecutor executor;
+    private final int maxQueued;
+    private final String owner;
+    private final long staleAfterSeconds;
+    private final long retentionHours;
+
+    // Jobs queued or running on this instance, for cancellation
+    private final ConcurrentMap<UUID, QueuedJob> localJobs = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    public ReportJobService(ReportJobRepository reportJobRepository, ReportJobResultRepository reportJobResultRepository,
+                            ReportJobConverter reportJobConverter, CashFlowService cashFlowService, ObjectMapper objectMapper,
+                            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                            @Value("${cashflow.report-jobs.workers:2}") int workers,
+                            @Value("${cashflow.report-jobs.max-queued:100}") int maxQueued,
+                            @Value("${cashflow.report-jobs.instance-id:${HOSTNAME:}}") String instanceId,
+                            @Value("${cashflow.report-jobs.stale-after-seconds:180}") long staleAfterSeconds,
+                            @Value("${cashflow.report-jobs.retention-hours:72}") long retentionHours) {
+        this.reportJobRepository = reportJobRepository;
+        this.reportJobResultRepository = reportJobResultRepository;
+        this.reportJobConverter = reportJobConverter;
+        this.cashFlowService = cashFlowService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.maxQueued = maxQueued;
+        // Unique per process: a restarted instance with the same host name must not keep its predecessor's jobs alive
+        this.owner = (instanceId.isBlank() ? "instance" : instanceId) + "-" + UUID.randomUUID().toString().substring(0, 8);
+        this.staleAfterSeconds = staleAfterSeconds;
+        this.retentionHours = retentionHours;
+        AtomicInteger threadCount = new AtomicInteger();
+        int poolSize = Math.max(1, workers);
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS, new PriorityBlockingQueue<>(),
+                r -> {
+                    Thread thread = new Thread(r, "report-job-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+        meterRegistry.gauge("cashflow.report_jobs.queued", executor, e -> e.getQueue().size());
+        meterRegistry.gauge("cashflow.report_jobs.running", executor, ThreadPoolExecutor::getActiveCount);
+    }
+
+    /**
+     * Whether the local queue can take another job. / Se a fila local pode receber outro job.
+     */
+    public boolean hasCapacity() {
+        return executor.getQueue().size() < maxQueued;
+    }
+
+    /**
+     * Persists a job and queues it. The request must already be validated for its type.
+     * Persiste um job e o enfileira. A requisição já deve estar validada para o seu tipo.
+     * @param request Report type, priority and parameters. / Tipo, prioridade e parâmetros do relatório.
+     * @param requestedBy Submitting user (only they and admins may see the job). / Usuário que submeteu.
+     * @return The queued job. / O job enfileirado.
+     */
+    public ReportJobDTO submit(ReportJobRequestDTO request, String requestedBy) {
+        ReportJobPriority priority = request.getPriority() != null ? request.getPriority() : ReportJobPriority.NORMAL;
+        Instant now = Instant.now();
+        ReportJob job = reportJobRepository.save(ReportJob.builder()
+                .type(request.getType())
+                .status(ReportJobStatus.QUEUED)
+                .priority(priority)
+                .parameters(toJson(request))
+                .requestedBy(requestedBy)
+                .submittedAt(now)
+                .owner(owner)
+                .heartbeatAt(now)
+                .build());
+        QueuedJob task = new QueuedJob(job.getId(), request, priority, sequence.incrementAndGet());
+        localJobs.put(job.getId(), task);
+        executor.execute(task);
+        log.info("Report job {} ({}, priority {}) queued for {}", job.getId(), job.getType(), priority, requestedBy);
+        return reportJobConverter.entityToDTO(job);
+    }
+
+    /**
+     * Current status of a job. / Status atual de um job.
+     * @throws ResourceNotFoundException If missing or not visible to the caller. / Se inexistente ou não visível ao chamador.
+     */
+    public ReportJobDTO getJob(UUID id, Authentication authentication) {
+        return reportJobConverter.entityToDTO(findVisible(id, authentication));
+    }
+
+    /**
+     * The stored gzip-compressed JSON result of a completed job.
+     * O resultado JSON armazenado (gzip) de um job concluído.
+     * @throws ReportJobStateException If the job has not completed. / Se o job não foi concluído.
+     */
+    public ReportJobResult getResult(UUID id, Authentication authentication) {
+        ReportJob job = findVisible(id, authentication);
+        if (job.getStatus() != ReportJobStatus.COMPLETED) {
+            throw new ReportJobStateException("Report job " + id + " is " + job.getStatus() + ", no result available");
+        }
+        return reportJobResultRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Result of report job " + id + " is no longer available"));
+    }
+
+    /**
+     * Cancels a queued or running job. / Cancela um job na fila ou em execução.
+     * @throws ReportJobStateException If the job already finished. / Se o job já terminou.
+     */
+    public ReportJobDTO cancel(UUID id, Authentication authentication) {
+        findVisible(id, authentication);
+        if (reportJobRepository.markFinished(id, ACTIVE_STATUSES, ReportJobStatus.CANCELED, Instant.now(),
+                "Canceled by " + authentication.getName(), null, null) == 0) {
+            throw new ReportJobStateException("Report job " + id + " already finished");
+        }
+        QueuedJob task = localJobs.remove(id);
+        if (task != null && !executor.remove(task)) {
+            Thread worker = task.worker;
+            if (worker != null) {
+                worker.interrupt(); // Running here: stop waiting on upstream chunks
+            }
+        }
+        log.info("Report job {} canceled by {}", id, authentication.getName());
+        return getJob(id, authentication);
+    }
+
+    /**
+     * Refreshes the heartbeat of the jobs queued or running on this instance.
+     * Renova o heartbeat dos jobs na fila ou em execução nesta instância.
+     */
+    @Scheduled(fixedDelayString = "${cashflow.report-jobs.heartbeat-interval-ms:30000}")
+    public void heartbeat() {
+        if (!localJobs.isEmpty()) {
+            reportJobRepository.touchHeartbeats(List.copyOf(localJobs.keySet()), owner, ACTIVE_STATUSES, Instant.now());
+        }
+    }
+
+    /**
+     * Fails jobs whose owner stopped refreshing their heartbeat (it died or restarted) and drops finished jobs past
+     * their retention.
+     * Marca como falhos jobs cujo dono parou de renovar o heartbeat (caiu ou reiniciou) e remove jobs terminados após
+     * a retenção.
+     */
+    @Scheduled(fixedDelayString = "${cashflow.report-jobs.cleanup-interval-ms:600000}", initialDelayString = "${cashflow.report-jobs.cleanup-interval-ms:600000}")
+    public void cleanup() {
+        Instant now = Instant.now();
+        for (ReportJob stale : reportJobRepository.findByStatusInAndHeartbeatAtBefore(ACTIVE_STATUSES, now.minusSeconds(staleAfterSeconds))) {
+            if (!localJobs.containsKey(stale.getId())) {
+                reportJobRepository.markFinished(stale.getId(), ACTIVE_STATUSES, ReportJobStatus.FAILED, now,
+                        "Interrupted (service restarted), please resubmit", null, null);
+                log.warn("Report job {} of {} marked as failed: no heartbeat for {} seconds", stale.getId(), stale.getOwner(), staleAfterSeconds);
+            }
+        }
+        List<ReportJob> expired = reportJobRepository.findByFinishedAtBefore(now.minus(Duration.ofHours(retentionHours)));
+        if (!expired.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<UUID> ids = expired.stream().map(ReportJob::getId).toList();
+                reportJobResultRepository.deleteAllByIdInBatch(ids);
+                reportJobRepository.deleteAllByIdInBatch(ids);
+            });
+            log.info("Removed {} report job(s) older than {} hours", expired.size(), retentionHours);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow(); // Unfinished jobs are failed by the next cleanup on any instance
+    }
+
+    private void run(QueuedJob task) {
+        UUID id = task.id;
+        if (reportJobRepository.markStarted(id, ReportJobStatus.QUEUED, ReportJobStatus.RUNNING, Instant.now()) == 0) {
+            localJobs.remove(id); // Canceled while queued
+            return;
+        }
+        task.worker = Thread.currentThread();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        ReportJobStatus outcome = ReportJobStatus.FAILED;
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(compute(task.request));
+            byte[] compressed = gzip(json);
+            Boolean stored = transactionTemplate.execute(status -> {
+                if (reportJobRepository.markFinished(id, List.of(ReportJobStatus.RUNNING), ReportJobStatus.COMPLETED, Instant.now(),
+                        null, (long) json.length, (long) compressed.length) == 0) {
+                    return false; // Canceled meanwhile: drop the result
+                }
+                reportJobResultRepository.save(new ReportJobResult(id, MediaType.APPLICATION_JSON_VALUE, compressed));
+                return true;
+            });
+            outcome = Boolean.TRUE.equals(stored) ? ReportJobStatus.COMPLETED : ReportJobStatus.CANCELED;
+            log.info("Report job {} {}: {} bytes ({} compressed)", id, outcome, json.length, compressed.length);
+        } catch (Exception e) {
+            if (Thread.currentThread().isInterrupted() || e instanceof InterruptedException) {
+                outcome = ReportJobStatus.CANCELED;
+                log.info("Report job {} interrupted", id);
+            } else {
+                String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+                reportJobRepository.markFinished(id, List.of(ReportJobStatus.RUNNING), ReportJobStatus.FAILED, Instant.now(),
+                        message.length() > 1000 ? message.substring(0, 1000) : message, null, null);
+                log.error("Report job {} failed: {}", id, message, e);
+            }
+        } finally {
+            task.worker = null;
+            Thread.interrupted(); // A late cancel must not leak into the next job on this thread
+            localJobs.remove(id);
+            sample.stop(meterRegistry.timer("cashflow.report_jobs.duration", "type", task.request.getType().name(), "status", outcome.name()));
+        }
+    }
+
+    private Object compute(ReportJobRequestDTO request) {
+        return switch (request.getType()) {
+            case STATEMENT -> cashFlowService.getCashFlowStatement(request.getStartDate(), request.getEndDate(), request.getOpeningBalance());
+            case FORECAST -> cashFlowService.getCashFlowForecast(request.getDaysAhead(), request.getCurrentBalance());
+            case MULTI_PERIOD_STATEMENT -> cashFlowService.getMultiPeriodStatement(request.getPeriods(), request.getOpeningBalance());
+        };
+    }
+
+    private ReportJob findVisible(UUID id, Authentication authentication) {
+        return reportJobRepository.findById(id)
+                .filter(job -> job.getRequestedBy().equals(authentication.getName()) || isAdmin(authentication))
+                .orElseThrow(() -> {
+                    log.warn("Report job not found (or not visible to {}) with ID: {}", authentication.getName(), id);
+                    return new ResourceNotFoundException("Report job not found with ID: " + id);
+                });
+    }
+
+    private static boolean isAdmin(Authentication authentication) {
+        return authentication.getAuthorities().stream().anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()));
+    }
+
+    private String toJson(ReportJobRequestDTO request) {
+        try {
+            return objectMapper.writeValueAsString(request);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize report job parameters", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, data.length / 8));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Queue entry ordered by priority, then submission order. / Entrada da fila ordenada por prioridade e ordem de submissão.
+     */
+    private final class QueuedJob implements Runnable, Comparable<QueuedJob> {
+        final UUID id;
+        final ReportJobRequestDTO request;
+        final ReportJobPriority priority;
+        final long sequence;
+        volatile Thread worker;
+
+        QueuedJob(UUID id, ReportJobRequestDTO request, ReportJobPriority priority, long sequence) {
+            this.id = id;
+            this.request = request;
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public void run() {
+            ReportJobService.this.run(this);
+        }
+
+        @Override
+        public int compareTo(QueuedJob other) {
+            int byPriority = priority.compareTo(other.priority); // HIGH is declared first
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,383 @@
+package com.bufalari.cashflow.service;
+
+import com.bufalari.cashflow.dto.CashFlowBalanceDTO;
+import com.bufalari.cashflow.dto.CashFlowForecastDTO;
+import com.bufalari.cashflow.dto.ForecastDeltaDTO;
+import com.bufalari.cashflow.event.CashFlowDataChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Live balance and forecast push over Server-Sent Events. Subscribers asking for the same report with the same
+ * parameters share one group: when the data version changes (manual entry write or AP/AR change) each group is
+ * recomputed once and the result fanned out to all of its subscribers, and only when the value actually changed.
+ * Every subscriber has a small bounded buffer; a client too slow to keep up loses its oldest queued events and is
+ * resynchronised with the latest full snapshot instead of holding memory for it.
+ * Envio ao vivo de saldo e projeção via Server-Sent Events. Assinantes que pedem o mesmo relatório com os mesmos
+ * parâmetros compartilham um grupo: quando a versão dos dados muda (escrita de lançamento manual ou alteração em AP/AR)
+ * cada grupo é recalculado uma vez e o resultado distribuído a todos os seus assinantes, e somente se o valor mudou.
+ * Cada assinante tem um buffer pequeno e limitado; um cliente lento demais perde os eventos mais antigos da fila e é
+ * ressincronizado com o snapshot completo mais recente em vez de acumular memória.
+ */
+@Component
+public class ReportStreamHub {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportStreamHub.class);
+
+    private final ConcurrentMap<List<Object>, StreamGroup> groups = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final CashFlowService cashFlowService;
+    private final ReportCoalescer reportCoalescer;
+    private final DataVersionTracker dataVersionTracker;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService refreshExecutor;
+    private final ExecutorService sendExecutor;
+    private final int maxSubscribers;
+    private final int bufferSize;
+    private final long timeoutMs;
+
+    public ReportStreamHub(CashFlowService cashFlowService,
+                           ReportCoalescer reportCoalescer,
+                           DataVersionTracker dataVersionTracker,
+                           MeterRegistry meterRegistry,
+                           @Value("${cashflow.stream.max-subscribers:1000}") int maxSubscribers,
+                           @Value("${cashflow.stream.buffer-size:16}") int bufferSize,
+                           @Value("${cashflow.stream.timeout-ms:1800000}") long timeoutMs,
+                           @Value("${cashflow.stream.refresh-threads:2}") int refreshThreads,
+                           @Value("${cashflow.stream.sender-threads:4}") int senderThreads) {
+        this.cashFlowService = cashFlowService;
+        this.reportCoalescer = reportCoalescer;
+        this.dataVersionTracker = dataVersionTracker;
+        this.meterRegistry = meterRegistry;
+        this.maxSubscribers = maxSubscribers;
+        this.bufferSize = Math.max(1, bufferSize);
+        this.timeoutMs = timeoutMs;
+        this.refreshExecutor = Executors.newFixedThreadPool(Math.max(1, refreshThreads), daemonThreads("report-stream-refresh-"));
+        this.sendExecutor = Executors.newFixedThreadPool(Math.max(1, senderThreads), daemonThreads("report-stream-send-"));
+        meterRegistry.gauge("cashflow.stream.subscribers", subscriberCount);
+        meterRegistry.gauge("cashflow.stream.groups", groups, ConcurrentMap::size);
+    }
+
+    /**
+     * Whether another subscriber can be accepted. / Se outro assinante pode ser aceito.
+     */
+    public boolean hasCapacity() {
+        return subscriberCount.get() < maxSubscribers;
+    }
+
+    /**
+     * Subscribes to the current balance. Pushes a "balance" event now and whenever the balance changes.
+     * Assina o saldo atual. Envia um evento "balance" agora e sempre que o saldo mudar.
+     */
+    public SseEmitter subscribeBalance(LocalDate openingBalanceDate, BigDecimal openingBalance) {
+        Supplier<Object> computation = () -> new CashFlowBalanceDTO(LocalDate.now(),
+                reportCoalescer.execute("balance",
+                        () -> cashFlowService.getCurrentBalance(openingBalanceDate, openingBalance), openingBalanceDate, openingBalance));
+        return subscribe(key("balance", openingBalanceDate, openingBalance), "balance", computation,
+                (previous, current, version) -> Objects.equals(previous, current) ? null : new Update("balance", current, version));
+    }
+
+    /**
+     * Subscribes to the forecast. Pushes a full "forecast" event first (and after a day rollover or a resync),
+     * then "forecast-delta" events carrying only the days whose projected balance changed.
+     * Assina a projeção. Envia primeiro um evento "forecast" completo (e após a virada do dia ou uma ressincronização),
+     * depois eventos "forecast-delta" apenas com os dias cujo saldo projetado mudou.
+     */
+    public SseEmitter subscribeForecast(int daysAhead, BigDecimal currentBalance) {
+        Supplier<Object> computation = () -> reportCoalescer.execute("forecast",
+                () -> cashFlowService.getCashFlowForecast(daysAhead, currentBalance), daysAhead, currentBalance);
+        return subscribe(key("forecast", daysAhead, currentBalance), "forecast", computation, ReportStreamHub::forecastUpdate);
+    }
+
+    private SseEmitter subscribe(List<Object> key, String report, Supplier<Object> computation, UpdateFunction updateFunction) {
+        SseEmitter emitter = createEmitter();
+        Subscriber subscriber = new Subscriber(emitter);
+        StreamGroup group = groups.compute(key, (k, existing) -> {
+            StreamGroup target = existing != null ? existing : new StreamGroup(k, report, computation, updateFunction);
+            subscriber.group = target;
+            target.subscribers.add(subscriber);
+            return target;
+        });
+        subscriberCount.incrementAndGet();
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> {
+            unsubscribe(subscriber);
+            emitter.complete();
+        });
+        emitter.onError(e -> unsubscribe(subscriber));
+
+        Update latest = group.latest;
+        if (latest != null) {
+            subscriber.offer(latest); // Joins an existing group: nothing is recomputed
+        } else {
+            scheduleRefresh(group);
+        }
+        log.debug("Live {} subscriber added ({} subscriber(s) in group {})", report, group.subscribers.size(), key);
+        return emitter;
+    }
+
+    SseEmitter createEmitter() {
+        return new SseEmitter(timeoutMs);
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        if (!subscriber.removed.compareAndSet(false, true)) {
+            return;
+        }
+        subscriberCount.decrementAndGet();
+        groups.computeIfPresent(subscriber.group.key, (k, group) -> {
+            group.subscribers.remove(subscriber);
+            return group.subscribers.isEmpty() ? null : group; // Nobody left: stop recomputing this group
+        });
+    }
+
+    /**
+     * Recomputes every subscribed group once per data change (coalesced while a refresh is pending).
+     * Recalcula cada grupo assinado uma vez por alteração de dados (coalescido enquanto houver um recálculo pendente).
+     */
+    @EventListener
+    public void onDataChanged(CashFlowDataChangedEvent event) {
+        if (!groups.isEmpty()) {
+            log.debug("Refreshing {} live report group(s) for data version {}", groups.size(), event.getDataVersion());
+            groups.values().forEach(this::scheduleRefresh);
+        }
+    }
+
+    /**
+     * Keeps idle connections open through proxies and rolls forecasts over to the new day.
+     * Mantém conexões ociosas abertas através de proxies e avança as projeções para o novo dia.
+     */
+    @Scheduled(fixedDelayString = "${cashflow.stream.heartbeat-interval-ms:15000}", initialDelayString = "${cashflow.stream.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        LocalDate today = LocalDate.now();
+        for (StreamGroup group : groups.values()) {
+            if (group.computedOn != null && !group.computedOn.equals(today)) {
+                scheduleRefresh(group); // Reports are relative to "today"
+            }
+            group.subscribers.forEach(subscriber -> subscriber.offer(Update.HEARTBEAT));
+        }
+    }
+
+    private void scheduleRefresh(StreamGroup group) {
+        if (!group.refreshPending.compareAndSet(false, true)) {
+            return; // A refresh is already queued and will see the newest data
+        }
+        try {
+            refreshExecutor.execute(() -> refresh(group));
+        } catch (RejectedExecutionException e) {
+            group.refreshPending.set(false); // Shutting down
+        }
+    }
+
+    private void refresh(StreamGroup group) {
+        group.refreshPending.set(false); // Changes arriving from now on need another pass
+        if (group.subscribers.isEmpty()) {
+            return;
+        }
+        long version = dataVersionTracker.currentVersion();
+        Object current;
+        try {
+            current = group.computation.get();
+        } catch (RuntimeException e) {
+            log.warn("Live {} refresh failed for {}, subscribers keep the previous value: {}", group.report, group.key, e.getMessage());
+            return;
+        }
+        meterRegistry.counter("cashflow.stream.refreshes", "report", group.report).increment();
+
+        Update update;
+        synchronized (group) {
+            Update previous = group.latest;
+            if (previous != null && previous.version() > version) {
+                return; // A refresh started after a newer change already finished: never push older data over it
+            }
+            update = group.updateFunction.apply(previous != null ? previous.data() : null, current, version);
+            group.latest = new Update(group.report, current, version);
+            group.computedOn = LocalDate.now();
+        }
+        if (update == null) {
+            return; // Unchanged: nothing to push
+        }
+        for (Subscriber subscriber : group.subscribers) {
+            subscriber.offer(update);
+        }
+    }
+
+    private static Update forecastUpdate(Object previousData, Object currentData, long version) {
+        CashFlowForecastDTO current = (CashFlowForecastDTO) currentData;
+        if (!(previousData instanceof CashFlowForecastDTO previous)
+                || !Objects.equals(previous.getForecastStartDate(), current.getForecastStartDate())
+                || previous.getStartingBalance().compareTo(current.getStartingBalance()) != 0) {
+            return new Update("forecast", current, version);
+        }
+        Map<LocalDate, BigDecimal> changedDays = new TreeMap<>();
+        current.getDailyProjectedBalance().forEach((date, balance) -> {
+            BigDecimal before = previous.getDailyProjectedBalance().get(date);
+            if (before == null || before.compareTo(balance) != 0) {
+                changedDays.put(date, balance);
+            }
+        });
+        return changedDays.isEmpty() ? null
+                : new Update("forecast-delta", new ForecastDeltaDTO(current.getForecastStartDate(), version, changedDays), version);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+        sendExecutor.shutdownNow();
+        for (StreamGroup group : new ArrayList<>(groups.values())) {
+            group.subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        }
+    }
+
+    private static List<Object> key(String report, Object... params) {
+        List<Object> key = new ArrayList<>(params.length + 1);
+        key.add(report);
+        for (Object param : params) {
+            key.add(param instanceof BigDecimal b ? b.stripTrailingZeros() : param); // 100 and 100.00 share a group
+        }
+        return key;
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r, prefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Turns (previous value, new value) into the event to push, or null when nothing changed.
+     * Transforma (valor anterior, novo valor) no evento a enviar, ou null quando nada mudou.
+     */
+    @FunctionalInterface
+    private interface UpdateFunction {
+        Update apply(Object previous, Object current, long version);
+    }
+
+    private record Update(String event, Object data, long version) {
+        static final Update HEARTBEAT = new Update(null, null, 0);
+    }
+
+    private static final class StreamGroup {
+        final List<Object> key;
+        final String report;
+        final Supplier<Object> computation;
+        final UpdateFunction updateFunction;
+        final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        final AtomicBoolean refreshPending = new AtomicBoolean();
+        volatile Update latest; // Full snapshot, sent to new and resynchronised subscribers
+        volatile LocalDate computedOn;
+
+        StreamGroup(List<Object> key, String report, Supplier<Object> computation, UpdateFunction updateFunction) {
+            this.key = key;
+            this.report = report;
+            this.computation = computation;
+            this.updateFunction = updateFunction;
+        }
+    }
+
+    private final class Subscriber {
+        final SseEmitter emitter;
+        final AtomicBoolean removed = new AtomicBoolean();
+        StreamGroup group;
+        // Guarded by "this"
+        private final ArrayDeque<Update> buffer = new ArrayDeque<>();
+        private boolean draining;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(Update update) {
+            synchronized (this) {
+                if (removed.get()) {
+                    return;
+                }
+                if (update == Update.HEARTBEAT && !buffer.isEmpty()) {
+                    return; // Queued events keep the connection alive anyway
+                }
+                if (buffer.size() >= bufferSize) {
+                    // Drop the backlog and resynchronise with the newest full snapshot (deltas need their base)
+                    meterRegistry.counter("cashflow.stream.events.dropped", "report", group.report).increment(buffer.size());
+                    buffer.clear();
+                    Update latest = group.latest;
+                    if (latest != null && update != Update.HEARTBEAT) {
+                        update = latest;
+                    }
+                }
+                buffer.add(update);
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            try {
+                sendExecutor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                unsubscribe(this); // Shutting down
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                Update update;
+                synchronized (this) {
+                    update = buffer.poll();
+                    if (update == null) {
+                        draining = false;
+                        return;
+                    }
+                }
+                try {
+                    if (update == Update.HEARTBEAT) {
+                        emitter.send(SseEmitter.event().comment("keep-alive"));
+                    } else {
+                        emitter.send(SseEmitter.event()
+                                .id(String.valueOf(update.version()))
+                                .name(update.event())
+                                .data(update.data(), MediaType.APPLICATION_JSON));
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    log.debug("Live {} subscriber disconnected: {}", group.report, e.getMessage());
+                    unsubscribe(this);
+                    synchronized (this) {
+                        buffer.clear();
+                        draining = false;
+                    }
+                    emitter.completeWithError(e);
+                    return;
+                }
+            }
+        }
+    }
+}
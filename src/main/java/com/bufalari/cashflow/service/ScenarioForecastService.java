@@ -0,0 +1,115 @@
+package com.bufalari.cashflow.service;
+
+import com.bufalari.cashflow.dto.ForecastScenarioDTO;
+import com.bufalari.cashflow.dto.ScenarioComparisonDTO;
+import com.bufalari.cashflow.dto.ScenarioForecastDTO;
+import com.bufalari.cashflow.dto.ScenarioForecastRequestDTO;
+import com.bufalari.cashflow.dto.ScenarioRuleDTO;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Evaluates what-if forecast scenarios in parallel over a single shared forecast snapshot.
+ * Avalia cenários hipotéticos de projeção em paralelo sobre um único snapshot compartilhado.
+ */
+@Service
+@RequiredArgsConstructor
+public class ScenarioForecastService {
+
+    private static final Logger log = LoggerFactory.getLogger(ScenarioForecastService.class);
+    private static final String BASELINE_SCENARIO = "baseline";
+    private static final BigDecimal ONE_HUNDRED = BigDecimal.valueOf(100);
+
+    private final CashFlowService cashFlowService;
+
+    /**
+     * Fetches AP/AR data once and projects the baseline plus every requested scenario from it.
+     * Busca os dados de AP/AR uma vez e projeta a linha de base mais cada cenário solicitado.
+     * @param request Forecast window, starting balance and scenarios. / Janela, saldo inicial e cenários.
+     * @return Every projected curve, baseline first. / Todas as curvas projetadas, linha de base primeiro.
+     */
+    public ScenarioComparisonDTO compareScenarios(ScenarioForecastRequestDTO request) {
+        log.info("Evaluating {} forecast scenarios for {} days ahead", request.getScenarios().size(), request.getDaysAhead());
+        ForecastSnapshot snapshot = cashFlowService.loadForecastSnapshot(request.getDaysAhead());
+
+        List<ForecastScenarioDTO> scenarios = new ArrayList<>();
+        scenarios.add(new ForecastScenarioDTO(BASELINE_SCENARIO, List.of()));
+        scenarios.addAll(request.getScenarios());
+
+        // Scenarios only read the snapshot, so they can be evaluated independently on the common fork-join pool
+        List<ScenarioForecastDTO> curves = scenarios.parallelStream()
+                .map(scenario -> evaluate(snapshot, scenario, request.getCurrentBalance()))
+                .collect(Collectors.toList());
+
+        log.info("Evaluated {} scenario curves up to {}", curves.size(), snapshot.getEndDate());
+        return new ScenarioComparisonDTO(snapshot.getStartDate(), snapshot.getEndDate(), request.getCurrentBalance(), curves);
+    }
+
+    /**
+     * Applies the scenario rules to every expected flow and accumulates the resulting curve.
+     * Aplica as regras do cenário a cada fluxo esperado e acumula a curva resultante.
+     */
+    ScenarioForecastDTO evaluate(ForecastSnapshot snapshot, ForecastScenarioDTO scenario, BigDecimal startingBalance) {
+        int receivableDelay = 0;
+        int payableDelay = 0;
+        BigDecimal receivableFactor = BigDecimal.ONE;
+        BigDecimal payableFactor = BigDecimal.ONE;
+        for (ScenarioRuleDTO rule : scenario.getRules()) {
+            switch (rule.getType()) {
+                case DELAY_RECEIVABLES -> receivableDelay += rule.getValue().intValueExact(); // Whole days (validated on the DTO)
+                case DELAY_PAYABLES -> payableDelay += rule.getValue().intValueExact();
+                case WRITE_OFF_RECEIVABLES -> receivableFactor = receivableFactor.multiply(
+                        BigDecimal.ONE.subtract(rule.getValue().divide(ONE_HUNDRED)));
+                case SCALE_PAYABLES -> payableFactor = payableFactor.multiply(
+                        BigDecimal.ONE.add(rule.getValue().divide(ONE_HUNDRED)));
+            }
+        }
+
+        BigDecimal[] dailyNetFlow = snapshot.newDayBuckets();
+        for (ForecastSnapshot.ExpectedReceipt r : snapshot.getExpectedReceipts()) {
+            int day = snapshot.dayIndex(r.getDueDate().plusDays(receivableDelay)); // Shifted past the window = not collected in time
+            if (day >= 0) dailyNetFlow[day] = dailyNetFlow[day].add(scale(r.getAmount(), receivableFactor));
+        }
+        for (ForecastSnapshot.ExpectedPayment p : snapshot.getExpectedPayments()) {
+            int day = snapshot.dayIndex(p.getDueDate().plusDays(payableDelay));
+            if (day >= 0) dailyNetFlow[day] = dailyNetFlow[day].subtract(scale(p.getAmount(), payableFactor));
+        }
+
+        Map<LocalDate, BigDecimal> curve = snapshot.accumulate(startingBalance, dailyNetFlow);
+        LocalDate minimumDate = snapshot.getStartDate();
+        BigDecimal minimum = null;
+        BigDecimal closing = startingBalance;
+        for (Map.Entry<LocalDate, BigDecimal> day : curve.entrySet()) {
+            if (minimum == null || day.getValue().compareTo(minimum) < 0) {
+                minimum = day.getValue();
+                minimumDate = day.getKey();
+            }
+            closing = day.getValue();
+        }
+
+        return ScenarioForecastDTO.builder()
+                .scenarioName(scenario.getName())
+                .closingBalance(closing)
+                .minimumBalance(minimum != null ? minimum : startingBalance)
+                .minimumBalanceDate(minimumDate)
+                .dailyProjectedBalance(curve)
+                .build();
+    }
+
+    private static BigDecimal scale(BigDecimal amount, BigDecimal factor) {
+        if (factor.compareTo(BigDecimal.ONE) == 0) {
+            return amount;
+        }
+        return amount.multiply(factor).setScale(Math.max(amount.scale(), 2), RoundingMode.HALF_EVEN);
+    }
+}
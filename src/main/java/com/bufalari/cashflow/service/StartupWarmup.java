@@ -0,0 +1,300 @@
+package com.bufalari.cashflow.service;
+
+import com.bufalari.cashflow.config.ReplicaRoutingDataSource;
+import com.bufalari.cashflow.dto.CashFlowItemDTO;
+import com.bufalari.cashflow.dto.ManualCashEntryFilterDTO;
+import com.bufalari.cashflow.enums.EntryType;
+import com.bufalari.cashflow.enums.PayableStatus;
+import com.bufalari.cashflow.enums.ReceivableStatus;
+import com.bufalari.cashflow.repository.ManualCashEntryRepository;
+import com.bufalari.cashflow.secutity.CustomUserDetailsService;
+import com.bufalari.cashflow.util.RequestDeadline;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Startup warm-up, run before the pod reports ready. Synthetic statements and forecasts over generated fixtures
+ * (no upstream calls) get the aggregation, merge and JSON paths compiled by the JIT, including the fork/join totals
+ * of statements above StatementTotals.PARALLEL_THRESHOLD; the pools (primary and read replicas) open their minimum
+ * connections; the manual-entry queries are planned once; and, optionally, real statement/forecast calls fill the
+ * upstream segment and query caches and open the AP/AR/auth connections. The "warmup" health indicator (part of the
+ * readiness group) is OUT_OF_SERVICE until it finishes. Each iteration is recorded in cashflow.warmup.iteration
+ * (p50/p99 + histogram), so the time to a steady p99 can be read next to http.server.requests.
+ * Aquecimento na inicialização, executado antes de o pod se declarar pronto. Demonstrativos e projeções sintéticos
+ * sobre dados gerados (sem chamadas às origens) fazem o JIT compilar os caminhos de agregação, mescla e JSON, incluindo
+ * os totais fork/join de demonstrativos acima de StatementTotals.PARALLEL_THRESHOLD; os pools (primário e réplicas de
+ * leitura) abrem suas conexões mínimas; as consultas de lançamentos manuais são planejadas uma vez; e, opcionalmente, chamadas
+ * reais de demonstrativo/projeção preenchem os caches de segmentos e de consultas e abrem as conexões com AP/AR/auth.
+ * O indicador de saúde "warmup" (no grupo de prontidão) fica OUT_OF_SERVICE até terminar. Cada iteração é registrada
+ * em cashflow.warmup.iteration (p50/p99 + histograma), para medir o tempo até um p99 estável.
+ */
+@Component("warmup")
+public class StartupWarmup implements ApplicationRunner, HealthIndicator {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupWarmup.class);
+
+    private static final int FIXTURE_DAYS = 90;
+
+    private final CashFlowService cashFlowService;
+    private final ManualCashEntryRepository manualCashEntryRepository;
+    private final CustomUserDetailsService userDetailsService;
+    private final List<HikariDataSource> pools;
+    private final ObjectProvider<ReplicaRoutingDataSource> replicaRouting;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int iterations;
+    private final int fixtureItems;
+    private final long maxDurationMs;
+    private final boolean primeReports;
+    private final long primeTimeoutMs;
+    private final int forecastDays;
+    private final List<String> usernames;
+
+    private volatile String phase = "pending";
+    private volatile long durationMs = -1; // Set once finished
+
+    public StartupWarmup(CashFlowService cashFlowService, ManualCashEntryRepository manualCashEntryRepository,
+                         CustomUserDetailsService userDetailsService, List<HikariDataSource> pools,
+                         ObjectProvider<ReplicaRoutingDataSource> replicaRouting, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                         @Value("${cashflow.warmup.enabled:true}") boolean enabled,
+                         @Value("${cashflow.warmup.iterations:200}") int iterations,
+                         @Value("${cashflow.warmup.fixture-items:4000}") int fixtureItems,
+                         @Value("${cashflow.warmup.max-duration-ms:60000}") long maxDurationMs,
+                         @Value("${cashflow.warmup.prime-reports:true}") boolean primeReports,
+                         @Value("${cashflow.warmup.prime-timeout-ms:10000}") long primeTimeoutMs,
+                         @Value("${cashflow.warmup.forecast-days:30}") int forecastDays,
+                         @Value("${cashflow.warmup.usernames:}") List<String> usernames) {
+        this.cashFlowService = cashFlowService;
+        this.manualCashEntryRepository = manualCashEntryRepository;
+        this.userDetailsService = userDetailsService;
+        this.pools = pools;
+        this.replicaRouting = replicaRouting;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.iterations = iterations;
+        this.fixtureItems = Math.max(4, fixtureItems);
+        this.maxDurationMs = maxDurationMs;
+        this.primeReports = primeReports;
+        this.primeTimeoutMs = primeTimeoutMs;
+        this.forecastDays = forecastDays;
+        this.usernames = usernames.stream().map(String::trim).filter(u -> !u.isEmpty()).toList();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            durationMs = 0;
+            phase = "disabled";
+            return;
+        }
+        long start = System.nanoTime();
+        long until = start + TimeUnit.MILLISECONDS.toNanos(maxDurationMs);
+        phase("connections", this::openConnections);
+        phase("synthetic", () -> runSynthetic(until));
+        phase("queries", this::planQueries);
+        if (primeReports) {
+            phase("caches", this::primeCaches);
+        }
+        durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        phase = "done";
+        log.info("Warm-up finished in {} ms", durationMs);
+    }
+
+    @Override
+    public Health health() {
+        if (durationMs < 0) {
+            return Health.outOfService().withDetail("phase", phase).build();
+        }
+        return Health.up().withDetail("phase", phase).withDetail("durationMs", durationMs).build();
+    }
+
+    public boolean isFinished() {
+        return durationMs >= 0;
+    }
+
+    /**
+     * Runs one phase, timed; a failure is logged and does not hold readiness back.
+     * Executa uma fase, cronometrada; uma falha é registrada no log e não segura a prontidão.
+     */
+    private void phase(String name, Runnable work) {
+        phase = name;
+        long start = System.nanoTime();
+        try {
+            work.run();
+        } catch (Exception e) {
+            log.warn("Warm-up phase '{}' failed: {}", name, e.getMessage());
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            meterRegistry.timer("cashflow.warmup.duration", "phase", name).record(elapsed, TimeUnit.NANOSECONDS);
+            log.debug("Warm-up phase '{}' took {} ms", name, TimeUnit.NANOSECONDS.toMillis(elapsed));
+        }
+    }
+
+    /**
+     * Borrows each pool's minimum idle connections at once, so they exist before the first request needs them. The
+     * read replica pools are not beans, so they come from the routing data source when replicas are enabled.
+     * Toma emprestadas de uma vez as conexões ociosas mínimas de cada pool, para que existam antes da primeira requisição.
+     * Os pools das réplicas de leitura não são beans, então vêm do roteador quando as réplicas estão habilitadas.
+     */
+    private void openConnections() {
+        List<HikariDataSource> all = new ArrayList<>(pools);
+        replicaRouting.ifAvailable(routing -> all.addAll(routing.pools()));
+        for (HikariDataSource pool : all) {
+            int target = Math.max(1, Math.min(pool.getMinimumIdle(), pool.getMaximumPoolSize()));
+            List<Connection> held = new ArrayList<>(target);
+            try {
+                while (held.size() < target) {
+                    held.add(pool.getConnection());
+                }
+            } catch (SQLException e) {
+                log.warn("Warm-up opened only {} of {} connections in pool {}: {}", held.size(), target, pool.getPoolName(), e.getMessage());
+            } finally {
+                held.forEach(StartupWarmup::closeQuietly);
+            }
+            log.debug("Warm-up opened {} connections in pool {}", held.size(), pool.getPoolName());
+        }
+    }
+
+    private void runSynthetic(long until) {
+        LocalDate start = LocalDate.now().minusDays(FIXTURE_DAYS);
+        StatementItemSources statementFixture = statementFixture(start, fixtureItems / 4);
+        // Totals only: above the threshold the sum runs on the common fork/join pool, a path the small fixture never takes
+        StatementItemSources parallelFixture = statementFixture(start, StatementTotals.PARALLEL_THRESHOLD / 4 + 1);
+        ForecastSnapshot forecastFixture = forecastFixture(LocalDate.now());
+        Timer statementTimer = iterationTimer("statement");
+        Timer totalsTimer = iterationTimer("statement-totals");
+        Timer forecastTimer = iterationTimer("forecast");
+        int done = 0;
+        while (done < iterations && System.nanoTime() < until) {
+            statementTimer.record(() -> serialize(() -> cashFlowService.assembleStatement(
+                    start, start.plusDays(FIXTURE_DAYS - 1), BigDecimal.ZERO, statementFixture)));
+            totalsTimer.record(() -> StatementTotals.of(parallelFixture));
+            forecastTimer.record(() -> serialize(() -> cashFlowService.projectForecast(forecastFixture, BigDecimal.ZERO)));
+            done++;
+        }
+        log.info("Warm-up ran {} synthetic statement/forecast iterations (statement p99 {} ms, forecast p99 {} ms)", done,
+                Math.round(p99(statementTimer)), Math.round(p99(forecastTimer)));
+    }
+
+    /**
+     * Plans the manual-entry queries once (finder, daily sums, filtered keyset listing) on ranges that match nothing.
+     * Planeja uma vez as consultas de lançamentos manuais (busca, somas diárias, listagem filtrada) em intervalos vazios.
+     */
+    private void planQueries() {
+        LocalDate never = LocalDate.of(1900, 1, 1);
+        manualCashEntryRepository.findByEntryDateBetweenOrderByEntryDateAsc(never, never);
+        manualCashEntryRepository.sumAmountsByDayAndType(never, never);
+        ManualCashEntryFilterDTO filter = new ManualCashEntryFilterDTO();
+        filter.setStartDate(never);
+        filter.setEndDate(never);
+        cashFlowService.listManualEntries(filter, null, 1);
+    }
+
+    /**
+     * Real month-to-date statement and forecast (fills the segment and query caches, opens AP/AR connections) and
+     * user lookups (opens the auth service connection), all under one time budget.
+     * Demonstrativo do mês e projeção reais (preenchem os caches de segmentos e de consultas, abrem as conexões com
+     * AP/AR) e buscas de usuários (abrem a conexão com o serviço de autenticação), tudo sob um orçamento de tempo.
+     */
+    private void primeCaches() {
+        try (RequestDeadline.Scope ignored = RequestDeadline.after(Duration.ofMillis(primeTimeoutMs)).bind()) {
+            LocalDate today = LocalDate.now();
+            cashFlowService.getCashFlowStatement(today.withDayOfMonth(1), today, BigDecimal.ZERO);
+            cashFlowService.getCashFlowForecast(forecastDays, BigDecimal.ZERO);
+            for (String username : usernames) {
+                try {
+                    userDetailsService.loadUserByUsername(username);
+                } catch (RuntimeException e) {
+                    log.debug("Warm-up lookup of user {} failed: {}", username, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static StatementItemSources statementFixture(LocalDate start, int perSource) {
+        return new StatementItemSources(fixtureItems(start, perSource, "RECEIVABLE"), fixtureItems(start, perSource, "MANUAL_CREDIT"),
+                fixtureItems(start, perSource, "PAYABLE"), fixtureItems(start, perSource, "MANUAL_DEBIT"));
+    }
+
+    private static List<CashFlowItemDTO> fixtureItems(LocalDate start, int count, String type) {
+        List<CashFlowItemDTO> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) { // Date-sorted, as the loaders return them
+            items.add(new CashFlowItemDTO(start.plusDays((long) i * FIXTURE_DAYS / count), type + " warm-up " + i,
+                    BigDecimal.valueOf(1_000 + i * 37L, 2), type, UUID.randomUUID()));
+        }
+        return items;
+    }
+
+    private ForecastSnapshot forecastFixture(LocalDate today) {
+        int perSource = fixtureItems / 3;
+        List<ForecastSnapshot.ExpectedReceipt> receipts = new ArrayList<>(perSource);
+        List<ForecastSnapshot.ExpectedPayment> payments = new ArrayList<>(perSource);
+        List<ForecastSnapshot.PlannedManualTotal> planned = new ArrayList<>(perSource);
+        for (int i = 0; i < perSource; i++) {
+            LocalDate day = today.plusDays(i % FIXTURE_DAYS);
+            BigDecimal amount = BigDecimal.valueOf(1_000 + i * 37L, 2);
+            receipts.add(new ForecastSnapshot.ExpectedReceipt(UUID.randomUUID(), day, amount, ReceivableStatus.PENDING));
+            payments.add(new ForecastSnapshot.ExpectedPayment(UUID.randomUUID(), day, amount, PayableStatus.PENDING));
+            planned.add(new ForecastSnapshot.PlannedManualTotal(day, i % 2 == 0 ? EntryType.CREDIT : EntryType.DEBIT, amount));
+        }
+        return new ForecastSnapshot(today, today.plusDays(FIXTURE_DAYS - 1), receipts, payments, planned);
+    }
+
+    private void serialize(Supplier<Object> report) {
+        try {
+            objectMapper.writeValueAsBytes(report.get());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Warm-up serialization failed", e);
+        }
+    }
+
+    private Timer iterationTimer(String report) {
+        return Timer.builder("cashflow.warmup.iteration")
+                .description("Synthetic report computation + JSON serialization during startup warm-up")
+                .tag("report", report)
+                .publishPercentiles(0.5, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static double p99(Timer timer) {
+        return Arrays.stream(timer.takeSnapshot().percentileValues())
+                .filter(p -> p.percentile() == 0.99)
+                .mapToDouble(p -> p.value(TimeUnit.MILLISECONDS))
+                .findFirst().orElse(Double.NaN);
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.debug("Could not return a warm-up connection: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.bufalari.cashflow.service;
+
+import com.bufalari.cashflow.dto.CashFlowItemDTO;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+
+/**
+ * Streams statements to CSV or XLSX row by row, straight from the date-merged item iterator: no statement DTO,
+ * no JSON and no in-memory workbook is built, so the output side uses constant memory however many rows there are.
+ * XLSX uses POI's streaming workbook, which keeps only a bounded window of rows in memory and flushes the rest to a
+ * compressed temporary file. Each row carries the running balance.
+ * Transmite demonstrativos em CSV ou XLSX linha a linha, direto do iterador de itens mesclado por data: nenhum DTO de
+ * demonstrativo, JSON ou planilha em memória é montado, então a saída usa memória constante qualquer que seja o número
+ * de linhas. O XLSX usa o workbook em streaming do POI, que mantém apenas uma janela limitada de linhas em memória e
+ * descarrega o resto em um arquivo temporário compactado. Cada linha traz o saldo acumulado.
+ */
+@Service
+public class StatementExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(StatementExportService.class);
+
+    private static final String[] HEADER = {"Date", "Type", "Description", "Related ID", "Inflow", "Outflow", "Balance"};
+    private static final int MAX_SHEET_ROWS = SpreadsheetVersion.EXCEL2007.getMaxRows();
+
+    private final CashFlowService cashFlowService;
+    private final int xlsxRowWindow;
+
+    public StatementExportService(CashFlowService cashFlowService,
+                                  @Value("${cashflow.export.xlsx-row-window:200}") int xlsxRowWindow) {
+        this.cashFlowService = cashFlowService;
+        this.xlsxRowWindow = Math.max(10, xlsxRowWindow);
+    }
+
+    /**
+     * Loads the statement items now (errors surface as a normal error response) and returns the CSV writer.
+     * Carrega os itens do demonstrativo agora (erros viram uma resposta de erro normal) e retorna o escritor CSV.
+     */
+    public StreamingResponseBody csv(LocalDate startDate, LocalDate endDate, BigDecimal openingBalance) {
+        StatementItemSources sources = cashFlowService.loadStatementItems(startDate, endDate);
+        return out -> writeCsv(sources.all(), openingBalance, out);
+    }
+
+    /**
+     * Loads the statement items now and returns the streaming XLSX writer.
+     * Carrega os itens do demonstrativo agora e retorna o escritor XLSX em streaming.
+     */
+    public StreamingResponseBody xlsx(LocalDate startDate, LocalDate endDate, BigDecimal openingBalance) {
+        StatementItemSources sources = cashFlowService.loadStatementItems(startDate, endDate);
+        return out -> writeXlsx(sources.all(), openingBalance, out);
+    }
+
+    void writeCsv(Iterator<CashFlowItemDTO> items, BigDecimal openingBalance, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write('\uFEFF'); // BOM, so spreadsheet tools detect UTF-8
+        writer.write(String.join(",", HEADER));
+        writer.write("\r\n");
+        writeCsvLine(writer, "", "OPENING_BALANCE", "", "", "", "", openingBalance.toPlainString());
+
+        BigDecimal balance = openingBalance;
+        long rows = 0;
+        while (items.hasNext()) {
+            CashFlowItemDTO item = items.next();
+            boolean outflow = isOutflow(item);
+            balance = outflow ? balance.subtract(item.getAmount()) : balance.add(item.getAmount());
+            writeCsvLine(writer,
+                    item.getDate() != null ? item.getDate().toString() : "",
+                    item.getType(),
+                    item.getDescription(),
+                    item.getRelatedId() != null ? item.getRelatedId().toString() : "",
+                    outflow ? "" : item.getAmount().toPlainString(),
+                    outflow ? item.getAmount().toPlainString() : "",
+                    balance.toPlainString());
+            rows++;
+        }
+        writeCsvLine(writer, "", "CLOSING_BALANCE", "", "", "", "", balance.toPlainString());
+        writer.flush();
+        log.debug("Exported {} statement rows as CSV", rows);
+    }
+
+    void writeXlsx(Iterator<CashFlowItemDTO> items, BigDecimal openingBalance, OutputStream out) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(xlsxRowWindow); // Rows beyond the window are flushed to disk
+        workbook.setCompressTempFiles(true);
+        try {
+            CellStyle headerStyle = workbook.createCellStyle();
+            Font bold = workbook.createFont();
+            bold.setBold(true);
+            headerStyle.setFont(bold);
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.createDataFormat().getFormat("yyyy-mm-dd"));
+            CellStyle amountStyle = workbook.createCellStyle();
+            amountStyle.setDataFormat(workbook.createDataFormat().getFormat("#,##0.00"));
+
+            String baseName = "Statement"; // Sheet names are limited to 31 characters; the period is in the file name
+            int sheetCount = 1;
+            Sheet sheet = newSheet(workbook, baseName, sheetCount, headerStyle);
+            int rowIndex = 1;
+            BigDecimal balance = openingBalance;
+            Row opening = sheet.createRow(rowIndex++);
+            opening.createCell(1).setCellValue("OPENING_BALANCE");
+            amountCell(opening, 6, balance, amountStyle);
+
+            long rows = 0;
+            while (items.hasNext()) {
+                if (rowIndex >= MAX_SHEET_ROWS - 1) { // Keep room for the closing row; continue on a new sheet
+                    sheet = newSheet(workbook, baseName, ++sheetCount, headerStyle);
+                    rowIndex = 1;
+                }
+                CashFlowItemDTO item = items.next();
+                boolean outflow = isOutflow(item);
+                balance = outflow ? balance.subtract(item.getAmount()) : balance.add(item.getAmount());
+                Row row = sheet.createRow(rowIndex++);
+                if (item.getDate() != null) {
+                    Cell date = row.createCell(0);
+                    date.setCellValue(item.getDate());
+                    date.setCellStyle(dateStyle);
+                }
+                row.createCell(1).setCellValue(item.getType());
+                row.createCell(2).setCellValue(item.getDescription());
+                if (item.getRelatedId() != null) {
+                    row.createCell(3).setCellValue(item.getRelatedId().toString());
+                }
+                amountCell(row, outflow ? 5 : 4, item.getAmount(), amountStyle);
+                amountCell(row, 6, balance, amountStyle);
+                rows++;
+            }
+            Row closing = sheet.createRow(rowIndex);
+            closing.createCell(1).setCellValue("CLOSING_BALANCE");
+            amountCell(closing, 6, balance, amountStyle);
+
+            workbook.write(out);
+            out.flush();
+            log.debug("Exported {} statement rows as XLSX ({} sheet(s))", rows, sheetCount);
+        } finally {
+            workbook.close();
+            workbook.dispose(); // Delete the temporary row files
+        }
+    }
+
+    private static Sheet newSheet(SXSSFWorkbook workbook, String baseName, int number, CellStyle headerStyle) {
+        SXSSFSheet sheet = workbook.createSheet(number == 1 ? baseName : baseName + " (" + number + ")");
+        sheet.setColumnWidth(0, 12 * 256); // Fixed widths: auto-sizing would need every row in memory
+        sheet.setColumnWidth(1, 16 * 256);
+        sheet.setColumnWidth(2, 48 * 256);
+        sheet.setColumnWidth(3, 38 * 256);
+        for (int column = 4; column < HEADER.length; column++) {
+            sheet.setColumnWidth(column, 16 * 256);
+        }
+        Row header = sheet.createRow(0);
+        for (int column = 0; column < HEADER.length; column++) {
+            Cell cell = header.createCell(column);
+            cell.setCellValue(HEADER[column]);
+            cell.setCellStyle(headerStyle);
+        }
+        sheet.createFreezePane(0, 1);
+        return sheet;
+    }
+
+    private static void amountCell(Row row, int column, BigDecimal amount, CellStyle style) {
+        Cell cell = row.createCell(column);
+        cell.setCellValue(amount.doubleValue());
+        cell.setCellStyle(style);
+    }
+
+    private static boolean isOutflow(CashFlowItemDTO item) {
+        return "PAYABLE".equals(item.getType()) || "MANUAL_DEBIT".equals(item.getType());
+    }
+
+    private static void writeCsvLine(Writer writer, String... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) writer.write(',');
+            writer.write(csvField(values[i]));
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * RFC 4180 quoting, plus a leading apostrophe on text that a spreadsheet would run as a formula.
+     * Aspas conforme RFC 4180, mais um apóstrofo inicial em textos que uma planilha executaria como fórmula.
+     */
+    private static String csvField(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        String safe = value;
+        char first = value.charAt(0);
+        if ((first == '=' || first == '+' || first == '@' || first == '\t' || first == '\r'
+                || (first == '-' && !isNumber(value)))) {
+            safe = "'" + value;
+        }
+        if (safe.indexOf(',') >= 0 || safe.indexOf('"') >= 0 || safe.indexOf('\n') >= 0 || safe.indexOf('\r') >= 0) {
+            return '"' + safe.replace("\"", "\"\"") + '"';
+        }
+        return safe;
+    }
+
+    private static boolean isNumber(String value) {
+        try {
+            new BigDecimal(value);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
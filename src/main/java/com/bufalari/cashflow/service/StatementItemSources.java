@@ -0,0 +1,71 @@
+package com.bufalari.cashflow.service;
+
+import com.bufalari.cashflow.dto.CashFlowItemDTO;
+import com.bufalari.cashflow.util.SortedMergeIterator;
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Statement items grouped by source, each source already sorted by date.
+ * Consumers merge them instead of concatenating and re-sorting.
+ * Itens do demonstrativo agrupados por origem, cada origem já ordenada por data.
+ * Consumidores os mesclam em vez de concatenar e reordenar.
+ */
+@Value
+public class StatementItemSources {
+
+    public static final Comparator<CashFlowItemDTO> ITEM_DATE_ORDER =
+            Comparator.comparing(CashFlowItemDTO::getDate, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    List<CashFlowItemDTO> receivables;   // RECEIVABLE
+    List<CashFlowItemDTO> manualCredits; // MANUAL_CREDIT
+    List<CashFlowItemDTO> payables;      // PAYABLE
+    List<CashFlowItemDTO> manualDebits;  // MANUAL_DEBIT
+
+    /**
+     * Inflows (receivables + manual credits) in date order.
+     * Entradas (recebíveis + créditos manuais) em ordem de data.
+     */
+    public Iterator<CashFlowItemDTO> inflows() {
+        return SortedMergeIterator.merge(ITEM_DATE_ORDER, receivables.iterator(), manualCredits.iterator());
+    }
+
+    /**
+     * Outflows (payables + manual debits) in date order.
+     * Saídas (pagáveis + débitos manuais) em ordem de data.
+     */
+    public Iterator<CashFlowItemDTO> outflows() {
+        return SortedMergeIterator.merge(ITEM_DATE_ORDER, payables.iterator(), manualDebits.iterator());
+    }
+
+    /**
+     * Every item of every source in date order.
+     * Todos os itens de todas as origens em ordem de data.
+     */
+    public Iterator<CashFlowItemDTO> all() {
+        return SortedMergeIterator.merge(ITEM_DATE_ORDER,
+                receivables.iterator(), manualCredits.iterator(), payables.iterator(), manualDebits.iterator());
+    }
+
+    public int inflowCount() {
+        return receivables.size() + manualCredits.size();
+    }
+
+    public int outflowCount() {
+        return payables.size() + manualDebits.size();
+    }
+
+    /**
+     * Drains an iterator into a list presized to the known item count.
+     * Esvazia um iterador em uma lista pré-dimensionada com o número conhecido de itens.
+     */
+    public static List<CashFlowItemDTO> toList(Iterator<CashFlowItemDTO> items, int expectedSize) {
+        List<CashFlowItemDTO> list = new ArrayList<>(expectedSize);
+        items.forEachRemaining(list::add);
+        return list;
+    }
+}
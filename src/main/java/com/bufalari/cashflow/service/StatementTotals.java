@@ -0,0 +1,150 @@
+package com.bufalari.cashflow.service;
+
+import com.bufalari.cashflow.dto.CashFlowItemDTO;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Statement inflow/outflow totals, summed in one traversal over every source. Large statements are cut into chunks
+ * summed in parallel on the common fork-join pool, each chunk into its own scaled-long accumulators (no BigDecimal
+ * addition per item), and the partial sums are combined at the end. The result is exact and has the same scale as a
+ * BigDecimal.add reduction: amounts with more than {@value #SCALE} decimals, or sums past the long range, spill into
+ * a BigDecimal.
+ * Totais de entradas/saídas do demonstrativo, somados em uma única passada por todas as origens. Demonstrativos grandes
+ * são divididos em blocos somados em paralelo no pool fork-join comum, cada bloco em seus próprios acumuladores long
+ * escalados (nenhuma soma BigDecimal por item), e as somas parciais são combinadas no final. O resultado é exato e
+ * tem a mesma escala de uma redução com BigDecimal.add: valores com mais de {@value #SCALE} casas decimais, ou somas
+ * além do alcance do long, transbordam para um BigDecimal.
+ */
+public record StatementTotals(BigDecimal totalInflows, BigDecimal totalOutflows) {
+
+    static final int SCALE = 4; // Accumulator unit: 1/10^4 (covers sums up to ~9.2 x 10^14)
+    static final int CHUNK_SIZE = 16_384; // Items per leaf task
+    static final int PARALLEL_THRESHOLD = 65_536; // Smaller statements are summed on the calling thread
+
+    private static final long[] POWERS_OF_TEN = {1L, 10L, 100L, 1_000L, 10_000L};
+
+    /**
+     * Sums receivables and manual credits as inflows, payables and manual debits as outflows.
+     * Soma recebíveis e créditos manuais como entradas, pagáveis e débitos manuais como saídas.
+     */
+    public static StatementTotals of(StatementItemSources sources) {
+        List<Chunk> chunks = new ArrayList<>();
+        addChunks(chunks, sources.getReceivables(), true);
+        addChunks(chunks, sources.getManualCredits(), true);
+        addChunks(chunks, sources.getPayables(), false);
+        addChunks(chunks, sources.getManualDebits(), false);
+
+        int items = sources.inflowCount() + sources.outflowCount();
+        SumTask task = new SumTask(chunks, 0, chunks.size());
+        Partial total = items >= PARALLEL_THRESHOLD ? ForkJoinPool.commonPool().invoke(task) : task.compute();
+        return new StatementTotals(total.inflows.toBigDecimal(), total.outflows.toBigDecimal());
+    }
+
+    private static void addChunks(List<Chunk> chunks, List<CashFlowItemDTO> items, boolean inflow) {
+        for (int from = 0; from < items.size(); from += CHUNK_SIZE) {
+            chunks.add(new Chunk(items, from, Math.min(items.size(), from + CHUNK_SIZE), inflow));
+        }
+    }
+
+    private record Chunk(List<CashFlowItemDTO> items, int from, int to, boolean inflow) {}
+
+    private record Partial(ScaledSum inflows, ScaledSum outflows) {
+        Partial combine(Partial other) {
+            inflows.add(other.inflows);
+            outflows.add(other.outflows);
+            return this;
+        }
+    }
+
+    /**
+     * Splits the chunk range in halves down to single chunks; each leaf sums its chunk into fresh accumulators.
+     * Divide o intervalo de blocos ao meio até blocos únicos; cada folha soma seu bloco em acumuladores próprios.
+     */
+    private static final class SumTask extends RecursiveTask<Partial> {
+        private final List<Chunk> chunks;
+        private final int from;
+        private final int to;
+
+        SumTask(List<Chunk> chunks, int from, int to) {
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (to - from <= 1 || !inForkJoinPool()) { // Sequential: one chunk, or not running on the pool at all
+                Partial partial = new Partial(new ScaledSum(), new ScaledSum());
+                for (int c = from; c < to; c++) {
+                    Chunk chunk = chunks.get(c);
+                    ScaledSum sum = chunk.inflow() ? partial.inflows : partial.outflows;
+                    for (int i = chunk.from(); i < chunk.to(); i++) {
+                        sum.add(chunk.items().get(i).getAmount());
+                    }
+                }
+                return partial;
+            }
+            int middle = (from + to) >>> 1;
+            SumTask left = new SumTask(chunks, from, middle);
+            left.fork();
+            Partial right = new SumTask(chunks, middle, to).compute();
+            return left.join().combine(right);
+        }
+    }
+
+    /**
+     * Exact sum of BigDecimals as a long count of 1/10^SCALE units, with a BigDecimal overflow for what does not fit.
+     * Soma exata de BigDecimals como uma contagem long de unidades de 1/10^SCALE, com um BigDecimal para o que não cabe.
+     */
+    static final class ScaledSum {
+        private long units;
+        private BigDecimal overflow; // Null until needed
+        private int maxScale; // Scale of the result, as BigDecimal.ZERO.add(...) would give
+
+        void add(BigDecimal amount) {
+            if (amount == null) {
+                return;
+            }
+            int scale = amount.scale();
+            if (scale > maxScale) {
+                maxScale = scale;
+            }
+            if (scale >= 0 && scale <= SCALE && amount.precision() <= 18) { // The unscaled value fits in a long
+                try {
+                    long value = Math.multiplyExact(amount.unscaledValue().longValueExact(), POWERS_OF_TEN[SCALE - scale]);
+                    units = Math.addExact(units, value);
+                    return;
+                } catch (ArithmeticException e) {
+                    // Past the long range: falls through to the exact overflow sum
+                }
+            }
+            overflow = overflow == null ? amount : overflow.add(amount);
+        }
+
+        void add(ScaledSum other) {
+            try {
+                units = Math.addExact(units, other.units);
+            } catch (ArithmeticException e) {
+                BigDecimal spilled = BigDecimal.valueOf(other.units, SCALE);
+                overflow = overflow == null ? spilled : overflow.add(spilled);
+            }
+            if (other.overflow != null) {
+                overflow = overflow == null ? other.overflow : overflow.add(other.overflow);
+            }
+            maxScale = Math.max(maxScale, other.maxScale);
+        }
+
+        BigDecimal toBigDecimal() {
+            BigDecimal total = BigDecimal.valueOf(units, SCALE);
+            if (overflow != null) {
+                total = total.add(overflow);
+            }
+            return total.setScale(maxScale); // Exact: no summand had more decimals than maxScale
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.bufalari.cashflow.service;
+
+import com.bufalari.cashflow.exception.DeadlineExceededException;
+import com.bufalari.cashflow.util.RequestDeadline;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * Splits wide upstream (AP/AR) date-range fetches into month-sized chunks and requests them concurrently with
+ * a bounded window. Chunks are handed to the caller in date order as soon as each one (and its predecessors)
+ * has arrived, so only the window's responses are held in memory at once.
+ * Divide buscas amplas por intervalo de datas nas origens (AP/AR) em blocos mensais e os requisita
+ * concorrentemente com uma janela limitada. Os blocos são entregues ao chamador em ordem de data assim que
+ * cada um (e seus antecessores) chega, então apenas as respostas da janela ficam em memória ao mesmo tempo.
+ */
+@Component
+public class UpstreamFetchPlanner {
+
+    private static final Logger log = LoggerFactory.getLogger(UpstreamFetchPlanner.class);
+
+    private final int chunkThresholdDays;
+    private final int maxParallelism;
+    private final ThreadPoolExecutor executor;
+
+    public UpstreamFetchPlanner(@Value("${cashflow.upstream.chunk-threshold-days:62}") int chunkThresholdDays,
+                                @Value("${cashflow.upstream.max-parallelism:4}") int maxParallelism,
+                                @Value("${cashflow.upstream.pool-size:16}") int poolSize) {
+        this.chunkThresholdDays = chunkThresholdDays;
+        this.maxParallelism = Math.max(1, maxParallelism);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(poolSize * 16),
+                r -> {
+                    Thread thread = new Thread(r, "upstream-fetch-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy()); // Saturated: the request thread fetches the chunk itself
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Splits [startDate, endDate] into calendar-month chunks when it is wider than the threshold.
+     * Divide [startDate, endDate] em blocos por mês do calendário quando for maior que o limite.
+     * @return Inclusive [start, end] pairs in date order. / Pares [início, fim] inclusivos em ordem de data.
+     */
+    public List<LocalDate[]> plan(LocalDate startDate, LocalDate endDate) {
+        List<LocalDate[]> chunks = new ArrayList<>();
+        if (ChronoUnit.DAYS.between(startDate, endDate) < chunkThresholdDays) {
+            chunks.add(new LocalDate[]{startDate, endDate});
+            return chunks;
+        }
+        LocalDate chunkStart = startDate;
+        while (!chunkStart.isAfter(endDate)) {
+            LocalDate monthEnd = chunkStart.with(TemporalAdjusters.lastDayOfMonth());
+            LocalDate chunkEnd = monthEnd.isAfter(endDate) ? endDate : monthEnd;
+            chunks.add(new LocalDate[]{chunkStart, chunkEnd});
+            chunkStart = chunkEnd.plusDays(1);
+        }
+        return chunks;
+    }
+
+    /**
+     * Fetches a range chunk by chunk and passes each chunk's result to the sink in date order.
+     * If any chunk fails, or the request deadline passes, the outstanding ones are cancelled and the failure is rethrown.
+     * Busca um intervalo bloco a bloco e passa o resultado de cada bloco ao consumidor em ordem de data.
+     * Se algum bloco falhar, ou o prazo da requisição passar, os pendentes são cancelados e a falha é relançada.
+     * @param sourceName Name for logging (e.g. "paid payables"). / Nome para log.
+     * @param startDate Start of the range (inclusive). / Início do intervalo (inclusivo).
+     * @param endDate End of the range (inclusive). / Fim do intervalo (inclusivo).
+     * @param fetcher Upstream call for one chunk. / Chamada à origem para um bloco.
+     * @param sink Receives each chunk's items, on the calling thread. / Recebe os itens de cada bloco, na thread chamadora.
+     */
+    public <T> void fetchInChunks(String sourceName, LocalDate startDate, LocalDate endDate,
+                                  BiFunction<LocalDate, LocalDate, List<T>> fetcher, Consumer<List<T>> sink) {
+        fetchChunks(sourceName, plan(startDate, endDate), fetcher, sink);
+    }
+
+    /**
+     * Fetches an explicit list of chunks with the bounded window, passing results to the sink in list order.
+     * Busca uma lista explícita de blocos com a janela limitada, entregando os resultados ao consumidor na ordem da lista.
+     */
+    public <T> void fetchChunks(String sourceName, List<LocalDate[]> chunks,
+                                BiFunction<LocalDate, LocalDate, List<T>> fetcher, Consumer<List<T>> sink) {
+        if (chunks.isEmpty()) {
+            return;
+        }
+        if (chunks.size() == 1) {
+            sink.accept(nullToEmpty(fetcher.apply(chunks.get(0)[0], chunks.get(0)[1])));
+            return;
+        }
+        log.debug("Fetching {} from {} to {} in {} chunks (window {})", sourceName,
+                chunks.get(0)[0], chunks.get(chunks.size() - 1)[1], chunks.size(), maxParallelism);
+
+        Deque<Future<List<T>>> window = new ArrayDeque<>();
+        int next = 0;
+        try {
+            while (next < chunks.size() && window.size() < maxParallelism) {
+                window.add(submit(fetcher, chunks.get(next++)));
+            }
+            while (!window.isEmpty()) {
+                List<T> chunk = await(window.poll());
+                if (next < chunks.size()) {
+                    window.add(submit(fetcher, chunks.get(next++))); // Keep the window full while the sink works
+                }
+                sink.accept(chunk);
+            }
+        } finally {
+            window.forEach(f -> f.cancel(true));
+        }
+    }
+
+    /**
+     * Convenience variant collecting every chunk into one list (date-ordered by chunk).
+     * Variante de conveniência que coleta todos os blocos em uma lista (ordenada por bloco).
+     */
+    public <T> List<T> fetchAll(String sourceName, LocalDate startDate, LocalDate endDate,
+                                BiFunction<LocalDate, LocalDate, List<T>> fetcher) {
+        List<T> all = new ArrayList<>();
+        fetchInChunks(sourceName, startDate, endDate, fetcher, all::addAll);
+        return all;
+    }
+
+    private <T> Future<List<T>> submit(BiFunction<LocalDate, LocalDate, List<T>> fetcher, LocalDate[] chunk) {
+        // Pool threads fetch under the request's deadline, so their Feign calls and queries are capped too
+        return executor.submit(RequestDeadline.propagate(() -> nullToEmpty(fetcher.apply(chunk[0], chunk[1]))));
+    }
+
+    private static <T> List<T> await(Future<List<T>> future) {
+        RequestDeadline deadline = RequestDeadline.current();
+        try {
+            return deadline == null ? future.get() : future.get(Math.max(0, deadline.remainingMillis()), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new DeadlineExceededException("Request deadline exceeded while waiting for an upstream chunk");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an upstream chunk", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) throw runtimeException;
+            throw new IllegalStateException("Upstream chunk fetch failed", e.getCause());
+        }
+    }
+
+    private static <T> List<T> nullToEmpty(List<T> list) {
+        return list != null ? list : List.of();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,193 @@
+package com.bufalari.cashflow.service;
+
+import com.bufalari.cashflow.enums.UpstreamSource;
+import com.bufalari.cashflow.event.CashFlowDataChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Caches upstream statement data (paid payables, received receivables) per (source, calendar month) so
+ * overlapping ranges only fetch the months that are missing. Closed months (ended more than a grace period ago)
+ * are kept until evicted; open months expire after a TTL. Eviction is LRU bounded by the total item count.
+ * Armazena em cache os dados de demonstrativo das origens (pagamentos, recebimentos) por (origem, mês) para que
+ * intervalos sobrepostos busquem apenas os meses ausentes. Meses fechados (encerrados há mais que um período de
+ * carência) ficam até serem removidos; meses abertos expiram após um TTL. A remoção é LRU limitada pelo total de itens.
+ * A fetch that overlaps a change notification of its source is delivered but not cached.
+ * Uma busca que coincide com uma notificação de alteração da sua origem é entregue mas não armazenada.
+ */
+@Component
+public class UpstreamSegmentCache {
+
+    private static final Logger log = LoggerFactory.getLogger(UpstreamSegmentCache.class);
+
+    private record SegmentKey(UpstreamSource source, YearMonth month) {}
+
+    private record Segment(List<?> items, long loadedAtMillis, boolean closed) {}
+
+    private final UpstreamFetchPlanner upstreamFetchPlanner;
+    private final boolean enabled;
+    private final long maxItems;
+    private final long openSegmentTtlMillis;
+    private final int closeAfterDays;
+    private final Counter hits;
+    private final Counter misses;
+
+    // Access-ordered map = LRU; guarded by "this"
+    private final LinkedHashMap<SegmentKey, Segment> segments = new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<UpstreamSource, Long> generations = new EnumMap<>(UpstreamSource.class); // Bumped on every invalidation
+    private long weight; // Total cached items
+
+    public UpstreamSegmentCache(UpstreamFetchPlanner upstreamFetchPlanner, MeterRegistry meterRegistry,
+                                @Value("${cashflow.upstream.cache.enabled:true}") boolean enabled,
+                                @Value("${cashflow.upstream.cache.max-items:200000}") long maxItems,
+                                @Value("${cashflow.upstream.cache.open-segment-ttl-seconds:300}") long openSegmentTtlSeconds,
+                                @Value("${cashflow.upstream.cache.close-after-days:5}") int closeAfterDays) {
+        this.upstreamFetchPlanner = upstreamFetchPlanner;
+        this.enabled = enabled;
+        this.maxItems = maxItems;
+        this.openSegmentTtlMillis = openSegmentTtlSeconds * 1000;
+        this.closeAfterDays = closeAfterDays;
+        this.hits = meterRegistry.counter("cashflow.upstream.segment_cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter("cashflow.upstream.segment_cache.requests", "result", "miss");
+        meterRegistry.gauge("cashflow.upstream.segment_cache.items", this, UpstreamSegmentCache::currentWeight);
+    }
+
+    /**
+     * Delivers the source's items dated within [startDate, endDate] to the sink, month by month in date order.
+     * Cached months are served locally; missing months are fetched (concurrently) and cached.
+     * Entrega ao consumidor os itens da origem com data em [startDate, endDate], mês a mês em ordem de data.
+     * Meses em cache são servidos localmente; meses ausentes são buscados (concorrentemente) e armazenados.
+     * @param source Upstream source. / Origem.
+     * @param startDate Start of the range (inclusive). / Início do intervalo (inclusivo).
+     * @param endDate End of the range (inclusive). / Fim do intervalo (inclusivo).
+     * @param fetcher Upstream range call. / Chamada de intervalo à origem.
+     * @param dateOf Date an item belongs to. / Data à qual um item pertence.
+     * @param sink Receives the items of each month within the range. / Recebe os itens de cada mês no intervalo.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> void fetchRange(UpstreamSource source, LocalDate startDate, LocalDate endDate,
+                               BiFunction<LocalDate, LocalDate, List<T>> fetcher, Function<T, LocalDate> dateOf,
+                               Consumer<List<T>> sink) {
+        if (!enabled) {
+            upstreamFetchPlanner.fetchInChunks(source.name(), startDate, endDate, fetcher, sink);
+            return;
+        }
+
+        // 1. Split into months and find the ones that must be fetched
+        List<YearMonth> months = new ArrayList<>();
+        for (YearMonth m = YearMonth.from(startDate); !m.isAfter(YearMonth.from(endDate)); m = m.plusMonths(1)) {
+            months.add(m);
+        }
+        Map<YearMonth, List<T>> available = new LinkedHashMap<>();
+        List<LocalDate[]> missing = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        long generation;
+        synchronized (this) {
+            generation = generations.getOrDefault(source, 0L); // Captured before fetching: a later change makes the result stale
+            for (YearMonth month : months) {
+                Segment segment = segments.get(new SegmentKey(source, month));
+                if (segment != null && (segment.closed() || now - segment.loadedAtMillis() < openSegmentTtlMillis)) {
+                    available.put(month, (List<T>) segment.items());
+                    hits.increment();
+                } else {
+                    missing.add(new LocalDate[]{month.atDay(1), month.atEndOfMonth()});
+                    misses.increment();
+                }
+            }
+        }
+        log.debug("Segment cache for {} {}..{}: {} cached, {} to fetch", source, startDate, endDate, available.size(), missing.size());
+
+        // 2. Fetch the missing months as whole-month chunks (bounded concurrency) and cache them
+        upstreamFetchPlanner.fetchChunks(source.name(), missing, fetcher, new Consumer<>() {
+            private int index;
+
+            @Override
+            public void accept(List<T> monthItems) {
+                YearMonth month = YearMonth.from(missing.get(index++)[0]);
+                List<T> items = List.copyOf(monthItems);
+                put(new SegmentKey(source, month), new Segment(items, System.currentTimeMillis(), isClosed(month)), generation);
+                available.put(month, items);
+            }
+        });
+
+        // 3. Deliver month by month, trimming the first and last month to the requested range
+        for (YearMonth month : months) {
+            List<T> items = available.getOrDefault(month, List.of());
+            boolean partial = month.equals(YearMonth.from(startDate)) || month.equals(YearMonth.from(endDate));
+            if (!partial) {
+                sink.accept(items);
+                continue;
+            }
+            List<T> inRange = new ArrayList<>(items.size());
+            for (T item : items) {
+                LocalDate date = dateOf.apply(item);
+                if (date != null && !date.isBefore(startDate) && !date.isAfter(endDate)) inRange.add(item);
+            }
+            sink.accept(inRange);
+        }
+    }
+
+    /**
+     * Drops every cached segment of a source when it reports a change (changes may be backdated).
+     * Remove todos os segmentos em cache de uma origem quando ela informa uma alteração (podem ser retroativas).
+     */
+    @EventListener
+    public void onDataChanged(CashFlowDataChangedEvent event) {
+        if (event.isManualEntryChange()) {
+            return; // Manual entries are not cached here
+        }
+        synchronized (this) {
+            generations.merge(event.getUpstreamSource(), 1L, Long::sum);
+            Iterator<Map.Entry<SegmentKey, Segment>> it = segments.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<SegmentKey, Segment> entry = it.next();
+                if (entry.getKey().source() == event.getUpstreamSource()) {
+                    weight -= entry.getValue().items().size();
+                    it.remove();
+                }
+            }
+        }
+        log.info("Segment cache invalidated for {}", event.getUpstreamSource());
+    }
+
+    private boolean isClosed(YearMonth month) {
+        return month.atEndOfMonth().plusDays(closeAfterDays).isBefore(LocalDate.now());
+    }
+
+    private synchronized void put(SegmentKey key, Segment segment, long generation) {
+        if (generations.getOrDefault(key.source(), 0L) != generation) {
+            log.debug("Not caching {} {}: the source changed while it was being fetched", key.source(), key.month());
+            return;
+        }
+        Segment previous = segments.put(key, segment);
+        weight += segment.items().size() - (previous != null ? previous.items().size() : 0);
+        Iterator<Map.Entry<SegmentKey, Segment>> eldest = segments.entrySet().iterator();
+        while (weight > maxItems && eldest.hasNext()) {
+            Map.Entry<SegmentKey, Segment> entry = eldest.next();
+            if (entry.getKey().equals(key)) continue; // Never evict the segment just loaded
+            weight -= entry.getValue().items().size();
+            eldest.remove();
+        }
+    }
+
+    private synchronized double currentWeight() {
+        return weight;
+    }
+}
@@ -0,0 +1,252 @@
+package com.bufalari.cashflow.service;
+
+import com.bufalari.cashflow.client.AccountsPayableClient;
+import com.bufalari.cashflow.client.AccountsReceivableClient;
+import com.bufalari.cashflow.dto.PayableChangePageDTO;
+import com.bufalari.cashflow.dto.PayableSummaryDTO;
+import com.bufalari.cashflow.dto.ReceivableChangePageDTO;
+import com.bufalari.cashflow.dto.ReceivableSummaryDTO;
+import com.bufalari.cashflow.entity.SyncWatermark;
+import com.bufalari.cashflow.entity.SyncedUpstreamRecord;
+import com.bufalari.cashflow.enums.PayableStatus;
+import com.bufalari.cashflow.enums.ReceivableStatus;
+import com.bufalari.cashflow.enums.UpstreamSource;
+import com.bufalari.cashflow.repository.SyncWatermarkRepository;
+import com.bufalari.cashflow.repository.SyncedUpstreamRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps a local copy of the AP/AR summaries up to date by pulling only the changes after a persisted watermark.
+ * Each page is applied together with its watermark in one transaction, so a restart resumes exactly where the last
+ * committed page ended. While a source's copy is complete and fresh, reports read it instead of querying upstream.
+ * Mantém uma cópia local dos resumos de AP/AR atualizada buscando apenas as alterações após uma marca d'água persistida.
+ * Cada página é aplicada junto com sua marca d'água em uma transação, então um reinício continua exatamente de onde a
+ * última página confirmada terminou. Enquanto a cópia de uma origem estiver completa e recente, os relatórios a leem
+ * em vez de consultar a origem.
+ */
+@Service
+public class UpstreamSyncService {
+
+    private static final Logger log = LoggerFactory.getLogger(UpstreamSyncService.class);
+
+    // Statuses that never produce a future cash movement (forecast reads)
+    private static final Set<String> CLOSED_PAYABLE_STATUSES = Set.of(PayableStatus.PAID.name(), PayableStatus.CANCELED.name());
+    private static final Set<String> CLOSED_RECEIVABLE_STATUSES = Set.of(
+            ReceivableStatus.RECEIVED.name(), ReceivableStatus.WRITTEN_OFF.name(), ReceivableStatus.CANCELED.name());
+
+    private record ChangePage(List<SyncedUpstreamRecord> changed, List<UUID> deletedIds, String nextWatermark, boolean hasMore) {}
+
+    private record PageResult(int applied, boolean hasMore) {}
+
+    private final AccountsPayableClient payableClient;
+    private final AccountsReceivableClient receivableClient;
+    private final SyncWatermarkRepository syncWatermarkRepository;
+    private final SyncedUpstreamRecordRepository syncedUpstreamRecordRepository;
+    private final DataVersionTracker dataVersionTracker;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int pageSize;
+    private final int maxPagesPerRun;
+    private final long maxStalenessSeconds;
+
+    // Last known sync state per source (refreshed after every run)
+    private final Map<UpstreamSource, SyncWatermark> state = new ConcurrentHashMap<>();
+
+    public UpstreamSyncService(AccountsPayableClient payableClient, AccountsReceivableClient receivableClient,
+                               SyncWatermarkRepository syncWatermarkRepository,
+                               SyncedUpstreamRecordRepository syncedUpstreamRecordRepository,
+                               DataVersionTracker dataVersionTracker, PlatformTransactionManager transactionManager,
+                               @Value("${cashflow.sync.enabled:false}") boolean enabled,
+                               @Value("${cashflow.sync.page-size:500}") int pageSize,
+                               @Value("${cashflow.sync.max-pages-per-run:200}") int maxPagesPerRun,
+                               @Value("${cashflow.sync.max-staleness-seconds:300}") long maxStalenessSeconds) {
+        this.payableClient = payableClient;
+        this.receivableClient = receivableClient;
+        this.syncWatermarkRepository = syncWatermarkRepository;
+        this.syncedUpstreamRecordRepository = syncedUpstreamRecordRepository;
+        this.dataVersionTracker = dataVersionTracker;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.pageSize = pageSize;
+        this.maxPagesPerRun = maxPagesPerRun;
+        this.maxStalenessSeconds = maxStalenessSeconds;
+    }
+
+    /**
+     * Periodic delta sync of every source (no-op unless cashflow.sync.enabled).
+     * Sincronização periódica de alterações de todas as origens (sem efeito a menos que cashflow.sync.enabled).
+     */
+    @Scheduled(fixedDelayString = "${cashflow.sync.interval-ms:30000}", initialDelayString = "${cashflow.sync.initial-delay-ms:10000}")
+    public void scheduledSync() {
+        if (!enabled) {
+            return;
+        }
+        for (UpstreamSource source : UpstreamSource.values()) {
+            try {
+                syncSource(source);
+            } catch (Exception e) {
+                // The watermark only moves with committed pages, so the next run retries from the same point
+                log.warn("Upstream sync of {} failed, will retry on the next run: {}", source, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Pulls and applies the pages changed after the stored watermark until caught up (or the per-run page limit).
+     * Busca e aplica as páginas alteradas após a marca d'água armazenada até alcançar a origem (ou o limite por execução).
+     * @param source Upstream source. / Origem.
+     * @return Number of upserted or deleted records. / Número de registros inseridos/atualizados ou excluídos.
+     */
+    public int syncSource(UpstreamSource source) {
+        int applied = 0;
+        try {
+            for (int page = 0; page < maxPagesPerRun; page++) {
+                PageResult result = transactionTemplate.execute(status -> applyNextPage(source));
+                applied += result.applied();
+                if (!result.hasMore()) {
+                    break;
+                }
+            }
+        } finally {
+            syncWatermarkRepository.findById(source).ifPresent(w -> state.put(source, w));
+            if (applied > 0) {
+                dataVersionTracker.upstreamChanged(source); // Reports (ETags, caches) must see the new data
+            }
+        }
+        log.debug("Upstream sync of {} applied {} changes", source, applied);
+        return applied;
+    }
+
+    /**
+     * Whether reports can read the local copy of a source: sync enabled, initial pass done and caught up recently.
+     * Se os relatórios podem ler a cópia local de uma origem: sincronização ativa, carga inicial feita e atualizada recentemente.
+     */
+    public boolean isLocalCopyReady(UpstreamSource source) {
+        if (!enabled) {
+            return false;
+        }
+        SyncWatermark watermark = state.get(source);
+        return watermark != null && watermark.isInitialSyncComplete() && watermark.getLastCaughtUpAt() != null
+                && watermark.getLastCaughtUpAt().isAfter(Instant.now().minusSeconds(maxStalenessSeconds));
+    }
+
+    /**
+     * Paid payables from the local copy, by payment date. / Contas pagas da cópia local, por data de pagamento.
+     */
+    public List<PayableSummaryDTO> paidPayables(LocalDate startDate, LocalDate endDate) {
+        return syncedUpstreamRecordRepository
+                .findBySourceAndSettlementDateBetweenOrderBySettlementDateAsc(UpstreamSource.PAYABLE, startDate, endDate)
+                .stream().map(UpstreamSyncService::toPayableSummary).toList();
+    }
+
+    /**
+     * Received receivables from the local copy, by received date. / Contas recebidas da cópia local, por data de recebimento.
+     */
+    public List<ReceivableSummaryDTO> receivedReceivables(LocalDate startDate, LocalDate endDate) {
+        return syncedUpstreamRecordRepository
+                .findBySourceAndSettlementDateBetweenOrderBySettlementDateAsc(UpstreamSource.RECEIVABLE, startDate, endDate)
+                .stream().map(UpstreamSyncService::toReceivableSummary).toList();
+    }
+
+    /**
+     * Open payables from the local copy, by due date. / Contas a pagar em aberto da cópia local, por vencimento.
+     */
+    public List<PayableSummaryDTO> pendingPayables(LocalDate startDate, LocalDate endDate) {
+        return syncedUpstreamRecordRepository
+                .findOpenBySourceAndDueDateBetween(UpstreamSource.PAYABLE, startDate, endDate, CLOSED_PAYABLE_STATUSES)
+                .stream().map(UpstreamSyncService::toPayableSummary).toList();
+    }
+
+    /**
+     * Open receivables from the local copy, by due date. / Contas a receber em aberto da cópia local, por vencimento.
+     */
+    public List<ReceivableSummaryDTO> pendingReceivables(LocalDate startDate, LocalDate endDate) {
+        return syncedUpstreamRecordRepository
+                .findOpenBySourceAndDueDateBetween(UpstreamSource.RECEIVABLE, startDate, endDate, CLOSED_RECEIVABLE_STATUSES)
+                .stream().map(UpstreamSyncService::toReceivableSummary).toList();
+    }
+
+    private PageResult applyNextPage(UpstreamSource source) {
+        SyncWatermark watermark = syncWatermarkRepository.findForUpdate(source)
+                .orElseGet(() -> SyncWatermark.builder().source(source).build());
+
+        ChangePage page = fetchPage(source, watermark.getWatermark());
+        if (!page.changed().isEmpty()) {
+            syncedUpstreamRecordRepository.saveAll(page.changed());
+        }
+        if (!page.deletedIds().isEmpty()) {
+            syncedUpstreamRecordRepository.deleteBySourceAndUpstreamIdIn(source, page.deletedIds());
+        }
+
+        if (page.nextWatermark() != null) {
+            watermark.setWatermark(page.nextWatermark());
+        }
+        if (!page.hasMore()) {
+            watermark.setInitialSyncComplete(true);
+            watermark.setLastCaughtUpAt(Instant.now());
+        }
+        syncWatermarkRepository.save(watermark);
+        return new PageResult(page.changed().size() + page.deletedIds().size(), page.hasMore());
+    }
+
+    private ChangePage fetchPage(UpstreamSource source, String since) {
+        Instant now = Instant.now();
+        List<SyncedUpstreamRecord> changed = new ArrayList<>();
+        if (source == UpstreamSource.PAYABLE) {
+            PayableChangePageDTO page = payableClient.getPayableChangesSince(since, pageSize);
+            if (page == null) return new ChangePage(changed, List.of(), since, false);
+            nullToEmpty(page.getChanged()).forEach(p -> changed.add(SyncedUpstreamRecord.builder()
+                    .source(source).upstreamId(p.getId()).dueDate(p.getDueDate())
+                    .amountTotal(p.getAmountDue()).amountSettled(p.getAmountPaid())
+                    .status(p.getStatus() != null ? p.getStatus().name() : null)
+                    .settlementDate(p.getPaymentDate()).syncedAt(now).build()));
+            return new ChangePage(changed, nullToEmpty(page.getDeletedIds()), page.getNextWatermark(), page.isHasMore());
+        }
+        ReceivableChangePageDTO page = receivableClient.getReceivableChangesSince(since, pageSize);
+        if (page == null) return new ChangePage(changed, List.of(), since, false);
+        nullToEmpty(page.getChanged()).forEach(r -> changed.add(SyncedUpstreamRecord.builder()
+                .source(source).upstreamId(r.getId()).dueDate(r.getDueDate())
+                .amountTotal(r.getAmountExpected()).amountSettled(r.getAmountReceived())
+                .status(r.getStatus() != null ? r.getStatus().name() : null)
+                .settlementDate(r.getReceivedDate()).syncedAt(now).build()));
+        return new ChangePage(changed, nullToEmpty(page.getDeletedIds()), page.getNextWatermark(), page.isHasMore());
+    }
+
+    private static PayableSummaryDTO toPayableSummary(SyncedUpstreamRecord r) {
+        return new PayableSummaryDTO(r.getUpstreamId(), r.getDueDate(), r.getAmountTotal(), r.getAmountSettled(),
+                parseStatus(PayableStatus.class, r.getStatus()), r.getSettlementDate());
+    }
+
+    private static ReceivableSummaryDTO toReceivableSummary(SyncedUpstreamRecord r) {
+        return new ReceivableSummaryDTO(r.getUpstreamId(), r.getDueDate(), r.getAmountTotal(), r.getAmountSettled(),
+                parseStatus(ReceivableStatus.class, r.getStatus()), r.getSettlementDate());
+    }
+
+    private static <E extends Enum<E>> E parseStatus(Class<E> type, String status) {
+        if (status == null) return null;
+        try {
+            return Enum.valueOf(type, status);
+        } catch (IllegalArgumentException e) {
+            return null; // Status unknown to this service's enum copy
+        }
+    }
+
+    private static <T> List<T> nullToEmpty(List<T> list) {
+        return list != null ? list : List.of();
+    }
+}
@@ -0,0 +1,126 @@
+package com.bufalari.cashflow.util;
+
+import com.bufalari.cashflow.exception.DeadlineExceededException;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+
+/**
+ * The time budget of the request being served by the current thread. Bound by RequestDeadlineFilter for API calls and
+ * carried into the upstream fetch pool, so every stage can cut its own waits to what is left: Feign calls cap their
+ * timeouts and forward the remaining budget, transactions get a query timeout, and long computations stop at
+ * checkpoints. Threads without a deadline (scheduled tasks, report jobs) are never cut short.
+ * O orçamento de tempo da requisição atendida pela thread atual. Vinculado pelo RequestDeadlineFilter nas chamadas à
+ * API e levado ao pool de buscas nas origens, para que cada etapa limite suas esperas ao que resta: chamadas Feign
+ * limitam seus timeouts e repassam o orçamento restante, transações recebem um timeout de consulta, e cálculos longos
+ * param em pontos de verificação. Threads sem prazo (tarefas agendadas, jobs de relatório) nunca são interrompidas.
+ */
+public final class RequestDeadline {
+
+    /** Remaining budget in milliseconds, accepted from clients and forwarded to AP/AR. / Orçamento restante em ms. */
+    public static final String HEADER = "X-Request-Timeout-Ms";
+
+    private static final ThreadLocal<RequestDeadline> CURRENT = new ThreadLocal<>();
+
+    private final long deadlineNanos;
+
+    private RequestDeadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * A deadline the given budget from now.
+     * Um prazo a partir de agora com o orçamento informado.
+     */
+    public static RequestDeadline after(Duration budget) {
+        return new RequestDeadline(System.nanoTime() + budget.toNanos());
+    }
+
+    /**
+     * The deadline bound to the current thread, or null when there is none.
+     * O prazo vinculado à thread atual, ou null quando não há.
+     */
+    public static RequestDeadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Milliseconds left (zero or negative once expired).
+     * Milissegundos restantes (zero ou negativo após expirar).
+     */
+    public long remainingMillis() {
+        return Math.floorDiv(deadlineNanos - System.nanoTime(), 1_000_000L);
+    }
+
+    public boolean isExpired() {
+        return deadlineNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Binds this deadline to the current thread until the returned scope is closed (the previous one is restored).
+     * Vincula este prazo à thread atual até o escopo retornado ser fechado (o anterior é restaurado).
+     */
+    public Scope bind() {
+        RequestDeadline previous = CURRENT.get();
+        CURRENT.set(this);
+        return () -> {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        };
+    }
+
+    /**
+     * Aborts the current work when its request is out of time or its thread was interrupted (canceled report job).
+     * Interrompe o trabalho atual quando sua requisição está sem tempo ou sua thread foi interrompida (job cancelado).
+     * @throws DeadlineExceededException The request deadline has passed. / O prazo da requisição passou.
+     * @throws CancellationException The thread was interrupted. / A thread foi interrompida.
+     */
+    public static void checkpoint() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Canceled");
+        }
+        RequestDeadline deadline = CURRENT.get();
+        if (deadline != null && deadline.isExpired()) {
+            throw new DeadlineExceededException("Request deadline exceeded");
+        }
+    }
+
+    /**
+     * Whether the current work should stop: its deadline passed or its thread was interrupted.
+     * Se o trabalho atual deve parar: seu prazo passou ou sua thread foi interrompida.
+     */
+    public static boolean isCanceled() {
+        RequestDeadline deadline = CURRENT.get();
+        return Thread.currentThread().isInterrupted() || (deadline != null && deadline.isExpired());
+    }
+
+    /**
+     * Wraps a task so it runs under the caller's deadline on whichever thread executes it.
+     * Envolve uma tarefa para que execute sob o prazo do chamador em qualquer thread que a execute.
+     */
+    public static <T> Callable<T> propagate(Callable<T> task) {
+        RequestDeadline deadline = CURRENT.get();
+        if (deadline == null) {
+            return task;
+        }
+        return () -> {
+            try (Scope ignored = deadline.bind()) {
+                return task.call();
+            }
+        };
+    }
+
+    /**
+     * Restores the previous binding on close.
+     * Restaura o vínculo anterior ao fechar.
+     */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
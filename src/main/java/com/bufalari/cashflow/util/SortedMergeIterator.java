@@ -0,0 +1,86 @@
+package com.bufalari.cashflow.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * Lazily merges k individually sorted iterators into one sorted iterator in O(n log k).
+ * Ties are resolved by source order, so the merge is stable.
+ * Mescla de forma preguiçosa k iteradores ordenados individualmente em um único iterador ordenado em O(n log k).
+ * Empates são resolvidos pela ordem das fontes, então a mescla é estável.
+ * @param <T> Element type. / Tipo do elemento.
+ */
+public class SortedMergeIterator<T> implements Iterator<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(SortedMergeIterator.class);
+
+    private final List<? extends Iterator<? extends T>> sources;
+    private final PriorityQueue<Head<T>> heads;
+
+    private record Head<T>(T value, int source) {}
+
+    private SortedMergeIterator(Comparator<? super T> order, List<? extends Iterator<? extends T>> sources) {
+        this.sources = sources;
+        Comparator<Head<T>> byValue = (a, b) -> order.compare(a.value(), b.value());
+        this.heads = new PriorityQueue<>(Math.max(1, sources.size()), byValue.thenComparingInt(Head::source));
+        for (int i = 0; i < sources.size(); i++) {
+            advance(i);
+        }
+    }
+
+    /**
+     * Creates a merge of the given sorted sources.
+     * Cria uma mescla das fontes ordenadas informadas.
+     */
+    @SafeVarargs
+    public static <T> Iterator<T> merge(Comparator<? super T> order, Iterator<? extends T>... sources) {
+        return new SortedMergeIterator<>(order, List.of(sources));
+    }
+
+    /**
+     * Verifies a source is sorted (O(n)) and sorts it in place only if it is not.
+     * Verifica se uma fonte está ordenada (O(n)) e a ordena no lugar apenas se não estiver.
+     * @param items Mutable list of items. / Lista mutável de itens.
+     * @param order Expected order. / Ordem esperada.
+     * @param sourceName Name used in the log when upstream did not honour the order. / Nome usado no log.
+     * @return The same list, now sorted. / A mesma lista, agora ordenada.
+     */
+    public static <T> List<T> ensureSorted(List<T> items, Comparator<? super T> order, String sourceName) {
+        for (int i = 1; i < items.size(); i++) {
+            if (order.compare(items.get(i - 1), items.get(i)) > 0) {
+                log.debug("Source {} is not sorted (first inversion at index {}); sorting {} items", sourceName, i, items.size());
+                items.sort(order);
+                break;
+            }
+        }
+        return items;
+    }
+
+    private void advance(int source) {
+        Iterator<? extends T> iterator = sources.get(source);
+        if (iterator.hasNext()) {
+            heads.add(new Head<>(iterator.next(), source));
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !heads.isEmpty();
+    }
+
+    @Override
+    public T next() {
+        Head<T> head = heads.poll();
+        if (head == null) {
+            throw new NoSuchElementException();
+        }
+        advance(head.source());
+        return head.value();
+    }
+}
@@ -0,0 +1,33 @@
+-- =========================================
+-- V1: Baseline schema (previously created by ddl-auto: update)
+-- V1: Esquema base (antes criado pelo ddl-auto: update)
+-- Existing databases are baselined at version 1 (spring.flyway.baseline-on-migrate), so this only runs on empty schemas.
+-- It must therefore hold exactly what ddl-auto: update had created for those databases; anything newer goes in V2+.
+-- =========================================
+
+-- Manual cash entries (ManualCashEntry + AuditableBaseEntity)
+CREATE TABLE manual_cash_entries (
+    id               UUID           NOT NULL,
+    entry_date       DATE           NOT NULL,
+    amount           NUMERIC(15, 2) NOT NULL,
+    type             VARCHAR(10)    NOT NULL,
+    description      VARCHAR(300)   NOT NULL,
+    project_id       BIGINT,
+    cost_center_id   BIGINT,
+    created_by       VARCHAR(255),
+    created_at       TIMESTAMP(6)   NOT NULL,
+    last_modified_by VARCHAR(255),
+    last_modified_at TIMESTAMP(6)   NOT NULL,
+    CONSTRAINT pk_manual_cash_entries PRIMARY KEY (id),
+    CONSTRAINT ck_manual_cash_entries_type CHECK (type IN ('CREDIT', 'DEBIT'))
+);
+
+CREATE INDEX idx_manual_entry_date ON manual_cash_entries (entry_date);
+CREATE INDEX idx_manual_entry_type ON manual_cash_entries (type);
+
+-- Supporting document references (ManualCashEntry.documentReferences element collection)
+CREATE TABLE manual_entry_doc_references (
+    entry_id           UUID NOT NULL,
+    document_reference VARCHAR(255),
+    CONSTRAINT fk_manual_entry_doc_references_entry FOREIGN KEY (entry_id) REFERENCES manual_cash_entries (id)
+);
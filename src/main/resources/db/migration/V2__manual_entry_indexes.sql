@@ -0,0 +1,7 @@
+-- =========================================
+-- V2: Covering index for forecast totals and an index on the document references join column
+-- V2: Índice de cobertura para os totais da projeção e índice na coluna de junção das referências de documentos
+-- =========================================
+
+CREATE INDEX idx_manual_entry_date_type_amount ON manual_cash_entries (entry_date, type, amount); -- Daily sums read from the index only
+CREATE INDEX idx_manual_entry_doc_references_entry ON manual_entry_doc_references (entry_id); -- Loading an entry's references
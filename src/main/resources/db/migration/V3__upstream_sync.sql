@@ -0,0 +1,31 @@
+-- =========================================
+-- V3: Incremental AP/AR sync: per-source watermark and the local copy of upstream summaries
+-- V3: Sincronização incremental de AP/AR: marca d'água por origem e a cópia local dos resumos das origens
+-- =========================================
+
+-- Upstream sync progress (SyncWatermark)
+CREATE TABLE sync_watermarks (
+    source                VARCHAR(20)                 NOT NULL,
+    watermark             VARCHAR(200),
+    initial_sync_complete BOOLEAN                     NOT NULL,
+    last_caught_up_at     TIMESTAMP(6) WITH TIME ZONE,
+    CONSTRAINT pk_sync_watermarks PRIMARY KEY (source),
+    CONSTRAINT ck_sync_watermarks_source CHECK (source IN ('PAYABLE', 'RECEIVABLE'))
+);
+
+-- Local copy of AP/AR summaries (SyncedUpstreamRecord)
+CREATE TABLE synced_upstream_records (
+    source          VARCHAR(20)                 NOT NULL,
+    upstream_id     UUID                        NOT NULL,
+    due_date        DATE,
+    amount_total    NUMERIC(15, 2),
+    amount_settled  NUMERIC(15, 2),
+    status          VARCHAR(30),
+    settlement_date DATE,
+    synced_at       TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_synced_upstream_records PRIMARY KEY (source, upstream_id),
+    CONSTRAINT ck_synced_upstream_records_source CHECK (source IN ('PAYABLE', 'RECEIVABLE'))
+);
+
+CREATE INDEX idx_synced_record_source_settlement ON synced_upstream_records (source, settlement_date);
+CREATE INDEX idx_synced_record_source_due ON synced_upstream_records (source, due_date);
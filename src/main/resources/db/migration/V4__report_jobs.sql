@@ -0,0 +1,38 @@
+-- =========================================
+-- V4: Asynchronous report jobs and their compressed results
+-- V4: Jobs assíncronos de relatório e seus resultados compactados
+-- =========================================
+
+-- Job status (ReportJob)
+CREATE TABLE report_jobs (
+    id              UUID                        NOT NULL,
+    type            VARCHAR(30)                 NOT NULL,
+    status          VARCHAR(20)                 NOT NULL,
+    priority        VARCHAR(10)                 NOT NULL,
+    parameters      TEXT                        NOT NULL, -- A multi-period request can list hundreds of periods
+    requested_by    VARCHAR(255)                NOT NULL,
+    submitted_at    TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    started_at      TIMESTAMP(6) WITH TIME ZONE,
+    owner           VARCHAR(100),
+    heartbeat_at    TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    finished_at     TIMESTAMP(6) WITH TIME ZONE,
+    error_message   VARCHAR(1000),
+    result_size     BIGINT,
+    compressed_size BIGINT,
+    CONSTRAINT pk_report_jobs PRIMARY KEY (id),
+    CONSTRAINT ck_report_jobs_type CHECK (type IN ('STATEMENT', 'FORECAST', 'MULTI_PERIOD_STATEMENT')),
+    CONSTRAINT ck_report_jobs_status CHECK (status IN ('QUEUED', 'RUNNING', 'COMPLETED', 'FAILED', 'CANCELED')),
+    CONSTRAINT ck_report_jobs_priority CHECK (priority IN ('HIGH', 'NORMAL', 'LOW'))
+);
+
+CREATE INDEX idx_report_job_status_heartbeat ON report_jobs (status, heartbeat_at); -- Stale job cleanup
+CREATE INDEX idx_report_job_finished ON report_jobs (finished_at); -- Retention cleanup
+
+-- Gzip-compressed JSON results (ReportJobResult), one per completed job
+CREATE TABLE report_job_results (
+    job_id       UUID         NOT NULL,
+    content_type VARCHAR(100) NOT NULL,
+    content      BYTEA        NOT NULL,
+    CONSTRAINT pk_report_job_results PRIMARY KEY (job_id),
+    CONSTRAINT fk_report_job_results_job FOREIGN KEY (job_id) REFERENCES report_jobs (id) ON DELETE CASCADE
+);
@@ -0,0 +1,10 @@
+-- =========================================
+-- V5: Composite indexes for the keyset-paginated manual entry listing, ordered by (entry_date, id)
+-- V5: Índices compostos para a listagem paginada por chave (keyset) dos lançamentos manuais, ordenada por (entry_date, id)
+-- Each filter column leads its index, so a filtered page is a range scan that stops after "limit" rows, at any depth.
+-- =========================================
+
+CREATE INDEX idx_manual_entry_date_id ON manual_cash_entries (entry_date, id);
+CREATE INDEX idx_manual_entry_type_date_id ON manual_cash_entries (type, entry_date, id);
+CREATE INDEX idx_manual_entry_project_date_id ON manual_cash_entries (project_id, entry_date, id);
+CREATE INDEX idx_manual_entry_cost_center_date_id ON manual_cash_entries (cost_center_id, entry_date, id);
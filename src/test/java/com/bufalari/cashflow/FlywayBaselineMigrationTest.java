@@ -0,0 +1,65 @@
+package com.bufalari.cashflow;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfoService;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Upgrades a database as ddl-auto: update left it (the V1 schema, no Flyway history) the way production does it:
+ * baselined at version 1, then every later migration applied.
+ * Atualiza um banco como o ddl-auto: update o deixou (o esquema V1, sem histórico do Flyway) do mesmo modo que a
+ * produção: baseline na versão 1 e depois todas as migrações seguintes aplicadas.
+ */
+class FlywayBaselineMigrationTest {
+
+	private static final String URL = "jdbc:h2:mem:cashflowdb_baseline;DB_CLOSE_DELAY=-1;MODE=PostgreSQL";
+
+	@Test
+	void baselinedDatabaseGetsEveryLaterMigration() throws SQLException {
+		flyway().target("1").load().migrate();
+		execute("DROP TABLE \"flyway_schema_history\""); // Never had Flyway
+		execute("INSERT INTO manual_cash_entries (id, entry_date, amount, type, description, created_at, last_modified_at) "
+				+ "VALUES (RANDOM_UUID(), DATE '2024-01-31', 10.00, 'CREDIT', 'Existing entry', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)");
+
+		flyway().baselineOnMigrate(true).baselineVersion("1").load().migrate();
+
+		for (String table : List.of("SYNC_WATERMARKS", "SYNCED_UPSTREAM_RECORDS", "REPORT_JOBS", "REPORT_JOB_RESULTS")) {
+			assertTrue(exists("SELECT 1 FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME = '" + table + "'"), table);
+		}
+		for (String index : List.of("IDX_MANUAL_ENTRY_DATE_TYPE_AMOUNT", "IDX_MANUAL_ENTRY_DOC_REFERENCES_ENTRY", "IDX_MANUAL_ENTRY_DATE_ID")) {
+			assertTrue(exists("SELECT 1 FROM INFORMATION_SCHEMA.INDEXES WHERE INDEX_NAME = '" + index + "'"), index);
+		}
+		assertTrue(exists("SELECT 1 FROM manual_cash_entries WHERE description = 'Existing entry'"));
+		MigrationInfoService info = flyway().load().info();
+		assertEquals(0, info.pending().length);
+		assertEquals("1", info.applied()[0].getVersion().getVersion()); // The baseline marker, V1 itself never ran
+	}
+
+	private static FluentConfiguration flyway() {
+		return Flyway.configure().dataSource(URL, "sa", "").locations("classpath:db/migration", "classpath:db/vendor/h2");
+	}
+
+	private static void execute(String sql) throws SQLException {
+		try (Connection connection = DriverManager.getConnection(URL, "sa", ""); Statement statement = connection.createStatement()) {
+			statement.execute(sql);
+		}
+	}
+
+	private static boolean exists(String sql) throws SQLException {
+		try (Connection connection = DriverManager.getConnection(URL, "sa", ""); Statement statement = connection.createStatement();
+			 ResultSet rs = statement.executeQuery(sql)) {
+			return rs.next();
+		}
+	}
+}
@@ -0,0 +1,44 @@
+package com.bufalari.cashflow.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTest {
+
+	private static final long FAST = 10_000_000L;   // 10 ms
+	private static final long SLOW = 5_000_000_000L; // 5 s
+
+	@Test
+	void rejectsBeyondTheLimitAndGrowsWhenFastAndBusy() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 2, 1, 10, 1000, 0.5);
+
+		assertTrue(limiter.tryAcquire());
+		assertTrue(limiter.tryAcquire());
+		assertFalse(limiter.tryAcquire());
+
+		limiter.release(FAST, false); // Both slots were in use: additive increase
+		assertEquals(3, limiter.getLimit());
+		assertEquals(1, limiter.getInFlight());
+	}
+
+	@Test
+	void backsOffOnSlowResponsesAndErrorsDownToTheMinimum() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 8, 2, 10, 1000, 0.5);
+
+		limiter.tryAcquire();
+		limiter.release(SLOW, false);
+		assertEquals(4, limiter.getLimit());
+
+		limiter.tryAcquire();
+		limiter.release(FAST, true);
+		assertEquals(2, limiter.getLimit());
+
+		limiter.tryAcquire();
+		limiter.release(SLOW, false);
+		assertEquals(2, limiter.getLimit());
+		assertTrue(limiter.retryAfterSeconds() >= 1);
+	}
+}
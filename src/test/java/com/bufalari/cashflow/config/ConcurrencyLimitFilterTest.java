@@ -0,0 +1,91 @@
+package com.bufalari.cashflow.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrencyLimitFilterTest {
+
+	private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(new SimpleMeterRegistry(), cors(), true,
+			1, 1, 1, 3000, 50, 10, 200, 500, 1, 1, 1, 60000, 0.9);
+
+	@Test
+	void routesEveryEndpointToItsGroup() {
+		assertEquals("statement", ConcurrencyLimitFilter.group("/cash-flow/statement"));
+		assertEquals("statement", ConcurrencyLimitFilter.group("/cash-flow/statement/periods"));
+		assertEquals("statement", ConcurrencyLimitFilter.group("/cash-flow/balance/current"));
+		assertEquals("export", ConcurrencyLimitFilter.group("/cash-flow/statement/export/csv"));
+		assertEquals("export", ConcurrencyLimitFilter.group("/cash-flow/statement/export/xlsx"));
+		assertEquals("forecast", ConcurrencyLimitFilter.group("/cash-flow/forecast/probabilistic"));
+		assertEquals("history", ConcurrencyLimitFilter.group("/cash-flow/history/series"));
+		assertEquals("report-jobs", ConcurrencyLimitFilter.group("/cash-flow/report-jobs/42/result"));
+		assertEquals("crud", ConcurrencyLimitFilter.group("/cash-flow/manual-entries"));
+	}
+
+	@Test
+	void shedsWithACorsReadable503AndReleasesAsyncSlotsOnCompletion() throws Exception {
+		MockHttpServletRequest streaming = request("/cash-flow/statement");
+		streaming.setAsyncSupported(true);
+		MockFilterChain asyncChain = new MockFilterChain() {
+			@Override
+			public void doFilter(ServletRequest request, ServletResponse response) {
+				request.startAsync(); // Holds the slot after the filter returns
+			}
+		};
+		filter.doFilter(streaming, new MockHttpServletResponse(), asyncChain);
+
+		MockHttpServletResponse shed = new MockHttpServletResponse();
+		filter.doFilter(request("/cash-flow/balance/current"), shed, new MockFilterChain());
+		assertEquals(503, shed.getStatus());
+		assertTrue(Long.parseLong(shed.getHeader(HttpHeaders.RETRY_AFTER)) > 0);
+		assertEquals("*", shed.getHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN));
+		assertTrue(shed.getContentAsString().contains("\"status\":503"));
+		assertTrue(shed.getContentAsString().contains("Too many concurrent statement requests"));
+
+		MockHttpServletResponse otherGroup = new MockHttpServletResponse();
+		filter.doFilter(request("/cash-flow/statement/export/csv"), otherGroup, new MockFilterChain());
+		assertEquals(200, otherGroup.getStatus());
+
+		MockHttpServletRequest preflight = request("/cash-flow/statement");
+		preflight.setMethod("OPTIONS");
+		preflight.addHeader(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD, "GET");
+		MockHttpServletResponse preflightResponse = new MockHttpServletResponse();
+		filter.doFilter(preflight, preflightResponse, new MockFilterChain());
+		assertEquals(200, preflightResponse.getStatus()); // Never shed
+
+		streaming.getAsyncContext().complete();
+		MockHttpServletResponse admitted = new MockHttpServletResponse();
+		filter.doFilter(request("/cash-flow/statement"), admitted, new MockFilterChain());
+		assertEquals(200, admitted.getStatus());
+		assertNull(admitted.getHeader(HttpHeaders.RETRY_AFTER));
+	}
+
+	private static MockHttpServletRequest request(String path) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+		request.addHeader(HttpHeaders.ORIGIN, "http://frontend.example");
+		return request;
+	}
+
+	private static UrlBasedCorsConfigurationSource cors() {
+		CorsConfiguration configuration = new CorsConfiguration();
+		configuration.setAllowedOrigins(List.of("*"));
+		configuration.setAllowedMethods(List.of("GET", "POST"));
+		configuration.setExposedHeaders(List.of("Retry-After"));
+		UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+		source.registerCorsConfiguration("/**", configuration);
+		return source;
+	}
+}
@@ -0,0 +1,126 @@
+package com.bufalari.cashflow.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Routing over H2 databases; the replicas get H2 aliases for the PostgreSQL replication functions, backed by a
+ * replica_state table so each test decides how far behind a replica is. Public because H2 invokes the alias methods.
+ * Roteamento sobre bancos H2; as réplicas recebem aliases H2 para as funções de replicação do PostgreSQL, apoiados em
+ * uma tabela replica_state para que cada teste defina o atraso de cada réplica. Pública porque o H2 invoca os métodos.
+ */
+public class ReplicaRoutingDataSourceTest {
+
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final HikariDataSource primary = pool("primary", false);
+	private final HikariDataSource replica1 = pool("replica-1", true);
+	private final HikariDataSource replica2 = pool("replica-2", true);
+	private final ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(replica1, replica2), 10, meterRegistry);
+	private final LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routing);
+	private final TransactionTemplate transactions = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+	@AfterEach
+	void close() {
+		routing.close();
+		primary.close();
+	}
+
+	@Test
+	void readOnlyTransactionsGoToHealthyReplicasAndWritesToThePrimary() {
+		assertEquals(List.of(replica1, replica2), routing.pools()); // What the startup warm-up opens
+		assertEquals("PRIMARY", database(true)); // Unhealthy until the first lag check
+		routing.checkReplicaLag();
+
+		List<String> reads = List.of(database(true), database(true), database(true));
+		assertEquals(Set.of("REPLICA-1", "REPLICA-2"), Set.copyOf(reads.subList(0, 2))); // Round robin
+		assertEquals(reads.get(0), reads.get(2));
+		assertEquals("PRIMARY", database(false));
+	}
+
+	@Test
+	void laggingOrUnavailableReplicasFallBackToThePrimary() throws SQLException {
+		setLag(replica1, 60); // Beyond the 10 s tolerance
+		routing.checkReplicaLag();
+		assertEquals(60, meterRegistry.get("cashflow.datasource.replica.lag_seconds").tag("replica", "replica-1").gauge().value(), 2);
+		assertEquals(List.of("REPLICA-2", "REPLICA-2"), List.of(database(true), database(true)));
+
+		replica2.close(); // Down between lag checks: the failed connection takes it out of rotation
+		assertEquals("PRIMARY", database(true));
+		assertEquals(1, meterRegistry.get("cashflow.datasource.replica.fallbacks").tag("replica", "replica-2").counter().count());
+		assertEquals("PRIMARY", database(true));
+
+		setLag(replica1, 0);
+		routing.checkReplicaLag();
+		assertEquals("REPLICA-1", database(true));
+	}
+
+	public static String receiveLsn(Connection connection) throws SQLException {
+		return state(connection, "receive_lsn").getString(1);
+	}
+
+	public static String replayLsn(Connection connection) throws SQLException {
+		return state(connection, "replay_lsn").getString(1);
+	}
+
+	public static Timestamp replayTimestamp(Connection connection) throws SQLException {
+		return state(connection, "replay_timestamp").getTimestamp(1);
+	}
+
+	private String database(boolean readOnly) {
+		transactions.setReadOnly(readOnly);
+		return transactions.execute(status -> new JdbcTemplate(dataSource).queryForObject("SELECT DATABASE()", String.class));
+	}
+
+	private static ResultSet state(Connection connection, String column) throws SQLException {
+		ResultSet rs = connection.createStatement().executeQuery("SELECT " + column + " FROM replica_state");
+		rs.next();
+		return rs;
+	}
+
+	private static void setLag(HikariDataSource replica, int seconds) throws SQLException {
+		try (Connection connection = replica.getConnection(); Statement statement = connection.createStatement()) {
+			statement.execute("UPDATE replica_state SET replay_lsn = '" + (seconds == 0 ? "0/10" : "0/8")
+					+ "', replay_timestamp = DATEADD(SECOND, -" + seconds + ", CURRENT_TIMESTAMP)");
+		}
+	}
+
+	private static HikariDataSource pool(String name, boolean replica) {
+		HikariConfig config = new HikariConfig();
+		config.setPoolName(name);
+		config.setJdbcUrl("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+		config.setMaximumPoolSize(2);
+		HikariDataSource pool = new HikariDataSource(config);
+		try (Connection connection = pool.getConnection(); Statement statement = connection.createStatement()) {
+			statement.execute("DROP ALL OBJECTS");
+			if (replica) {
+				statement.execute("CREATE TABLE replica_state (receive_lsn VARCHAR(20), replay_lsn VARCHAR(20), replay_timestamp TIMESTAMP WITH TIME ZONE)");
+				statement.execute("INSERT INTO replica_state VALUES ('0/10', '0/10', CURRENT_TIMESTAMP)");
+				String self = ReplicaRoutingDataSourceTest.class.getName();
+				statement.execute("CREATE ALIAS pg_last_wal_receive_lsn FOR '" + self + ".receiveLsn'");
+				statement.execute("CREATE ALIAS pg_last_wal_replay_lsn FOR '" + self + ".replayLsn'");
+				statement.execute("CREATE ALIAS pg_last_xact_replay_timestamp FOR '" + self + ".replayTimestamp'");
+			}
+		} catch (SQLException e) {
+			throw new IllegalStateException(e);
+		}
+		return pool;
+	}
+}
@@ -0,0 +1,45 @@
+package com.bufalari.cashflow.config;
+
+import com.bufalari.cashflow.util.RequestDeadline;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RequestDeadlineFilterTest {
+
+	// 100 ms by default (200 ms with the header), 2 s for exports
+	private final RequestDeadlineFilter filter = new RequestDeadlineFilter(new SimpleMeterRegistry(), true, 100, 200, 2_000);
+
+	@Test
+	void exportOutlivesTheDefaultDeadline() throws Exception {
+		assertEquals(200, run("/cash-flow/statement/export/csv", null));
+		assertEquals(504, run("/cash-flow/statement", null));
+		assertEquals(504, run("/cash-flow/statement/export/xlsx", "250")); // A caller's shorter budget still applies
+	}
+
+	private int run(String path, String timeoutHeader) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+		if (timeoutHeader != null) {
+			request.addHeader(RequestDeadline.HEADER, timeoutHeader);
+		}
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, new MockFilterChain() {
+			@Override
+			public void doFilter(ServletRequest request, ServletResponse response) {
+				try {
+					Thread.sleep(300); // Loading the items
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				RequestDeadline.checkpoint();
+			}
+		});
+		return response.getStatus();
+	}
+}
@@ -0,0 +1,77 @@
+package com.bufalari.cashflow.controller;
+
+import com.bufalari.cashflow.dto.ManualCashEntryDTO;
+import com.bufalari.cashflow.enums.EntryType;
+import com.bufalari.cashflow.service.CashFlowService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(roles = "ADMIN")
+class ReportETagTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private CashFlowService cashFlowService;
+
+	private ManualCashEntryDTO created;
+
+	@AfterEach
+	void deleteEntry() {
+		if (created != null) cashFlowService.deleteManualEntry(created.getId());
+	}
+
+	@Test
+	void answersNotModifiedUntilTheDataChanges() throws Exception {
+		String etag = statement("100", null).andExpect(status().isOk()).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertNotNull(etag);
+
+		statement("100", etag).andExpect(status().isNotModified());
+		statement("100.00", etag).andExpect(status().isNotModified()); // Same amount, different scale
+
+		created = cashFlowService.createManualEntry(ManualCashEntryDTO.builder()
+				.entryDate(LocalDate.of(2024, 3, 5))
+				.type(EntryType.CREDIT)
+				.description("Late invoice")
+				.amount(new BigDecimal("80.00"))
+				.build());
+		String afterWrite = statement("100", etag).andExpect(status().isOk()).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertNotEquals(etag, afterWrite);
+
+		mockMvc.perform(post("/cash-flow/upstream-changes").param("source", "PAYABLE")).andExpect(status().isAccepted());
+		statement("100", afterWrite).andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, not(afterWrite)));
+	}
+
+	private ResultActions statement(String openingBalance, String ifNoneMatch) throws Exception {
+		var request = get("/cash-flow/statement")
+				.param("startDate", "2024-03-01")
+				.param("endDate", "2024-03-31")
+				.param("openingBalance", openingBalance);
+		if (ifNoneMatch != null) request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+		return mockMvc.perform(request);
+	}
+}
@@ -0,0 +1,88 @@
+package com.bufalari.cashflow.converter;
+
+import com.bufalari.cashflow.dto.CashFlowItemDTO;
+import com.bufalari.cashflow.dto.CashFlowStatementDTO;
+import com.bufalari.cashflow.dto.ColumnarItemsDTO;
+import com.bufalari.cashflow.dto.ColumnarStatementDTO;
+import com.bufalari.cashflow.exception.ColumnarRepresentationException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ColumnarReportConverterTest {
+
+	private final ColumnarReportConverter converter = new ColumnarReportConverter();
+	private final ObjectMapper cbor = new CBORMapper();
+
+	@Test
+	void roundTripsEveryAmountExactly() throws Exception {
+		UUID relatedId = UUID.randomUUID();
+		CashFlowStatementDTO statement = statement(new BigDecimal("0.12345678"),
+				new CashFlowItemDTO(LocalDate.of(2024, 2, 1), "Invoice", new BigDecimal("1500.5"), "RECEIVABLE", relatedId));
+
+		ColumnarStatementDTO columnar = cbor.readValue(cbor.writeValueAsBytes(converter.toColumnar(statement)), ColumnarStatementDTO.class);
+
+		assertEquals(8, columnar.getAmountScale());
+		assertEquals(0, statement.getOpeningBalance().compareTo(decode(columnar.getOpeningBalance(), columnar)));
+		assertEquals(0, statement.getClosingBalance().compareTo(decode(columnar.getClosingBalance(), columnar)));
+		ColumnarItemsDTO inflows = columnar.getInflowItems();
+		assertEquals(0, new BigDecimal("1500.5").compareTo(decode(inflows.getAmounts()[0], columnar)));
+		assertEquals((int) LocalDate.of(2024, 2, 1).toEpochDay(), inflows.getEpochDays()[0]);
+		assertEquals("RECEIVABLE", columnar.getTypeDictionary()[inflows.getTypeCodes()[0]]);
+		assertEquals(relatedId, new UUID(inflows.getRelatedIdHigh()[0], inflows.getRelatedIdLow()[0]));
+	}
+
+	@Test
+	void marksMissingDatesAndAmountsInsteadOfSendingZero() throws Exception {
+		CashFlowStatementDTO statement = statement(BigDecimal.ZERO,
+				new CashFlowItemDTO(null, "No settlement date", new BigDecimal("10.00"), "RECEIVABLE", null));
+		statement.getInflowItems().add(new CashFlowItemDTO(LocalDate.of(1970, 1, 1), "No amount", null, "RECEIVABLE", null));
+
+		ColumnarItemsDTO inflows = cbor.readValue(cbor.writeValueAsBytes(converter.toColumnar(statement)), ColumnarStatementDTO.class)
+				.getInflowItems();
+
+		assertEquals(ColumnarItemsDTO.NO_DATE, inflows.getEpochDays()[0]);
+		assertEquals(0, inflows.getEpochDays()[1]); // A real 1970-01-01 stays distinguishable
+		assertEquals(1000, inflows.getAmounts()[0]);
+		assertEquals(ColumnarItemsDTO.NO_AMOUNT, inflows.getAmounts()[1]);
+	}
+
+	@Test
+	void rejectsAmountsItCannotCarryExactly() {
+		assertThrows(ColumnarRepresentationException.class, () -> converter.toColumnar(statement(new BigDecimal("0.123456789"))));
+		// Fits at scale 2 but not once another amount forces scale 8
+		assertThrows(ColumnarRepresentationException.class, () -> converter.toColumnar(statement(new BigDecimal("0.00000001"),
+				new CashFlowItemDTO(LocalDate.of(2024, 2, 1), "Huge", new BigDecimal("100000000000.00"), "RECEIVABLE", null))));
+	}
+
+	private static BigDecimal decode(long unscaled, ColumnarStatementDTO columnar) {
+		return BigDecimal.valueOf(unscaled, columnar.getAmountScale());
+	}
+
+	private static CashFlowStatementDTO statement(BigDecimal openingBalance, CashFlowItemDTO... inflows) {
+		BigDecimal total = BigDecimal.ZERO;
+		for (CashFlowItemDTO item : inflows) {
+			total = total.add(item.getAmount());
+		}
+		return CashFlowStatementDTO.builder()
+				.startDate(LocalDate.of(2024, 2, 1))
+				.endDate(LocalDate.of(2024, 2, 29))
+				.openingBalance(openingBalance)
+				.totalInflows(total)
+				.totalOutflows(BigDecimal.ZERO)
+				.netCashFlow(total)
+				.closingBalance(openingBalance.add(total))
+				.inflowItems(new ArrayList<>(List.of(inflows)))
+				.outflowItems(List.of())
+				.build();
+	}
+}
@@ -0,0 +1,323 @@
+package com.bufalari.cashflow.load;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Offline load test (mvn -Pload-test test): the service on H2 and a random port, AP/AR/auth answered by StubUpstreams,
+ * and N virtual users sending a weighted mix of manual-entry writes, statements, forecasts and balance requests with a
+ * JWT signed by the test secret. After a warm-up period, every response is timed; the report lists throughput and
+ * latency percentiles per operation. Options (system properties, defaults in parentheses): loadtest.users (16),
+ * loadtest.duration-seconds (30), loadtest.warmup-seconds (5), loadtest.stub-latency-ms (20),
+ * loadtest.auth-latency-ms (2), loadtest.stub-items (200), loadtest.mix (write=20,statement=30,forecast=30,balance=20),
+ * loadtest.seed (42).
+ * Teste de carga offline (mvn -Pload-test test): o serviço em H2 e porta aleatória, AP/AR/auth atendidos pelo
+ * StubUpstreams, e N usuários virtuais enviando uma mistura ponderada de gravações de lançamentos manuais,
+ * demonstrativos, projeções e saldo com um JWT assinado pelo segredo de teste. Após um aquecimento, cada resposta é
+ * cronometrada; o relatório lista vazão e percentis de latência por operação.
+ */
+@Tag("load-test")
+// The default per-request SQL, transaction and debug logging would dominate what is measured. Inline properties
+// rather than @DynamicPropertySource ones, which are registered after the logging levels have been applied.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"spring.jpa.show-sql=false",
+		"spring.jpa.properties.hibernate.format_sql=false",
+		"logging.level.com.bufalari.cashflow=INFO",
+		"logging.level.org.hibernate=WARN",
+		"logging.level.org.hibernate.SQL=WARN",
+		"logging.level.org.springframework=WARN",
+		"logging.level.org.springframework.web=WARN",
+		"logging.level.org.springframework.security=WARN"
+})
+@ActiveProfiles("test")
+class CashFlowLoadTest {
+
+	private static final Logger log = LoggerFactory.getLogger(CashFlowLoadTest.class);
+
+	private static final int USERS = Integer.getInteger("loadtest.users", 16);
+	private static final int DURATION_SECONDS = Integer.getInteger("loadtest.duration-seconds", 30);
+	private static final int WARMUP_SECONDS = Integer.getInteger("loadtest.warmup-seconds", 5);
+	private static final int STUB_LATENCY_MS = Integer.getInteger("loadtest.stub-latency-ms", 20);
+	private static final int AUTH_LATENCY_MS = Integer.getInteger("loadtest.auth-latency-ms", 2);
+	private static final int STUB_ITEMS = Integer.getInteger("loadtest.stub-items", 200);
+	private static final String MIX = System.getProperty("loadtest.mix", "write=20,statement=30,forecast=30,balance=20");
+	private static final long SEED = Long.getLong("loadtest.seed", 42L);
+
+	private static StubUpstreams stubs;
+
+	enum Operation { WRITE, STATEMENT, FORECAST, BALANCE }
+
+	@LocalServerPort
+	private int port;
+
+	@Value("${security.jwt.token.secret-key}")
+	private String secretKey;
+
+	@Value("${spring.jpa.show-sql}")
+	private boolean showSql;
+
+	@DynamicPropertySource
+	static void stubUrls(DynamicPropertyRegistry registry) throws IOException {
+		stubs = new StubUpstreams(STUB_LATENCY_MS, AUTH_LATENCY_MS, STUB_ITEMS);
+		registry.add("auth.service.url", stubs::baseUrl);
+		registry.add("payable.service.url", stubs::baseUrl);
+		registry.add("receivable.service.url", stubs::baseUrl);
+		registry.add("cashflow.warmup.prime-reports", () -> "true"); // The stubs are up, so the real priming path runs too
+	}
+
+	@AfterAll
+	static void stopStubs() {
+		if (stubs != null) {
+			stubs.close();
+		}
+	}
+
+	@Test
+	void mixedTraffic() throws Exception {
+		Map<Operation, Integer> weights = weights(MIX);
+		String token = Jwts.builder()
+				.setSubject("load-tester")
+				.setIssuedAt(new Date())
+				.setExpiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+				.signWith(Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+				.compact();
+		HttpClient client = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.connectTimeout(Duration.ofSeconds(5))
+				.executor(Executors.newFixedThreadPool(USERS))
+				.build();
+
+		long warmupEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(WARMUP_SECONDS);
+		long end = warmupEnd + TimeUnit.SECONDS.toNanos(DURATION_SECONDS);
+		ExecutorService users = Executors.newFixedThreadPool(USERS);
+		List<Future<Results>> futures = new ArrayList<>();
+		for (int u = 0; u < USERS; u++) {
+			VirtualUser user = new VirtualUser(client, token, weights, new Random(SEED + u), warmupEnd, end);
+			futures.add(users.submit(user::run));
+		}
+		Results total = new Results();
+		for (Future<Results> future : futures) {
+			total.merge(future.get());
+		}
+		users.shutdown();
+
+		String report = settings() + total.report();
+		log.info("\n{}", report);
+		Files.writeString(Path.of("target", "load-test-report.txt"), report);
+
+		assertTrue(total.count() > 0, "No request completed in the measured period");
+		assertEquals(0, total.failures(), "Requests failed (other than load shedding):\n" + report);
+	}
+
+	/**
+	 * Effective logging and SQL echo settings, so a report can be told apart from one measured with verbose logging.
+	 * Configurações efetivas de log e de eco de SQL, para distinguir um relatório medido com log detalhado.
+	 */
+	private String settings() {
+		LoggingSystem logging = LoggingSystem.get(getClass().getClassLoader());
+		StringBuilder settings = new StringBuilder("Settings: show-sql ").append(showSql);
+		for (String logger : List.of("com.bufalari.cashflow", "org.hibernate.SQL", "org.springframework.transaction", "org.springframework.web",
+				"org.springframework.security")) {
+			settings.append(", ").append(logger).append(' ').append(logging.getLoggerConfiguration(logger).getEffectiveLevel());
+		}
+		return settings.append(System.lineSeparator()).toString();
+	}
+
+	private static Map<Operation, Integer> weights(String mix) {
+		Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+		for (String part : mix.split(",")) {
+			String[] pair = part.trim().split("=");
+			weights.put(Operation.valueOf(pair[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(pair[1].trim()));
+		}
+		return weights;
+	}
+
+	/**
+	 * One closed-loop user: sends the next request as soon as the previous response arrives.
+	 * Um usuário em laço fechado: envia a próxima requisição assim que a resposta anterior chega.
+	 */
+	private final class VirtualUser {
+		private final HttpClient client;
+		private final String token;
+		private final Operation[] wheel;
+		private final Random random;
+		private final long warmupEnd;
+		private final long end;
+
+		VirtualUser(HttpClient client, String token, Map<Operation, Integer> weights, Random random, long warmupEnd, long end) {
+			this.client = client;
+			this.token = token;
+			this.random = random;
+			this.warmupEnd = warmupEnd;
+			this.end = end;
+			List<Operation> slots = new ArrayList<>();
+			weights.forEach((operation, weight) -> {
+				for (int i = 0; i < weight; i++) slots.add(operation);
+			});
+			this.wheel = slots.toArray(Operation[]::new);
+		}
+
+		Results run() {
+			Results results = new Results();
+			long now;
+			while ((now = System.nanoTime()) < end) {
+				Operation operation = wheel[random.nextInt(wheel.length)];
+				int status;
+				try {
+					status = client.send(request(operation), HttpResponse.BodyHandlers.discarding()).statusCode();
+				} catch (IOException e) {
+					status = -1;
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					break;
+				}
+				if (now >= warmupEnd) {
+					results.record(operation, System.nanoTime() - now, status);
+				}
+			}
+			return results;
+		}
+
+		private HttpRequest request(Operation operation) {
+			LocalDate today = LocalDate.now();
+			String base = "http://localhost:" + port + "/cash-flow";
+			HttpRequest.Builder builder = HttpRequest.newBuilder().header("Authorization", "Bearer " + token)
+					.timeout(Duration.ofSeconds(30));
+			return switch (operation) {
+				case WRITE -> builder.uri(URI.create(base + "/manual-entries"))
+						.header("Content-Type", "application/json")
+						.POST(HttpRequest.BodyPublishers.ofString("{\"entryDate\":\"" + today.minusDays(random.nextInt(365))
+								+ "\",\"amount\":" + (1 + random.nextInt(100_000)) / 100.0
+								+ ",\"type\":\"" + (random.nextBoolean() ? "CREDIT" : "DEBIT")
+								+ "\",\"description\":\"Load test entry\"}"))
+						.build();
+				case STATEMENT -> {
+					LocalDate month = today.minusMonths(random.nextInt(12)).withDayOfMonth(1);
+					yield builder.uri(URI.create(base + "/statement?startDate=" + month + "&endDate=" + month.plusMonths(1).minusDays(1)
+							+ "&openingBalance=" + random.nextInt(10) * 1000)).GET().build();
+				}
+				case FORECAST -> builder.uri(URI.create(base + "/forecast?daysAhead=" + (30 * (1 + random.nextInt(3)))
+						+ "&currentBalance=" + random.nextInt(10) * 1000)).GET().build();
+				case BALANCE -> builder.uri(URI.create(base + "/balance/current?openingBalanceDate=" + today.minusYears(1)
+						+ "&openingBalance=0")).GET().build();
+			};
+		}
+	}
+
+	/**
+	 * Latencies (ns) and outcomes per operation; 503 from load shedding is counted apart from failures.
+	 * Latências (ns) e resultados por operação; 503 do descarte de carga é contado separado das falhas.
+	 */
+	private static final class Results {
+		private final Map<Operation, long[]> latencies = new EnumMap<>(Operation.class);
+		private final Map<Operation, Integer> sizes = new EnumMap<>(Operation.class);
+		private final Map<Operation, Integer> shed = new EnumMap<>(Operation.class);
+		private final Map<Operation, Integer> failed = new EnumMap<>(Operation.class);
+
+		void record(Operation operation, long nanos, int status) {
+			if (status == 503) {
+				shed.merge(operation, 1, Integer::sum);
+				return;
+			}
+			if (status < 200 || status >= 300) {
+				failed.merge(operation, 1, Integer::sum);
+				return;
+			}
+			int size = sizes.getOrDefault(operation, 0);
+			long[] values = latencies.computeIfAbsent(operation, o -> new long[1024]);
+			if (size == values.length) {
+				values = Arrays.copyOf(values, size * 2);
+				latencies.put(operation, values);
+			}
+			values[size] = nanos;
+			sizes.put(operation, size + 1);
+		}
+
+		void merge(Results other) {
+			other.latencies.forEach((operation, values) -> {
+				for (int i = 0; i < other.sizes.get(operation); i++) record(operation, values[i], 200);
+			});
+			other.shed.forEach((operation, n) -> shed.merge(operation, n, Integer::sum));
+			other.failed.forEach((operation, n) -> failed.merge(operation, n, Integer::sum));
+		}
+
+		long count() {
+			return sizes.values().stream().mapToLong(Integer::longValue).sum();
+		}
+
+		long failures() {
+			return failed.values().stream().mapToLong(Integer::longValue).sum();
+		}
+
+		String report() {
+			StringBuilder report = new StringBuilder(String.format(Locale.ROOT,
+					"Cash flow load test: %d users, %d s measured after %d s warm-up, stub latency %d ms (auth %d ms), %d items per stub response, mix %s%n",
+					USERS, DURATION_SECONDS, WARMUP_SECONDS, STUB_LATENCY_MS, AUTH_LATENCY_MS, STUB_ITEMS, MIX));
+			report.append(String.format(Locale.ROOT, "%-10s %9s %7s %7s %9s %8s %8s %8s %8s%n",
+					"operation", "ok", "shed", "failed", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms"));
+			long[] all = new long[0];
+			for (Operation operation : Operation.values()) {
+				long[] values = Arrays.copyOf(latencies.getOrDefault(operation, new long[0]), sizes.getOrDefault(operation, 0));
+				line(report, operation.name().toLowerCase(Locale.ROOT), values, shed.getOrDefault(operation, 0), failed.getOrDefault(operation, 0));
+				long[] merged = Arrays.copyOf(all, all.length + values.length);
+				System.arraycopy(values, 0, merged, all.length, values.length);
+				all = merged;
+			}
+			line(report, "total", all, shed.values().stream().mapToInt(Integer::intValue).sum(), (int) failures());
+			report.append(String.format(Locale.ROOT, "Stub upstream requests: %d%n", stubs.requests()));
+			return report.toString();
+		}
+
+		private static void line(StringBuilder report, String name, long[] values, int shed, int failed) {
+			Arrays.sort(values);
+			report.append(String.format(Locale.ROOT, "%-10s %9d %7d %7d %9.1f %8.1f %8.1f %8.1f %8.1f%n", name, values.length, shed, failed,
+					values.length / (double) DURATION_SECONDS, millis(values, 0.50), millis(values, 0.90), millis(values, 0.99),
+					values.length == 0 ? 0.0 : values[values.length - 1] / 1e6));
+		}
+
+		private static double millis(long[] sorted, double percentile) {
+			if (sorted.length == 0) return 0.0;
+			int index = (int) Math.ceil(percentile * sorted.length) - 1; // Nearest-rank
+			return sorted[Math.max(0, index)] / 1e6;
+		}
+	}
+}
@@ -0,0 +1,139 @@
+package com.bufalari.cashflow.load;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local HTTP stand-ins for the AP, AR and auth services (JDK HttpServer, loopback only), answering the endpoints of
+ * AccountsPayableClient, AccountsReceivableClient and AuthServiceClient after a fixed latency. Range endpoints return
+ * a fixed number of date-sorted items spread over the requested range, deterministic for a given range.
+ * Substitutos HTTP locais dos serviços AP, AR e auth (HttpServer do JDK, apenas loopback), respondendo aos endpoints
+ * de AccountsPayableClient, AccountsReceivableClient e AuthServiceClient após uma latência fixa. Endpoints por
+ * intervalo retornam um número fixo de itens ordenados por data espalhados no intervalo, determinísticos por intervalo.
+ */
+class StubUpstreams implements AutoCloseable {
+
+	private final HttpServer server;
+	private final ExecutorService executor = Executors.newCachedThreadPool(r -> {
+		Thread thread = new Thread(r, "stub-upstream");
+		thread.setDaemon(true);
+		return thread;
+	});
+	private final long upstreamLatencyMs;
+	private final long authLatencyMs;
+	private final int items;
+	private final AtomicLong requests = new AtomicLong();
+
+	StubUpstreams(long upstreamLatencyMs, long authLatencyMs, int items) throws IOException {
+		this.upstreamLatencyMs = upstreamLatencyMs;
+		this.authLatencyMs = authLatencyMs;
+		this.items = items;
+		this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 256);
+		server.createContext("/api/payables/summary-by-payment-date", e -> range(e, "payable", "paymentDate"));
+		server.createContext("/api/payables/pending-summary-by-due-date", e -> range(e, "payable", null));
+		server.createContext("/api/receivables/summary-by-received-date", e -> range(e, "receivable", "receivedDate"));
+		server.createContext("/api/receivables/pending-summary-by-due-date", e -> range(e, "receivable", null));
+		server.createContext("/users/username/", this::user);
+		server.setExecutor(executor);
+		server.start();
+	}
+
+	String baseUrl() {
+		return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+	}
+
+	long requests() {
+		return requests.get();
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Payable/receivable summaries in [startDate, endDate]; settled ones carry the settlement date, pending ones only a due date.
+	 * Resumos de contas a pagar/receber em [startDate, endDate]; os liquidados têm a data de liquidação, os pendentes só o vencimento.
+	 */
+	private void range(HttpExchange exchange, String kind, String settlementField) throws IOException {
+		Map<String, String> query = query(exchange);
+		LocalDate start = LocalDate.parse(query.get("startDate"));
+		LocalDate end = LocalDate.parse(query.get("endDate"));
+		long days = ChronoUnit.DAYS.between(start, end) + 1;
+		boolean payable = kind.equals("payable");
+		StringBuilder json = new StringBuilder(items * 200).append('[');
+		for (int i = 0; i < items; i++) {
+			LocalDate date = start.plusDays(i * days / items);
+			BigDecimal amount = BigDecimal.valueOf(10_000 + (date.toEpochDay() * 31 + i * 7919L) % 500_000, 2);
+			if (i > 0) json.append(',');
+			json.append("{\"id\":\"").append(new UUID(date.toEpochDay(), i * 2L + (payable ? 0 : 1)))
+					.append("\",\"dueDate\":\"").append(date)
+					.append(payable ? "\",\"amountDue\":" : "\",\"amountExpected\":").append(amount)
+					.append(payable ? ",\"amountPaid\":" : ",\"amountReceived\":").append(settlementField != null ? amount : BigDecimal.ZERO)
+					.append(",\"status\":\"").append(settlementField == null ? "PENDING" : payable ? "PAID" : "RECEIVED").append('"');
+			if (settlementField != null) {
+				json.append(",\"").append(settlementField).append("\":\"").append(date).append('"');
+			}
+			json.append('}');
+		}
+		respond(exchange, upstreamLatencyMs, json.append(']').toString());
+	}
+
+	private void user(HttpExchange exchange) throws IOException {
+		String username = exchange.getRequestURI().getPath().substring("/users/username/".length());
+		respond(exchange, authLatencyMs, "{\"id\":\"" + UUID.nameUUIDFromBytes(username.getBytes(StandardCharsets.UTF_8))
+				+ "\",\"username\":\"" + username + "\",\"password\":\"\",\"roles\":[\"ADMIN\"]}");
+	}
+
+	private void respond(HttpExchange exchange, long latencyMs, String body) throws IOException {
+		requests.incrementAndGet();
+		try {
+			if (latencyMs > 0) {
+				Thread.sleep(latencyMs);
+			}
+			byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().set("Content-Type", "application/json");
+			exchange.sendResponseHeaders(200, bytes.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(bytes);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			exchange.sendResponseHeaders(503, -1);
+		} finally {
+			exchange.close();
+		}
+	}
+
+	private static Map<String, String> query(HttpExchange exchange) {
+		Map<String, String> params = new HashMap<>();
+		String raw = exchange.getRequestURI().getRawQuery();
+		if (raw != null) {
+			for (String pair : raw.split("&")) {
+				int eq = pair.indexOf('=');
+				if (eq > 0) {
+					params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+							URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+				}
+			}
+		}
+		return params;
+	}
+}
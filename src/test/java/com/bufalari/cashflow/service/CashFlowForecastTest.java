@@ -0,0 +1,70 @@
+package com.bufalari.cashflow.service;
+
+import com.bufalari.cashflow.dto.CashFlowForecastDTO;
+import com.bufalari.cashflow.entity.ManualCashEntry;
+import com.bufalari.cashflow.enums.EntryType;
+import com.bufalari.cashflow.repository.ManualCashEntryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Planned manual entries through the database's per-day totals; the test upstream URLs are unreachable, so AP/AR
+ * contribute nothing.
+ * Lançamentos manuais planejados pelos totais diários do banco; as URLs de origem do teste são inacessíveis, então
+ * AP/AR não contribuem.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CashFlowForecastTest {
+
+	@Autowired
+	private CashFlowService cashFlowService;
+
+	@Autowired
+	private ManualCashEntryRepository manualCashEntryRepository;
+
+	private final List<ManualCashEntry> saved = new ArrayList<>();
+
+	@AfterEach
+	void deleteEntries() {
+		manualCashEntryRepository.deleteAll(saved);
+	}
+
+	@Test
+	void projectsPlannedEntriesInsideTheHorizonOnly() {
+		LocalDate today = LocalDate.now();
+		entry(today.plusDays(1), EntryType.CREDIT, "200.00");
+		entry(today.plusDays(3), EntryType.DEBIT, "50.00");
+		entry(today.plusDays(6), EntryType.DEBIT, "75.00"); // One day past the horizon
+
+		CashFlowForecastDTO forecast = cashFlowService.getCashFlowForecast(5, new BigDecimal("1000.00"));
+
+		Map<LocalDate, String> expected = new LinkedHashMap<>();
+		expected.put(today, "1000.00");
+		expected.put(today.plusDays(1), "1200.00");
+		expected.put(today.plusDays(2), "1200.00");
+		expected.put(today.plusDays(3), "1150.00");
+		expected.put(today.plusDays(4), "1150.00");
+		expected.put(today.plusDays(5), "1150.00");
+		Map<LocalDate, String> actual = new LinkedHashMap<>();
+		forecast.getDailyProjectedBalance().forEach((day, balance) -> actual.put(day, balance.setScale(2).toPlainString()));
+		assertEquals(expected, actual);
+	}
+
+	private void entry(LocalDate date, EntryType type, String amount) {
+		saved.add(manualCashEntryRepository.save(ManualCashEntry.builder().entryDate(date).type(type)
+				.amount(new BigDecimal(amount)).description("Planned " + type).build()));
+	}
+}
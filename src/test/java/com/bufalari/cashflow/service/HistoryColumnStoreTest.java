@@ -0,0 +1,114 @@
+package com.bufalari.cashflow.service;
+
+import com.bufalari.cashflow.dto.HistoryBucketDTO;
+import com.bufalari.cashflow.dto.HistorySeriesDTO;
+import com.bufalari.cashflow.dto.HistoryTotalsDTO;
+import com.bufalari.cashflow.entity.ManualCashEntry;
+import com.bufalari.cashflow.entity.SyncedUpstreamRecord;
+import com.bufalari.cashflow.enums.EntryType;
+import com.bufalari.cashflow.enums.HistoryBucket;
+import com.bufalari.cashflow.enums.UpstreamSource;
+import com.bufalari.cashflow.repository.ManualCashEntryRepository;
+import com.bufalari.cashflow.repository.SyncedUpstreamRecordRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {
+		"cashflow.history.enabled=true",
+		"cashflow.history.directory=target/cashflow-history-test-${random.uuid}",
+		"cashflow.history.initial-delay-ms=3600000" // Rebuilt explicitly below
+})
+@ActiveProfiles("test")
+class HistoryColumnStoreTest {
+
+	@Autowired
+	private HistoryColumnStore historyColumnStore;
+
+	@Autowired
+	private ManualCashEntryRepository manualCashEntryRepository;
+
+	@Autowired
+	private SyncedUpstreamRecordRepository syncedUpstreamRecordRepository;
+
+	private final List<ManualCashEntry> entries = new ArrayList<>();
+	private final List<SyncedUpstreamRecord> records = new ArrayList<>();
+
+	@BeforeEach
+	void createHistory() {
+		entries.add(manual(LocalDate.of(2021, 3, 10), EntryType.CREDIT, 7L, "1000.00"));
+		entries.add(manual(LocalDate.of(2021, 3, 10), EntryType.CREDIT, 7L, "250.50")); // Same day and project: one row
+		entries.add(manual(LocalDate.of(2022, 11, 2), EntryType.DEBIT, 8L, "400.00"));
+		records.add(synced(UpstreamSource.RECEIVABLE, LocalDate.of(2021, 1, 5), "3000.00"));
+		records.add(synced(UpstreamSource.PAYABLE, LocalDate.of(2023, 6, 30), "1200.25"));
+		historyColumnStore.rebuild();
+	}
+
+	@AfterEach
+	void deleteHistory() {
+		manualCashEntryRepository.deleteAll(entries);
+		syncedUpstreamRecordRepository.deleteAll(records);
+	}
+
+	@Test
+	void sumsEverySourceOverMultiYearRangesAndFilters() {
+		HistoryTotalsDTO all = historyColumnStore.totals(LocalDate.of(2021, 1, 1), LocalDate.of(2023, 12, 31), null, null);
+		assertEquals(new BigDecimal("3000.00"), all.getReceivables());
+		assertEquals(new BigDecimal("1200.25"), all.getPayables());
+		assertEquals(new BigDecimal("1250.50"), all.getManualCredits());
+		assertEquals(new BigDecimal("400.00"), all.getManualDebits());
+		assertEquals(new BigDecimal("2650.25"), all.getNetCashFlow());
+
+		HistoryTotalsDTO project = historyColumnStore.totals(LocalDate.of(2021, 1, 1), LocalDate.of(2023, 12, 31), 7L, null);
+		assertEquals(new BigDecimal("1250.50"), project.getTotalInflows());
+		assertEquals(new BigDecimal("0.00"), project.getTotalOutflows());
+
+		HistoryTotalsDTO edges = historyColumnStore.totals(LocalDate.of(2021, 1, 6), LocalDate.of(2023, 6, 29), null, null);
+		assertEquals(new BigDecimal("850.50"), edges.getNetCashFlow());
+	}
+
+	@Test
+	void bucketsByYearIncludingEmptyOnes() {
+		HistorySeriesDTO series = historyColumnStore.series(
+				LocalDate.of(2020, 7, 1), LocalDate.of(2023, 6, 30), HistoryBucket.YEAR, null, null);
+		assertEquals(List.of(LocalDate.of(2020, 1, 1), LocalDate.of(2021, 1, 1), LocalDate.of(2022, 1, 1), LocalDate.of(2023, 1, 1)),
+				series.getBuckets().stream().map(HistoryBucketDTO::getBucketStart).toList());
+		assertEquals(List.of(new BigDecimal("0.00"), new BigDecimal("4250.50"), new BigDecimal("-400.00"), new BigDecimal("-1200.25")),
+				series.getBuckets().stream().map(HistoryBucketDTO::getNetCashFlow).toList());
+	}
+
+	private ManualCashEntry manual(LocalDate date, EntryType type, Long projectId, String amount) {
+		return manualCashEntryRepository.save(ManualCashEntry.builder()
+				.entryDate(date)
+				.type(type)
+				.projectId(projectId)
+				.description("History " + type)
+				.amount(new BigDecimal(amount))
+				.build());
+	}
+
+	private SyncedUpstreamRecord synced(UpstreamSource source, LocalDate settlementDate, String amount) {
+		return syncedUpstreamRecordRepository.save(SyncedUpstreamRecord.builder()
+				.source(source)
+				.upstreamId(UUID.randomUUID())
+				.dueDate(settlementDate)
+				.amountTotal(new BigDecimal(amount))
+				.amountSettled(new BigDecimal(amount))
+				.status("PAID")
+				.settlementDate(settlementDate)
+				.syncedAt(Instant.now())
+				.build());
+	}
+}
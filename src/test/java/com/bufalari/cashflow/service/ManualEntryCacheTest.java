@@ -0,0 +1,72 @@
+package com.bufalari.cashflow.service;
+
+import com.bufalari.cashflow.entity.ManualCashEntry;
+import com.bufalari.cashflow.enums.EntryType;
+import com.bufalari.cashflow.repository.ManualCashEntryRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ManualEntryCacheTest {
+
+	private static final String ENTITY_REGION = ManualCashEntry.class.getName();
+	private static final String QUERY_REGION = "manual-entries-by-date";
+
+	@Autowired
+	private CashFlowService cashFlowService;
+
+	@Autowired
+	private ManualCashEntryRepository manualCashEntryRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private ManualCashEntry saved;
+
+	@AfterEach
+	void deleteEntry() {
+		manualCashEntryRepository.delete(saved);
+	}
+
+	@Test
+	void servesRepeatedReadsFromTheSecondLevelCacheUntilAWrite() {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		LocalDate day = LocalDate.of(2023, 7, 14);
+		saved = manualCashEntryRepository.save(ManualCashEntry.builder()
+				.entryDate(day)
+				.type(EntryType.DEBIT)
+				.description("Insurance")
+				.amount(new BigDecimal("300.00"))
+				.documentReferences(List.of("POLICY-7"))
+				.build());
+		statistics.clear();
+
+		cashFlowService.getManualEntryById(saved.getId());
+		cashFlowService.getManualEntryById(saved.getId());
+		assertEquals(2, statistics.getDomainDataRegionStatistics(ENTITY_REGION).getHitCount()); // Cached on insert
+		assertEquals(0, statistics.getDomainDataRegionStatistics(ENTITY_REGION).getMissCount());
+
+		manualCashEntryRepository.findByEntryDateBetweenOrderByEntryDateAsc(day, day);
+		manualCashEntryRepository.findByEntryDateBetweenOrderByEntryDateAsc(day, day);
+		assertEquals(1, statistics.getQueryRegionStatistics(QUERY_REGION).getHitCount());
+
+		saved.setDescription("Insurance renewal");
+		saved = manualCashEntryRepository.save(saved); // Table written: cached query results are stale
+		manualCashEntryRepository.findByEntryDateBetweenOrderByEntryDateAsc(day, day);
+		assertEquals(1, statistics.getQueryRegionStatistics(QUERY_REGION).getHitCount());
+		assertEquals("Insurance renewal", cashFlowService.getManualEntryById(saved.getId()).getDescription());
+	}
+}
@@ -0,0 +1,117 @@
+package com.bufalari.cashflow.service;
+
+import com.bufalari.cashflow.dto.ManualCashEntryDTO;
+import com.bufalari.cashflow.dto.ManualCashEntryFilterDTO;
+import com.bufalari.cashflow.dto.ManualCashEntryPageDTO;
+import com.bufalari.cashflow.entity.ManualCashEntry;
+import com.bufalari.cashflow.enums.EntryType;
+import com.bufalari.cashflow.repository.ManualCashEntryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ManualEntryListingTest {
+
+	@Autowired
+	private CashFlowService cashFlowService;
+
+	@Autowired
+	private ManualCashEntryRepository manualCashEntryRepository;
+
+	private final List<ManualCashEntry> saved = new ArrayList<>();
+
+	@BeforeEach
+	void createEntries() {
+		LocalDate day = LocalDate.of(2024, 3, 1);
+		saved.add(entry(day, EntryType.DEBIT, "Office cleaning", "80.00"));
+		saved.add(entry(day, EntryType.CREDIT, "Owner contribution", "5000.00"));
+		saved.add(entry(day, EntryType.DEBIT, "Bank fee 100%_off", "12.50"));
+		saved.add(entry(day.plusDays(1), EntryType.DEBIT, "Window CLEANING", "45.00"));
+		saved.add(entry(day.minusDays(1), EntryType.CREDIT, "Refund", "20.00"));
+	}
+
+	@AfterEach
+	void deleteEntries() {
+		manualCashEntryRepository.deleteAll(saved);
+	}
+
+	@Test
+	void pagesThroughEntriesSharingADateWithoutGapsOrDuplicates() {
+		List<ManualCashEntryDTO> listed = new ArrayList<>();
+		ManualEntryCursor cursor = null;
+		int pages = 0;
+		do {
+			ManualCashEntryPageDTO page = cashFlowService.listManualEntries(new ManualCashEntryFilterDTO(), cursor, 2);
+			listed.addAll(page.getItems());
+			cursor = page.getNextCursor() != null ? ManualEntryCursor.decode(page.getNextCursor()) : null;
+			pages++;
+		} while (cursor != null);
+
+		// The database orders UUIDs as unsigned bytes (UUID.compareTo does not), so check dates and completeness only
+		assertEquals(saved.stream().map(ManualCashEntry::getId).collect(Collectors.toSet()),
+				listed.stream().map(ManualCashEntryDTO::getId).collect(Collectors.toSet()));
+		assertEquals(saved.size(), listed.size());
+		assertEquals(listed.stream().map(ManualCashEntryDTO::getEntryDate).sorted().toList(),
+				listed.stream().map(ManualCashEntryDTO::getEntryDate).toList());
+		assertEquals(3, pages);
+	}
+
+	@Test
+	void resumesFromACursorInsideARunOfEqualDates() {
+		List<ManualCashEntryDTO> all = cashFlowService.listManualEntries(new ManualCashEntryFilterDTO(), null, 10).getItems();
+		ManualCashEntryDTO middle = all.get(2); // Second of the three entries on 2024-03-01
+		assertEquals(LocalDate.of(2024, 3, 1), middle.getEntryDate());
+		assertEquals(LocalDate.of(2024, 3, 1), all.get(3).getEntryDate());
+
+		ManualCashEntryPageDTO next = cashFlowService.listManualEntries(new ManualCashEntryFilterDTO(),
+				new ManualEntryCursor(middle.getEntryDate(), middle.getId()), 1);
+		assertEquals(List.of(all.get(3).getId()), next.getItems().stream().map(ManualCashEntryDTO::getId).toList());
+		assertTrue(next.isHasMore());
+
+		ManualCashEntryPageDTO rest = cashFlowService.listManualEntries(new ManualCashEntryFilterDTO(),
+				new ManualEntryCursor(middle.getEntryDate(), middle.getId()), 10);
+		assertEquals(all.subList(3, all.size()).stream().map(ManualCashEntryDTO::getId).toList(),
+				rest.getItems().stream().map(ManualCashEntryDTO::getId).toList());
+	}
+
+	@Test
+	void combinesFiltersAndMatchesDescriptionLiterally() {
+		ManualCashEntryFilterDTO cleaningDebits = new ManualCashEntryFilterDTO();
+		cleaningDebits.setType(EntryType.DEBIT);
+		cleaningDebits.setDescription("clean");
+		cleaningDebits.setMaxAmount(new BigDecimal("50"));
+		ManualCashEntryPageDTO page = cashFlowService.listManualEntries(cleaningDebits, null, 10);
+		assertEquals(List.of("Window CLEANING"), page.getItems().stream().map(ManualCashEntryDTO::getDescription).toList());
+		assertFalse(page.isHasMore());
+		assertNull(page.getNextCursor());
+
+		ManualCashEntryFilterDTO wildcard = new ManualCashEntryFilterDTO();
+		wildcard.setDescription("0%_");
+		assertEquals(1, cashFlowService.listManualEntries(wildcard, null, 10).getItems().size());
+	}
+
+	private ManualCashEntry entry(LocalDate date, EntryType type, String description, String amount) {
+		return manualCashEntryRepository.save(ManualCashEntry.builder()
+				.entryDate(date)
+				.type(type)
+				.description(description)
+				.amount(new BigDecimal(amount))
+				.build());
+	}
+}
@@ -0,0 +1,79 @@
+package com.bufalari.cashflow.service;
+
+import com.bufalari.cashflow.dto.BalanceBandDTO;
+import com.bufalari.cashflow.dto.ProbabilisticForecastDTO;
+import com.bufalari.cashflow.enums.EntryType;
+import com.bufalari.cashflow.enums.PayableStatus;
+import com.bufalari.cashflow.enums.ReceivableStatus;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MonteCarloForecastServiceTest {
+
+	private static final LocalDate START = LocalDate.of(2024, 1, 1);
+
+	private final MonteCarloForecastService service = new MonteCarloForecastService(null); // Snapshot overload only
+
+	@Test
+	void bandsAreOrdered() {
+		ProbabilisticForecastDTO forecast = service.simulate(snapshot(60), new BigDecimal("1000.00"), 2000, 42L);
+
+		assertEquals(60, forecast.getDailyBalanceBands().size());
+		for (BalanceBandDTO band : forecast.getDailyBalanceBands().values()) {
+			assertTrue(band.getP5().compareTo(band.getP50()) <= 0, "p5 <= p50");
+			assertTrue(band.getP50().compareTo(band.getP95()) <= 0, "p50 <= p95");
+			assertTrue(band.getProbabilityNegative() >= 0 && band.getProbabilityNegative() <= 1);
+		}
+	}
+
+	@Test
+	void sameSeedGivesTheSameResultWhateverTheThreadCount() throws Exception {
+		ForecastSnapshot snapshot = snapshot(90);
+		int paths = 1500; // Three chunks, the last one partial
+
+		ProbabilisticForecastDTO parallel = service.simulate(snapshot, BigDecimal.ZERO, paths, 7L);
+		ForkJoinPool singleThread = new ForkJoinPool(1);
+		try {
+			ProbabilisticForecastDTO sequential = singleThread.submit(() -> service.simulate(snapshot, BigDecimal.ZERO, paths, 7L)).get();
+			assertEquals(parallel.getDailyBalanceBands(), sequential.getDailyBalanceBands());
+			assertEquals(parallel.getProbabilityOfNegativeBalance(), sequential.getProbabilityOfNegativeBalance());
+		} finally {
+			singleThread.shutdown();
+		}
+		assertEquals(parallel.getDailyBalanceBands(), service.simulate(snapshot, BigDecimal.ZERO, paths, 7L).getDailyBalanceBands());
+		assertNotEquals(parallel.getDailyBalanceBands(), service.simulate(snapshot, BigDecimal.ZERO, paths, 8L).getDailyBalanceBands());
+	}
+
+	@Test
+	void rejectsSimulationsAboveTheCellCap() {
+		ForecastSnapshot snapshot = new ForecastSnapshot(START, START.plusDays(99), List.of(), List.of(), List.of());
+		int paths = (int) (MonteCarloForecastService.MAX_SIMULATION_CELLS / 100);
+
+		assertEquals(paths, service.simulate(snapshot, BigDecimal.ZERO, paths, 1L).getPaths()); // Exactly at the cap
+		assertThrows(IllegalArgumentException.class, () -> service.simulate(snapshot, BigDecimal.ZERO, paths + 1, 1L));
+	}
+
+	private static ForecastSnapshot snapshot(int days) {
+		List<ForecastSnapshot.ExpectedReceipt> receipts = new ArrayList<>();
+		List<ForecastSnapshot.ExpectedPayment> payments = new ArrayList<>();
+		for (int i = 0; i < days; i += 3) {
+			receipts.add(new ForecastSnapshot.ExpectedReceipt(UUID.randomUUID(), START.plusDays(i), new BigDecimal("250.00"),
+					i % 2 == 0 ? ReceivableStatus.PENDING : ReceivableStatus.OVERDUE));
+			payments.add(new ForecastSnapshot.ExpectedPayment(UUID.randomUUID(), START.plusDays(i + 1), new BigDecimal("240.00"),
+					i % 2 == 0 ? PayableStatus.PENDING : PayableStatus.IN_NEGOTIATION));
+		}
+		return new ForecastSnapshot(START, START.plusDays(days - 1L), receipts, payments,
+				List.of(new ForecastSnapshot.PlannedManualTotal(START.plusDays(10), EntryType.CREDIT, new BigDecimal("500.00"))));
+	}
+}
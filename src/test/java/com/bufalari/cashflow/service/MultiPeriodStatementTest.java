@@ -0,0 +1,130 @@
+package com.bufalari.cashflow.service;
+
+import com.bufalari.cashflow.dto.CashFlowItemDTO;
+import com.bufalari.cashflow.dto.CashFlowStatementDTO;
+import com.bufalari.cashflow.dto.MultiPeriodStatementDTO;
+import com.bufalari.cashflow.dto.PayableSummaryDTO;
+import com.bufalari.cashflow.dto.ReceivableSummaryDTO;
+import com.bufalari.cashflow.dto.StatementPeriodDTO;
+import com.bufalari.cashflow.entity.ManualCashEntry;
+import com.bufalari.cashflow.enums.EntryType;
+import com.bufalari.cashflow.enums.UpstreamSource;
+import com.bufalari.cashflow.repository.ManualCashEntryRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Multi-period statements over a stubbed local AP/AR copy and manual entry repository, both filtering by date range.
+ * Demonstrativos de vários períodos sobre uma cópia local de AP/AR e um repositório de lançamentos simulados, ambos
+ * filtrando pelo intervalo de datas.
+ */
+class MultiPeriodStatementTest {
+
+	private static final LocalDate JAN_1 = LocalDate.of(2024, 1, 1);
+
+	private final List<PayableSummaryDTO> payables = new ArrayList<>();
+	private final List<ReceivableSummaryDTO> receivables = new ArrayList<>();
+	private final List<ManualCashEntry> manualEntries = new ArrayList<>();
+	private final CashFlowService service = service();
+
+	@Test
+	void partitionsOnBoundariesAndCarriesGapFlowsIntoTheNextOpeningBalance() {
+		receivable(JAN_1, "100.00");                  // First day of January
+		payable(LocalDate.of(2024, 1, 31), "40.00");  // Last day of January
+		manual(LocalDate.of(2024, 2, 1), EntryType.CREDIT, "25.00");
+		manual(LocalDate.of(2024, 2, 29), EntryType.DEBIT, "10.00");
+		receivable(LocalDate.of(2024, 3, 5), "70.00"); // Gap between February and the second half of March
+		manual(LocalDate.of(2024, 3, 14), EntryType.DEBIT, "20.00");
+		payable(LocalDate.of(2024, 3, 15), "30.00");
+		receivable(LocalDate.of(2024, 3, 31), "5.00");
+		List<StatementPeriodDTO> periods = List.of(
+				new StatementPeriodDTO(JAN_1, LocalDate.of(2024, 1, 31)),
+				new StatementPeriodDTO(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 29)),
+				new StatementPeriodDTO(LocalDate.of(2024, 3, 15), LocalDate.of(2024, 3, 31)));
+
+		MultiPeriodStatementDTO result = service.getMultiPeriodStatement(periods, new BigDecimal("1000.00"));
+
+		List<CashFlowStatementDTO> statements = result.getStatements();
+		assertEquals(List.of("RECEIVABLE@2024-01-01", "PAYABLE@2024-01-31"), items(statements.get(0)));
+		assertEquals(List.of("MANUAL_CREDIT@2024-02-01", "MANUAL_DEBIT@2024-02-29"), items(statements.get(1)));
+		assertEquals(List.of("RECEIVABLE@2024-03-31", "PAYABLE@2024-03-15"), items(statements.get(2))); // No gap items
+		assertAmount("1060.00", statements.get(0).getClosingBalance());
+		assertAmount("1060.00", statements.get(1).getOpeningBalance());
+		assertAmount("1075.00", statements.get(1).getClosingBalance());
+		assertAmount("1125.00", statements.get(2).getOpeningBalance()); // 1075 + 70 - 20 from the gap
+		assertAmount("1100.00", result.getClosingBalance());
+
+		// Chained balances match statements generated one by one, the gap included
+		BigDecimal balance = new BigDecimal("1000.00");
+		for (StatementPeriodDTO period : List.of(periods.get(0), periods.get(1),
+				new StatementPeriodDTO(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 14)), periods.get(2))) {
+			balance = service.getCashFlowStatement(period.getStartDate(), period.getEndDate(), balance).getClosingBalance();
+		}
+		assertAmount(balance.toPlainString(), result.getClosingBalance());
+		assertAmount(service.getCashFlowStatement(JAN_1, LocalDate.of(2024, 2, 29), new BigDecimal("1000.00")).getClosingBalance()
+				.toPlainString(), statements.get(1).getClosingBalance());
+	}
+
+	@Test
+	void skipsItemsWithoutADate() {
+		receivable(JAN_1, "100.00");
+		receivable(null, "999.00"); // Upstream record without a received date
+
+		MultiPeriodStatementDTO result = service.getMultiPeriodStatement(
+				List.of(new StatementPeriodDTO(JAN_1, LocalDate.of(2024, 1, 31))), BigDecimal.ZERO);
+
+		assertEquals(List.of("RECEIVABLE@2024-01-01"), items(result.getStatements().get(0)));
+		assertAmount("100.00", result.getClosingBalance());
+	}
+
+	private CashFlowService service() {
+		UpstreamSyncService upstreamSyncService = mock(UpstreamSyncService.class);
+		when(upstreamSyncService.isLocalCopyReady(any(UpstreamSource.class))).thenReturn(true);
+		when(upstreamSyncService.paidPayables(any(), any())).thenAnswer(invocation -> payables.stream()
+				.filter(p -> within(p.getPaymentDate(), invocation.getArgument(0), invocation.getArgument(1))).toList());
+		when(upstreamSyncService.receivedReceivables(any(), any())).thenAnswer(invocation -> receivables.stream()
+				.filter(r -> r.getReceivedDate() == null || within(r.getReceivedDate(), invocation.getArgument(0), invocation.getArgument(1)))
+				.toList());
+		ManualCashEntryRepository manualCashEntryRepository = mock(ManualCashEntryRepository.class);
+		when(manualCashEntryRepository.findByEntryDateBetweenOrderByEntryDateAsc(any(), any())).thenAnswer(invocation -> manualEntries.stream()
+				.filter(m -> within(m.getEntryDate(), invocation.getArgument(0), invocation.getArgument(1))).toList());
+		return new CashFlowService(manualCashEntryRepository, null, null, null, null, null, upstreamSyncService, null);
+	}
+
+	private void payable(LocalDate paymentDate, String amount) {
+		payables.add(new PayableSummaryDTO(UUID.randomUUID(), paymentDate, new BigDecimal(amount), new BigDecimal(amount), null, paymentDate));
+	}
+
+	private void receivable(LocalDate receivedDate, String amount) {
+		receivables.add(new ReceivableSummaryDTO(UUID.randomUUID(), receivedDate, new BigDecimal(amount), new BigDecimal(amount), null, receivedDate));
+	}
+
+	private void manual(LocalDate entryDate, EntryType type, String amount) {
+		manualEntries.add(ManualCashEntry.builder().id(UUID.randomUUID()).entryDate(entryDate).type(type)
+				.amount(new BigDecimal(amount)).description(type + " " + entryDate).build());
+	}
+
+	private static boolean within(LocalDate date, LocalDate start, LocalDate end) {
+		return date != null && !date.isBefore(start) && !date.isAfter(end);
+	}
+
+	private static List<String> items(CashFlowStatementDTO statement) {
+		List<CashFlowItemDTO> items = new ArrayList<>(statement.getInflowItems());
+		items.addAll(statement.getOutflowItems());
+		return items.stream().map(i -> i.getType() + "@" + i.getDate()).toList();
+	}
+
+	private static void assertAmount(String expected, BigDecimal actual) {
+		assertEquals(0, new BigDecimal(expected).compareTo(actual), () -> expected + " != " + actual);
+	}
+}
@@ -0,0 +1,59 @@
+package com.bufalari.cashflow.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReportCoalescerTest {
+
+	private final DataVersionTracker dataVersionTracker = new DataVersionTracker(event -> { });
+	private final ReportCoalescer coalescer = new ReportCoalescer(new SimpleMeterRegistry(), dataVersionTracker);
+
+	@Test
+	void joinsOnlyComputationsStartedOnTheSameDataVersion() throws Exception {
+		ExecutorService threads = Executors.newFixedThreadPool(2);
+		AtomicInteger data = new AtomicInteger(1);
+		AtomicInteger computations = new AtomicInteger();
+		CountDownLatch leaderStarted = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<Integer> leader = CompletableFuture.supplyAsync(() -> coalescer.execute("balance", () -> {
+			int seen = data.get(); // Read before the write below commits
+			computations.incrementAndGet();
+			leaderStarted.countDown();
+			await(release);
+			return seen;
+		}, new BigDecimal("100")), threads);
+		assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+		data.set(2);
+		dataVersionTracker.manualEntriesChanged();
+		CompletableFuture<Integer> newVersion = CompletableFuture.supplyAsync(() -> coalescer.execute("balance", () -> {
+			computations.incrementAndGet();
+			return data.get();
+		}, new BigDecimal("100.00")), threads); // Same request at another scale
+
+		assertEquals(2, newVersion.get(5, TimeUnit.SECONDS)); // Did not wait for the stale leader
+		release.countDown();
+		assertEquals(1, leader.get(5, TimeUnit.SECONDS));
+		assertEquals(2, computations.get());
+		threads.shutdown();
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
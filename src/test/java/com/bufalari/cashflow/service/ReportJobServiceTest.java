@@ -0,0 +1,242 @@
+package com.bufalari.cashflow.service;
+
+import com.bufalari.cashflow.converter.ReportJobConverter;
+import com.bufalari.cashflow.dto.CashFlowForecastDTO;
+import com.bufalari.cashflow.dto.ReportJobRequestDTO;
+import com.bufalari.cashflow.dto.StatementPeriodDTO;
+import com.bufalari.cashflow.entity.ReportJob;
+import com.bufalari.cashflow.enums.ReportJobPriority;
+import com.bufalari.cashflow.enums.ReportJobStatus;
+import com.bufalari.cashflow.enums.ReportJobType;
+import com.bufalari.cashflow.exception.ReportJobStateException;
+import com.bufalari.cashflow.repository.ReportJobRepository;
+import com.bufalari.cashflow.repository.ReportJobResultRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * One worker over the test database; the forecast mock records the order jobs ran in and can hold the worker.
+ * Um worker sobre o banco de testes; o mock de projeção registra a ordem de execução e pode segurar o worker.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ReportJobServiceTest {
+
+	private static final Authentication ALICE = new UsernamePasswordAuthenticationToken("alice", null, List.of());
+
+	@Autowired
+	private ReportJobRepository reportJobRepository;
+
+	@Autowired
+	private ReportJobResultRepository reportJobResultRepository;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private final CashFlowService cashFlowService = mock(CashFlowService.class);
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final List<Integer> ran = new CopyOnWriteArrayList<>();
+	private final CountDownLatch started = new CountDownLatch(1);
+	private final CountDownLatch release = new CountDownLatch(1);
+	private final List<UUID> submitted = new ArrayList<>();
+	private ReportJobService service;
+
+	@AfterEach
+	void cleanUp() {
+		release.countDown();
+		service.shutdown();
+		reportJobRepository.deleteAllById(submitted);
+	}
+
+	@Test
+	void runsQueuedJobsByPriorityThenSubmissionOrder() {
+		service = service(true);
+		UUID blocker = submit(1, ReportJobPriority.LOW);
+		awaitTrue(() -> started.getCount() == 0);
+		UUID low = submit(2, ReportJobPriority.LOW);
+		UUID normal = submit(3, null); // Defaults to NORMAL
+		UUID high = submit(4, ReportJobPriority.HIGH);
+		UUID secondHigh = submit(5, ReportJobPriority.HIGH);
+
+		release.countDown();
+		for (UUID id : List.of(blocker, low, normal, high, secondHigh)) {
+			awaitStatus(id, ReportJobStatus.COMPLETED);
+		}
+		assertEquals(List.of(1, 4, 5, 3, 2), ran);
+	}
+
+	@Test
+	void cancelsQueuedAndRunningJobs() {
+		service = service(true);
+		UUID running = submit(1, ReportJobPriority.NORMAL);
+		awaitTrue(() -> started.getCount() == 0);
+		UUID queued = submit(2, ReportJobPriority.NORMAL);
+
+		assertEquals(ReportJobStatus.CANCELED, service.cancel(queued, ALICE).getStatus());
+		assertEquals(ReportJobStatus.CANCELED, service.cancel(running, ALICE).getStatus()); // Interrupts the worker
+		awaitTrue(() -> finished() == 1);
+
+		submit(3, ReportJobPriority.NORMAL); // The worker is free again
+		awaitTrue(() -> finished() == 2);
+		assertEquals(List.of(1, 3), ran); // The queued job never ran
+		assertEquals(ReportJobStatus.CANCELED, reportJobRepository.findById(running).orElseThrow().getStatus());
+		assertThrows(ReportJobStateException.class, () -> service.cancel(running, ALICE));
+	}
+
+	@Test
+	void jobCanceledWhileRunningNeverCompletes() {
+		service = service(false); // The computation ignores the interrupt and finishes anyway
+		UUID job = submit(1, ReportJobPriority.NORMAL);
+		awaitTrue(() -> started.getCount() == 0);
+
+		service.cancel(job, ALICE);
+		release.countDown();
+		awaitTrue(() -> finished() == 1);
+
+		assertEquals(ReportJobStatus.CANCELED, reportJobRepository.findById(job).orElseThrow().getStatus());
+		assertFalse(reportJobResultRepository.existsById(job)); // The late result was dropped
+		assertThrows(ReportJobStateException.class, () -> service.getResult(job, ALICE));
+	}
+
+	@Test
+	void acceptsTheLargestAllowedMultiPeriodRequest() {
+		service = service(true);
+		ReportJobRequestDTO request = new ReportJobRequestDTO();
+		request.setType(ReportJobType.MULTI_PERIOD_STATEMENT);
+		request.setOpeningBalance(BigDecimal.ZERO);
+		List<StatementPeriodDTO> periods = new ArrayList<>();
+		LocalDate month = LocalDate.of(1980, 1, 1);
+		for (int i = 0; i < 600; i++, month = month.plusMonths(1)) { // The @Size limit of ReportJobRequestDTO.periods
+			periods.add(new StatementPeriodDTO(month, month.plusMonths(1).minusDays(1)));
+		}
+		request.setPeriods(periods);
+
+		UUID id = service.submit(request, ALICE.getName()).getId();
+		submitted.add(id);
+		assertTrue(reportJobRepository.findById(id).orElseThrow().getParameters().length() > 8000);
+		awaitStatus(id, ReportJobStatus.COMPLETED);
+	}
+
+	@Test
+	void cleanupFailsOnlyJobsWithAStaleHeartbeat() {
+		service = service(true);
+		Instant longAgo = Instant.now().minusSeconds(3600);
+		UUID orphaned = saveRunning("dead-instance", longAgo, longAgo);
+		UUID alive = saveRunning("live-instance", longAgo, Instant.now()); // Running for an hour, still heartbeating
+
+		service.cleanup();
+		assertEquals(ReportJobStatus.FAILED, reportJobRepository.findById(orphaned).orElseThrow().getStatus());
+		assertEquals(ReportJobStatus.RUNNING, reportJobRepository.findById(alive).orElseThrow().getStatus());
+	}
+
+	private ReportJobService service(boolean interruptible) {
+		when(cashFlowService.getCashFlowForecast(anyInt(), any())).thenAnswer(invocation -> {
+			int daysAhead = invocation.getArgument(0);
+			ran.add(daysAhead);
+			started.countDown();
+			if (daysAhead == 1) {
+				if (interruptible) {
+					release.await(5, TimeUnit.SECONDS);
+				} else {
+					awaitUninterruptibly(release);
+				}
+			}
+			return new CashFlowForecastDTO(LocalDate.now(), BigDecimal.ZERO, new TreeMap<>());
+		});
+		return new ReportJobService(reportJobRepository, reportJobResultRepository, new ReportJobConverter(), cashFlowService,
+				objectMapper, transactionManager, meterRegistry, 1, 100, "test", 180, 72);
+	}
+
+	private UUID submit(int daysAhead, ReportJobPriority priority) {
+		ReportJobRequestDTO request = new ReportJobRequestDTO();
+		request.setType(ReportJobType.FORECAST);
+		request.setPriority(priority);
+		request.setDaysAhead(daysAhead);
+		request.setCurrentBalance(BigDecimal.ZERO);
+		UUID id = service.submit(request, ALICE.getName()).getId();
+		submitted.add(id);
+		return id;
+	}
+
+	private UUID saveRunning(String owner, Instant startedAt, Instant heartbeatAt) {
+		UUID id = reportJobRepository.save(ReportJob.builder()
+				.type(ReportJobType.FORECAST)
+				.status(ReportJobStatus.RUNNING)
+				.priority(ReportJobPriority.NORMAL)
+				.parameters("{}")
+				.requestedBy(ALICE.getName())
+				.submittedAt(startedAt)
+				.startedAt(startedAt)
+				.owner(owner)
+				.heartbeatAt(heartbeatAt)
+				.build()).getId();
+		submitted.add(id);
+		return id;
+	}
+
+	private void awaitStatus(UUID id, ReportJobStatus status) {
+		awaitTrue(() -> reportJobRepository.findById(id).orElseThrow().getStatus() == status);
+	}
+
+	private long finished() {
+		return meterRegistry.find("cashflow.report_jobs.duration").timers().stream().mapToLong(Timer::count).sum();
+	}
+
+	private static void awaitUninterruptibly(CountDownLatch latch) {
+		while (latch.getCount() > 0) {
+			try {
+				latch.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				// Swallowed: this computation runs to the end whatever happens
+			}
+		}
+	}
+
+	private static void awaitTrue(BooleanSupplier condition) {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!condition.getAsBoolean()) {
+			if (System.nanoTime() > deadline) fail("Condition not met within 5 s");
+			try {
+				Thread.sleep(10);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				fail("Interrupted");
+			}
+		}
+	}
+}
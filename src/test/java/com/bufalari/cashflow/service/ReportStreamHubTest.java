@@ -0,0 +1,201 @@
+package com.bufalari.cashflow.service;
+
+import com.bufalari.cashflow.dto.CashFlowBalanceDTO;
+import com.bufalari.cashflow.dto.CashFlowForecastDTO;
+import com.bufalari.cashflow.dto.ForecastDeltaDTO;
+import com.bufalari.cashflow.enums.UpstreamSource;
+import com.bufalari.cashflow.event.CashFlowDataChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReportStreamHubTest {
+
+	private static final LocalDate TODAY = LocalDate.now();
+
+	private final CashFlowService cashFlowService = mock(CashFlowService.class);
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final AtomicReference<ReportStreamHub> hubRef = new AtomicReference<>();
+	private final DataVersionTracker dataVersionTracker =
+			new DataVersionTracker(event -> hubRef.get().onDataChanged((CashFlowDataChangedEvent) event));
+	private volatile CountDownLatch sendGate = new CountDownLatch(0);
+
+	@AfterEach
+	void shutdown() {
+		sendGate.countDown();
+		hubRef.get().shutdown();
+	}
+
+	@Test
+	void fansOutOneComputationAndThenSendsOnlyChangedDays() {
+		ReportStreamHub hub = hub(16);
+		when(cashFlowService.getCashFlowForecast(eq(3), any()))
+				.thenReturn(forecast("100", "110", "120"), forecast("100", "115", "120"));
+
+		RecordingEmitter first = (RecordingEmitter) hub.subscribeForecast(3, new BigDecimal("100"));
+		awaitTrue(() -> first.events.size() == 1);
+		RecordingEmitter second = (RecordingEmitter) hub.subscribeForecast(3, new BigDecimal("100.00"));
+		awaitTrue(() -> second.events.size() == 1); // Joined the group: served the latest snapshot
+		assertEquals(1, refreshes("forecast"));
+
+		dataVersionTracker.upstreamChanged(UpstreamSource.PAYABLE);
+		awaitTrue(() -> first.events.size() == 2 && second.events.size() == 2);
+		assertEquals(2, refreshes("forecast"));
+		for (RecordingEmitter emitter : List.of(first, second)) {
+			assertEquals("forecast", emitter.events.get(0).name());
+			assertEquals("forecast-delta", emitter.events.get(1).name());
+			ForecastDeltaDTO delta = (ForecastDeltaDTO) emitter.events.get(1).data();
+			assertEquals(Map.of(TODAY.plusDays(1), new BigDecimal("115")), delta.getChangedDays());
+		}
+
+		dataVersionTracker.upstreamChanged(UpstreamSource.PAYABLE); // Same values again: nothing to push
+		awaitTrue(() -> refreshes("forecast") == 3);
+		assertEquals(2, first.events.size());
+	}
+
+	@Test
+	void changeDuringAnInFlightComputationIsPushedToSubscribers() throws Exception {
+		ReportStreamHub hub = hub(16);
+		AtomicInteger balance = new AtomicInteger(100);
+		CountDownLatch firstStarted = new CountDownLatch(1);
+		CountDownLatch releaseFirst = new CountDownLatch(1);
+		AtomicInteger calls = new AtomicInteger();
+		when(cashFlowService.getCurrentBalance(any(), any())).thenAnswer(invocation -> {
+			BigDecimal seen = BigDecimal.valueOf(balance.get());
+			if (calls.incrementAndGet() == 1) {
+				firstStarted.countDown();
+				releaseFirst.await(5, TimeUnit.SECONDS); // Still computing when the write commits
+			}
+			return seen;
+		});
+
+		RecordingEmitter emitter = (RecordingEmitter) hub.subscribeBalance(TODAY, BigDecimal.TEN);
+		assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+		balance.set(250);
+		dataVersionTracker.manualEntriesChanged();
+		awaitTrue(() -> calls.get() == 2); // Recomputed instead of joining the stale computation
+		releaseFirst.countDown();
+
+		awaitTrue(() -> !emitter.events.isEmpty()
+				&& ((CashFlowBalanceDTO) emitter.events.get(emitter.events.size() - 1).data()).getBalance().intValue() == 250);
+		Thread.sleep(100); // The stale computation finishing late must not overwrite it
+		CashFlowBalanceDTO last = (CashFlowBalanceDTO) emitter.events.get(emitter.events.size() - 1).data();
+		assertEquals(250, last.getBalance().intValue());
+	}
+
+	@Test
+	void slowSubscriberIsResynchronisedWithTheLatestSnapshot() {
+		ReportStreamHub hub = hub(2);
+		when(cashFlowService.getCashFlowForecast(eq(2), any()))
+				.thenReturn(forecast("1", "1"), forecast("1", "2"), forecast("1", "3"), forecast("1", "4"));
+		sendGate = new CountDownLatch(1); // The client stops reading after the first event
+
+		RecordingEmitter emitter = (RecordingEmitter) hub.subscribeForecast(2, BigDecimal.ONE);
+		awaitTrue(() -> emitter.attempts.get() == 1);
+		for (int i = 2; i <= 4; i++) {
+			int refreshes = i;
+			dataVersionTracker.upstreamChanged(UpstreamSource.PAYABLE);
+			awaitTrue(() -> refreshes("forecast") == refreshes);
+		}
+		awaitTrue(() -> meterRegistry.counter("cashflow.stream.events.dropped", "report", "forecast").count() == 2); // Both buffered deltas
+
+		sendGate.countDown();
+		awaitTrue(() -> emitter.events.size() == 2);
+		assertEquals("forecast", emitter.events.get(1).name()); // Full snapshot instead of a delta without its base
+		assertEquals(new BigDecimal("4"), ((CashFlowForecastDTO) emitter.events.get(1).data()).getDailyProjectedBalance().get(TODAY.plusDays(1)));
+	}
+
+	private ReportStreamHub hub(int bufferSize) {
+		ReportStreamHub hub = new ReportStreamHub(cashFlowService, new ReportCoalescer(meterRegistry, dataVersionTracker),
+				dataVersionTracker, meterRegistry, 100, bufferSize, 60_000, 2, 1) {
+			@Override
+			SseEmitter createEmitter() {
+				return new RecordingEmitter();
+			}
+		};
+		hubRef.set(hub);
+		return hub;
+	}
+
+	private double refreshes(String report) {
+		return meterRegistry.counter("cashflow.stream.refreshes", "report", report).count();
+	}
+
+	private static CashFlowForecastDTO forecast(String... balances) {
+		Map<LocalDate, BigDecimal> daily = new TreeMap<>();
+		for (int i = 0; i < balances.length; i++) {
+			daily.put(TODAY.plusDays(i), new BigDecimal(balances[i]));
+		}
+		return new CashFlowForecastDTO(TODAY, new BigDecimal(balances[0]), daily);
+	}
+
+	private static void awaitTrue(BooleanSupplier condition) {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!condition.getAsBoolean()) {
+			if (System.nanoTime() > deadline) fail("Condition not met within 5 s");
+			try {
+				Thread.sleep(5);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				fail("Interrupted");
+			}
+		}
+	}
+
+	private record Event(String name, Object data) {
+	}
+
+	/**
+	 * Captures pushed events instead of writing them to a response.
+	 * Captura os eventos enviados em vez de escrevê-los em uma resposta.
+	 */
+	private final class RecordingEmitter extends SseEmitter {
+		final List<Event> events = new CopyOnWriteArrayList<>();
+		final AtomicInteger attempts = new AtomicInteger();
+
+		@Override
+		public void send(SseEventBuilder builder) {
+			attempts.incrementAndGet();
+			try {
+				sendGate.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			String name = null;
+			Object data = null;
+			for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+				if (part.getData() instanceof String text && text.contains("event:")) {
+					name = text.substring(text.indexOf("event:") + 6).lines().findFirst().orElse(null);
+				} else if (!(part.getData() instanceof String)) {
+					data = part.getData();
+				}
+			}
+			if (name != null) {
+				events.add(new Event(name, data));
+			}
+		}
+	}
+}
@@ -0,0 +1,91 @@
+package com.bufalari.cashflow.service;
+
+import com.bufalari.cashflow.exception.DeadlineExceededException;
+import com.bufalari.cashflow.util.RequestDeadline;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestDeadlineTest {
+
+	private final UpstreamFetchPlanner planner = new UpstreamFetchPlanner(62, 4, 4);
+
+	@AfterEach
+	void shutdown() {
+		planner.shutdown();
+	}
+
+	@Test
+	void abandonsSlowUpstreamChunksWhenTheDeadlinePasses() {
+		RequestDeadline deadline = RequestDeadline.after(Duration.ofMillis(200));
+		AtomicInteger chunksUnderDeadline = new AtomicInteger();
+		long start = System.nanoTime();
+		try (RequestDeadline.Scope ignored = deadline.bind()) {
+			assertThrows(DeadlineExceededException.class, () -> planner.fetchAll("slow payables",
+					LocalDate.of(2024, 1, 1), LocalDate.of(2024, 6, 30), (from, to) -> {
+						if (RequestDeadline.current() == deadline) {
+							chunksUnderDeadline.incrementAndGet(); // Pool threads see the request's deadline
+						}
+						sleep(5_000);
+						return List.of();
+					}));
+		}
+		assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2_000, "Should stop waiting at the deadline");
+		assertTrue(chunksUnderDeadline.get() > 0);
+		assertNull(RequestDeadline.current()); // Unbound again after the scope
+	}
+
+	@Test
+	void followerWithTimeLeftRecomputesWhenTheLeaderRunsOutOfTime() throws Exception {
+		ReportCoalescer coalescer = new ReportCoalescer(new SimpleMeterRegistry(), new DataVersionTracker(event -> { }));
+		CountDownLatch leaderStarted = new CountDownLatch(1);
+		ExecutorService threads = Executors.newFixedThreadPool(2);
+		try {
+			Future<String> leader = threads.submit(() -> {
+				try (RequestDeadline.Scope ignored = RequestDeadline.after(Duration.ofMillis(100)).bind()) {
+					return coalescer.execute("statement", () -> {
+						leaderStarted.countDown();
+						sleep(300);
+						RequestDeadline.checkpoint();
+						return "leader";
+					}, "same");
+				}
+			});
+			leaderStarted.await();
+			Future<String> follower = threads.submit(() -> {
+				try (RequestDeadline.Scope ignored = RequestDeadline.after(Duration.ofSeconds(10)).bind()) {
+					return coalescer.execute("statement", () -> "follower", "same");
+				}
+			});
+			assertEquals("follower", follower.get(5, TimeUnit.SECONDS));
+			Exception leaderFailure = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+			assertSame(DeadlineExceededException.class, leaderFailure.getCause().getClass());
+		} finally {
+			threads.shutdownNow();
+		}
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,94 @@
+package com.bufalari.cashflow.service;
+
+import com.bufalari.cashflow.dto.ForecastScenarioDTO;
+import com.bufalari.cashflow.dto.ScenarioForecastDTO;
+import com.bufalari.cashflow.dto.ScenarioRuleDTO;
+import com.bufalari.cashflow.enums.PayableStatus;
+import com.bufalari.cashflow.enums.ReceivableStatus;
+import com.bufalari.cashflow.enums.ScenarioRuleType;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScenarioForecastServiceTest {
+
+	private static final ValidatorFactory VALIDATORS = Validation.buildDefaultValidatorFactory();
+	private static final LocalDate START = LocalDate.of(2024, 1, 1);
+
+	private final ScenarioForecastService service = new ScenarioForecastService(null); // evaluate() only reads the snapshot
+	private final Validator validator = VALIDATORS.getValidator();
+
+	@AfterAll
+	static void closeValidators() {
+		VALIDATORS.close();
+	}
+
+	@Test
+	void appliesDelaysWriteOffsAndPayableScaling() {
+		ForecastSnapshot snapshot = new ForecastSnapshot(START, START.plusDays(9),
+				List.of(new ForecastSnapshot.ExpectedReceipt(UUID.randomUUID(), START.plusDays(2), new BigDecimal("100.00"), ReceivableStatus.PENDING)),
+				List.of(new ForecastSnapshot.ExpectedPayment(UUID.randomUUID(), START.plusDays(1), new BigDecimal("40.00"), PayableStatus.PENDING)),
+				List.of());
+
+		ScenarioForecastDTO baseline = service.evaluate(snapshot, scenario(), BigDecimal.ZERO);
+		assertEquals(new BigDecimal("60.00"), baseline.getClosingBalance());
+		assertEquals(new BigDecimal("-40.00"), baseline.getMinimumBalance());
+
+		ScenarioForecastDTO delayed = service.evaluate(snapshot, scenario(rule(ScenarioRuleType.DELAY_RECEIVABLES, "3")), BigDecimal.ZERO);
+		assertEquals(new BigDecimal("-40.00"), delayed.getDailyProjectedBalance().get(START.plusDays(4)));
+		assertEquals(new BigDecimal("60.00"), delayed.getDailyProjectedBalance().get(START.plusDays(5)));
+
+		ScenarioForecastDTO pastWindow = service.evaluate(snapshot, scenario(rule(ScenarioRuleType.DELAY_RECEIVABLES, "30")), BigDecimal.ZERO);
+		assertEquals(new BigDecimal("-40.00"), pastWindow.getClosingBalance()); // Not collected within the window
+
+		ScenarioForecastDTO adjusted = service.evaluate(snapshot, scenario(rule(ScenarioRuleType.WRITE_OFF_RECEIVABLES, "25"),
+				rule(ScenarioRuleType.SCALE_PAYABLES, "-50")), BigDecimal.ZERO);
+		assertEquals(new BigDecimal("55.00"), adjusted.getClosingBalance()); // 75.00 - 20.00
+	}
+
+	@Test
+	void rejectsRuleValuesOutsideTheRangeOfTheirType() {
+		assertTrue(valid(ScenarioRuleType.DELAY_PAYABLES, "15"));
+		assertTrue(valid(ScenarioRuleType.DELAY_PAYABLES, "15.0"));
+		assertFalse(valid(ScenarioRuleType.DELAY_PAYABLES, "-1"));
+		assertFalse(valid(ScenarioRuleType.DELAY_RECEIVABLES, "1.5"));
+		assertFalse(valid(ScenarioRuleType.DELAY_RECEIVABLES, "731"));
+		assertTrue(valid(ScenarioRuleType.WRITE_OFF_RECEIVABLES, "100"));
+		assertFalse(valid(ScenarioRuleType.WRITE_OFF_RECEIVABLES, "100.01"));
+		assertFalse(valid(ScenarioRuleType.WRITE_OFF_RECEIVABLES, "-5"));
+		assertTrue(valid(ScenarioRuleType.SCALE_PAYABLES, "-100"));
+		assertFalse(valid(ScenarioRuleType.SCALE_PAYABLES, "-101"));
+		assertFalse(valid(ScenarioRuleType.SCALE_PAYABLES, "150"));
+	}
+
+	@Test
+	void fractionalDaysAreNeverTruncated() {
+		ForecastSnapshot snapshot = new ForecastSnapshot(START, START, List.of(), List.of(), List.of());
+		assertThrows(ArithmeticException.class,
+				() -> service.evaluate(snapshot, scenario(rule(ScenarioRuleType.DELAY_PAYABLES, "2.5")), BigDecimal.ZERO));
+	}
+
+	private boolean valid(ScenarioRuleType type, String value) {
+		return validator.validate(rule(type, value)).isEmpty();
+	}
+
+	private static ScenarioRuleDTO rule(ScenarioRuleType type, String value) {
+		return new ScenarioRuleDTO(type, new BigDecimal(value));
+	}
+
+	private static ForecastScenarioDTO scenario(ScenarioRuleDTO... rules) {
+		return new ForecastScenarioDTO("test", List.of(rules));
+	}
+}
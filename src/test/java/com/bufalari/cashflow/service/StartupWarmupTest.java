@@ -0,0 +1,32 @@
+package com.bufalari.cashflow.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class StartupWarmupTest {
+
+	@Autowired
+	private StartupWarmup startupWarmup;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	void warmsUpBeforeTheContextIsReady() {
+		assertTrue(startupWarmup.isFinished());
+		assertEquals(Status.UP, startupWarmup.health().getStatus());
+		assertEquals(20, meterRegistry.get("cashflow.warmup.iteration").tag("report", "statement").timer().count());
+		assertEquals(20, meterRegistry.get("cashflow.warmup.iteration").tag("report", "statement-totals").timer().count());
+		assertEquals(20, meterRegistry.get("cashflow.warmup.iteration").tag("report", "forecast").timer().count());
+		assertEquals(1, meterRegistry.get("cashflow.warmup.duration").tag("phase", "connections").timer().count());
+	}
+}
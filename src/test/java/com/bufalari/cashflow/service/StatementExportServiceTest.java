@@ -0,0 +1,51 @@
+package com.bufalari.cashflow.service;
+
+import com.bufalari.cashflow.dto.CashFlowItemDTO;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StatementExportServiceTest {
+
+	private final StatementExportService exportService = new StatementExportService(null, 10);
+
+	private final List<CashFlowItemDTO> items = List.of(
+			new CashFlowItemDTO(LocalDate.of(2024, 5, 1), "Invoice, \"May\"", new BigDecimal("100.00"), "RECEIVABLE", null),
+			new CashFlowItemDTO(LocalDate.of(2024, 5, 2), "=HYPERLINK(\"x\")", new BigDecimal("30.50"), "MANUAL_DEBIT", null));
+
+	@Test
+	void writesCsvWithRunningBalanceAndEscapedText() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		exportService.writeCsv(items.iterator(), new BigDecimal("10.00"), out);
+
+		String[] lines = out.toString(StandardCharsets.UTF_8).substring(1).split("\r\n");
+		assertEquals("Date,Type,Description,Related ID,Inflow,Outflow,Balance", lines[0]);
+		assertEquals(",OPENING_BALANCE,,,,,10.00", lines[1]);
+		assertEquals("2024-05-01,RECEIVABLE,\"Invoice, \"\"May\"\"\",,100.00,,110.00", lines[2]);
+		assertEquals("2024-05-02,MANUAL_DEBIT,\"'=HYPERLINK(\"\"x\"\")\",,,30.50,79.50", lines[3]);
+		assertEquals(",CLOSING_BALANCE,,,,,79.50", lines[4]);
+	}
+
+	@Test
+	void writesReadableXlsx() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		exportService.writeXlsx(items.iterator(), new BigDecimal("10.00"), out);
+
+		try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+			Sheet sheet = workbook.getSheetAt(0);
+			assertEquals(4, sheet.getLastRowNum());
+			assertEquals("RECEIVABLE", sheet.getRow(2).getCell(1).getStringCellValue());
+			assertEquals(30.5, sheet.getRow(3).getCell(5).getNumericCellValue(), 1e-9);
+			assertEquals(79.5, sheet.getRow(4).getCell(6).getNumericCellValue(), 1e-9);
+		}
+	}
+}
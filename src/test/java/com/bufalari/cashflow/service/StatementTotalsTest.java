@@ -0,0 +1,59 @@
+package com.bufalari.cashflow.service;
+
+import com.bufalari.cashflow.dto.CashFlowItemDTO;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StatementTotalsTest {
+
+	@Test
+	void matchesBigDecimalReductionForLargeStatements() {
+		SplittableRandom random = new SplittableRandom(42);
+		List<CashFlowItemDTO> receivables = items(random, StatementTotals.PARALLEL_THRESHOLD, "RECEIVABLE");
+		List<CashFlowItemDTO> payables = items(random, StatementTotals.CHUNK_SIZE * 3 + 7, "PAYABLE");
+		List<CashFlowItemDTO> manualDebits = items(random, 100, "MANUAL_DEBIT");
+		manualDebits.add(item(new BigDecimal("0.123456"), "MANUAL_DEBIT")); // More decimals than the accumulator
+		manualDebits.add(item(new BigDecimal("9000000000000000000"), "MANUAL_DEBIT")); // Past the long range
+
+		StatementTotals totals = StatementTotals.of(new StatementItemSources(receivables, List.of(), payables, manualDebits));
+
+		assertEquals(sum(receivables), totals.totalInflows());
+		List<CashFlowItemDTO> outflows = new ArrayList<>(payables);
+		outflows.addAll(manualDebits);
+		assertEquals(sum(outflows), totals.totalOutflows());
+		assertEquals(6, totals.totalOutflows().scale());
+	}
+
+	@Test
+	void keepsTheScaleOfTheAmountsAndZeroForNoItems() {
+		StatementTotals totals = StatementTotals.of(new StatementItemSources(
+				List.of(item(new BigDecimal("10.50"), "RECEIVABLE")), List.of(item(new BigDecimal("2.5"), "MANUAL_CREDIT")),
+				List.of(), List.of()));
+
+		assertEquals("13.00", totals.totalInflows().toPlainString());
+		assertEquals(BigDecimal.ZERO, totals.totalOutflows());
+	}
+
+	private static List<CashFlowItemDTO> items(SplittableRandom random, int count, String type) {
+		List<CashFlowItemDTO> items = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			items.add(item(BigDecimal.valueOf(random.nextLong(1, 100_000_000), 2), type));
+		}
+		return items;
+	}
+
+	private static CashFlowItemDTO item(BigDecimal amount, String type) {
+		return new CashFlowItemDTO(LocalDate.of(2024, 1, 1), type, amount, type, null);
+	}
+
+	private static BigDecimal sum(List<CashFlowItemDTO> items) {
+		return items.stream().map(CashFlowItemDTO::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+	}
+}
@@ -0,0 +1,94 @@
+package com.bufalari.cashflow.service;
+
+import com.bufalari.cashflow.util.RequestDeadline;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Six monthly chunks through a window of two; earlier months answer slower so chunks complete out of order.
+ * Seis blocos mensais por uma janela de dois; os meses anteriores respondem mais devagar, então os blocos terminam fora
+ * de ordem.
+ */
+class UpstreamFetchPlannerTest {
+
+	private static final LocalDate START = LocalDate.of(2024, 1, 1);
+	private static final LocalDate END = LocalDate.of(2024, 6, 30);
+
+	private final UpstreamFetchPlanner planner = new UpstreamFetchPlanner(62, 2, 8);
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final AtomicInteger maxInFlight = new AtomicInteger();
+	private final Set<Integer> requested = ConcurrentHashMap.newKeySet();
+
+	@AfterEach
+	void shutdown() {
+		planner.shutdown();
+	}
+
+	@Test
+	void deliversChunksInDateOrderWithinTheWindowUnderTheCallersDeadline() {
+		RequestDeadline deadline = RequestDeadline.after(Duration.ofSeconds(30));
+		Set<String> threads = ConcurrentHashMap.newKeySet();
+		AtomicInteger withoutDeadline = new AtomicInteger();
+		List<Integer> delivered = new ArrayList<>();
+
+		try (RequestDeadline.Scope ignored = deadline.bind()) {
+			planner.fetchInChunks("payables", START, END, (from, to) -> {
+				threads.add(Thread.currentThread().getName());
+				if (RequestDeadline.current() != deadline) withoutDeadline.incrementAndGet();
+				return fetch(from, to);
+			}, chunk -> {
+				assertEquals(1, chunk.size());
+				delivered.add(chunk.get(0));
+			});
+		}
+
+		assertEquals(List.of(1, 2, 3, 4, 5, 6), delivered);
+		assertEquals(2, maxInFlight.get()); // Concurrent, but never more than the window
+		assertEquals(0, withoutDeadline.get());
+		assertTrue(threads.stream().allMatch(name -> name.startsWith("upstream-fetch-")), threads::toString);
+	}
+
+	@Test
+	void rethrowsAChunkFailureAfterDeliveringTheChunksBeforeIt() {
+		IllegalStateException failure = new IllegalStateException("AP unavailable");
+		List<Integer> delivered = new ArrayList<>();
+
+		IllegalStateException thrown = assertThrows(IllegalStateException.class, () -> planner.fetchInChunks("payables", START, END,
+				(from, to) -> {
+					if (from.getMonthValue() == 3) throw failure;
+					return fetch(from, to);
+				}, chunk -> delivered.add(chunk.get(0))));
+
+		assertSame(failure, thrown);
+		assertEquals(List.of(1, 2), delivered);
+		assertTrue(requested.stream().allMatch(month -> month <= 4), requested::toString); // Nothing past the window
+	}
+
+	private List<Integer> fetch(LocalDate from, LocalDate to) {
+		assertEquals(from.getMonth(), to.getMonth());
+		requested.add(from.getMonthValue());
+		int running = inFlight.incrementAndGet();
+		maxInFlight.accumulateAndGet(running, Math::max);
+		try {
+			Thread.sleep((7 - from.getMonthValue()) * 20L); // January slowest, June fastest
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			inFlight.decrementAndGet();
+		}
+		return List.of(from.getMonthValue());
+	}
+}
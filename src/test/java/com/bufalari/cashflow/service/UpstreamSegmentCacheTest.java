@@ -0,0 +1,100 @@
+package com.bufalari.cashflow.service;
+
+import com.bufalari.cashflow.enums.UpstreamSource;
+import com.bufalari.cashflow.event.CashFlowDataChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UpstreamSegmentCacheTest {
+
+	private final UpstreamFetchPlanner planner = new UpstreamFetchPlanner(62, 4, 4);
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final UpstreamSegmentCache cache = new UpstreamSegmentCache(planner, meterRegistry, true, 10_000, 300, 5);
+	private final List<LocalDate[]> fetched = new CopyOnWriteArrayList<>();
+	private final BiFunction<LocalDate, LocalDate, List<LocalDate>> everyFifthDay = (start, end) -> {
+		fetched.add(new LocalDate[]{start, end});
+		List<LocalDate> days = new ArrayList<>();
+		for (LocalDate day = start; !day.isAfter(end); day = day.plusDays(5)) {
+			days.add(day);
+		}
+		return days;
+	};
+
+	@AfterEach
+	void shutdown() {
+		planner.shutdown();
+	}
+
+	@Test
+	void fetchesOnlyMissingMonthsAndTrimsTheEdgeMonths() {
+		List<LocalDate> first = read(LocalDate.of(2023, 1, 15), LocalDate.of(2023, 3, 10));
+		assertEquals(3, fetched.size());
+		fetched.sort(Comparator.comparing(range -> range[0])); // Months are fetched in parallel, in any order
+		assertEquals(LocalDate.of(2023, 1, 1), fetched.get(0)[0]); // Whole months are fetched and cached
+		assertEquals(LocalDate.of(2023, 3, 31), fetched.get(2)[1]);
+		assertEquals(LocalDate.of(2023, 1, 16), first.get(0));
+		assertEquals(LocalDate.of(2023, 3, 6), first.get(first.size() - 1));
+
+		fetched.clear();
+		List<LocalDate> second = read(LocalDate.of(2023, 2, 1), LocalDate.of(2023, 4, 5));
+		assertEquals(1, fetched.size()); // Only April was missing
+		assertEquals(LocalDate.of(2023, 4, 1), fetched.get(0)[0]);
+		assertEquals(LocalDate.of(2023, 2, 1), second.get(0));
+		assertTrue(second.stream().allMatch(day -> !day.isAfter(LocalDate.of(2023, 4, 5))));
+		assertEquals(2, requests("hit"));
+		assertEquals(4, requests("miss"));
+	}
+
+	@Test
+	void changeNotificationsDropOnlyTheirSourceSegments() {
+		read(LocalDate.of(2023, 1, 1), LocalDate.of(2023, 1, 31));
+		cache.onDataChanged(new CashFlowDataChangedEvent(this, 2, null)); // Manual entries are not cached here
+		cache.onDataChanged(new CashFlowDataChangedEvent(this, 3, UpstreamSource.RECEIVABLE));
+		read(LocalDate.of(2023, 1, 1), LocalDate.of(2023, 1, 31));
+		assertEquals(1, fetched.size());
+
+		cache.onDataChanged(new CashFlowDataChangedEvent(this, 4, UpstreamSource.PAYABLE));
+		read(LocalDate.of(2023, 1, 1), LocalDate.of(2023, 1, 31));
+		assertEquals(2, fetched.size());
+	}
+
+	@Test
+	void doesNotCacheAMonthFetchedAcrossAChange() {
+		BiFunction<LocalDate, LocalDate, List<LocalDate>> changedMidFetch = (start, end) -> {
+			List<LocalDate> stale = everyFifthDay.apply(start, end);
+			cache.onDataChanged(new CashFlowDataChangedEvent(this, 2, UpstreamSource.PAYABLE)); // Arrives before the put
+			return stale;
+		};
+		List<LocalDate> delivered = new ArrayList<>();
+		cache.fetchRange(UpstreamSource.PAYABLE, LocalDate.of(2023, 1, 1), LocalDate.of(2023, 1, 31), changedMidFetch,
+				Function.identity(), delivered::addAll);
+		assertEquals(7, delivered.size()); // The request that started before the change still gets its data
+
+		read(LocalDate.of(2023, 1, 1), LocalDate.of(2023, 1, 31));
+		assertEquals(2, fetched.size()); // Refetched instead of served stale
+		assertEquals(2, requests("miss"));
+	}
+
+	private List<LocalDate> read(LocalDate startDate, LocalDate endDate) {
+		List<LocalDate> delivered = new ArrayList<>();
+		cache.fetchRange(UpstreamSource.PAYABLE, startDate, endDate, everyFifthDay, Function.identity(), delivered::addAll);
+		return delivered;
+	}
+
+	private double requests(String result) {
+		return meterRegistry.get("cashflow.upstream.segment_cache.requests").tag("result", result).counter().count();
+	}
+}
@@ -0,0 +1,124 @@
+package com.bufalari.cashflow.service;
+
+import com.bufalari.cashflow.dto.PayableSummaryDTO;
+import com.bufalari.cashflow.enums.UpstreamSource;
+import com.bufalari.cashflow.repository.SyncWatermarkRepository;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UpstreamSyncServiceTest {
+
+	private static final String KEPT_ID = "11111111-1111-1111-1111-111111111111";
+	private static final String DELETED_ID = "22222222-2222-2222-2222-222222222222";
+	private static final String NO_STATUS_ID = "33333333-3333-3333-3333-333333333333";
+
+	private static final List<String> payableSinceParams = new CopyOnWriteArrayList<>();
+	private static final HttpServer upstream = startStubUpstream();
+
+	@Autowired
+	private UpstreamSyncService upstreamSyncService;
+
+	@Autowired
+	private SyncWatermarkRepository syncWatermarkRepository;
+
+	@DynamicPropertySource
+	static void upstreamProperties(DynamicPropertyRegistry registry) {
+		String url = "http://localhost:" + upstream.getAddress().getPort();
+		registry.add("payable.service.url", () -> url);
+		registry.add("receivable.service.url", () -> url);
+		registry.add("cashflow.sync.enabled", () -> "true");
+		registry.add("cashflow.sync.initial-delay-ms", () -> "3600000"); // The test drives the sync itself
+	}
+
+	@AfterAll
+	static void stopUpstream() {
+		upstream.stop(0);
+	}
+
+	@Test
+	void appliesDeltasAndResumesFromThePersistedWatermark() {
+		// Initial pass: page 1 upserts three payables, page 2 deletes one of them
+		assertEquals(4, upstreamSyncService.syncSource(UpstreamSource.PAYABLE));
+		assertEquals("p2", syncWatermarkRepository.findById(UpstreamSource.PAYABLE).orElseThrow().getWatermark());
+		assertTrue(upstreamSyncService.isLocalCopyReady(UpstreamSource.PAYABLE));
+
+		List<PayableSummaryDTO> paid = upstreamSyncService.paidPayables(LocalDate.of(2024, 5, 1), LocalDate.of(2024, 5, 31));
+		assertEquals(1, paid.size());
+		assertEquals(KEPT_ID, paid.get(0).getId().toString());
+
+		// A record without a status is still open (NOT IN alone would drop it)
+		List<PayableSummaryDTO> pending = upstreamSyncService.pendingPayables(LocalDate.of(2024, 5, 1), LocalDate.of(2024, 6, 30));
+		assertEquals(List.of(NO_STATUS_ID), pending.stream().map(p -> p.getId().toString()).toList());
+
+		// Next run only asks for changes after the stored watermark
+		assertEquals(0, upstreamSyncService.syncSource(UpstreamSource.PAYABLE));
+		assertEquals(List.of("", "p1", "p2"), payableSinceParams);
+	}
+
+	private static HttpServer startStubUpstream() {
+		try {
+			HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+			server.createContext("/api/payables/changes", exchange -> {
+				String since = queryParam(exchange, "since");
+				payableSinceParams.add(since);
+				switch (since) {
+					case "" -> respond(exchange, """
+							{"changed": [
+							  {"id": "%s", "dueDate": "2024-05-10", "amountDue": 100.00, "amountPaid": 100.00, "status": "PAID", "paymentDate": "2024-05-09"},
+							  {"id": "%s", "dueDate": "2024-05-20", "amountDue": 50.00, "amountPaid": 50.00, "status": "PAID", "paymentDate": "2024-05-19"},
+							  {"id": "%s", "dueDate": "2024-06-05", "amountDue": 75.00, "amountPaid": 0}
+							 ], "deletedIds": [], "nextWatermark": "p1", "hasMore": true}""".formatted(KEPT_ID, DELETED_ID, NO_STATUS_ID));
+					case "p1" -> respond(exchange, """
+							{"changed": [], "deletedIds": ["%s"], "nextWatermark": "p2", "hasMore": false}""".formatted(DELETED_ID));
+					default -> respond(exchange, """
+							{"changed": [], "deletedIds": [], "nextWatermark": "%s", "hasMore": false}""".formatted(since));
+				}
+			});
+			server.createContext("/api/receivables/changes", exchange -> respond(exchange, """
+					{"changed": [], "deletedIds": [], "nextWatermark": "r0", "hasMore": false}"""));
+			server.start();
+			return server;
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static String queryParam(HttpExchange exchange, String name) {
+		String query = exchange.getRequestURI().getQuery();
+		if (query != null) {
+			for (String pair : query.split("&")) {
+				if (pair.startsWith(name + "=")) return pair.substring(name.length() + 1);
+			}
+		}
+		return "";
+	}
+
+	private static void respond(HttpExchange exchange, String json) throws IOException {
+		byte[] body = json.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(200, body.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(body);
+		}
+	}
+}
@@ -0,0 +1,36 @@
+package com.bufalari.cashflow.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SortedMergeIteratorTest {
+
+	@Test
+	void mergesSortedSourcesStably() {
+		Comparator<String> byFirstChar = Comparator.comparing(s -> s.charAt(0));
+		Iterator<String> merged = SortedMergeIterator.merge(byFirstChar,
+				List.of("a1", "c1", "e1").iterator(),
+				List.<String>of().iterator(),
+				List.of("a2", "b2", "e2").iterator());
+
+		List<String> result = new ArrayList<>();
+		merged.forEachRemaining(result::add);
+
+		assertEquals(List.of("a1", "a2", "b2", "c1", "e1", "e2"), result);
+	}
+
+	@Test
+	void ensureSortedFixesOnlyUnsortedSources() {
+		List<Integer> sorted = new ArrayList<>(List.of(1, 2, 2, 5));
+		List<Integer> unsorted = new ArrayList<>(List.of(3, 1, 2));
+
+		assertEquals(List.of(1, 2, 2, 5), SortedMergeIterator.ensureSorted(sorted, Comparator.naturalOrder(), "sorted"));
+		assertEquals(List.of(1, 2, 3), SortedMergeIterator.ensureSorted(unsorted, Comparator.naturalOrder(), "unsorted"));
+	}
+}